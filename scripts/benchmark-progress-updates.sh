@@ -0,0 +1,85 @@
+#!/bin/bash
+
+###############################################################################
+# Load test: reading progress updates (PUT /api/books/{id}/progress)
+#
+# Simulates readers turning pages and reports request throughput together with
+# the number of row updates Postgres actually performed on the books table, which
+# shows how many page turns the write-behind buffer coalesced.
+#
+# What it does:
+# 1. Logs in and picks up to $READERS books from GET /api/books
+# 2. Sends $REQUESTS progress updates spread over those books, $CONCURRENCY at a time
+# 3. Waits for the buffer to flush, then prints requests/second, latency and
+#    the books row-update count (pg_stat_user_tables.n_tup_upd delta)
+#
+# Usage: ./scripts/benchmark-progress-updates.sh [base-url] [database] [db-user]
+# Requires curl, jq and psql; BOOKSHELF_USER / BOOKSHELF_PASSWORD for the login.
+# Progress of the chosen books is overwritten, so run it against a scratch library.
+###############################################################################
+
+set -e  # Exit on error
+
+BASE_URL="${1:-http://localhost:8080}"
+DB_NAME="${2:-bookshelf}"
+DB_USER="${3:-postgres}"
+READERS="${READERS:-20}"
+REQUESTS="${REQUESTS:-5000}"
+CONCURRENCY="${CONCURRENCY:-32}"
+FLUSH_WAIT_SECONDS="${FLUSH_WAIT_SECONDS:-5}"
+
+PSQL="psql -U $DB_USER -d $DB_NAME -q -t -A"
+
+TOKEN=$(curl -sf -X POST "$BASE_URL/api/auth/login" -H 'Content-Type: application/json' \
+    -d "{\"username\":\"${BOOKSHELF_USER:-admin}\",\"password\":\"${BOOKSHELF_PASSWORD:-admin}\"}" \
+    | jq -r '.accessToken')
+
+BOOK_IDS=$(curl -sf "$BASE_URL/api/books?size=$READERS" -H "Authorization: Bearer $TOKEN" \
+    | jq -r '.content[].id')
+BOOK_COUNT=$(echo "$BOOK_IDS" | grep -c . || true)
+if [ "$BOOK_COUNT" -eq 0 ]; then
+    echo "No books found; upload some books first" >&2
+    exit 1
+fi
+
+updates_done() {
+    $PSQL -c "SELECT pg_stat_force_next_flush()" > /dev/null 2>&1 || true
+    $PSQL -c "SELECT n_tup_upd FROM pg_stat_user_tables WHERE relname = 'books'"
+}
+
+# One line per request: "<book id> <page>", cycling through the books
+requests() {
+    local i=0
+    while [ $i -lt "$REQUESTS" ]; do
+        for id in $BOOK_IDS; do
+            [ $i -ge "$REQUESTS" ] && break
+            echo "$id $((1 + i / BOOK_COUNT))"
+            i=$((i + 1))
+        done
+    done
+}
+
+send() {
+    curl -s -o /dev/null -w '%{http_code} %{time_total}\n' -X PUT "$BASE_URL/api/books/$1/progress" \
+        -H "Authorization: Bearer $TOKEN" -H 'Content-Type: application/json' \
+        -d "{\"currentPage\":$2}"
+}
+export -f send
+export BASE_URL TOKEN
+
+before=$(updates_done)
+start=$(date +%s.%N)
+results=$(requests | xargs -P "$CONCURRENCY" -n 2 bash -c 'send "$0" "$1"')
+end=$(date +%s.%N)
+sleep "$FLUSH_WAIT_SECONDS"
+after=$(updates_done)
+
+elapsed=$(echo "$end - $start" | bc)
+errors=$(echo "$results" | awk '$1 != 200' | wc -l)
+
+echo "books:            $BOOK_COUNT"
+echo "requests:         $REQUESTS (concurrency $CONCURRENCY, non-200: $errors)"
+echo "throughput:       $(echo "scale=1; $REQUESTS / $elapsed" | bc) req/s"
+echo "$results" | awk '{print $2 * 1000}' | sort -n | awk '
+    {a[NR]=$1} END {printf "latency p50/p99:  %.1f / %.1f ms\n", a[int(NR*0.5)+1], a[int(NR*0.99)]}'
+echo "books row updates: $((after - before))"
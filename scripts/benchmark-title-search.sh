@@ -0,0 +1,91 @@
+#!/bin/bash
+
+###############################################################################
+# Benchmark: library title/author search with and without trigram indexes
+#
+# Compares the leading-wildcard LIKE search used by GET /api/books?search=
+# against the same predicate served by pg_trgm GIN indexes (V7 migration),
+# plus the similarity-ranked variant used by sortBy=relevance.
+#
+# What it does:
+# 1. Creates a scratch table bench_books in the given database
+# 2. For each size (10k, 100k, 1M rows):
+#    - Fills the table with generated titles/authors
+#    - Times the LIKE query as a sequential scan (no index)
+#    - Creates the trigram indexes and times the LIKE and ranked queries again
+# 3. Drops the scratch table
+#
+# Usage: ./scripts/benchmark-title-search.sh [database] [user]
+# Run against a scratch database; the books table is never touched.
+###############################################################################
+
+set -e  # Exit on error
+
+DB_NAME="${1:-bookshelf_bench}"
+DB_USER="${2:-postgres}"
+SIZES="10000 100000 1000000"
+TERM="${SEARCH_TERM:-drag}"
+RUNS=5
+
+PSQL="psql -U $DB_USER -d $DB_NAME -v ON_ERROR_STOP=1 -q -t -A"
+
+# Median execution time (ms) of a query over $RUNS runs, taken from EXPLAIN ANALYZE
+time_query() {
+    local sql="$1"
+    for _ in $(seq $RUNS); do
+        $PSQL -c "EXPLAIN (ANALYZE, FORMAT JSON) $sql" \
+            | grep -o '"Execution Time": [0-9.]*' | awk '{print $3}'
+    done | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}'
+}
+
+LIKE_SQL="SELECT id FROM bench_books
+          WHERE lower(title) LIKE '%' || lower('$TERM') || '%'
+             OR lower(author) LIKE '%' || lower('$TERM') || '%'
+          ORDER BY date_added DESC LIMIT 20"
+
+RANKED_SQL="SELECT id FROM bench_books
+            WHERE lower(title) LIKE '%' || lower('$TERM') || '%'
+               OR lower(author) LIKE '%' || lower('$TERM') || '%'
+            ORDER BY GREATEST(similarity(lower(title), lower('$TERM')),
+                              similarity(lower(COALESCE(author, '')), lower('$TERM'))) DESC, id
+            LIMIT 20"
+
+$PSQL -c "CREATE EXTENSION IF NOT EXISTS pg_trgm"
+
+printf "%-10s %18s %18s %18s\n" "rows" "like_seqscan_ms" "like_trgm_ms" "ranked_trgm_ms"
+
+for size in $SIZES; do
+    $PSQL <<SQL
+DROP TABLE IF EXISTS bench_books;
+CREATE TABLE bench_books (
+    id UUID PRIMARY KEY,
+    title VARCHAR(500) NOT NULL,
+    author VARCHAR(500),
+    date_added TIMESTAMP
+);
+-- Word-like random titles so trigram selectivity resembles a real library
+INSERT INTO bench_books
+SELECT md5(i::text)::uuid,
+       initcap(substr(md5(i::text), 1, 6)) || ' ' || (ARRAY['Dragon','River','Night','Empire','Garden','Winter'])[1 + i % 6]
+           || ' ' || initcap(substr(md5((i * 7)::text), 1, 8)),
+       initcap(substr(md5((i * 13)::text), 1, 7)) || ' ' || initcap(substr(md5((i * 17)::text), 1, 9)),
+       now() - (i || ' minutes')::interval
+FROM generate_series(1, $size) AS i;
+ANALYZE bench_books;
+SQL
+
+    seq_ms=$(time_query "$LIKE_SQL")
+
+    $PSQL <<SQL
+CREATE INDEX bench_books_title_trgm ON bench_books USING GIN (lower(title) gin_trgm_ops);
+CREATE INDEX bench_books_author_trgm ON bench_books USING GIN (lower(author) gin_trgm_ops);
+ANALYZE bench_books;
+SQL
+
+    trgm_ms=$(time_query "$LIKE_SQL")
+    ranked_ms=$(time_query "$RANKED_SQL")
+
+    printf "%-10s %18s %18s %18s\n" "$size" "$seq_ms" "$trgm_ms" "$ranked_ms"
+done
+
+$PSQL -c "DROP TABLE IF EXISTS bench_books"
@@ -0,0 +1,105 @@
+package com.bookshelf.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generated book PDFs for benchmarks: a full-page cover image on the first page, then pages
+ * of prose, headings, captions and code listings taken from the speech-text page fixtures.
+ * The same page count always produces the same file.
+ */
+final class BenchmarkCorpus {
+
+    private static final int LINES_PER_PAGE = 46;
+    private static final float FONT_SIZE = 10;
+    private static final float LEADING = 14;
+    private static final float MARGIN = 56;
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * Write a book of the given page count (cover included) to the directory
+     */
+    static Path write(Path directory, int pageCount) throws IOException {
+        Files.createDirectories(directory);
+        Path pdf = directory.resolve("book-" + pageCount + ".pdf");
+        List<String> lines = fixtureLines();
+
+        try (PDDocument document = new PDDocument()) {
+            PDDocumentInformation info = new PDDocumentInformation();
+            info.setTitle("Benchmark Book (" + pageCount + " pages)");
+            info.setAuthor("Bookshelf");
+            document.setDocumentInformation(info);
+
+            addCover(document);
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            int line = 0;
+            for (int i = 1; i < pageCount; i++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, FONT_SIZE);
+                    content.setLeading(LEADING);
+                    content.newLineAtOffset(MARGIN, PDRectangle.A4.getHeight() - MARGIN);
+                    for (int j = 0; j < LINES_PER_PAGE; j++) {
+                        content.showText(lines.get(line++ % lines.size()));
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(pdf.toFile());
+        }
+        return pdf;
+    }
+
+    // A scanned-looking cover: a large photo-like image, which is what thumbnail rendering pays for
+    private static void addCover(PDDocument document) throws IOException {
+        BufferedImage image = new BufferedImage(1654, 2339, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(32, 64, 128), 1654, 2339, new Color(230, 180, 90)));
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        for (int i = 0; i < 40; i++) {
+            g.setColor(new Color((i * 53) % 256, (i * 97) % 256, (i * 29) % 256, 96));
+            g.fillOval((i * 131) % 1400, (i * 211) % 2100, 120 + i * 7, 120 + i * 5);
+        }
+        g.dispose();
+
+        PDPage cover = new PDPage(PDRectangle.A4);
+        document.addPage(cover);
+        PDImageXObject xObject = JPEGFactory.createFromImage(document, image, 0.85f);
+        try (PDPageContentStream content = new PDPageContentStream(document, cover)) {
+            content.drawImage(xObject, 0, 0, PDRectangle.A4.getWidth(), PDRectangle.A4.getHeight());
+        }
+    }
+
+    // Fixture lines without control characters, which the standard fonts cannot show
+    private static List<String> fixtureLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String fixture : SpeechTextCleanerTest.PAGE_FIXTURES) {
+            for (String line : SpeechTextCleanerTest.readFixture(fixture).split("\n")) {
+                lines.add(line.replaceAll("[\\p{Cntrl}]", " "));
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,99 @@
+package com.bookshelf.service;
+
+import com.bookshelf.dto.CompactWordTimings;
+import com.bookshelf.dto.WordTiming;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The text side of read-aloud over generated books of 10, 100 and 400 pages: extracting the
+ * whole book into the page text store (first request), looking up a stored page (every later
+ * request), cleaning a page for speech and estimating its word timings (one object per word, and columnar).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageTextBenchmark {
+
+    @Param({"10", "100", "400"})
+    private int pages;
+
+    private Path storage;
+    private String pdfPath;
+    private PdfDocumentCache documentCache;
+    private PageTextStore store;
+    private final UUID bookId = UUID.randomUUID();
+    private final UUID coldBookId = UUID.randomUUID();
+    private String rawPage;
+    private String cleanedPage;
+    private int page;
+
+    @Setup
+    public void setUp() throws IOException {
+        storage = Files.createTempDirectory("text-benchmark");
+        pdfPath = BenchmarkCorpus.write(storage.resolve("corpus"), pages).toString();
+        // Documents stay loaded, so extraction is measured without PDF parsing
+        documentCache = new PdfDocumentCache(Long.MAX_VALUE, 3600);
+        store = new PageTextStore(documentCache, storage.resolve("text").toString());
+
+        // Fixture lines cycle through the book, so the middle page differs between book sizes
+        PageTextStore.PageText text = store.getPage(bookId, pdfPath, pages / 2 + 1, SpeechTextCleaner::clean);
+        rawPage = text.raw();
+        cleanedPage = text.cleaned();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        documentCache.closeAll();
+        FileSystemUtils.deleteRecursively(storage);
+    }
+
+    @Benchmark
+    public PageTextStore.PageText extractBookText() throws IOException {
+        PageTextStore.PageText text = store.getPage(coldBookId, pdfPath, 1, SpeechTextCleaner::clean);
+        store.delete(coldBookId);
+        return text;
+    }
+
+    @Benchmark
+    public PageTextStore.PageText extractPageText() throws IOException {
+        page = page % pages + 1;
+        return store.getPage(bookId, pdfPath, page, SpeechTextCleaner::clean);
+    }
+
+    @Benchmark
+    public String cleanTextForSpeech() {
+        return SpeechTextCleaner.clean(rawPage);
+    }
+
+    @Benchmark
+    public List<WordTiming> estimateWordTimings() {
+        return PageWordTimings.estimate(cleanedPage).toWordTimings(cleanedPage);
+    }
+
+    @Benchmark
+    public CompactWordTimings estimateCompactWordTimings() {
+        return PageWordTimings.estimate(cleanedPage).toCompact(cleanedPage, false);
+    }
+}
@@ -0,0 +1,97 @@
+package com.bookshelf.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload-time PDF work in PdfProcessingService over generated books of 10, 100 and 400 pages:
+ * hashing and staging the upload, metadata extraction with thumbnails (processPdf), thumbnail
+ * rendering on an open document, and the downsampling step on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfProcessingBenchmark {
+
+    @Param({"10", "100", "400"})
+    private int pages;
+
+    private Path storage;
+    private Path pdf;
+    private MockMultipartFile upload;
+    private PdfProcessingService service;
+    private PDDocument document;
+    private BufferedImage rendered;
+    private final UUID bookId = UUID.randomUUID();
+
+    @Setup
+    public void setUp() throws IOException {
+        storage = Files.createTempDirectory("pdf-benchmark");
+        pdf = BenchmarkCorpus.write(storage.resolve("corpus"), pages);
+        upload = new MockMultipartFile("file", "book.pdf", "application/pdf", Files.readAllBytes(pdf));
+
+        service = new PdfProcessingService();
+        ReflectionTestUtils.setField(service, "pdfDirectory", storage.resolve("pdfs").toString());
+        ReflectionTestUtils.setField(service, "thumbnailDirectory", storage.resolve("thumbnails").toString());
+        Files.createDirectories(storage.resolve("thumbnails"));
+
+        document = Loader.loadPDF(pdf.toFile());
+        rendered = new PDFRenderer(document).renderImage(0, 1, ImageType.RGB);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        document.close();
+        FileSystemUtils.deleteRecursively(storage);
+    }
+
+    @Benchmark
+    public String stageUpload() {
+        PdfProcessingService.StagedUpload staged = service.stageUpload(upload);
+        service.discardStagedUpload(staged);
+        return staged.fileHash();
+    }
+
+    @Benchmark
+    public Map<String, Object> processPdf() {
+        return service.processPdf(pdf, bookId, "book.pdf");
+    }
+
+    @Benchmark
+    public String generateThumbnail() throws IOException {
+        return service.generateThumbnail(document, bookId, storage.resolve("thumbnails"));
+    }
+
+    @Benchmark
+    public BufferedImage resizeImage() {
+        return PdfProcessingService.resizeImage(rendered, 200);
+    }
+}
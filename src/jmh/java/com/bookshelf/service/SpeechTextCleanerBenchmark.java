@@ -0,0 +1,56 @@
+package com.bookshelf.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cleaning one book page for speech: the former split/regex implementation against the
+ * single-pass SpeechTextCleaner. Setup fails if the two disagree on any page.
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="SpeechTextCleanerBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpeechTextCleanerBenchmark {
+
+    @Param({"prose-page.txt", "code-page.txt", "crlf-page.txt"})
+    private String page;
+
+    private String text;
+
+    @Setup
+    public void setUp() throws IOException {
+        text = SpeechTextCleanerTest.readFixture(page);
+        String expected = LegacySpeechTextCleaner.clean(text);
+        String actual = SpeechTextCleaner.clean(text);
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("Cleaned text of " + page + " differs from the legacy implementation");
+        }
+    }
+
+    @Benchmark
+    public String legacy() {
+        return LegacySpeechTextCleaner.clean(text);
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return SpeechTextCleaner.clean(text);
+    }
+}
@@ -0,0 +1,131 @@
+package com.bookshelf.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Dedicated executors for background work, kept separate from Tomcat's request threads.
+ * Each pool is bounded (threads and queue) so a burst of work is rejected
+ * instead of piling up on the 384 MB heap.
+ */
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Default scheduler for @Scheduled jobs (spring.task.scheduling.*)
+     * Declared here because Spring Boot only creates it when no other scheduler bean exists,
+     * and progressFlushScheduler is one.
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Runs only the reading progress flush, so buffered progress is written on time even while
+     * long jobs (enrichment, text index backfill) hold every thread of the default scheduler.
+     */
+    @Bean(name = "progressFlushScheduler")
+    public ThreadPoolTaskScheduler progressFlushScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("progress-flush-");
+        return scheduler;
+    }
+
+    /**
+     * Runs PDF optimization batches, which can take minutes per book (PDFBox re-save, qpdf),
+     * off the scheduler threads. One batch at a time and no queue: a run that finds the previous
+     * batch still going is skipped.
+     */
+    @Bean(name = "pdfOptimizationExecutor")
+    public ThreadPoolTaskExecutor pdfOptimizationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("pdf-optimize-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs the PDF ingest stages (metadata extraction, thumbnail, enrichment, save)
+     * for uploads accepted by POST /api/books.
+     */
+    @Bean(name = "ingestExecutor")
+    public ThreadPoolTaskExecutor ingestExecutor(
+            @Value("${bookshelf.ingest.threads:2}") int threads,
+            @Value("${bookshelf.ingest.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ingest-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Synthesizes pages for batch audio generation; threads is the most pages in flight across
+     * all batches. Requests are additionally paced by TtsRequestThrottle to the TTS quota.
+     */
+    @Bean(name = "ttsExecutor")
+    public ThreadPoolTaskExecutor ttsExecutor(
+            @Value("${bookshelf.tts.concurrency:4}") int threads,
+            @Value("${bookshelf.tts.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("tts-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Synthesizes the chunks of pages too long for one TTS request. Separate from ttsExecutor,
+     * whose page workers wait for their chunks, so chunks never queue behind those workers.
+     * A chunk that does not fit in the queue runs on the page's own thread instead.
+     */
+    @Bean(name = "ttsChunkExecutor")
+    public ThreadPoolTaskExecutor ttsChunkExecutor(
+            @Value("${bookshelf.tts.chunk-concurrency:3}") int threads,
+            @Value("${bookshelf.tts.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("tts-chunk-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Renders thumbnails for bulk regeneration. Rendering is CPU-bound, so threads defaults to
+     * one per core (0); lower it on small heaps, as each thread has a PDF open while it renders.
+     */
+    @Bean(name = "thumbnailExecutor")
+    public ThreadPoolTaskExecutor thumbnailExecutor(
+            @Value("${bookshelf.thumbnails.threads:0}") int threads,
+            @Value("${bookshelf.thumbnails.queue-capacity:100}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
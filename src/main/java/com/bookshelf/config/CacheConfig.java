@@ -19,7 +19,6 @@ public class CacheConfig {
     public CacheManager cacheManager() {
         SimpleCacheManager cacheManager = new SimpleCacheManager();
         cacheManager.setCaches(Arrays.asList(
-                buildCache("libraryStats", 2, TimeUnit.MINUTES, 1),
                 buildCache("featuredBooks", 5, TimeUnit.MINUTES, 10),
                 buildCache("googleBooksSearch", 24, TimeUnit.HOURS, 100)
         ));
@@ -31,6 +30,7 @@ public class CacheConfig {
                 Caffeine.newBuilder()
                         .expireAfterWrite(duration, unit)
                         .maximumSize(maxSize)
+                        .recordStats()
                         .build());
     }
 }
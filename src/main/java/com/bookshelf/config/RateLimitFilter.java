@@ -64,7 +64,8 @@ public class RateLimitFilter implements Filter {
         }
 
         // Skip rate limiting for static asset endpoints (thumbnails, PDFs, audio)
-        // These are read-only file serving routes that dominate request count during normal browsing
+        // These are read-only file serving routes that dominate request count during normal browsing.
+        // Page images are not exempt: an uncached one is a full PDF page render
         if (path.matches(".*/books/[^/]+/(thumbnail|pdf)$") || path.contains("/audio")) {
             chain.doFilter(request, response);
             return;
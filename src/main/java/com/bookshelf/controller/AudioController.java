@@ -1,20 +1,23 @@
 package com.bookshelf.controller;
 
 import com.bookshelf.dto.AudioGenerationProgress;
-import com.bookshelf.dto.PageTextWithTimings;
+import com.bookshelf.exception.InvalidParameterException;
 import com.bookshelf.service.BatchAudioGenerationService;
 import com.bookshelf.service.TextToSpeechService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.UUID;
 
 @RestController
@@ -24,39 +27,44 @@ public class AudioController {
 
     private static final Logger log = LoggerFactory.getLogger(AudioController.class);
 
+    private static final MediaType AUDIO_MPEG = MediaType.valueOf("audio/mpeg");
+
+    // Page audio only changes if it is deleted and regenerated; clients keep it for 30 days, then revalidate by ETag
+    private static final CacheControl AUDIO_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(30)).cachePrivate();
+
     private final TextToSpeechService textToSpeechService;
     private final BatchAudioGenerationService batchAudioGenerationService;
+    private final FileResponseWriter fileResponseWriter;
 
     public AudioController(TextToSpeechService textToSpeechService,
-                           BatchAudioGenerationService batchAudioGenerationService) {
+                           BatchAudioGenerationService batchAudioGenerationService,
+                           FileResponseWriter fileResponseWriter) {
         this.textToSpeechService = textToSpeechService;
         this.batchAudioGenerationService = batchAudioGenerationService;
+        this.fileResponseWriter = fileResponseWriter;
     }
 
     /**
      * Get audio for a specific page of a book
-     * Cache-first: Returns cached audio if available, otherwise generates it
+     * Cache-first: Streams cached audio if available, otherwise generates it first.
+     * Supports Range requests (seeking) and conditional requests (ETag / Last-Modified).
      *
      * @param bookId Book UUID
      * @param pageNumber Page number (1-indexed)
-     * @return MP3 audio file
      */
     @Operation(summary = "Get page audio")
     @GetMapping("/{bookId}/pages/{pageNumber}/audio")
-    public ResponseEntity<Resource> getPageAudio(
+    public void getPageAudio(
             @PathVariable UUID bookId,
-            @PathVariable int pageNumber) {
-
-        byte[] audioBytes = textToSpeechService.generateOrGetPageAudio(bookId, pageNumber);
+            @PathVariable int pageNumber,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
-        ByteArrayResource resource = new ByteArrayResource(audioBytes);
+        Path audioFile = textToSpeechService.getPageAudioFile(bookId, pageNumber);
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "inline; filename=\"book-" + bookId + "-page-" + pageNumber + ".mp3\"")
-                .contentType(MediaType.valueOf("audio/mpeg"))
-                .contentLength(audioBytes.length)
-                .body(resource);
+        fileResponseWriter.write(request, response, audioFile, AUDIO_MPEG,
+                "inline; filename=\"book-" + bookId + "-page-" + pageNumber + ".mp3\"",
+                AUDIO_CACHE_CONTROL, null);
     }
 
     /**
@@ -80,21 +88,28 @@ public class AudioController {
 
     /**
      * Get page text with word-level timestamps for read-along highlighting
-     * This generates fresh audio with timing data (not cached)
+     * Synthesizes the page audio if needed; timings are stored with the audio and read back afterwards
      *
      * @param bookId Book UUID
      * @param pageNumber Page number (1-indexed)
+     * @param format words (one object per word), columnar (int arrays of delta-encoded offsets
+     *               and millisecond times) or packed (the same columns as base64 varints)
      * @return JSON with text, word timings, and audio URL
      */
     @Operation(summary = "Get page text with word-level timings")
     @GetMapping("/{bookId}/pages/{pageNumber}/text-with-timings")
-    public ResponseEntity<PageTextWithTimings> getPageTextWithTimings(
+    public ResponseEntity<?> getPageTextWithTimings(
             @PathVariable UUID bookId,
-            @PathVariable int pageNumber) {
-
-        PageTextWithTimings result = textToSpeechService.generatePageAudioWithTimings(bookId, pageNumber);
-
-        return ResponseEntity.ok(result);
+            @PathVariable int pageNumber,
+            @RequestParam(defaultValue = "words") String format) {
+
+        return switch (format) {
+            case "words" -> ResponseEntity.ok(textToSpeechService.generatePageAudioWithTimings(bookId, pageNumber));
+            case "columnar", "packed" -> ResponseEntity.ok(
+                    textToSpeechService.generatePageAudioWithCompactTimings(bookId, pageNumber, format.equals("packed")));
+            default -> throw new InvalidParameterException(
+                    "Invalid timings format: " + format + ". Expected words, columnar or packed.");
+        };
     }
 
     /**
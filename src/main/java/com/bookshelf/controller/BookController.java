@@ -1,13 +1,23 @@
 package com.bookshelf.controller;
 
 import com.bookshelf.dto.*;
+import com.bookshelf.model.ThumbnailSize;
+import com.bookshelf.repository.PdfFileInfo;
 import com.bookshelf.service.BookService;
+import com.bookshelf.service.PageImageService;
+import com.bookshelf.service.PageTextIndexService;
 import com.bookshelf.service.PdfProcessingService;
+import com.bookshelf.service.ThumbnailRegenerationService;
+import com.bookshelf.service.UploadJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -18,6 +28,12 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.data.domain.Page;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,33 +46,68 @@ import java.util.UUID;
 @Tag(name = "Books", description = "Book library management — upload, browse, update, and delete books")
 public class BookController {
 
+    // Clients may keep PDFs but must revalidate; an unchanged PDF costs a 304 instead of the whole file
+    private static final CacheControl PDF_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    // A rendered page never changes; clients keep it for 30 days, then revalidate by ETag
+    private static final CacheControl PAGE_IMAGE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(30)).cachePrivate();
+
     private final BookService bookService;
     private final PdfProcessingService pdfProcessingService;
+    private final UploadJobService uploadJobService;
+    private final PageTextIndexService pageTextIndexService;
+    private final FileResponseWriter fileResponseWriter;
+    private final PageImageService pageImageService;
+    private final ThumbnailRegenerationService thumbnailRegenerationService;
 
-    public BookController(BookService bookService, PdfProcessingService pdfProcessingService) {
+    public BookController(BookService bookService, PdfProcessingService pdfProcessingService,
+                          UploadJobService uploadJobService, PageTextIndexService pageTextIndexService,
+                          FileResponseWriter fileResponseWriter, PageImageService pageImageService,
+                          ThumbnailRegenerationService thumbnailRegenerationService) {
         this.bookService = bookService;
         this.pdfProcessingService = pdfProcessingService;
+        this.uploadJobService = uploadJobService;
+        this.pageTextIndexService = pageTextIndexService;
+        this.fileResponseWriter = fileResponseWriter;
+        this.pageImageService = pageImageService;
+        this.thumbnailRegenerationService = thumbnailRegenerationService;
     }
 
     /**
      * Upload a new PDF book to the library
-     * Processes PDF, extracts metadata, generates thumbnail, and fetches data from Google Books API
+     * Stores the file and checks for duplicates, then queues metadata extraction, thumbnail
+     * generation and Google Books enrichment on the background ingest executor
      *
      * @param file PDF file to upload (multipart/form-data)
-     * @return BookResponse with book details including metadata
+     * @return 202 Accepted with the upload job status; poll the Location header for progress
      */
     @Operation(summary = "Upload a PDF book")
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<BookResponse> uploadBook(@RequestParam("file") MultipartFile file) {
-        BookResponse response = bookService.uploadBook(file);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<UploadJobStatus> uploadBook(@RequestParam("file") MultipartFile file) {
+        UploadJobStatus job = uploadJobService.submit(file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/books/uploads/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * Get the status of an upload job
+     * Once COMPLETED, the response includes the created book
+     *
+     * @param jobId Upload job UUID returned by the upload endpoint
+     * @return Upload job status
+     */
+    @Operation(summary = "Get upload job status")
+    @GetMapping("/uploads/{jobId}")
+    public ResponseEntity<UploadJobStatus> getUploadStatus(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(uploadJobService.getStatus(jobId));
     }
 
     /**
      * Get all books with optional filtering, sorting, and pagination
      *
      * @param search Optional search query for title or author (case-insensitive)
-     * @param sortBy Optional sort field: 'title', 'dateAdded', 'lastRead', 'progress'
+     * @param sortBy Optional sort field: 'title', 'dateAdded', 'lastRead', 'progress', or 'relevance' (with search)
      * @param status Optional filter by reading status: 'UNREAD', 'READING', 'FINISHED'
      * @param page Page number (default 0)
      * @param size Page size (default 20)
@@ -74,6 +125,46 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
+    /**
+     * Get books one slice at a time using an opaque cursor (for infinite scrolling)
+     * Unlike the paged listing there is no total count, and deep slices are as fast as the first
+     *
+     * @param search Optional search query for title or author (case-insensitive)
+     * @param sortBy Optional sort field: 'title', 'dateAdded', 'lastRead', 'progress'
+     * @param status Optional filter by reading status: 'UNREAD', 'READING', 'FINISHED'
+     * @param cursor Cursor from the previous response; omit for the first slice
+     * @param size Slice size (default 20, max 100)
+     * @return Books in the slice, the next cursor and whether more books exist
+     */
+    @Operation(summary = "List books with cursor pagination")
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse> getBooksByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookService.getBooksByCursor(search, sortBy, status, cursor, size));
+    }
+
+    /**
+     * Search inside the text of all books
+     * Matches individual pages using the full-text index built from the PDFs
+     *
+     * @param q Search query; supports quoted phrases, OR and -exclusion
+     * @param page Page number (default 0)
+     * @param size Page size (default 20, max 50)
+     * @return Matching pages ordered by relevance, with highlighted snippets
+     */
+    @Operation(summary = "Full-text search inside book contents")
+    @GetMapping("/search/content")
+    public ResponseEntity<List<ContentSearchHit>> searchContent(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(pageTextIndexService.search(q, page, size));
+    }
+
     /**
      * Get library statistics
      * Includes total books count, status breakdown, and continue reading suggestion
@@ -208,56 +299,111 @@ public class BookController {
 
     /**
      * Serve the PDF file for a book
-     * Returns PDF with inline disposition for browser viewing
+     * Returns PDF with inline disposition for browser viewing.
+     * Supports Range requests (progressive rendering) and conditional requests; the content
+     * hash is the ETag, so a client revalidating an unchanged PDF gets a 304.
+     * The web-optimized copy is served when one exists, unless the original is requested.
      *
      * @param id Book UUID
-     * @return PDF file as application/pdf
+     * @param original Serve the uploaded file even if a web-optimized copy exists
      */
     @Operation(summary = "Download book PDF")
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<Resource> getPdf(@PathVariable UUID id) {
-        BookResponse book = bookService.getBookById(id);
-        String pdfPath = bookService.getPdfPath(id);
-        File pdfFile = pdfProcessingService.getPdfFile(pdfPath);
+    public void getPdf(@PathVariable UUID id,
+                       @RequestParam(defaultValue = "false") boolean original,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        PdfFileInfo pdf = bookService.getPdfFileInfo(id);
+        String contentDisposition = ContentDisposition.inline()
+                .filename(pdf.getTitle() + ".pdf", StandardCharsets.UTF_8)
+                .build()
+                .toString();
 
-        Resource resource = new FileSystemResource(pdfFile);
+        if (!original && pdf.getWebPdfPath() != null && Files.exists(Path.of(pdf.getWebPdfPath()))) {
+            // The copy has different bytes, so it needs its own ETag
+            String etag = pdf.getFileHash() != null ? "\"" + pdf.getFileHash() + "-web\"" : null;
+            fileResponseWriter.write(request, response, Path.of(pdf.getWebPdfPath()), MediaType.APPLICATION_PDF,
+                    contentDisposition, PDF_CACHE_CONTROL, etag);
+            return;
+        }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + book.getTitle() + ".pdf\"")
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(resource);
+        File pdfFile = pdfProcessingService.getPdfFile(pdf.getPdfPath());
+        String etag = pdf.getFileHash() != null ? "\"" + pdf.getFileHash() + "\"" : null;
+        fileResponseWriter.write(request, response, pdfFile.toPath(), MediaType.APPLICATION_PDF,
+                contentDisposition, PDF_CACHE_CONTROL, etag);
     }
 
     /**
-     * Regenerate all thumbnails as optimized JPEGs
-     * Re-renders at 300 DPI, resizes to max 600px wide, saves as JPEG at 0.85 quality
+     * Regenerate all thumbnails in the background
+     * Re-renders every book's first page and saves grid, detail and retina sizes as JPEG.
+     * Starting while a job is running returns the running job.
+     *
+     * @return 202 Accepted with the job's progress; poll the Location header for updates
      */
     @Operation(summary = "Regenerate all thumbnails")
     @PostMapping("/regenerate-thumbnails")
-    public ResponseEntity<String> regenerateThumbnails() {
-        int count = bookService.regenerateAllThumbnails();
-        return ResponseEntity.ok("Regenerated " + count + " thumbnails");
+    public ResponseEntity<ThumbnailJobProgress> regenerateThumbnails() {
+        ThumbnailJobProgress job = thumbnailRegenerationService.start();
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/books/regenerate-thumbnails/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * Get the progress of a thumbnail regeneration job
+     * Includes processed and failed book counts and throughput (books per second)
+     *
+     * @param jobId Job UUID returned when the job was started
+     * @return Job progress
+     */
+    @Operation(summary = "Get thumbnail regeneration progress")
+    @GetMapping("/regenerate-thumbnails/{jobId}")
+    public ResponseEntity<ThumbnailJobProgress> getThumbnailJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(thumbnailRegenerationService.getProgress(jobId));
     }
 
     /**
      * Serve the thumbnail image for a book
-     * Returns JPEG thumbnail generated from first page at 300 DPI, max 600px wide
+     * Returns a JPEG rendered from the first page, in one of three widths so clients can build
+     * a srcset: grid (200px), detail (400px) or retina (600px, the default)
      *
      * @param id Book UUID
+     * @param size Thumbnail size: grid, detail or retina
      * @return Thumbnail image as JPEG
      */
     @Operation(summary = "Get book thumbnail image")
     @GetMapping("/{id}/thumbnail")
-    public ResponseEntity<Resource> getThumbnail(@PathVariable UUID id) {
+    public ResponseEntity<Resource> getThumbnail(@PathVariable UUID id,
+                                                 @RequestParam(defaultValue = "retina") String size) {
+        ThumbnailSize thumbnailSize = ThumbnailSize.fromParam(size);
         String thumbnailPath = bookService.getThumbnailPath(id);
-        File thumbnailFile = pdfProcessingService.getThumbnailFile(thumbnailPath);
+        File thumbnailFile = pdfProcessingService.getThumbnailFile(thumbnailPath, thumbnailSize);
 
         Resource resource = new FileSystemResource(thumbnailFile);
-        MediaType mediaType = thumbnailPath.endsWith(".jpg") ? MediaType.IMAGE_JPEG : MediaType.IMAGE_PNG;
+        MediaType mediaType = thumbnailFile.getName().endsWith(".jpg") ? MediaType.IMAGE_JPEG : MediaType.IMAGE_PNG;
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CACHE_CONTROL, "public, max-age=86400")
                 .contentType(mediaType)
                 .body(resource);
     }
+
+    /**
+     * Serve one page of a book rendered as JPEG
+     * The width is rounded up to the nearest cached size (320 to 2048px); images are
+     * rendered on first request and then served from the disk cache.
+     *
+     * @param id Book UUID
+     * @param pageNumber Page number (1-indexed)
+     * @param width Requested image width in pixels (default 1024)
+     */
+    @Operation(summary = "Get a page rendered as an image")
+    @GetMapping("/{id}/pages/{pageNumber}/image")
+    public void getPageImage(@PathVariable UUID id, @PathVariable int pageNumber,
+                             @RequestParam(required = false) Integer width,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path image = pageImageService.getPageImage(id, pageNumber, width);
+        fileResponseWriter.write(request, response, image, MediaType.IMAGE_JPEG,
+                "inline; filename=\"book-" + id + "-page-" + pageNumber + ".jpg\"",
+                PAGE_IMAGE_CACHE_CONTROL, null);
+    }
 }
@@ -3,7 +3,7 @@ package com.bookshelf.dto;
 import java.util.Objects;
 
 public class AudioGenerationProgress {
-    private String status; // RUNNING, COMPLETED, FAILED, CANCELLED
+    private String status; // IDLE, QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
     private int currentPage;
     private int totalPages;
     private double progressPercentage;
@@ -1,5 +1,6 @@
 package com.bookshelf.dto;
 
+import com.bookshelf.model.EnrichmentStatus;
 import com.bookshelf.model.ReadingStatus;
 
 import java.time.LocalDateTime;
@@ -20,11 +21,13 @@ public class BookResponse {
     private LocalDateTime dateAdded;
     private LocalDateTime lastReadAt;
     private Double progressPercentage;
+    private EnrichmentStatus enrichmentStatus;
+    private Long pdfBytesSaved;
 
     public BookResponse() {
     }
 
-    public BookResponse(UUID id, String title, String author, String description, String genre, Integer pageCount, Integer currentPage, ReadingStatus status, String coverUrl, String fileHash, LocalDateTime dateAdded, LocalDateTime lastReadAt, Double progressPercentage) {
+    public BookResponse(UUID id, String title, String author, String description, String genre, Integer pageCount, Integer currentPage, ReadingStatus status, String coverUrl, String fileHash, LocalDateTime dateAdded, LocalDateTime lastReadAt, Double progressPercentage, EnrichmentStatus enrichmentStatus, Long pdfBytesSaved) {
         this.id = id;
         this.title = title;
         this.author = author;
@@ -38,6 +41,8 @@ public class BookResponse {
         this.dateAdded = dateAdded;
         this.lastReadAt = lastReadAt;
         this.progressPercentage = progressPercentage;
+        this.enrichmentStatus = enrichmentStatus;
+        this.pdfBytesSaved = pdfBytesSaved;
     }
 
     public UUID getId() {
@@ -144,6 +149,22 @@ public class BookResponse {
         this.progressPercentage = progressPercentage;
     }
 
+    public EnrichmentStatus getEnrichmentStatus() {
+        return enrichmentStatus;
+    }
+
+    public void setEnrichmentStatus(EnrichmentStatus enrichmentStatus) {
+        this.enrichmentStatus = enrichmentStatus;
+    }
+
+    public Long getPdfBytesSaved() {
+        return pdfBytesSaved;
+    }
+
+    public void setPdfBytesSaved(Long pdfBytesSaved) {
+        this.pdfBytesSaved = pdfBytesSaved;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -161,12 +182,14 @@ public class BookResponse {
                 Objects.equals(fileHash, that.fileHash) &&
                 Objects.equals(dateAdded, that.dateAdded) &&
                 Objects.equals(lastReadAt, that.lastReadAt) &&
-                Objects.equals(progressPercentage, that.progressPercentage);
+                Objects.equals(progressPercentage, that.progressPercentage) &&
+                enrichmentStatus == that.enrichmentStatus &&
+                Objects.equals(pdfBytesSaved, that.pdfBytesSaved);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, author, description, genre, pageCount, currentPage, status, coverUrl, fileHash, dateAdded, lastReadAt, progressPercentage);
+        return Objects.hash(id, title, author, description, genre, pageCount, currentPage, status, coverUrl, fileHash, dateAdded, lastReadAt, progressPercentage, enrichmentStatus, pdfBytesSaved);
     }
 
     @Override
@@ -185,6 +208,8 @@ public class BookResponse {
                 ", dateAdded=" + dateAdded +
                 ", lastReadAt=" + lastReadAt +
                 ", progressPercentage=" + progressPercentage +
+                ", enrichmentStatus=" + enrichmentStatus +
+                ", pdfBytesSaved=" + pdfBytesSaved +
                 ')';
     }
 
@@ -206,6 +231,8 @@ public class BookResponse {
         private LocalDateTime dateAdded;
         private LocalDateTime lastReadAt;
         private Double progressPercentage;
+        private EnrichmentStatus enrichmentStatus;
+        private Long pdfBytesSaved;
 
         public Builder id(UUID id) {
             this.id = id;
@@ -272,8 +299,18 @@ public class BookResponse {
             return this;
         }
 
+        public Builder enrichmentStatus(EnrichmentStatus enrichmentStatus) {
+            this.enrichmentStatus = enrichmentStatus;
+            return this;
+        }
+
+        public Builder pdfBytesSaved(Long pdfBytesSaved) {
+            this.pdfBytesSaved = pdfBytesSaved;
+            return this;
+        }
+
         public BookResponse build() {
-            return new BookResponse(id, title, author, description, genre, pageCount, currentPage, status, coverUrl, fileHash, dateAdded, lastReadAt, progressPercentage);
+            return new BookResponse(id, title, author, description, genre, pageCount, currentPage, status, coverUrl, fileHash, dateAdded, lastReadAt, progressPercentage, enrichmentStatus, pdfBytesSaved);
         }
     }
 }
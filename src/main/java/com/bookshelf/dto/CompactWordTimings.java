@@ -0,0 +1,210 @@
+package com.bookshelf.dto;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public class CompactWordTimings {
+    private String text;
+    private String audioUrl;
+    private String format;        // columnar or packed
+    private int wordCount;
+    private int[] offsets;        // word start in text, minus the previous word's start
+    private int[] lengths;        // word length in chars
+    private int[] startDeltas;    // start time in ms, minus the previous word's start time
+    private int[] durations;      // end time minus start time, in ms
+    private String packed;        // packed format only: base64 varints, 4 per word in the column order above
+
+    public CompactWordTimings() {
+    }
+
+    public CompactWordTimings(String text, String audioUrl, String format, int wordCount, int[] offsets, int[] lengths, int[] startDeltas, int[] durations, String packed) {
+        this.text = text;
+        this.audioUrl = audioUrl;
+        this.format = format;
+        this.wordCount = wordCount;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.startDeltas = startDeltas;
+        this.durations = durations;
+        this.packed = packed;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getAudioUrl() {
+        return audioUrl;
+    }
+
+    public void setAudioUrl(String audioUrl) {
+        this.audioUrl = audioUrl;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public void setWordCount(int wordCount) {
+        this.wordCount = wordCount;
+    }
+
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public void setOffsets(int[] offsets) {
+        this.offsets = offsets;
+    }
+
+    public int[] getLengths() {
+        return lengths;
+    }
+
+    public void setLengths(int[] lengths) {
+        this.lengths = lengths;
+    }
+
+    public int[] getStartDeltas() {
+        return startDeltas;
+    }
+
+    public void setStartDeltas(int[] startDeltas) {
+        this.startDeltas = startDeltas;
+    }
+
+    public int[] getDurations() {
+        return durations;
+    }
+
+    public void setDurations(int[] durations) {
+        this.durations = durations;
+    }
+
+    public String getPacked() {
+        return packed;
+    }
+
+    public void setPacked(String packed) {
+        this.packed = packed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompactWordTimings that = (CompactWordTimings) o;
+        return wordCount == that.wordCount &&
+                Objects.equals(text, that.text) &&
+                Objects.equals(audioUrl, that.audioUrl) &&
+                Objects.equals(format, that.format) &&
+                Arrays.equals(offsets, that.offsets) &&
+                Arrays.equals(lengths, that.lengths) &&
+                Arrays.equals(startDeltas, that.startDeltas) &&
+                Arrays.equals(durations, that.durations) &&
+                Objects.equals(packed, that.packed);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(text, audioUrl, format, wordCount, packed);
+        result = 31 * result + Arrays.hashCode(offsets);
+        result = 31 * result + Arrays.hashCode(lengths);
+        result = 31 * result + Arrays.hashCode(startDeltas);
+        result = 31 * result + Arrays.hashCode(durations);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactWordTimings(" +
+                "text=" + text +
+                ", audioUrl=" + audioUrl +
+                ", format=" + format +
+                ", wordCount=" + wordCount +
+                ", offsets=" + Arrays.toString(offsets) +
+                ", lengths=" + Arrays.toString(lengths) +
+                ", startDeltas=" + Arrays.toString(startDeltas) +
+                ", durations=" + Arrays.toString(durations) +
+                ", packed=" + packed +
+                ')';
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String text;
+        private String audioUrl;
+        private String format;
+        private int wordCount;
+        private int[] offsets;
+        private int[] lengths;
+        private int[] startDeltas;
+        private int[] durations;
+        private String packed;
+
+        public Builder text(String text) {
+            this.text = text;
+            return this;
+        }
+
+        public Builder audioUrl(String audioUrl) {
+            this.audioUrl = audioUrl;
+            return this;
+        }
+
+        public Builder format(String format) {
+            this.format = format;
+            return this;
+        }
+
+        public Builder wordCount(int wordCount) {
+            this.wordCount = wordCount;
+            return this;
+        }
+
+        public Builder offsets(int[] offsets) {
+            this.offsets = offsets;
+            return this;
+        }
+
+        public Builder lengths(int[] lengths) {
+            this.lengths = lengths;
+            return this;
+        }
+
+        public Builder startDeltas(int[] startDeltas) {
+            this.startDeltas = startDeltas;
+            return this;
+        }
+
+        public Builder durations(int[] durations) {
+            this.durations = durations;
+            return this;
+        }
+
+        public Builder packed(String packed) {
+            this.packed = packed;
+            return this;
+        }
+
+        public CompactWordTimings build() {
+            return new CompactWordTimings(text, audioUrl, format, wordCount, offsets, lengths, startDeltas, durations, packed);
+        }
+    }
+}
+
@@ -0,0 +1,151 @@
+package com.bookshelf.dto;
+
+import java.util.Objects;
+import java.util.UUID;
+
+public class ContentSearchHit {
+    private UUID bookId;
+    private String title;
+    private String author;
+    private int pageNumber;
+    private String snippet; // matched terms wrapped in <mark></mark>
+    private double rank;
+
+    public ContentSearchHit() {
+    }
+
+    public ContentSearchHit(UUID bookId, String title, String author, int pageNumber, String snippet, double rank) {
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.pageNumber = pageNumber;
+        this.snippet = snippet;
+        this.rank = rank;
+    }
+
+    public UUID getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(UUID bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    public void setPageNumber(int pageNumber) {
+        this.pageNumber = pageNumber;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+
+    public double getRank() {
+        return rank;
+    }
+
+    public void setRank(double rank) {
+        this.rank = rank;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ContentSearchHit that = (ContentSearchHit) o;
+        return pageNumber == that.pageNumber &&
+                Double.compare(that.rank, rank) == 0 &&
+                Objects.equals(bookId, that.bookId) &&
+                Objects.equals(title, that.title) &&
+                Objects.equals(author, that.author) &&
+                Objects.equals(snippet, that.snippet);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookId, title, author, pageNumber, snippet, rank);
+    }
+
+    @Override
+    public String toString() {
+        return "ContentSearchHit(" +
+                "bookId=" + bookId +
+                ", title=" + title +
+                ", author=" + author +
+                ", pageNumber=" + pageNumber +
+                ", snippet=" + snippet +
+                ", rank=" + rank +
+                ')';
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private UUID bookId;
+        private String title;
+        private String author;
+        private int pageNumber;
+        private String snippet;
+        private double rank;
+
+        public Builder bookId(UUID bookId) {
+            this.bookId = bookId;
+            return this;
+        }
+
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder author(String author) {
+            this.author = author;
+            return this;
+        }
+
+        public Builder pageNumber(int pageNumber) {
+            this.pageNumber = pageNumber;
+            return this;
+        }
+
+        public Builder snippet(String snippet) {
+            this.snippet = snippet;
+            return this;
+        }
+
+        public Builder rank(double rank) {
+            this.rank = rank;
+            return this;
+        }
+
+        public ContentSearchHit build() {
+            return new ContentSearchHit(bookId, title, author, pageNumber, snippet, rank);
+        }
+    }
+}
+
@@ -0,0 +1,97 @@
+package com.bookshelf.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+public class CursorPageResponse {
+    private List<BookResponse> items;
+    private String nextCursor; // opaque; pass back as ?cursor= to get the next slice, null on the last one
+    private boolean hasMore;
+
+    public CursorPageResponse() {
+    }
+
+    public CursorPageResponse(List<BookResponse> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<BookResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BookResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CursorPageResponse that = (CursorPageResponse) o;
+        return hasMore == that.hasMore &&
+                Objects.equals(items, that.items) &&
+                Objects.equals(nextCursor, that.nextCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(items, nextCursor, hasMore);
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPageResponse(" +
+                "items=" + items +
+                ", nextCursor=" + nextCursor +
+                ", hasMore=" + hasMore +
+                ')';
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private List<BookResponse> items;
+        private String nextCursor;
+        private boolean hasMore;
+
+        public Builder items(List<BookResponse> items) {
+            this.items = items;
+            return this;
+        }
+
+        public Builder nextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+            return this;
+        }
+
+        public Builder hasMore(boolean hasMore) {
+            this.hasMore = hasMore;
+            return this;
+        }
+
+        public CursorPageResponse build() {
+            return new CursorPageResponse(items, nextCursor, hasMore);
+        }
+    }
+}
+
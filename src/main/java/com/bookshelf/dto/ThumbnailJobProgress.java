@@ -0,0 +1,223 @@
+package com.bookshelf.dto;
+
+import java.util.Objects;
+import java.util.UUID;
+
+public class ThumbnailJobProgress {
+    private UUID jobId;
+    private String status; // IDLE, RUNNING, COMPLETED, FAILED
+    private int totalBooks;
+    private int processedBooks;
+    private int failedBooks;
+    private double progressPercentage;
+    private double booksPerSecond;
+    private String errorMessage;
+    private long startedAt;
+    private long completedAt;
+
+    public ThumbnailJobProgress() {
+    }
+
+    public ThumbnailJobProgress(UUID jobId, String status, int totalBooks, int processedBooks, int failedBooks, double progressPercentage, double booksPerSecond, String errorMessage, long startedAt, long completedAt) {
+        this.jobId = jobId;
+        this.status = status;
+        this.totalBooks = totalBooks;
+        this.processedBooks = processedBooks;
+        this.failedBooks = failedBooks;
+        this.progressPercentage = progressPercentage;
+        this.booksPerSecond = booksPerSecond;
+        this.errorMessage = errorMessage;
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(UUID jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getTotalBooks() {
+        return totalBooks;
+    }
+
+    public void setTotalBooks(int totalBooks) {
+        this.totalBooks = totalBooks;
+    }
+
+    public int getProcessedBooks() {
+        return processedBooks;
+    }
+
+    public void setProcessedBooks(int processedBooks) {
+        this.processedBooks = processedBooks;
+    }
+
+    public int getFailedBooks() {
+        return failedBooks;
+    }
+
+    public void setFailedBooks(int failedBooks) {
+        this.failedBooks = failedBooks;
+    }
+
+    public double getProgressPercentage() {
+        return progressPercentage;
+    }
+
+    public void setProgressPercentage(double progressPercentage) {
+        this.progressPercentage = progressPercentage;
+    }
+
+    public double getBooksPerSecond() {
+        return booksPerSecond;
+    }
+
+    public void setBooksPerSecond(double booksPerSecond) {
+        this.booksPerSecond = booksPerSecond;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(long completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ThumbnailJobProgress that = (ThumbnailJobProgress) o;
+        return totalBooks == that.totalBooks &&
+                processedBooks == that.processedBooks &&
+                failedBooks == that.failedBooks &&
+                Double.compare(that.progressPercentage, progressPercentage) == 0 &&
+                Double.compare(that.booksPerSecond, booksPerSecond) == 0 &&
+                startedAt == that.startedAt &&
+                completedAt == that.completedAt &&
+                Objects.equals(jobId, that.jobId) &&
+                Objects.equals(status, that.status) &&
+                Objects.equals(errorMessage, that.errorMessage);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(jobId, status, totalBooks, processedBooks, failedBooks, progressPercentage, booksPerSecond, errorMessage, startedAt, completedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "ThumbnailJobProgress(" +
+                "jobId=" + jobId +
+                ", status=" + status +
+                ", totalBooks=" + totalBooks +
+                ", processedBooks=" + processedBooks +
+                ", failedBooks=" + failedBooks +
+                ", progressPercentage=" + progressPercentage +
+                ", booksPerSecond=" + booksPerSecond +
+                ", errorMessage=" + errorMessage +
+                ", startedAt=" + startedAt +
+                ", completedAt=" + completedAt +
+                ')';
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private UUID jobId;
+        private String status; // IDLE, RUNNING, COMPLETED, FAILED
+        private int totalBooks;
+        private int processedBooks;
+        private int failedBooks;
+        private double progressPercentage;
+        private double booksPerSecond;
+        private String errorMessage;
+        private long startedAt;
+        private long completedAt;
+
+        public Builder jobId(UUID jobId) {
+            this.jobId = jobId;
+            return this;
+        }
+
+        public Builder status(String status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder totalBooks(int totalBooks) {
+            this.totalBooks = totalBooks;
+            return this;
+        }
+
+        public Builder processedBooks(int processedBooks) {
+            this.processedBooks = processedBooks;
+            return this;
+        }
+
+        public Builder failedBooks(int failedBooks) {
+            this.failedBooks = failedBooks;
+            return this;
+        }
+
+        public Builder progressPercentage(double progressPercentage) {
+            this.progressPercentage = progressPercentage;
+            return this;
+        }
+
+        public Builder booksPerSecond(double booksPerSecond) {
+            this.booksPerSecond = booksPerSecond;
+            return this;
+        }
+
+        public Builder errorMessage(String errorMessage) {
+            this.errorMessage = errorMessage;
+            return this;
+        }
+
+        public Builder startedAt(long startedAt) {
+            this.startedAt = startedAt;
+            return this;
+        }
+
+        public Builder completedAt(long completedAt) {
+            this.completedAt = completedAt;
+            return this;
+        }
+
+        public ThumbnailJobProgress build() {
+            return new ThumbnailJobProgress(jobId, status, totalBooks, processedBooks, failedBooks, progressPercentage, booksPerSecond, errorMessage, startedAt, completedAt);
+        }
+    }
+}
+
@@ -0,0 +1,222 @@
+package com.bookshelf.dto;
+
+import java.util.Objects;
+import java.util.UUID;
+
+public class UploadJobStatus {
+    private UUID jobId;
+    private String status; // QUEUED, PROCESSING, COMPLETED, FAILED
+    private String stage; // STORED, EXTRACTING, SAVING, INDEXING, DONE
+    private String fileName;
+    private UUID bookId;
+    private BookResponse book;
+    private String errorMessage;
+    private long submittedAt;
+    private long startedAt;
+    private long completedAt;
+
+    public UploadJobStatus() {
+    }
+
+    public UploadJobStatus(UUID jobId, String status, String stage, String fileName, UUID bookId, BookResponse book, String errorMessage, long submittedAt, long startedAt, long completedAt) {
+        this.jobId = jobId;
+        this.status = status;
+        this.stage = stage;
+        this.fileName = fileName;
+        this.bookId = bookId;
+        this.book = book;
+        this.errorMessage = errorMessage;
+        this.submittedAt = submittedAt;
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(UUID jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public UUID getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(UUID bookId) {
+        this.bookId = bookId;
+    }
+
+    public BookResponse getBook() {
+        return book;
+    }
+
+    public void setBook(BookResponse book) {
+        this.book = book;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(long submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(long completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UploadJobStatus that = (UploadJobStatus) o;
+        return submittedAt == that.submittedAt &&
+                startedAt == that.startedAt &&
+                completedAt == that.completedAt &&
+                Objects.equals(jobId, that.jobId) &&
+                Objects.equals(status, that.status) &&
+                Objects.equals(stage, that.stage) &&
+                Objects.equals(fileName, that.fileName) &&
+                Objects.equals(bookId, that.bookId) &&
+                Objects.equals(book, that.book) &&
+                Objects.equals(errorMessage, that.errorMessage);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(jobId, status, stage, fileName, bookId, book, errorMessage, submittedAt, startedAt, completedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "UploadJobStatus(" +
+                "jobId=" + jobId +
+                ", status=" + status +
+                ", stage=" + stage +
+                ", fileName=" + fileName +
+                ", bookId=" + bookId +
+                ", book=" + book +
+                ", errorMessage=" + errorMessage +
+                ", submittedAt=" + submittedAt +
+                ", startedAt=" + startedAt +
+                ", completedAt=" + completedAt +
+                ')';
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private UUID jobId;
+        private String status;
+        private String stage;
+        private String fileName;
+        private UUID bookId;
+        private BookResponse book;
+        private String errorMessage;
+        private long submittedAt;
+        private long startedAt;
+        private long completedAt;
+
+        public Builder jobId(UUID jobId) {
+            this.jobId = jobId;
+            return this;
+        }
+
+        public Builder status(String status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder stage(String stage) {
+            this.stage = stage;
+            return this;
+        }
+
+        public Builder fileName(String fileName) {
+            this.fileName = fileName;
+            return this;
+        }
+
+        public Builder bookId(UUID bookId) {
+            this.bookId = bookId;
+            return this;
+        }
+
+        public Builder book(BookResponse book) {
+            this.book = book;
+            return this;
+        }
+
+        public Builder errorMessage(String errorMessage) {
+            this.errorMessage = errorMessage;
+            return this;
+        }
+
+        public Builder submittedAt(long submittedAt) {
+            this.submittedAt = submittedAt;
+            return this;
+        }
+
+        public Builder startedAt(long startedAt) {
+            this.startedAt = startedAt;
+            return this;
+        }
+
+        public Builder completedAt(long completedAt) {
+            this.completedAt = completedAt;
+            return this;
+        }
+
+        public UploadJobStatus build() {
+            return new UploadJobStatus(jobId, status, stage, fileName, bookId, book, errorMessage, submittedAt, startedAt, completedAt);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.bookshelf.exception;
+
+/**
+ * Thrown when a request parameter has a value the endpoint does not accept
+ */
+public class InvalidParameterException extends RuntimeException {
+    public InvalidParameterException(String message) {
+        super(message);
+    }
+}
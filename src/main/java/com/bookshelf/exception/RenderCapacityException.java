@@ -0,0 +1,11 @@
+package com.bookshelf.exception;
+
+/**
+ * Thrown when a page image cannot be rendered because the server is already rendering as many
+ * pages as it allows at once
+ */
+public class RenderCapacityException extends RuntimeException {
+    public RenderCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bookshelf.exception;
+
+public class UploadQueueFullException extends RuntimeException {
+    public UploadQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.bookshelf.model;
+
+public enum AudioJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -2,7 +2,6 @@ package com.bookshelf.model;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -68,9 +67,31 @@ public class Book {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    @Formula("(COALESCE(current_page, 0) * 1.0 / NULLIF(page_count, 0))")
+    // Last metadata edit by the user (V13); unlike updated_at, not touched by progress writes
+    @Column(name = "edited_at")
+    private LocalDateTime editedAt;
+
+    // Stored generated column (V9), recomputed by Postgres whenever current_page or page_count changes
+    @Column(name = "progress_ratio", insertable = false, updatable = false)
     private Double progressRatio;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "enrichment_status", length = 20, nullable = false)
+    private EnrichmentStatus enrichmentStatus = EnrichmentStatus.COMPLETED;
+
+    @Column(name = "enrichment_attempts", nullable = false)
+    private int enrichmentAttempts;
+
+    @Column(name = "enrichment_next_attempt_at")
+    private LocalDateTime enrichmentNextAttemptAt;
+
+    // Web-optimized copy of the PDF (V11); written only by PdfOptimizationService
+    @Column(name = "web_pdf_path", length = 1000, insertable = false, updatable = false)
+    private String webPdfPath;
+
+    @Column(name = "pdf_bytes_saved", insertable = false, updatable = false)
+    private Long pdfBytesSaved;
+
     // No-arg constructor
     public Book() {
     }
@@ -80,7 +101,8 @@ public class Book {
                 Integer pageCount, Integer currentPage, ReadingStatus status, String pdfPath,
                 String thumbnailPath, String coverUrl, String fileHash, LocalDateTime dateAdded,
                 LocalDateTime lastReadAt, LocalDateTime createdAt, LocalDateTime updatedAt,
-                Double progressRatio) {
+                LocalDateTime editedAt, Double progressRatio, EnrichmentStatus enrichmentStatus, int enrichmentAttempts,
+                LocalDateTime enrichmentNextAttemptAt, String webPdfPath, Long pdfBytesSaved) {
         this.id = id;
         this.title = title;
         this.author = author;
@@ -97,7 +119,13 @@ public class Book {
         this.lastReadAt = lastReadAt;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.editedAt = editedAt;
         this.progressRatio = progressRatio;
+        this.enrichmentStatus = enrichmentStatus;
+        this.enrichmentAttempts = enrichmentAttempts;
+        this.enrichmentNextAttemptAt = enrichmentNextAttemptAt;
+        this.webPdfPath = webPdfPath;
+        this.pdfBytesSaved = pdfBytesSaved;
     }
 
     // Getters and Setters
@@ -230,6 +258,14 @@ public class Book {
         this.updatedAt = updatedAt;
     }
 
+    public LocalDateTime getEditedAt() {
+        return editedAt;
+    }
+
+    public void setEditedAt(LocalDateTime editedAt) {
+        this.editedAt = editedAt;
+    }
+
     public Double getProgressRatio() {
         return progressRatio;
     }
@@ -238,6 +274,46 @@ public class Book {
         this.progressRatio = progressRatio;
     }
 
+    public EnrichmentStatus getEnrichmentStatus() {
+        return enrichmentStatus;
+    }
+
+    public void setEnrichmentStatus(EnrichmentStatus enrichmentStatus) {
+        this.enrichmentStatus = enrichmentStatus;
+    }
+
+    public int getEnrichmentAttempts() {
+        return enrichmentAttempts;
+    }
+
+    public void setEnrichmentAttempts(int enrichmentAttempts) {
+        this.enrichmentAttempts = enrichmentAttempts;
+    }
+
+    public LocalDateTime getEnrichmentNextAttemptAt() {
+        return enrichmentNextAttemptAt;
+    }
+
+    public void setEnrichmentNextAttemptAt(LocalDateTime enrichmentNextAttemptAt) {
+        this.enrichmentNextAttemptAt = enrichmentNextAttemptAt;
+    }
+
+    public String getWebPdfPath() {
+        return webPdfPath;
+    }
+
+    public void setWebPdfPath(String webPdfPath) {
+        this.webPdfPath = webPdfPath;
+    }
+
+    public Long getPdfBytesSaved() {
+        return pdfBytesSaved;
+    }
+
+    public void setPdfBytesSaved(Long pdfBytesSaved) {
+        this.pdfBytesSaved = pdfBytesSaved;
+    }
+
     // Builder
 
     public static BookBuilder builder() {
@@ -261,7 +337,13 @@ public class Book {
         private LocalDateTime lastReadAt;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
+        private LocalDateTime editedAt;
         private Double progressRatio;
+        private EnrichmentStatus enrichmentStatus = EnrichmentStatus.COMPLETED;
+        private int enrichmentAttempts;
+        private LocalDateTime enrichmentNextAttemptAt;
+        private String webPdfPath;
+        private Long pdfBytesSaved;
 
         BookBuilder() {
         }
@@ -346,11 +428,41 @@ public class Book {
             return this;
         }
 
+        public BookBuilder editedAt(LocalDateTime editedAt) {
+            this.editedAt = editedAt;
+            return this;
+        }
+
         public BookBuilder progressRatio(Double progressRatio) {
             this.progressRatio = progressRatio;
             return this;
         }
 
+        public BookBuilder enrichmentStatus(EnrichmentStatus enrichmentStatus) {
+            this.enrichmentStatus = enrichmentStatus;
+            return this;
+        }
+
+        public BookBuilder enrichmentAttempts(int enrichmentAttempts) {
+            this.enrichmentAttempts = enrichmentAttempts;
+            return this;
+        }
+
+        public BookBuilder enrichmentNextAttemptAt(LocalDateTime enrichmentNextAttemptAt) {
+            this.enrichmentNextAttemptAt = enrichmentNextAttemptAt;
+            return this;
+        }
+
+        public BookBuilder webPdfPath(String webPdfPath) {
+            this.webPdfPath = webPdfPath;
+            return this;
+        }
+
+        public BookBuilder pdfBytesSaved(Long pdfBytesSaved) {
+            this.pdfBytesSaved = pdfBytesSaved;
+            return this;
+        }
+
         public Book build() {
             Book book = new Book();
             book.id = this.id;
@@ -369,7 +481,13 @@ public class Book {
             book.lastReadAt = this.lastReadAt;
             book.createdAt = this.createdAt;
             book.updatedAt = this.updatedAt;
+            book.editedAt = this.editedAt;
             book.progressRatio = this.progressRatio;
+            book.enrichmentStatus = this.enrichmentStatus;
+            book.enrichmentAttempts = this.enrichmentAttempts;
+            book.enrichmentNextAttemptAt = this.enrichmentNextAttemptAt;
+            book.webPdfPath = this.webPdfPath;
+            book.pdfBytesSaved = this.pdfBytesSaved;
             return book;
         }
     }
@@ -0,0 +1,7 @@
+package com.bookshelf.model;
+
+public enum EnrichmentStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
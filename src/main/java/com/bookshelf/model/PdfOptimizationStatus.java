@@ -0,0 +1,8 @@
+package com.bookshelf.model;
+
+public enum PdfOptimizationStatus {
+    PENDING,
+    OPTIMIZED,
+    SKIPPED,
+    FAILED
+}
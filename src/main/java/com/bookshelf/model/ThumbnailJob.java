@@ -0,0 +1,140 @@
+package com.bookshelf.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A bulk thumbnail regeneration run over the whole library
+ * Persisted so a running job survives a restart; lastBookId is the checkpoint
+ * (every book with an id up to it has been processed)
+ */
+@Entity
+@Table(name = "thumbnail_jobs")
+public class ThumbnailJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private ThumbnailJobStatus status = ThumbnailJobStatus.RUNNING;
+
+    @Column(name = "total_books", nullable = false)
+    private int totalBooks;
+
+    @Column(name = "processed_books", nullable = false)
+    private int processedBooks;
+
+    @Column(name = "failed_books", nullable = false)
+    private int failedBooks;
+
+    @Column(name = "last_book_id")
+    private UUID lastBookId;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // No-arg constructor
+    public ThumbnailJob() {
+    }
+
+    public ThumbnailJob(int totalBooks) {
+        this.totalBooks = totalBooks;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public ThumbnailJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ThumbnailJobStatus status) {
+        this.status = status;
+    }
+
+    public int getTotalBooks() {
+        return totalBooks;
+    }
+
+    public void setTotalBooks(int totalBooks) {
+        this.totalBooks = totalBooks;
+    }
+
+    public int getProcessedBooks() {
+        return processedBooks;
+    }
+
+    public void setProcessedBooks(int processedBooks) {
+        this.processedBooks = processedBooks;
+    }
+
+    public int getFailedBooks() {
+        return failedBooks;
+    }
+
+    public void setFailedBooks(int failedBooks) {
+        this.failedBooks = failedBooks;
+    }
+
+    public UUID getLastBookId() {
+        return lastBookId;
+    }
+
+    public void setLastBookId(UUID lastBookId) {
+        this.lastBookId = lastBookId;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
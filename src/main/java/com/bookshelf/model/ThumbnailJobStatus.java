@@ -0,0 +1,10 @@
+package com.bookshelf.model;
+
+/**
+ * Lifecycle of a bulk thumbnail regeneration job
+ */
+public enum ThumbnailJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
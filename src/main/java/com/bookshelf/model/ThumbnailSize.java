@@ -0,0 +1,38 @@
+package com.bookshelf.model;
+
+import com.bookshelf.exception.InvalidParameterException;
+
+import java.util.Locale;
+
+/**
+ * Thumbnail widths generated for every book
+ * RETINA is the file stored in books.thumbnail_path; the smaller sizes are written next to it
+ */
+public enum ThumbnailSize {
+    GRID(200),
+    DETAIL(400),
+    RETINA(600);
+
+    private final int width;
+
+    ThumbnailSize(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Size for a request parameter value (grid, detail or retina, case-insensitive)
+     *
+     * @throws InvalidParameterException if the value is not a known size
+     */
+    public static ThumbnailSize fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("Unknown thumbnail size: " + value + " (expected grid, detail or retina)");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bookshelf.repository;
+
+import com.bookshelf.model.AudioGenerationJob;
+import com.bookshelf.model.AudioJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for batch audio generation jobs
+ * Running jobs are updated with targeted UPDATE statements (checkpoint, status) from the TTS
+ * worker threads, so concurrent updates to the same job never overwrite each other
+ */
+@Repository
+public interface AudioGenerationJobRepository extends JpaRepository<AudioGenerationJob, UUID> {
+
+    /**
+     * Jobs in the given states, oldest first (startup recovery)
+     */
+    List<AudioGenerationJob> findByStatusInOrderByCreatedAtAsc(Collection<AudioJobStatus> statuses);
+
+    /**
+     * Most recent job of a book
+     */
+    Optional<AudioGenerationJob> findFirstByBookIdOrderByCreatedAtDesc(UUID bookId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AudioGenerationJob j SET j.status = com.bookshelf.model.AudioJobStatus.RUNNING, " +
+           "j.startedAt = :now, j.updatedAt = :now WHERE j.id = :id AND j.startedAt IS NULL")
+    int markStarted(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AudioGenerationJob j SET j.currentPage = :page, j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.currentPage < :page")
+    int updateCheckpoint(@Param("id") UUID id, @Param("page") int page, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AudioGenerationJob j SET j.status = :status, j.errorMessage = :error, " +
+           "j.completedAt = :now, j.updatedAt = :now WHERE j.id = :id")
+    int markFinished(@Param("id") UUID id, @Param("status") AudioJobStatus status,
+                     @Param("error") String errorMessage, @Param("now") LocalDateTime now);
+}
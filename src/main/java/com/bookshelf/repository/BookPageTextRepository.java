@@ -0,0 +1,109 @@
+package com.bookshelf.repository;
+
+import com.bookshelf.dto.ContentSearchHit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the page-level full-text index (book_page_text table)
+ * Uses JdbcTemplate because the generated tsvector column and the ranking/headline
+ * functions have no JPA mapping, and page text is written in large batches
+ */
+@Repository
+public class BookPageTextRepository {
+
+    private static final String UPSERT_PAGE =
+            "INSERT INTO book_page_text (book_id, page_number, content) VALUES (?, ?, ?) " +
+            "ON CONFLICT (book_id, page_number) DO UPDATE SET content = EXCLUDED.content";
+
+    // Rank on the GIN-filtered rows first, then build headlines only for the returned page of hits
+    private static final String SEARCH =
+            "SELECT hit.book_id, b.title, b.author, hit.page_number, hit.rank, " +
+            "       ts_headline('english', hit.content, hit.query, " +
+            "                   'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=30, MinWords=10') AS snippet " +
+            "FROM (SELECT p.book_id, p.page_number, p.content, q.query, " +
+            "             ts_rank(p.search_vector, q.query) AS rank " +
+            "      FROM book_page_text p, websearch_to_tsquery('english', ?) AS q(query) " +
+            "      WHERE p.search_vector @@ q.query " +
+            "      ORDER BY rank DESC, p.book_id, p.page_number " +
+            "      LIMIT ? OFFSET ?) hit " +
+            "JOIN books b ON b.id = hit.book_id " +
+            "ORDER BY hit.rank DESC, hit.book_id, hit.page_number";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookPageTextRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Store a chunk of consecutive pages and advance the book's indexing checkpoint
+     * Both happen in one transaction so a crash never leaves the checkpoint ahead of the data
+     *
+     * @param bookId Book the pages belong to
+     * @param firstPage 1-based number of the first page in the chunk
+     * @param pageTexts Extracted text of each page in the chunk, in order
+     */
+    @Transactional
+    public void saveChunk(UUID bookId, int firstPage, List<String> pageTexts) {
+        jdbcTemplate.batchUpdate(UPSERT_PAGE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setObject(1, bookId);
+                ps.setInt(2, firstPage + i);
+                ps.setString(3, pageTexts.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return pageTexts.size();
+            }
+        });
+        jdbcTemplate.update("UPDATE books SET text_indexed_pages = ? WHERE id = ?",
+                firstPage + pageTexts.size() - 1, bookId);
+    }
+
+    /**
+     * Number of pages already indexed for a book (0 if none or the book does not exist)
+     */
+    public int getIndexedPages(UUID bookId) {
+        List<Integer> result = jdbcTemplate.queryForList(
+                "SELECT text_indexed_pages FROM books WHERE id = ?", Integer.class, bookId);
+        return result.isEmpty() ? 0 : result.get(0);
+    }
+
+    /**
+     * Books whose text index is missing or incomplete, oldest first
+     */
+    public List<UUID> findBooksNeedingIndex(int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM books WHERE text_indexed_pages < COALESCE(page_count, 0) " +
+                "ORDER BY date_added LIMIT ?", UUID.class, limit);
+    }
+
+    /**
+     * Full-text search across all indexed pages
+     *
+     * @param query User query in web search syntax (quoted phrases, OR, -exclusion)
+     * @param limit Maximum number of hits
+     * @param offset Number of hits to skip
+     * @return Page hits ordered by relevance, with highlighted snippets
+     */
+    public List<ContentSearchHit> search(String query, int limit, int offset) {
+        return jdbcTemplate.query(SEARCH, (rs, rowNum) -> ContentSearchHit.builder()
+                .bookId(rs.getObject("book_id", UUID.class))
+                .title(rs.getString("title"))
+                .author(rs.getString("author"))
+                .pageNumber(rs.getInt("page_number"))
+                .rank(rs.getDouble("rank"))
+                .snippet(rs.getString("snippet"))
+                .build(), query, limit, offset);
+    }
+}
@@ -0,0 +1,60 @@
+package com.bookshelf.repository;
+
+import com.bookshelf.model.ReadingStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batched writes of reading progress (current page, status, last read time)
+ * Uses JdbcTemplate so a flush of many books is one JDBC batch touching only the progress
+ * columns, without loading the entities first
+ */
+@Repository
+public class BookProgressRepository {
+
+    private static final String UPDATE_PROGRESS =
+            "UPDATE books SET current_page = ?, status = ?, last_read_at = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookProgressRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Write the latest progress of each book; books deleted in the meantime are skipped
+     */
+    public void saveAll(List<ProgressUpdate> updates) {
+        jdbcTemplate.batchUpdate(UPDATE_PROGRESS, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ProgressUpdate update = updates.get(i);
+                Timestamp readAt = Timestamp.valueOf(update.readAt());
+                ps.setInt(1, update.currentPage());
+                ps.setString(2, update.status().name());
+                ps.setTimestamp(3, readAt);
+                ps.setTimestamp(4, readAt);
+                ps.setObject(5, update.bookId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return updates.size();
+            }
+        });
+    }
+
+    /**
+     * Progress of one book as of its latest reading session
+     */
+    public record ProgressUpdate(UUID bookId, int currentPage, ReadingStatus status, LocalDateTime readAt) {
+    }
+}
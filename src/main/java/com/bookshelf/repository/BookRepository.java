@@ -1,6 +1,7 @@
 package com.bookshelf.repository;
 
 import com.bookshelf.model.Book;
+import com.bookshelf.model.EnrichmentStatus;
 import com.bookshelf.model.ReadingStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,7 +10,9 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,7 +22,11 @@ import java.util.UUID;
  * Includes custom queries for search, filtering, sorting, and statistics
  */
 @Repository
-public interface BookRepository extends JpaRepository<Book, UUID> {
+public interface BookRepository extends JpaRepository<Book, UUID>, BookRepositoryCustom {
+
+    // Written against lower(title)/lower(author) so the pg_trgm expression indexes apply
+    String TRGM_MATCH = "(lower(b.title) LIKE '%' || lower(:search) || '%' " +
+                        "OR lower(b.author) LIKE '%' || lower(:search) || '%') ";
 
     /**
      * Find book by SHA-256 file hash for duplicate detection
@@ -39,21 +46,65 @@ public interface BookRepository extends JpaRepository<Book, UUID> {
     List<Book> findRecentlyReadBooks(@Param("limit") int limit);
 
     /**
-     * Count books by reading status for statistics
+     * Title, PDF paths and content hash of a book, without loading the entity (PDF downloads)
      */
-    long countByStatus(ReadingStatus status);
+    @Query("SELECT b.title AS title, b.pdfPath AS pdfPath, b.fileHash AS fileHash, b.webPdfPath AS webPdfPath "
+            + "FROM Book b WHERE b.id = :id")
+    Optional<PdfFileInfo> findPdfFileInfoById(@Param("id") UUID id);
 
-    @Query("SELECT COALESCE(SUM(b.pageCount), 0) FROM Book b")
-    long sumTotalPages();
+    /**
+     * Next books after the given id, in id order, without loading the entities
+     * Keyset pagination for bulk thumbnail regeneration (stable while books are added or removed)
+     */
+    @Query(value = "SELECT id, pdf_path AS \"pdfPath\" FROM books WHERE id > :afterId ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<ThumbnailSource> findThumbnailSourcesAfter(@Param("afterId") UUID afterId, @Param("limit") int limit);
 
-    @Query("SELECT COALESCE(SUM(b.currentPage), 0) FROM Book b")
-    long sumTotalPagesRead();
+    @Transactional
+    @Modifying
+    @Query("UPDATE Book b SET b.thumbnailPath = :path WHERE b.id = :id")
+    int updateThumbnailPath(@Param("id") UUID id, @Param("path") String thumbnailPath);
 
+    /**
+     * Book count, total pages and pages read per reading status, in one grouped scan
+     * Used to (re)build the in-memory library statistics
+     */
+    @Query("SELECT b.status AS status, COUNT(b) AS bookCount, " +
+           "COALESCE(SUM(b.pageCount), 0) AS totalPages, COALESCE(SUM(b.currentPage), 0) AS pagesRead " +
+           "FROM Book b GROUP BY b.status")
+    List<StatusAggregate> aggregateByStatus();
+
+    /**
+     * Substring search on title or author
+     * The LOWER(...) LIKE predicates are served by the pg_trgm GIN indexes from V7
+     */
     @Query("SELECT b FROM Book b WHERE " +
            "LOWER(b.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(b.author) LIKE LOWER(CONCAT('%', :search, '%'))")
     Page<Book> searchBooks(@Param("search") String search, Pageable pageable);
 
+    /**
+     * Ids of books matching the search, best trigram similarity to title or author first
+     * Native because similarity() is a pg_trgm function; the caller loads the books by id
+     */
+    @Query(value = "SELECT b.id FROM books b WHERE " + TRGM_MATCH +
+                   "ORDER BY GREATEST(similarity(lower(b.title), lower(:search)), " +
+                   "similarity(lower(COALESCE(b.author, '')), lower(:search))) DESC, b.id",
+           countQuery = "SELECT COUNT(*) FROM books b WHERE " + TRGM_MATCH,
+           nativeQuery = true)
+    Page<UUID> searchBookIdsByRelevance(@Param("search") String search, Pageable pageable);
+
+    /**
+     * Same as {@link #searchBookIdsByRelevance} restricted to one reading status
+     */
+    @Query(value = "SELECT b.id FROM books b WHERE b.status = :status AND (" + TRGM_MATCH + ") " +
+                   "ORDER BY GREATEST(similarity(lower(b.title), lower(:search)), " +
+                   "similarity(lower(COALESCE(b.author, '')), lower(:search))) DESC, b.id",
+           countQuery = "SELECT COUNT(*) FROM books b WHERE b.status = :status AND (" + TRGM_MATCH + ")",
+           nativeQuery = true)
+    Page<UUID> searchBookIdsByStatusAndRelevance(@Param("search") String search, @Param("status") String status,
+                                                 Pageable pageable);
+
     Page<Book> findByStatus(ReadingStatus status, Pageable pageable);
 
     @Modifying
@@ -72,4 +123,12 @@ public interface BookRepository extends JpaRepository<Book, UUID> {
            "LOWER(b.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(b.author) LIKE LOWER(CONCAT('%', :search, '%')))")
     Page<Book> searchBooksByStatus(@Param("search") String search, @Param("status") ReadingStatus status, Pageable pageable);
+
+    /**
+     * Books waiting for Google Books enrichment whose next attempt is due, oldest first
+     */
+    @Query("SELECT b FROM Book b WHERE b.enrichmentStatus = :status AND b.enrichmentNextAttemptAt <= :now " +
+           "ORDER BY b.enrichmentNextAttemptAt")
+    List<Book> findDueForEnrichment(@Param("status") EnrichmentStatus status, @Param("now") LocalDateTime now,
+                                    Pageable pageable);
 }
@@ -0,0 +1,33 @@
+package com.bookshelf.repository;
+
+import com.bookshelf.model.Book;
+import com.bookshelf.model.ReadingStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Custom BookRepository queries that cannot be expressed as derived or @Query methods
+ */
+public interface BookRepositoryCustom {
+
+    /**
+     * Fetch the next slice of books after a keyset position, without OFFSET or count query
+     * Rows are ordered by the sort key and then by id in the same direction. Null sort values
+     * are treated as greater than any value, matching the Postgres default ordering.
+     *
+     * @param sortKey Sort option
+     * @param after Last row of the previous slice, or null for the first slice
+     * @param status Optional reading status filter
+     * @param search Optional title/author substring filter
+     * @param limit Maximum number of rows
+     * @return Books in sort order
+     */
+    List<Book> findKeysetPage(BookSortKey sortKey, KeysetPosition after, ReadingStatus status,
+                              String search, int limit);
+
+    /**
+     * Sort key value and id of the last row returned to the client
+     */
+    record KeysetPosition(Object value, UUID id) {}
+}
@@ -0,0 +1,120 @@
+package com.bookshelf.repository;
+
+import com.bookshelf.model.Book;
+import com.bookshelf.model.ReadingStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria API implementation of {@link BookRepositoryCustom}
+ */
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Runs of the (key, id) order a slice may cover: the null keys or the non-null keys, either
+    // from the start or after the position. Each is queried on its own with plain AND bounds,
+    // which Postgres turns into an index range scan; an OR across them would not be.
+    private enum Segment { ALL, NULLS, NULLS_AFTER, VALUES, VALUES_AFTER }
+
+    @Override
+    public List<Book> findKeysetPage(BookSortKey sortKey, KeysetPosition after, ReadingStatus status,
+                                     String search, int limit) {
+        List<Book> books = new ArrayList<>(limit);
+        for (Segment segment : segments(sortKey.getDirection(), after)) {
+            books.addAll(findSegment(sortKey, segment, after, status, search, limit - books.size()));
+            if (books.size() >= limit) {
+                break;
+            }
+        }
+        return books;
+    }
+
+    // DESC puts nulls first: after a null key, continue with the remaining nulls, then all values.
+    // ASC puts nulls last: after a value, continue with larger values, then all nulls.
+    private static List<Segment> segments(Sort.Direction direction, KeysetPosition after) {
+        if (after == null) {
+            return List.of(Segment.ALL);
+        }
+        boolean afterNull = after.value() == null;
+        if (direction == Sort.Direction.DESC) {
+            return afterNull ? List.of(Segment.NULLS_AFTER, Segment.VALUES) : List.of(Segment.VALUES_AFTER);
+        }
+        return afterNull ? List.of(Segment.NULLS_AFTER) : List.of(Segment.VALUES_AFTER, Segment.NULLS);
+    }
+
+    private List<Book> findSegment(BookSortKey sortKey, Segment segment, KeysetPosition after,
+                                   ReadingStatus status, String search, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> book = query.from(Book.class);
+
+        Path<Comparable<Object>> key = book.get(sortKey.getAttribute());
+        Path<UUID> id = book.get("id");
+        boolean descending = sortKey.getDirection() == Sort.Direction.DESC;
+
+        List<Predicate> where = new ArrayList<>();
+        if (status != null) {
+            where.add(cb.equal(book.get("status"), status));
+        }
+        if (search != null) {
+            Expression<String> pattern = cb.lower(cb.literal("%" + search + "%"));
+            where.add(cb.or(
+                    cb.like(cb.lower(book.get("title")), pattern),
+                    cb.like(cb.lower(book.get("author")), pattern)));
+        }
+        switch (segment) {
+            case ALL -> { }
+            case NULLS -> where.add(cb.isNull(key));
+            case NULLS_AFTER -> {
+                where.add(cb.isNull(key));
+                where.add(descending ? cb.lessThan(id, after.id()) : cb.greaterThan(id, after.id()));
+            }
+            case VALUES -> where.add(cb.isNotNull(key));
+            case VALUES_AFTER -> where.add(descending
+                    ? valuesBefore(cb, key, id, after)
+                    : valuesAfter(cb, key, id, after));
+        }
+
+        query.select(book)
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(descending
+                        ? List.of(cb.desc(key), cb.desc(id))
+                        : List.of(cb.asc(key), cb.asc(id)));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    // key <= v AND (key < v OR id < x): the first term bounds the index range, the rest filters
+    // the rows of the boundary value
+    @SuppressWarnings("unchecked")
+    private static Predicate valuesBefore(CriteriaBuilder cb, Path<Comparable<Object>> key, Path<UUID> id,
+                                          KeysetPosition after) {
+        Comparable<Object> value = (Comparable<Object>) after.value();
+        return cb.and(
+                cb.lessThanOrEqualTo(key, value),
+                cb.or(cb.lessThan(key, value), cb.lessThan(id, after.id())));
+    }
+
+    // key >= v AND (key > v OR id > x)
+    @SuppressWarnings("unchecked")
+    private static Predicate valuesAfter(CriteriaBuilder cb, Path<Comparable<Object>> key, Path<UUID> id,
+                                         KeysetPosition after) {
+        Comparable<Object> value = (Comparable<Object>) after.value();
+        return cb.and(
+                cb.greaterThanOrEqualTo(key, value),
+                cb.or(cb.greaterThan(key, value), cb.greaterThan(id, after.id())));
+    }
+}
@@ -0,0 +1,53 @@
+package com.bookshelf.repository;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Sort options for listing books
+ * Maps the API sortBy parameter to the entity attribute and direction; each option is
+ * backed by a composite (key, id) index so it can be paged by offset or by keyset cursor
+ */
+public enum BookSortKey {
+    DATE_ADDED("dateAdded", "dateAdded", Sort.Direction.DESC),
+    TITLE("title", "title", Sort.Direction.ASC),
+    LAST_READ("lastRead", "lastReadAt", Sort.Direction.DESC),
+    PROGRESS("progress", "progressRatio", Sort.Direction.DESC);
+
+    private final String param;
+    private final String attribute;
+    private final Sort.Direction direction;
+
+    BookSortKey(String param, String attribute, Sort.Direction direction) {
+        this.param = param;
+        this.attribute = attribute;
+        this.direction = direction;
+    }
+
+    /**
+     * Resolve the API sortBy value; missing or unknown values sort by date added
+     */
+    public static BookSortKey fromParam(String sortBy) {
+        for (BookSortKey key : values()) {
+            if (key.param.equals(sortBy)) {
+                return key;
+            }
+        }
+        return DATE_ADDED;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Sort toSort() {
+        return Sort.by(direction, attribute);
+    }
+}
@@ -0,0 +1,18 @@
+package com.bookshelf.repository;
+
+/**
+ * The columns needed to serve a book's PDF
+ */
+public interface PdfFileInfo {
+
+    String getTitle();
+
+    String getPdfPath();
+
+    String getFileHash();
+
+    /**
+     * Web-optimized copy of the PDF, or null if there is none
+     */
+    String getWebPdfPath();
+}
@@ -0,0 +1,54 @@
+package com.bookshelf.repository;
+
+import com.bookshelf.model.PdfOptimizationStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the web-optimized PDF columns of the books table
+ * Uses JdbcTemplate because these columns are written only by the optimization job; the Book
+ * entity maps them read-only so saving a book never overwrites the job's result
+ */
+@Repository
+public class PdfVariantRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PdfVariantRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Books whose PDF has not been optimized yet, oldest first
+     */
+    public List<PendingPdf> findPending(int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, pdf_path FROM books WHERE pdf_optimization_status = ? ORDER BY date_added LIMIT ?",
+                (rs, rowNum) -> new PendingPdf(rs.getObject("id", UUID.class), rs.getString("pdf_path")),
+                PdfOptimizationStatus.PENDING.name(), limit);
+    }
+
+    /**
+     * Record a stored web-optimized copy
+     */
+    public void markOptimized(UUID bookId, String webPdfPath, long bytesSaved) {
+        jdbcTemplate.update(
+                "UPDATE books SET pdf_optimization_status = ?, web_pdf_path = ?, pdf_bytes_saved = ? WHERE id = ?",
+                PdfOptimizationStatus.OPTIMIZED.name(), webPdfPath, bytesSaved, bookId);
+    }
+
+    /**
+     * Record that no copy is kept (SKIPPED or FAILED)
+     */
+    public void markWithoutCopy(UUID bookId, PdfOptimizationStatus status) {
+        jdbcTemplate.update(
+                "UPDATE books SET pdf_optimization_status = ?, web_pdf_path = NULL, pdf_bytes_saved = NULL WHERE id = ?",
+                status.name(), bookId);
+    }
+
+    public record PendingPdf(UUID bookId, String pdfPath) {
+    }
+}
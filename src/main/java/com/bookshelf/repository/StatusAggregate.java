@@ -0,0 +1,17 @@
+package com.bookshelf.repository;
+
+import com.bookshelf.model.ReadingStatus;
+
+/**
+ * Per-status row of the grouped library statistics query
+ */
+public interface StatusAggregate {
+
+    ReadingStatus getStatus();
+
+    long getBookCount();
+
+    long getTotalPages();
+
+    long getPagesRead();
+}
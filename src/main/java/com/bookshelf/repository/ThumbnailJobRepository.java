@@ -0,0 +1,48 @@
+package com.bookshelf.repository;
+
+import com.bookshelf.model.ThumbnailJob;
+import com.bookshelf.model.ThumbnailJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for bulk thumbnail regeneration jobs
+ * A running job is updated with targeted UPDATE statements (checkpoint, status) from the
+ * render threads rather than by saving the entity
+ */
+@Repository
+public interface ThumbnailJobRepository extends JpaRepository<ThumbnailJob, UUID> {
+
+    /**
+     * The job in the given state, if any (at most one job runs at a time)
+     */
+    Optional<ThumbnailJob> findFirstByStatus(ThumbnailJobStatus status);
+
+    /**
+     * Most recent job
+     */
+    Optional<ThumbnailJob> findFirstByOrderByCreatedAtDesc();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ThumbnailJob j SET j.lastBookId = :lastBookId, j.processedBooks = j.processedBooks + :processed, " +
+           "j.failedBooks = j.failedBooks + :failed, j.updatedAt = :now WHERE j.id = :id")
+    int updateCheckpoint(@Param("id") UUID id, @Param("lastBookId") UUID lastBookId,
+                         @Param("processed") int processed, @Param("failed") int failed,
+                         @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ThumbnailJob j SET j.status = :status, j.errorMessage = :error, " +
+           "j.completedAt = :now, j.updatedAt = :now WHERE j.id = :id")
+    int markFinished(@Param("id") UUID id, @Param("status") ThumbnailJobStatus status,
+                     @Param("error") String errorMessage, @Param("now") LocalDateTime now);
+}
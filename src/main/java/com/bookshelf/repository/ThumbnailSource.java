@@ -0,0 +1,13 @@
+package com.bookshelf.repository;
+
+import java.util.UUID;
+
+/**
+ * The columns needed to re-render a book's thumbnails
+ */
+public interface ThumbnailSource {
+
+    UUID getId();
+
+    String getPdfPath();
+}
@@ -2,45 +2,86 @@ package com.bookshelf.service;
 
 import com.bookshelf.dto.AudioGenerationProgress;
 import com.bookshelf.exception.ResourceNotFoundException;
+import com.bookshelf.model.AudioGenerationJob;
+import com.bookshelf.model.AudioJobStatus;
 import com.bookshelf.model.Book;
+import com.bookshelf.repository.AudioGenerationJobRepository;
 import com.bookshelf.repository.BookRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Generates audio for page ranges of books in the background
+ *
+ * - Every request is an {@link AudioGenerationJob} row; the contiguous run of finished pages
+ *   is checkpointed as pages complete, and unfinished jobs are resumed on startup from the
+ *   first page without cached audio
+ * - Up to bookshelf.tts.concurrency pages are synthesized at once on the TTS executor, across
+ *   all jobs. Pages are handed out round-robin over the active jobs, so a large book shares
+ *   the workers with books queued after it instead of holding them until it is done
+ * - Cancelling stops new pages of the job; pages already in flight finish
+ * TTS requests are paced to the quota by TtsRequestThrottle.
+ */
 @Service
 public class BatchAudioGenerationService {
 
     private static final Logger log = LoggerFactory.getLogger(BatchAudioGenerationService.class);
 
+    // Length of audio_generation_jobs.error_message
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    private static final List<AudioJobStatus> UNFINISHED = List.of(AudioJobStatus.QUEUED, AudioJobStatus.RUNNING);
+
     private final TextToSpeechService textToSpeechService;
     private final BookRepository bookRepository;
+    private final AudioGenerationJobRepository jobRepository;
+    private final TaskExecutor ttsExecutor;
+    private final int concurrency;
+
+    // Guarded by this
+    private final Map<UUID, ActiveJob> activeJobs = new HashMap<>();
+    private final Deque<ActiveJob> rotation = new ArrayDeque<>();
+    private int pagesInFlight;
 
-    public BatchAudioGenerationService(TextToSpeechService textToSpeechService, BookRepository bookRepository) {
+    public BatchAudioGenerationService(TextToSpeechService textToSpeechService, BookRepository bookRepository,
+                                       AudioGenerationJobRepository jobRepository,
+                                       @Qualifier("ttsExecutor") TaskExecutor ttsExecutor,
+                                       @Value("${bookshelf.tts.concurrency:4}") int concurrency) {
         this.textToSpeechService = textToSpeechService;
         this.bookRepository = bookRepository;
+        this.jobRepository = jobRepository;
+        this.ttsExecutor = ttsExecutor;
+        this.concurrency = Math.max(1, concurrency);
     }
 
-    // Store generation progress for each book
-    private final Map<UUID, AudioGenerationProgress> progressMap = new ConcurrentHashMap<>();
-
-    // Store cancellation flags
-    private final Map<UUID, Boolean> cancellationMap = new ConcurrentHashMap<>();
-
     /**
-     * Start batch generation for a page range of a book
-     * If startPage or endPage is null, defaults to full book range
+     * Queue batch generation for a page range of a book
+     * If startPage or endPage is null, defaults to full book range.
+     * An invalid range is recorded as a FAILED job. Does nothing if the book already has an
+     * unfinished job.
      *
      * @param bookId Book UUID
      * @param startPage Starting page (null = page 1)
      * @param endPage Ending page (null = last page)
      */
-    @Async
     public void startBatchGeneration(UUID bookId, Integer startPage, Integer endPage) {
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
@@ -51,97 +92,344 @@ public class BatchAudioGenerationService {
         int start = (startPage != null && startPage > 0) ? startPage : 1;
         int end = (endPage != null && endPage > 0) ? endPage : totalPages;
 
+        synchronized (this) {
+            if (activeJobs.containsKey(bookId)) {
+                log.info("Batch generation already queued for book {}", bookId);
+                return;
+            }
+        }
+
+        AudioGenerationJob job = new AudioGenerationJob(bookId, start, end);
+
         // Validate page range
+        String invalidRange = null;
         if (start < 1 || start > totalPages) {
-            throw new IllegalArgumentException("Start page must be between 1 and " + totalPages);
+            invalidRange = "Start page must be between 1 and " + totalPages;
+        } else if (end < start || end > totalPages) {
+            invalidRange = "End page must be between " + start + " and " + totalPages;
         }
-        if (end < start || end > totalPages) {
-            throw new IllegalArgumentException("End page must be between " + start + " and " + totalPages);
+        if (invalidRange != null) {
+            job.setStatus(AudioJobStatus.FAILED);
+            job.setErrorMessage(invalidRange);
+            job.setCompletedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            return;
+        }
+
+        try {
+            job = jobRepository.save(job);
+        } catch (DataIntegrityViolationException e) {
+            // Another request inserted this book's unfinished job after the check above; the
+            // unique index on unfinished jobs per book rejected this one
+            log.info("Batch generation already queued for book {}", bookId);
+            return;
         }
+        enqueue(new ActiveJob(job.getId(), bookId, start, end, start, false, System.currentTimeMillis()));
+        dispatch();
+    }
 
-        int pageCount = end - start + 1;
+    /**
+     * Resume jobs that were queued or running when the application stopped
+     * Each continues from the first page after its checkpoint that has no cached audio.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<AudioGenerationJob> jobs = jobRepository.findByStatusInOrderByCreatedAtAsc(UNFINISHED);
+        for (AudioGenerationJob job : jobs) {
+            int firstPage = Math.max(job.getStartPage(), job.getCurrentPage() + 1);
+            while (firstPage <= job.getEndPage() && textToSpeechService.isAudioCached(job.getBookId(), firstPage)) {
+                firstPage++;
+            }
+            long startedAt = toEpochMillis(job.getStartedAt() != null ? job.getStartedAt() : job.getCreatedAt());
+            ActiveJob active = new ActiveJob(job.getId(), job.getBookId(), job.getStartPage(), job.getEndPage(),
+                    firstPage, job.getStartedAt() != null, startedAt);
+            if (firstPage > job.getEndPage()) {
+                active.finished = true;
+                finish(active);
+            } else {
+                enqueue(active);
+            }
+        }
+        if (!jobs.isEmpty()) {
+            log.info("Resumed {} unfinished audio generation job(s)", jobs.size());
+        }
+        dispatch();
+    }
 
-        // Initialize progress
-        AudioGenerationProgress progress = AudioGenerationProgress.builder()
-                .status("RUNNING")
-                .currentPage(start - 1)
-                .totalPages(end)
-                .progressPercentage(0.0)
-                .startedAt(System.currentTimeMillis())
-                .build();
+    /**
+     * Get generation progress for a book: its active job, else its most recent job, else IDLE
+     */
+    public AudioGenerationProgress getProgress(UUID bookId) {
+        synchronized (this) {
+            ActiveJob active = activeJobs.get(bookId);
+            if (active != null) {
+                return active.progress;
+            }
+        }
 
-        progressMap.put(bookId, progress);
-        cancellationMap.put(bookId, false);
+        return jobRepository.findFirstByBookIdOrderByCreatedAtDesc(bookId)
+                .map(this::toProgress)
+                .orElseGet(() -> {
+                    // Check if book exists
+                    Book book = bookRepository.findById(bookId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
 
-        try {
-            int pagesProcessed = 0;
-
-            for (int page = start; page <= end; page++) {
-                // Check for cancellation
-                if (Boolean.TRUE.equals(cancellationMap.get(bookId))) {
-                    progress.setStatus("CANCELLED");
-                    progress.setCompletedAt(System.currentTimeMillis());
-                    progressMap.put(bookId, progress);
-                    return;
+                    // No generation yet - return idle status
+                    return AudioGenerationProgress.builder()
+                            .status("IDLE")
+                            .currentPage(0)
+                            .totalPages(book.getPageCount())
+                            .progressPercentage(0.0)
+                            .build();
+                });
+    }
+
+    /**
+     * Cancel ongoing batch generation
+     * Pages already being synthesized finish; no new pages are started.
+     */
+    public void cancelGeneration(UUID bookId) {
+        ActiveJob toFinish = null;
+        synchronized (this) {
+            ActiveJob job = activeJobs.get(bookId);
+            if (job == null) {
+                return;
+            }
+            job.cancelled = true;
+            if (job.pagesInFlight == 0 && !job.finished) {
+                job.finished = true;
+                rotation.remove(job);
+                toFinish = job;
+            }
+        }
+        if (toFinish != null) {
+            finish(toFinish);
+        }
+    }
+
+    private synchronized void enqueue(ActiveJob job) {
+        activeJobs.put(job.bookId, job);
+        rotation.addLast(job);
+    }
+
+    // Start pages until all workers are busy or no job has pages left
+    private void dispatch() {
+        List<PageTask> tasks = new ArrayList<>();
+        List<ActiveJob> toFinish = new ArrayList<>();
+        synchronized (this) {
+            while (pagesInFlight < concurrency && !rotation.isEmpty()) {
+                ActiveJob job = rotation.pollFirst();
+                if (job.stopped() || job.nextPage > job.end) {
+                    // No more pages to hand out; finishes now or when its last page returns
+                    if (job.pagesInFlight == 0 && !job.finished) {
+                        job.finished = true;
+                        toFinish.add(job);
+                    }
+                    continue;
                 }
+                tasks.add(new PageTask(job, job.nextPage++));
+                job.pagesInFlight++;
+                pagesInFlight++;
+                rotation.addLast(job);
+            }
+        }
+        for (ActiveJob job : toFinish) {
+            finish(job);
+        }
+        for (PageTask task : tasks) {
+            try {
+                ttsExecutor.execute(() -> runPage(task.job(), task.page()));
+            } catch (TaskRejectedException e) {
+                task.job().fail("Audio generation could not be scheduled: " + e.getMessage());
+                pageFinished(task.job(), task.page(), false);
+            }
+        }
+    }
 
+    private void runPage(ActiveJob job, int page) {
+        boolean generated = false;
+        try {
+            if (!job.stopped()) {
+                markStarted(job);
                 // Check if already cached
-                if (!textToSpeechService.isAudioCached(bookId, page)) {
-                    textToSpeechService.generateOrGetPageAudio(bookId, page);
+                if (!textToSpeechService.isAudioCached(job.bookId, page)) {
+                    textToSpeechService.getPageAudioFile(job.bookId, page);
                 }
+                generated = true;
+            }
+        } catch (Exception e) {
+            log.error("Batch generation failed for book {} page {}", job.bookId, page, e);
+            job.fail(e.getMessage());
+        } finally {
+            pageFinished(job, page, generated);
+        }
+    }
 
-                // Update progress based on range
-                pagesProcessed++;
-                progress.setCurrentPage(page);
-                progress.setProgressPercentage((pagesProcessed * 100.0) / pageCount);
-                progressMap.put(bookId, progress);
+    private void markStarted(ActiveJob job) {
+        synchronized (this) {
+            if (job.started) {
+                return;
             }
+            job.started = true;
+            job.progress.setStatus(AudioJobStatus.RUNNING.name());
+        }
+        jobRepository.markStarted(job.id, LocalDateTime.now());
+    }
 
-            // Mark as completed
-            progress.setStatus("COMPLETED");
-            progress.setCompletedAt(System.currentTimeMillis());
-            progressMap.put(bookId, progress);
+    private void pageFinished(ActiveJob job, int page, boolean generated) {
+        int checkpoint = -1;
+        boolean finishJob = false;
+        synchronized (this) {
+            pagesInFlight--;
+            job.pagesInFlight--;
+            if (generated) {
+                checkpoint = job.pageDone(page);
+            }
+            if (job.pagesInFlight == 0 && (job.stopped() || job.nextPage > job.end) && !job.finished) {
+                job.finished = true;
+                rotation.remove(job);
+                finishJob = true;
+            }
+        }
+        if (checkpoint >= 0) {
+            try {
+                jobRepository.updateCheckpoint(job.id, checkpoint, LocalDateTime.now());
+            } catch (RuntimeException e) {
+                // The checkpoint only speeds up resuming; cached audio files are the source of truth
+                log.warn("Failed to checkpoint audio job {}: {}", job.id, e.getMessage());
+            }
+        }
+        if (finishJob) {
+            finish(job);
+        }
+        dispatch();
+    }
 
-        } catch (Exception e) {
-            log.error("Batch generation failed for book {}", bookId, e);
-            progress.setStatus("FAILED");
-            progress.setErrorMessage(e.getMessage());
+    private void finish(ActiveJob job) {
+        AudioJobStatus status;
+        synchronized (this) {
+            AudioGenerationProgress progress = job.progress;
+            if (job.errorMessage != null) {
+                status = AudioJobStatus.FAILED;
+                progress.setErrorMessage(job.errorMessage);
+            } else if (job.cancelled && job.completedPrefix < job.done.length) {
+                status = AudioJobStatus.CANCELLED;
+            } else {
+                status = AudioJobStatus.COMPLETED;
+                progress.setCurrentPage(job.end);
+                progress.setProgressPercentage(100.0);
+            }
+            progress.setStatus(status.name());
             progress.setCompletedAt(System.currentTimeMillis());
-            progressMap.put(bookId, progress);
-        } finally {
-            // Clean up cancellation flag
-            cancellationMap.remove(bookId);
         }
+        try {
+            jobRepository.markFinished(job.id, status, job.errorMessage, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Failed to record {} for audio job {}", status, job.id, e);
+            // A job left QUEUED/RUNNING would be resumed on every restart
+            try {
+                jobRepository.markFinished(job.id, AudioJobStatus.FAILED,
+                        "Failed to record job result", LocalDateTime.now());
+            } catch (RuntimeException retry) {
+                log.error("Failed to mark audio job {} as failed", job.id, retry);
+            }
+        }
+        synchronized (this) {
+            activeJobs.remove(job.bookId, job);
+        }
+    }
+
+    private AudioGenerationProgress toProgress(AudioGenerationJob job) {
+        int pageCount = job.getEndPage() - job.getStartPage() + 1;
+        int pagesDone = Math.max(0, job.getCurrentPage() - job.getStartPage() + 1);
+        return AudioGenerationProgress.builder()
+                .status(job.getStatus().name())
+                .currentPage(job.getCurrentPage())
+                .totalPages(job.getEndPage())
+                .progressPercentage(pageCount > 0 ? (pagesDone * 100.0) / pageCount : 0.0)
+                .errorMessage(job.getErrorMessage())
+                .startedAt(toEpochMillis(job.getStartedAt()))
+                .completedAt(toEpochMillis(job.getCompletedAt()))
+                .build();
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+
+    private record PageTask(ActiveJob job, int page) {
     }
 
     /**
-     * Get generation progress for a book
+     * In-memory state of an unfinished job; guarded by the service monitor unless volatile
+     * Pages finish out of order; progress only advances over the contiguous run of finished pages
+     * from the start, so currentPage always means "every page up to here has audio".
      */
-    public AudioGenerationProgress getProgress(UUID bookId) {
-        AudioGenerationProgress progress = progressMap.get(bookId);
-
-        if (progress == null) {
-            // Check if book exists
-            Book book = bookRepository.findById(bookId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
-
-            // No active generation - return idle status
-            return AudioGenerationProgress.builder()
-                    .status("IDLE")
-                    .currentPage(0)
-                    .totalPages(book.getPageCount())
-                    .progressPercentage(0.0)
+    private static final class ActiveJob {
+
+        private final UUID id;
+        private final UUID bookId;
+        private final int start;
+        private final int end;
+        private final boolean[] done;
+        private final AudioGenerationProgress progress;
+
+        private int nextPage;
+        private int completedPrefix;
+        private int pagesInFlight;
+        private boolean started;
+        private boolean finished;
+
+        private volatile boolean cancelled;
+        private volatile String errorMessage;
+
+        private ActiveJob(UUID id, UUID bookId, int start, int end, int firstPage, boolean started, long startedAt) {
+            this.id = id;
+            this.bookId = bookId;
+            this.start = start;
+            this.end = end;
+            this.nextPage = firstPage;
+            this.started = started;
+            this.done = new boolean[end - start + 1];
+            // Pages before firstPage already have audio
+            this.completedPrefix = firstPage - start;
+            for (int i = 0; i < completedPrefix; i++) {
+                done[i] = true;
+            }
+            this.progress = AudioGenerationProgress.builder()
+                    .status((started ? AudioJobStatus.RUNNING : AudioJobStatus.QUEUED).name())
+                    .currentPage(firstPage - 1)
+                    .totalPages(end)
+                    .progressPercentage((completedPrefix * 100.0) / done.length)
+                    .startedAt(startedAt)
                     .build();
         }
 
-        return progress;
-    }
+        private boolean stopped() {
+            return cancelled || errorMessage != null;
+        }
 
-    /**
-     * Cancel ongoing batch generation
-     */
-    public void cancelGeneration(UUID bookId) {
-        cancellationMap.put(bookId, true);
-    }
+        // Returns the new checkpoint page if the contiguous run advanced, otherwise -1
+        private int pageDone(int page) {
+            done[page - start] = true;
+            int before = completedPrefix;
+            while (completedPrefix < done.length && done[completedPrefix]) {
+                completedPrefix++;
+            }
+            if (completedPrefix == before) {
+                return -1;
+            }
+            progress.setCurrentPage(start + completedPrefix - 1);
+            progress.setProgressPercentage((completedPrefix * 100.0) / done.length);
+            return start + completedPrefix - 1;
+        }
 
+        private synchronized void fail(String message) {
+            if (errorMessage == null) {
+                String text = message != null ? message : "Audio generation failed";
+                errorMessage = text.length() > MAX_ERROR_MESSAGE_LENGTH
+                        ? text.substring(0, MAX_ERROR_MESSAGE_LENGTH) : text;
+            }
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.bookshelf.service;
+
+import com.bookshelf.exception.InvalidCursorException;
+import com.bookshelf.model.Book;
+import com.bookshelf.repository.BookRepositoryCustom.KeysetPosition;
+import com.bookshelf.repository.BookSortKey;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Encodes keyset pagination cursors for the book list
+ * A cursor is the base64url form of "sortKey|id|value"; the value part is omitted when the
+ * sort value of the last row is null. Clients must treat it as opaque.
+ */
+final class BookCursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private BookCursorCodec() {
+    }
+
+    static String encode(BookSortKey sortKey, Book last) {
+        Object value = sortValue(sortKey, last);
+        String raw = sortKey.getParam() + SEPARATOR + last.getId()
+                + (value == null ? "" : SEPARATOR + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidCursorException if the cursor is malformed or was issued for another sort order
+     */
+    static KeysetPosition decode(String cursor, BookSortKey sortKey) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+
+        // Limit 3 keeps separators inside title values intact
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length < 2 || !parts[0].equals(sortKey.getParam())) {
+            throw new InvalidCursorException("Cursor does not match sort order '" + sortKey.getParam() + "'");
+        }
+
+        try {
+            UUID id = UUID.fromString(parts[1]);
+            Object value = parts.length == 3 ? parseValue(sortKey, parts[2]) : null;
+            return new KeysetPosition(value, id);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    private static Object sortValue(BookSortKey sortKey, Book book) {
+        return switch (sortKey) {
+            case DATE_ADDED -> book.getDateAdded();
+            case TITLE -> book.getTitle();
+            case LAST_READ -> book.getLastReadAt();
+            case PROGRESS -> book.getProgressRatio();
+        };
+    }
+
+    private static Object parseValue(BookSortKey sortKey, String value) {
+        return switch (sortKey) {
+            case DATE_ADDED, LAST_READ -> LocalDateTime.parse(value);
+            case TITLE -> value;
+            case PROGRESS -> Double.valueOf(value);
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.bookshelf.service;
+
+import com.bookshelf.model.Book;
+import com.bookshelf.model.EnrichmentStatus;
+import com.bookshelf.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Background enricher that fills in Google Books metadata for uploaded books
+ * Runs on a schedule, picks a batch of PENDING books that are due, queries the API
+ * with bounded concurrency and a request rate limit, then hands all results to
+ * {@link BookService#applyEnrichment(List)} so the batch is written in one transaction
+ */
+@Service
+public class BookEnrichmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookEnrichmentService.class);
+
+    private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(6);
+
+    private final BookRepository bookRepository;
+    private final BookService bookService;
+    private final GoogleBooksService googleBooksService;
+    private final int batchSize;
+    private final int concurrency;
+    private final Duration requestInterval;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+
+    public BookEnrichmentService(BookRepository bookRepository, BookService bookService,
+                                 GoogleBooksService googleBooksService,
+                                 @Value("${bookshelf.enrichment.batch-size:25}") int batchSize,
+                                 @Value("${bookshelf.enrichment.concurrency:4}") int concurrency,
+                                 @Value("${bookshelf.enrichment.requests-per-second:5}") int requestsPerSecond,
+                                 @Value("${bookshelf.enrichment.max-attempts:6}") int maxAttempts,
+                                 @Value("${bookshelf.enrichment.initial-backoff-seconds:60}") long initialBackoffSeconds) {
+        this.bookRepository = bookRepository;
+        this.bookService = bookService;
+        this.googleBooksService = googleBooksService;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.requestInterval = Duration.ofMillis(1000L / Math.max(1, requestsPerSecond));
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+    }
+
+    /**
+     * Enrich one batch of due books
+     * No transaction or DB connection is held while waiting on Google Books
+     */
+    @Scheduled(fixedDelayString = "${bookshelf.enrichment.poll-interval-ms:30000}",
+               initialDelayString = "${bookshelf.enrichment.poll-interval-ms:30000}")
+    public void enrichPendingBooks() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Book> due = bookRepository.findDueForEnrichment(
+                EnrichmentStatus.PENDING, now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<EnrichmentOutcome> outcomes = Flux.fromIterable(due)
+                .delayElements(requestInterval)
+                .flatMap(book -> lookup(book, now), concurrency)
+                .collectList()
+                .block();
+
+        if (outcomes == null || outcomes.isEmpty()) {
+            return;
+        }
+
+        bookService.applyEnrichment(outcomes);
+        log.info("Enriched batch of {} books ({} failed lookups)", outcomes.size(),
+                outcomes.stream().filter(o -> o.metadata() == null).count());
+    }
+
+    private Mono<EnrichmentOutcome> lookup(Book book, LocalDateTime now) {
+        return googleBooksService.fetchMetadataAsync(book.getTitle(), book.getAuthor())
+                .timeout(LOOKUP_TIMEOUT)
+                .map(metadata -> new EnrichmentOutcome(book.getId(), book.getEditedAt(), metadata,
+                        EnrichmentStatus.COMPLETED, book.getEnrichmentAttempts() + 1, null))
+                .onErrorResume(e -> {
+                    log.warn("Google Books lookup failed for book {}: {}", book.getId(), e.getMessage());
+                    return Mono.just(failure(book, now));
+                });
+    }
+
+    private EnrichmentOutcome failure(Book book, LocalDateTime now) {
+        int attempts = book.getEnrichmentAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            return new EnrichmentOutcome(book.getId(), book.getEditedAt(), null,
+                    EnrichmentStatus.FAILED, attempts, null);
+        }
+
+        // Exponential backoff: initial, 2x, 4x, ... capped so a book is retried at least a few times a day
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(MAX_BACKOFF) > 0) {
+            backoff = MAX_BACKOFF;
+        }
+        return new EnrichmentOutcome(book.getId(), book.getEditedAt(), null,
+                EnrichmentStatus.PENDING, attempts, now.plus(backoff));
+    }
+
+    /**
+     * Result of one Google Books lookup
+     *
+     * @param bookId Book that was looked up
+     * @param fetchedEditedAt editedAt of the row when it was read, to detect concurrent user edits
+     * @param metadata Fetched metadata (empty if no match), or null if the lookup failed
+     * @param status Enrichment status to store
+     * @param attempts Attempt count to store
+     * @param nextAttemptAt When to retry, or null when no retry is scheduled
+     */
+    public record EnrichmentOutcome(UUID bookId, LocalDateTime fetchedEditedAt, Map<String, Object> metadata,
+                                    EnrichmentStatus status, int attempts, LocalDateTime nextAttemptAt) {}
+}
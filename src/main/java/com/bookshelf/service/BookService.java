@@ -2,20 +2,26 @@ package com.bookshelf.service;
 
 import com.bookshelf.dto.BookResponse;
 import com.bookshelf.dto.BookUpdateRequest;
+import com.bookshelf.dto.CursorPageResponse;
 import com.bookshelf.dto.LibraryStatsResponse;
 import com.bookshelf.dto.ProgressUpdateRequest;
 import com.bookshelf.exception.DuplicateBookException;
+import com.bookshelf.exception.InvalidCursorException;
 import com.bookshelf.exception.ResourceNotFoundException;
 import com.bookshelf.model.Book;
+import com.bookshelf.model.EnrichmentStatus;
 import com.bookshelf.model.ReadingStatus;
+import com.bookshelf.repository.BookProgressRepository;
 import com.bookshelf.repository.BookRepository;
+import com.bookshelf.repository.BookRepositoryCustom;
+import com.bookshelf.repository.BookSortKey;
+import com.bookshelf.repository.PdfFileInfo;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -24,12 +30,15 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.bookshelf.dto.BulkOperationResponse;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -41,45 +50,44 @@ public class BookService {
 
     private static final Logger log = LoggerFactory.getLogger(BookService.class);
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final BookRepository bookRepository;
     private final PdfProcessingService pdfProcessingService;
-    private final GoogleBooksService googleBooksService;
     private final NoteService noteService;
     private final TextToSpeechService textToSpeechService;
+    private final LibraryStatsEngine statsEngine;
+    private final FeaturedBooksCache featuredBooks;
+    private final ProgressWriteBuffer progressBuffer;
 
     public BookService(BookRepository bookRepository, PdfProcessingService pdfProcessingService,
-                       GoogleBooksService googleBooksService, NoteService noteService,
-                       TextToSpeechService textToSpeechService) {
+                       NoteService noteService, TextToSpeechService textToSpeechService,
+                       LibraryStatsEngine statsEngine, FeaturedBooksCache featuredBooks,
+                       ProgressWriteBuffer progressBuffer) {
         this.bookRepository = bookRepository;
         this.pdfProcessingService = pdfProcessingService;
-        this.googleBooksService = googleBooksService;
         this.noteService = noteService;
         this.textToSpeechService = textToSpeechService;
+        this.statsEngine = statsEngine;
+        this.featuredBooks = featuredBooks;
+        this.progressBuffer = progressBuffer;
     }
 
     /**
-     * Upload and process a new book
+     * Accept a new book upload (runs on the request thread)
      * 1. Validates PDF file
-     * 2. Extracts PDF metadata and generates thumbnail
-     * 3. Checks for duplicates using file hash
-     * 4. If duplicate exists in database: rejects upload
-     * 5. Fetches enriched metadata from Google Books API
-     * 6. Saves book to database
+     * 2. Streams the upload to a temp file while computing its hash (single pass)
+     * 3. Checks for duplicates using file hash, before PDFBox ever opens the document
+     * 4. If duplicate exists in database: discards the temp file and rejects upload
      *
-     * Smart reconnection: Uses deterministic book ID from file hash
-     * This allows deleted books to reconnect to their existing audio files
+     * The heavy stages run later in {@link #completeUpload}
      *
      * @param file Uploaded PDF file
-     * @return BookResponse with complete book metadata
+     * @return Staged upload ready for background processing
      * @throws IllegalArgumentException if file is empty or not a PDF
      * @throws DuplicateBookException if identical book already exists in database
      */
-    @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "libraryStats", allEntries = true),
-            @CacheEvict(value = "featuredBooks", allEntries = true)
-    })
-    public BookResponse uploadBook(MultipartFile file) {
+    public PdfProcessingService.StagedUpload stageUpload(MultipartFile file) {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
         }
@@ -90,54 +98,96 @@ public class BookService {
             throw new IllegalArgumentException("Only PDF files are allowed");
         }
 
-        UUID tempId = UUID.randomUUID();
+        PdfProcessingService.StagedUpload staged = pdfProcessingService.stageUpload(file);
 
-        Map<String, Object> pdfMetadata;
-        String fileHash;
-        UUID bookId;
+        Optional<Book> existingBook = bookRepository.findByFileHash(staged.fileHash());
+        if (existingBook.isPresent()) {
+            pdfProcessingService.discardStagedUpload(staged);
+            throw new DuplicateBookException("A book with the same content already exists: " + existingBook.get().getTitle());
+        }
 
-        pdfMetadata = pdfProcessingService.processPdf(file, tempId);
-        fileHash = (String) pdfMetadata.get("fileHash");
-        bookId = generateDeterministicUUID(fileHash);
+        return staged;
+    }
 
+    /**
+     * Finish processing a staged upload (runs on the ingest executor)
+     * 0. Repeats the duplicate check, which may have raced with an earlier upload of the same file
+     * 1. Atomically moves the file to its deterministic location
+     * 2. Extracts PDF metadata and generates thumbnail
+     * 3. Saves book to database with PDF metadata, marked enrichment PENDING
+     *
+     * Google Books enrichment happens later in {@link BookEnrichmentService}
+     * Not transactional on purpose: no DB connection is held while PDFBox renders;
+     * only the final save opens a transaction
+     *
+     * Smart reconnection: Uses deterministic book ID from file hash
+     * This allows deleted books to reconnect to their existing audio files
+     *
+     * @param staged Upload accepted by {@link #stageUpload}
+     * @param originalFilename Uploaded filename, used as the title fallback
+     * @param stageListener Notified as the upload moves through EXTRACTING and SAVING
+     * @return BookResponse with complete book metadata
+     * @throws DuplicateBookException if a book with the same content was saved in the meantime
+     */
+    public BookResponse completeUpload(PdfProcessingService.StagedUpload staged, String originalFilename,
+                                       Consumer<String> stageListener) {
+        String fileHash = staged.fileHash();
+        // Checked again here: an earlier upload of the same file may have been saved after
+        // stageUpload looked, and committing would overwrite that book's PDF
         Optional<Book> existingBook = bookRepository.findByFileHash(fileHash);
         if (existingBook.isPresent()) {
-            pdfProcessingService.deleteFiles(
-                    (String) pdfMetadata.get("pdfPath"),
-                    (String) pdfMetadata.get("thumbnailPath")
-            );
             throw new DuplicateBookException("A book with the same content already exists: " + existingBook.get().getTitle());
         }
 
-        renameBookFiles(tempId, bookId, pdfMetadata);
+        UUID bookId = generateDeterministicUUID(fileHash);
+        Path pdfPath = pdfProcessingService.commitStagedUpload(staged, bookId);
+
+        stageListener.accept("EXTRACTING");
+        Map<String, Object> pdfMetadata;
+        try {
+            pdfMetadata = pdfProcessingService.processPdf(pdfPath, bookId, originalFilename);
+        } catch (RuntimeException e) {
+            pdfProcessingService.deleteFiles(pdfPath.toString(), null);
+            throw e;
+        }
 
         String title = (String) pdfMetadata.getOrDefault("title", originalFilename.replaceFirst("[.][^.]+$", ""));
         String author = (String) pdfMetadata.get("author");
 
-        Map<String, Object> googleMetadata = googleBooksService.fetchMetadata(title, author);
-
+        stageListener.accept("SAVING");
+        LocalDateTime now = LocalDateTime.now();
         Book book = Book.builder()
                 .id(bookId)
-                .title((String) googleMetadata.getOrDefault("title", title))
-                .author((String) googleMetadata.getOrDefault("author", author))
-                .description((String) googleMetadata.get("description"))
-                .genre((String) googleMetadata.get("genre"))
+                .title(title)
+                .author(author)
                 .pageCount((Integer) pdfMetadata.get("pageCount"))
                 .currentPage(0)
                 .status(ReadingStatus.UNREAD)
                 .pdfPath((String) pdfMetadata.get("pdfPath"))
                 .thumbnailPath((String) pdfMetadata.get("thumbnailPath"))
-                .coverUrl((String) googleMetadata.get("coverUrl"))
                 .fileHash(fileHash)
-                .dateAdded(LocalDateTime.now())
+                .dateAdded(now)
+                .enrichmentStatus(EnrichmentStatus.PENDING)
+                .enrichmentNextAttemptAt(now)
                 .build();
 
-        book = bookRepository.save(book);
+        try {
+            book = bookRepository.save(book);
+        } catch (RuntimeException e) {
+            // The staged file is gone by now; remove the committed PDF and thumbnails instead
+            pdfProcessingService.deleteFiles(pdfPath.toString(), book.getThumbnailPath());
+            throw e;
+        }
+        statsEngine.bookAdded(book);
 
         return mapToResponse(book);
     }
 
     public Page<BookResponse> getAllBooks(String search, String sortBy, String status, int page, int size) {
+        if ("relevance".equals(sortBy) && search != null && !search.trim().isEmpty()) {
+            return searchByRelevance(search.trim(), status, PageRequest.of(page, size));
+        }
+
         Sort sort = buildSort(sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
 
@@ -161,16 +211,64 @@ public class BookService {
         return books.map(this::mapToResponse);
     }
 
+    /**
+     * Search ranked by trigram similarity to title or author
+     * The native query returns only ids in rank order; books are then loaded in one query
+     */
+    private Page<BookResponse> searchByRelevance(String search, String status, Pageable pageable) {
+        Page<UUID> ids = (status != null && !status.trim().isEmpty())
+                ? bookRepository.searchBookIdsByStatusAndRelevance(
+                        search, ReadingStatus.valueOf(status.toUpperCase()).name(), pageable)
+                : bookRepository.searchBookIdsByRelevance(search, pageable);
+
+        Map<UUID, Book> booksById = bookRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Book::getId, b -> b));
+        List<BookResponse> ranked = ids.getContent().stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponse)
+                .toList();
+        return new PageImpl<>(ranked, pageable, ids.getTotalElements());
+    }
+
     private Sort buildSort(String sortBy) {
-        if (sortBy == null || sortBy.isEmpty()) {
-            return Sort.by(Sort.Direction.DESC, "dateAdded");
-        }
-        return switch (sortBy) {
-            case "title" -> Sort.by(Sort.Direction.ASC, "title");
-            case "lastRead" -> Sort.by(Sort.Direction.DESC, "lastReadAt");
-            case "progress" -> Sort.by(Sort.Direction.DESC, "progressRatio");
-            default -> Sort.by(Sort.Direction.DESC, "dateAdded");
-        };
+        return BookSortKey.fromParam(sortBy).toSort();
+    }
+
+    /**
+     * Get books using keyset (cursor) pagination for infinite scrolling
+     * Runs no count query and no OFFSET, so every slice costs the same however deep the client is
+     *
+     * @param search Optional title/author substring filter
+     * @param sortBy Sort option, same values as {@link #getAllBooks}
+     * @param status Optional reading status filter
+     * @param cursor Cursor from the previous response, or null for the first slice
+     * @param size Slice size (1-100)
+     * @return Books in the slice plus the cursor for the next one
+     * @throws InvalidCursorException if the cursor is malformed or belongs to another sort order
+     */
+    public CursorPageResponse getBooksByCursor(String search, String sortBy, String status, String cursor, int size) {
+        BookSortKey sortKey = BookSortKey.fromParam(sortBy);
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+
+        BookRepositoryCustom.KeysetPosition after = (cursor == null || cursor.isBlank())
+                ? null
+                : BookCursorCodec.decode(cursor, sortKey);
+        ReadingStatus readingStatus = (status == null || status.trim().isEmpty())
+                ? null
+                : ReadingStatus.valueOf(status.toUpperCase());
+        String searchTerm = (search == null || search.trim().isEmpty()) ? null : search.trim();
+
+        // Fetch one extra row to know whether another slice exists
+        List<Book> rows = bookRepository.findKeysetPage(sortKey, after, readingStatus, searchTerm, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<Book> slice = hasMore ? rows.subList(0, limit) : rows;
+
+        return CursorPageResponse.builder()
+                .items(slice.stream().map(this::mapToResponse).toList())
+                .nextCursor(hasMore ? BookCursorCodec.encode(sortKey, slice.get(slice.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
     }
 
     public BookResponse getBookById(UUID id) {
@@ -180,13 +278,11 @@ public class BookService {
     }
 
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "libraryStats", allEntries = true),
-            @CacheEvict(value = "featuredBooks", allEntries = true)
-    })
     public BookResponse updateBook(UUID id, BookUpdateRequest request) {
+        progressBuffer.flush(List.of(id));
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+        LibraryStatsEngine.BookCounters before = LibraryStatsEngine.BookCounters.of(book);
 
         if (request.getTitle() != null) {
             book.setTitle(request.getTitle());
@@ -226,20 +322,30 @@ public class BookService {
             }
             book.setCurrentPage(clampedPage);
         }
+        if (request.getTitle() != null || request.getAuthor() != null || request.getDescription() != null
+                || request.getGenre() != null || request.getCoverUrl() != null) {
+            // Lets the background enricher tell user edits from progress writes (see applyEnrichment)
+            book.setEditedAt(LocalDateTime.now());
+        }
 
         book = bookRepository.save(book);
+        statsEngine.bookChanged(before, book, false);
 
-        return mapToResponse(book);
+        BookResponse response = mapToResponse(book);
+        featuredBooks.bookChanged(response);
+        return response;
     }
 
-    @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "libraryStats", allEntries = true),
-            @CacheEvict(value = "featuredBooks", allEntries = true)
-    })
+    /**
+     * Record a reading session
+     * Runs outside a transaction: the loaded book is detached, and the new progress goes to
+     * {@link ProgressWriteBuffer}, which coalesces page turns and writes them in batches
+     */
     public BookResponse updateProgress(UUID id, ProgressUpdateRequest request) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+        applyBufferedProgress(book);
+        LibraryStatsEngine.BookCounters before = LibraryStatsEngine.BookCounters.of(book);
 
         if (request.getCurrentPage() != null) {
             // Clamp currentPage to valid range [0, pageCount]
@@ -272,9 +378,13 @@ public class BookService {
         // Update last read timestamp
         book.setLastReadAt(LocalDateTime.now());
 
-        book = bookRepository.save(book);
+        progressBuffer.record(new BookProgressRepository.ProgressUpdate(
+                id, book.getCurrentPage(), book.getStatus(), book.getLastReadAt()));
+        statsEngine.bookChanged(before, book, true);
 
-        return mapToResponse(book);
+        BookResponse response = mapToResponse(book);
+        featuredBooks.bookRead(response);
+        return response;
     }
 
     /**
@@ -285,10 +395,6 @@ public class BookService {
      * @param id Book UUID
      */
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "libraryStats", allEntries = true),
-            @CacheEvict(value = "featuredBooks", allEntries = true)
-    })
     public void deleteBook(UUID id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
@@ -298,19 +404,23 @@ public class BookService {
 
         // Delete files from filesystem (PDF and thumbnail only)
         pdfProcessingService.deleteFiles(book.getPdfPath(), book.getThumbnailPath());
+        if (book.getWebPdfPath() != null) {
+            pdfProcessingService.deleteFiles(book.getWebPdfPath(), null);
+        }
 
         // KEEP cached audio files - they cost money to generate via Google TTS
         // Audio can be deleted manually via: DELETE /api/books/{id}/audio
+        // Stored page text is cheap to rebuild, so it goes with the book
+        textToSpeechService.deletePageText(id);
 
         // Delete database record
         bookRepository.delete(book);
+        progressBuffer.discard(id);
+        statsEngine.bookRemoved(book);
+        featuredBooks.evictBooks(List.of(id));
     }
 
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "libraryStats", allEntries = true),
-            @CacheEvict(value = "featuredBooks", allEntries = true)
-    })
     public BulkOperationResponse deleteBooks(List<UUID> ids) {
         int successCount = 0;
         List<UUID> failedIds = new ArrayList<>();
@@ -329,11 +439,8 @@ public class BookService {
     }
 
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "libraryStats", allEntries = true),
-            @CacheEvict(value = "featuredBooks", allEntries = true)
-    })
     public BulkOperationResponse updateBooksStatus(List<UUID> ids, ReadingStatus status) {
+        progressBuffer.flush(ids);
         int updatedCount;
         if (status == ReadingStatus.UNREAD) {
             updatedCount = bookRepository.updateStatusAndResetPageByIdIn(ids, status);
@@ -342,6 +449,8 @@ public class BookService {
         } else {
             updatedCount = bookRepository.updateStatusByIdIn(ids, status);
         }
+        statsEngine.booksChanged();
+        featuredBooks.evictBooks(ids);
         int notFoundCount = ids.size() - updatedCount;
 
         List<UUID> failedIds = new ArrayList<>();
@@ -356,32 +465,79 @@ public class BookService {
         return new BulkOperationResponse(updatedCount, failedIds.size(), failedIds);
     }
 
-    @Cacheable("libraryStats")
+    /**
+     * Patch the rows of one enrichment batch in a single transaction
+     * Books deleted in the meantime are skipped. If a book was edited after it was
+     * fetched for enrichment, only empty fields are filled so user edits are kept.
+     *
+     * @param outcomes Per-book lookup results computed by {@link BookEnrichmentService}
+     */
+    @Transactional
+    public void applyEnrichment(List<BookEnrichmentService.EnrichmentOutcome> outcomes) {
+        List<UUID> ids = outcomes.stream().map(BookEnrichmentService.EnrichmentOutcome::bookId).toList();
+        progressBuffer.flush(ids);
+        Map<UUID, Book> books = bookRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Book::getId, b -> b));
+
+        for (BookEnrichmentService.EnrichmentOutcome outcome : outcomes) {
+            Book book = books.get(outcome.bookId());
+            if (book == null) {
+                continue;
+            }
+            // Counters are unchanged; keeps the continue-reading entry's title/cover current
+            statsEngine.bookChanged(LibraryStatsEngine.BookCounters.of(book), book, false);
+
+            book.setEnrichmentStatus(outcome.status());
+            book.setEnrichmentAttempts(outcome.attempts());
+            book.setEnrichmentNextAttemptAt(outcome.nextAttemptAt());
+
+            Map<String, Object> metadata = outcome.metadata();
+            if (metadata == null || metadata.isEmpty()) {
+                continue;
+            }
+
+            boolean editedSinceFetch = !Objects.equals(book.getEditedAt(), outcome.fetchedEditedAt());
+            if (!editedSinceFetch) {
+                book.setTitle((String) metadata.getOrDefault("title", book.getTitle()));
+                book.setAuthor((String) metadata.getOrDefault("author", book.getAuthor()));
+            }
+            if (book.getDescription() == null) {
+                book.setDescription((String) metadata.get("description"));
+            }
+            if (book.getGenre() == null) {
+                book.setGenre((String) metadata.get("genre"));
+            }
+            if (book.getCoverUrl() == null) {
+                book.setCoverUrl((String) metadata.get("coverUrl"));
+            }
+        }
+
+        bookRepository.saveAll(books.values());
+        books.values().forEach(book -> featuredBooks.bookChanged(mapToResponse(book)));
+    }
+
+    /**
+     * Get library statistics from the in-memory counters maintained by {@link LibraryStatsEngine}
+     */
     public LibraryStatsResponse getLibraryStats() {
-        long totalBooks = bookRepository.count();
-        long unreadBooks = bookRepository.countByStatus(ReadingStatus.UNREAD);
-        long readingBooks = bookRepository.countByStatus(ReadingStatus.READING);
-        long finishedBooks = bookRepository.countByStatus(ReadingStatus.FINISHED);
-        long totalPages = bookRepository.sumTotalPages();
-        long totalPagesRead = bookRepository.sumTotalPagesRead();
-
-        BookResponse continueReading = bookRepository.findMostRecentlyRead()
-                .map(this::mapToResponse)
-                .orElse(null);
+        LibraryStatsEngine.Snapshot stats = statsEngine.snapshot();
 
         return LibraryStatsResponse.builder()
-                .totalBooks(totalBooks)
-                .unreadBooks(unreadBooks)
-                .readingBooks(readingBooks)
-                .finishedBooks(finishedBooks)
-                .totalPages(totalPages)
-                .totalPagesRead(totalPagesRead)
-                .continueReading(continueReading)
+                .totalBooks(stats.totalBooks())
+                .unreadBooks(stats.unreadBooks())
+                .readingBooks(stats.readingBooks())
+                .finishedBooks(stats.finishedBooks())
+                .totalPages(stats.totalPages())
+                .totalPagesRead(stats.totalPagesRead())
+                .continueReading(stats.continueReading() == null ? null : mapToResponse(stats.continueReading()))
                 .build();
     }
 
-    @Cacheable(value = "featuredBooks", key = "#limit")
+    @Cacheable(value = FeaturedBooksCache.CACHE_NAME, key = "#limit")
     public List<BookResponse> getFeaturedBooks(int limit) {
+        // Ordering comes from last_read_at, so write pending reading sessions first
+        progressBuffer.flush();
         List<Book> recentlyReadBooks = bookRepository.findRecentlyReadBooks(limit);
 
         return recentlyReadBooks.stream()
@@ -389,10 +545,12 @@ public class BookService {
                 .collect(Collectors.toList());
     }
 
-    public String getPdfPath(UUID bookId) {
-        Book book = bookRepository.findById(bookId)
+    /**
+     * Title, PDF path and content hash of a book, for serving its PDF
+     */
+    public PdfFileInfo getPdfFileInfo(UUID bookId) {
+        return bookRepository.findPdfFileInfoById(bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
-        return book.getPdfPath();
     }
 
     public String getThumbnailPath(UUID bookId) {
@@ -401,29 +559,6 @@ public class BookService {
         return book.getThumbnailPath();
     }
 
-    /**
-     * Regenerate all thumbnails as optimized JPEGs
-     * Re-renders at 300 DPI, resizes to max 600px wide, saves as JPEG at 0.85 quality
-     */
-    @Transactional
-    public int regenerateAllThumbnails() {
-        List<Book> allBooks = bookRepository.findAll();
-        int count = 0;
-        for (Book book : allBooks) {
-            try {
-                if (book.getPdfPath() != null) {
-                    String newPath = pdfProcessingService.regenerateThumbnail(book.getPdfPath(), book.getId());
-                    book.setThumbnailPath(newPath);
-                    bookRepository.save(book);
-                    count++;
-                }
-            } catch (Exception e) {
-                log.error("Failed to regenerate thumbnail for book {}: {}", book.getId(), e.getMessage());
-            }
-        }
-        return count;
-    }
-
     /**
      * Generate deterministic UUID from file hash
      * Same PDF file will always generate the same book ID
@@ -448,53 +583,30 @@ public class BookService {
     }
 
     /**
-     * Rename PDF and thumbnail files from temporary ID to final deterministic ID
-     *
-     * @param tempId Temporary UUID used during initial processing
-     * @param finalId Final deterministic UUID based on file hash
-     * @param metadata Metadata map containing file paths to update
+     * Overlay progress that is still in the write buffer onto a detached book
      */
-    private void renameBookFiles(UUID tempId, UUID finalId, Map<String, Object> metadata) {
-        try {
-            String oldPdfPath = (String) metadata.get("pdfPath");
-            String oldThumbnailPath = (String) metadata.get("thumbnailPath");
-
-            // Build new paths by replacing just the filename
-            java.nio.file.Path oldPdfFile = java.nio.file.Paths.get(oldPdfPath);
-            java.nio.file.Path oldThumbnailFile = java.nio.file.Paths.get(oldThumbnailPath);
-
-            String newPdfFilename = finalId.toString() + ".pdf";
-            String newThumbnailFilename = finalId.toString() + ".png";
-
-            java.nio.file.Path newPdfFile = oldPdfFile.getParent().resolve(newPdfFilename);
-            java.nio.file.Path newThumbnailFile = oldThumbnailFile.getParent().resolve(newThumbnailFilename);
-
-            // Rename PDF file
-            java.nio.file.Files.move(
-                    oldPdfFile,
-                    newPdfFile,
-                    java.nio.file.StandardCopyOption.REPLACE_EXISTING
-            );
-
-            // Rename thumbnail file
-            java.nio.file.Files.move(
-                    oldThumbnailFile,
-                    newThumbnailFile,
-                    java.nio.file.StandardCopyOption.REPLACE_EXISTING
-            );
-
-            // Update metadata map with new paths
-            metadata.put("pdfPath", newPdfFile.toString());
-            metadata.put("thumbnailPath", newThumbnailFile.toString());
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to rename book files: " + e.getMessage(), e);
+    private void applyBufferedProgress(Book book) {
+        BookProgressRepository.ProgressUpdate buffered = progressBuffer.get(book.getId());
+        if (buffered != null) {
+            book.setCurrentPage(buffered.currentPage());
+            book.setStatus(buffered.status());
+            book.setLastReadAt(buffered.readAt());
         }
     }
 
+    /**
+     * Map a book to its response, using buffered progress when it is newer than the database row
+     * The entity itself is left untouched, since it may be managed by an open transaction
+     */
     private BookResponse mapToResponse(Book book) {
+        BookProgressRepository.ProgressUpdate buffered = progressBuffer.get(book.getId());
+        Integer currentPage = buffered != null ? buffered.currentPage() : book.getCurrentPage();
+        ReadingStatus status = buffered != null ? buffered.status() : book.getStatus();
+        LocalDateTime lastReadAt = buffered != null ? buffered.readAt() : book.getLastReadAt();
+
         double progressPercentage = 0.0;
-        if (book.getPageCount() != null && book.getPageCount() > 0 && book.getCurrentPage() != null) {
-            progressPercentage = (double) book.getCurrentPage() / book.getPageCount() * 100.0;
+        if (book.getPageCount() != null && book.getPageCount() > 0 && currentPage != null) {
+            progressPercentage = (double) currentPage / book.getPageCount() * 100.0;
         }
 
         return BookResponse.builder()
@@ -504,13 +616,15 @@ public class BookService {
                 .description(book.getDescription())
                 .genre(book.getGenre())
                 .pageCount(book.getPageCount())
-                .currentPage(book.getCurrentPage())
-                .status(book.getStatus())
+                .currentPage(currentPage)
+                .status(status)
                 .coverUrl(book.getCoverUrl())
                 .fileHash(book.getFileHash())
                 .dateAdded(book.getDateAdded())
-                .lastReadAt(book.getLastReadAt())
+                .lastReadAt(lastReadAt)
                 .progressPercentage(progressPercentage)
+                .enrichmentStatus(book.getEnrichmentStatus())
+                .pdfBytesSaved(book.getPdfBytesSaved())
                 .build();
     }
 }
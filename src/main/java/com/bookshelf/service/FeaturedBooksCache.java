@@ -0,0 +1,102 @@
+package com.bookshelf.service;
+
+import com.bookshelf.dto.BookResponse;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the cached featured lists ("featuredBooks", keyed by limit) in step with book mutations
+ * Instead of evicting every list on every write, each change is applied only to the lists it affects:
+ * - a reading session moves the book to the front of every list (it is now the most recently read)
+ * - an edit replaces the book in place in lists that contain it; other lists are untouched
+ * - a removal or bulk update evicts only the lists that contain one of the books
+ * Changes are applied after the transaction commits, so rolled-back writes never show up.
+ */
+@Component
+public class FeaturedBooksCache {
+
+    public static final String CACHE_NAME = "featuredBooks";
+
+    private final CacheManager cacheManager;
+
+    public FeaturedBooksCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Record a reading session; the book becomes the first entry of every cached list
+     */
+    public void bookRead(BookResponse book) {
+        TransactionHooks.afterCommit(() -> entries().replaceAll((key, value) -> {
+            List<BookResponse> list = asList(value);
+            int limit = (Integer) key;
+            List<BookResponse> updated = new ArrayList<>(Math.max(limit, 0));
+            if (limit > 0) {
+                updated.add(book);
+            }
+            for (BookResponse existing : list) {
+                if (updated.size() >= limit) {
+                    break;
+                }
+                if (!existing.getId().equals(book.getId())) {
+                    updated.add(existing);
+                }
+            }
+            return updated;
+        }));
+    }
+
+    /**
+     * Record an edit that does not change when the book was last read
+     */
+    public void bookChanged(BookResponse book) {
+        TransactionHooks.afterCommit(() -> entries().replaceAll((key, value) -> {
+            List<BookResponse> list = asList(value);
+            int index = indexOf(list, book.getId());
+            if (index < 0) {
+                return value;
+            }
+            List<BookResponse> updated = new ArrayList<>(list);
+            updated.set(index, book);
+            return updated;
+        }));
+    }
+
+    /**
+     * Evict the lists containing any of the given books
+     * Used when books are deleted or changed in bulk, where the lists need refilling from the database
+     */
+    public void evictBooks(Collection<UUID> bookIds) {
+        TransactionHooks.afterCommit(() -> entries().values().removeIf(value ->
+                asList(value).stream().anyMatch(b -> bookIds.contains(b.getId()))));
+    }
+
+    private ConcurrentMap<Object, Object> entries() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        @SuppressWarnings("unchecked")
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+        return nativeCache.asMap();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<BookResponse> asList(Object value) {
+        return value instanceof List<?> list ? (List<BookResponse>) list : List.of();
+    }
+
+    private static int indexOf(List<BookResponse> list, UUID bookId) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).getId().equals(bookId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
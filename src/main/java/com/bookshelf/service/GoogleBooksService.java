@@ -33,100 +33,94 @@ public class GoogleBooksService {
     }
 
     /**
-     * Fetch enriched metadata from Google Books API
+     * Fetch enriched metadata from Google Books API without blocking
      * Searches by title and author, returns first match
-     * Gracefully degrades if API fails or returns no results
+     * Emits an empty map when there is nothing to search for or no match was found;
+     * transport and HTTP errors are propagated so the caller can retry with backoff
      *
      * @param title Book title for search query
      * @param author Book author for search query (optional)
-     * @return Map containing: title, author, description, genre, coverUrl, pageCount
+     * @return Mono of a map containing: title, author, description, genre, coverUrl, pageCount
      */
-    public Map<String, Object> fetchMetadata(String title, String author) {
-        Map<String, Object> enrichedMetadata = new HashMap<>();
-
-        try {
-            // Build search query
-            StringBuilder query = new StringBuilder();
-            if (title != null && !title.trim().isEmpty()) {
-                query.append("intitle:").append(title.trim());
-            }
-            if (author != null && !author.trim().isEmpty()) {
-                if (query.length() > 0) {
-                    query.append("+");
-                }
-                query.append("inauthor:").append(author.trim());
+    public Mono<Map<String, Object>> fetchMetadataAsync(String title, String author) {
+        // Build search query
+        StringBuilder query = new StringBuilder();
+        if (title != null && !title.trim().isEmpty()) {
+            query.append("intitle:").append(title.trim());
+        }
+        if (author != null && !author.trim().isEmpty()) {
+            if (query.length() > 0) {
+                query.append("+");
             }
+            query.append("inauthor:").append(author.trim());
+        }
 
-            if (query.length() == 0) {
-                return enrichedMetadata;
-            }
+        if (query.length() == 0) {
+            return Mono.just(new HashMap<>());
+        }
 
-            // Make API request
-            String uri = "/volumes?q=" + query.toString() + "&maxResults=1";
-            if (apiKey != null && !apiKey.trim().isEmpty()) {
-                uri += "&key=" + apiKey;
-            }
+        // Make API request
+        String uri = "/volumes?q=" + query.toString() + "&maxResults=1";
+        if (apiKey != null && !apiKey.trim().isEmpty()) {
+            uri += "&key=" + apiKey;
+        }
 
-            GoogleBooksResponse response = webClient.get()
-                    .uri(uri)
-                    .retrieve()
-                    .bodyToMono(GoogleBooksResponse.class)
-                    .onErrorResume(e -> {
-                        log.error("Google Books API error: {}", e.getMessage());
-                        return Mono.empty();
-                    })
-                    .block();
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(GoogleBooksResponse.class)
+                .map(this::extractMetadata)
+                .defaultIfEmpty(new HashMap<>());
+    }
 
-            if (response != null && response.getItems() != null && !response.getItems().isEmpty()) {
-                GoogleBooksResponse.VolumeInfo volumeInfo = response.getItems().get(0).getVolumeInfo();
+    private Map<String, Object> extractMetadata(GoogleBooksResponse response) {
+        Map<String, Object> enrichedMetadata = new HashMap<>();
 
-                if (volumeInfo != null) {
-                    // Extract title
-                    if (volumeInfo.getTitle() != null) {
-                        enrichedMetadata.put("title", volumeInfo.getTitle());
-                    }
+        if (response.getItems() != null && !response.getItems().isEmpty()) {
+            GoogleBooksResponse.VolumeInfo volumeInfo = response.getItems().get(0).getVolumeInfo();
 
-                    // Extract author
-                    if (volumeInfo.getAuthors() != null && !volumeInfo.getAuthors().isEmpty()) {
-                        enrichedMetadata.put("author", String.join(", ", volumeInfo.getAuthors()));
-                    }
+            if (volumeInfo != null) {
+                // Extract title
+                if (volumeInfo.getTitle() != null) {
+                    enrichedMetadata.put("title", volumeInfo.getTitle());
+                }
 
-                    // Extract description
-                    if (volumeInfo.getDescription() != null) {
-                        enrichedMetadata.put("description", volumeInfo.getDescription());
-                    }
+                // Extract author
+                if (volumeInfo.getAuthors() != null && !volumeInfo.getAuthors().isEmpty()) {
+                    enrichedMetadata.put("author", String.join(", ", volumeInfo.getAuthors()));
+                }
 
-                    // Extract genre/category
-                    if (volumeInfo.getCategories() != null && !volumeInfo.getCategories().isEmpty()) {
-                        enrichedMetadata.put("genre", volumeInfo.getCategories().get(0));
-                    }
+                // Extract description
+                if (volumeInfo.getDescription() != null) {
+                    enrichedMetadata.put("description", volumeInfo.getDescription());
+                }
 
-                    // Extract cover image URL
-                    if (volumeInfo.getImageLinks() != null) {
-                        String coverUrl = volumeInfo.getImageLinks().getThumbnail();
-                        if (coverUrl == null) {
-                            coverUrl = volumeInfo.getImageLinks().getSmallThumbnail();
-                        }
-                        if (coverUrl != null) {
-                            // Upgrade to HTTPS and request higher resolution image
-                            coverUrl = coverUrl.replace("http://", "https://");
-                            coverUrl = coverUrl.replace("zoom=1", "zoom=2");
-                            coverUrl = coverUrl.replace("&edge=curl", "");
-                            enrichedMetadata.put("coverUrl", coverUrl);
-                        }
-                    }
+                // Extract genre/category
+                if (volumeInfo.getCategories() != null && !volumeInfo.getCategories().isEmpty()) {
+                    enrichedMetadata.put("genre", volumeInfo.getCategories().get(0));
+                }
 
-                    // Extract page count (if not already set)
-                    if (volumeInfo.getPageCount() != null) {
-                        enrichedMetadata.put("pageCount", volumeInfo.getPageCount());
+                // Extract cover image URL
+                if (volumeInfo.getImageLinks() != null) {
+                    String coverUrl = volumeInfo.getImageLinks().getThumbnail();
+                    if (coverUrl == null) {
+                        coverUrl = volumeInfo.getImageLinks().getSmallThumbnail();
+                    }
+                    if (coverUrl != null) {
+                        // Upgrade to HTTPS and request higher resolution image
+                        coverUrl = coverUrl.replace("http://", "https://");
+                        coverUrl = coverUrl.replace("zoom=1", "zoom=2");
+                        coverUrl = coverUrl.replace("&edge=curl", "");
+                        enrichedMetadata.put("coverUrl", coverUrl);
                     }
+                }
 
+                // Extract page count (if not already set)
+                if (volumeInfo.getPageCount() != null) {
+                    enrichedMetadata.put("pageCount", volumeInfo.getPageCount());
                 }
-            }
 
-        } catch (Exception e) {
-            log.error("Failed to fetch Google Books metadata", e);
-            // Graceful degradation - return empty metadata
+            }
         }
 
         return enrichedMetadata;
@@ -0,0 +1,222 @@
+package com.bookshelf.service;
+
+import com.bookshelf.model.Book;
+import com.bookshelf.model.ReadingStatus;
+import com.bookshelf.repository.BookRepository;
+import com.bookshelf.repository.StatusAggregate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * In-memory library statistics kept current by per-mutation deltas
+ * BookService reports every change; deltas are applied only after the transaction commits,
+ * so rolled-back writes never show up. A single grouped aggregate query rebuilds the counters
+ * on first use, on the first read after a bulk update, and periodically to correct any drift.
+ * Rebuilds are never run from an after-commit callback: reconcile flushes buffered progress,
+ * and writes made there would join the already committed transaction and be lost.
+ * Reading the stats never touches the database once the counters are loaded.
+ */
+@Service
+public class LibraryStatsEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LibraryStatsEngine.class);
+
+    private static final int MAX_RECONCILE_ATTEMPTS = 3;
+
+    private final BookRepository bookRepository;
+    private final ProgressWriteBuffer progressBuffer;
+
+    private final Object lock = new Object();
+
+    // Null until the first reconcile; replaced as a whole so readers never see a half-applied delta
+    private volatile Snapshot snapshot;
+
+    // Number of deltas seen, guarded by lock; lets reconcile detect writes that raced with its query
+    private long mutations;
+
+    // Set when the counters can no longer be updated by deltas; the next read rebuilds them
+    private volatile boolean stale;
+
+    public LibraryStatsEngine(BookRepository bookRepository, ProgressWriteBuffer progressBuffer) {
+        this.bookRepository = bookRepository;
+        this.progressBuffer = progressBuffer;
+    }
+
+    /**
+     * Current statistics, loading them from the database on first use and after bulk updates
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null || stale) {
+            reconcile();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Rebuild the counters from the database
+     * Retries if books changed while the aggregate query was running
+     */
+    @Scheduled(fixedDelayString = "${bookshelf.stats.reconcile-interval-ms:600000}",
+               initialDelayString = "${bookshelf.stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        for (int attempt = 1; ; attempt++) {
+            long seen;
+            synchronized (lock) {
+                seen = mutations;
+            }
+
+            // Reading sessions are counted as soon as they are buffered, so write them before comparing
+            progressBuffer.flush();
+            List<StatusAggregate> rows = bookRepository.aggregateByStatus();
+            Book continueReading = bookRepository.findMostRecentlyRead().orElse(null);
+
+            synchronized (lock) {
+                if (mutations == seen || attempt == MAX_RECONCILE_ATTEMPTS) {
+                    if (mutations == seen) {
+                        stale = false;
+                    }
+                    Snapshot rebuilt = Snapshot.of(rows, continueReading);
+                    Snapshot previous = snapshot;
+                    if (previous != null && !previous.sameCounters(rebuilt)) {
+                        log.info("Library stats drift corrected: {} -> {}", previous, rebuilt);
+                    }
+                    snapshot = rebuilt;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Record a newly saved book
+     */
+    public void bookAdded(Book book) {
+        BookCounters after = BookCounters.of(book);
+        TransactionHooks.afterCommit(() -> apply(null, after, book, false));
+    }
+
+    /**
+     * Record a change to an existing book
+     *
+     * @param before Counters captured before the change
+     * @param book The book after the change
+     * @param read Whether the change was a reading session (the book becomes "continue reading")
+     */
+    public void bookChanged(BookCounters before, Book book, boolean read) {
+        BookCounters after = BookCounters.of(book);
+        TransactionHooks.afterCommit(() -> apply(before, after, book, read));
+    }
+
+    /**
+     * Record a deleted book
+     */
+    public void bookRemoved(Book book) {
+        BookCounters before = BookCounters.of(book);
+        TransactionHooks.afterCommit(() -> apply(before, null, book, false));
+    }
+
+    /**
+     * Record a bulk update whose per-book changes are not known; the next read reconciles
+     */
+    public void booksChanged() {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (lock) {
+                mutations++;
+                stale = true;
+            }
+        });
+    }
+
+    private void apply(BookCounters before, BookCounters after, Book book, boolean read) {
+        synchronized (lock) {
+            mutations++;
+            Snapshot current = snapshot;
+            if (current == null) {
+                // Not loaded yet; the first read will load counters that already include this change
+                return;
+            }
+
+            long[] statusCounts = {current.unreadBooks(), current.readingBooks(), current.finishedBooks()};
+            long totalPages = current.totalPages();
+            long pagesRead = current.totalPagesRead();
+            if (before != null) {
+                statusCounts[before.status().ordinal()]--;
+                totalPages -= before.pageCount();
+                pagesRead -= before.currentPage();
+            }
+            if (after != null) {
+                statusCounts[after.status().ordinal()]++;
+                totalPages += after.pageCount();
+                pagesRead += after.currentPage();
+            }
+
+            Book continueReading = current.continueReading();
+            boolean isContinueReading = continueReading != null && continueReading.getId().equals(book.getId());
+            if (after == null && isContinueReading) {
+                // The next most recently read book is only known to the database
+                continueReading = null;
+                stale = true;
+            } else if (read || isContinueReading) {
+                continueReading = book;
+            }
+
+            snapshot = new Snapshot(statusCounts[0] + statusCounts[1] + statusCounts[2],
+                    statusCounts[0], statusCounts[1], statusCounts[2], totalPages, pagesRead, continueReading);
+        }
+    }
+
+    /**
+     * The parts of a book that contribute to the counters
+     */
+    public record BookCounters(ReadingStatus status, int pageCount, int currentPage) {
+
+        public static BookCounters of(Book book) {
+            return new BookCounters(
+                    book.getStatus(),
+                    book.getPageCount() == null ? 0 : book.getPageCount(),
+                    book.getCurrentPage() == null ? 0 : book.getCurrentPage());
+        }
+    }
+
+    /**
+     * Immutable view of the library statistics
+     */
+    public record Snapshot(long totalBooks, long unreadBooks, long readingBooks, long finishedBooks,
+                           long totalPages, long totalPagesRead, Book continueReading) {
+
+        static Snapshot of(List<StatusAggregate> rows, Book continueReading) {
+            long[] statusCounts = new long[ReadingStatus.values().length];
+            long totalPages = 0;
+            long pagesRead = 0;
+            for (StatusAggregate row : rows) {
+                statusCounts[row.getStatus().ordinal()] = row.getBookCount();
+                totalPages += row.getTotalPages();
+                pagesRead += row.getPagesRead();
+            }
+            return new Snapshot(statusCounts[0] + statusCounts[1] + statusCounts[2],
+                    statusCounts[ReadingStatus.UNREAD.ordinal()],
+                    statusCounts[ReadingStatus.READING.ordinal()],
+                    statusCounts[ReadingStatus.FINISHED.ordinal()],
+                    totalPages, pagesRead, continueReading);
+        }
+
+        boolean sameCounters(Snapshot other) {
+            return totalBooks == other.totalBooks && unreadBooks == other.unreadBooks
+                    && readingBooks == other.readingBooks && finishedBooks == other.finishedBooks
+                    && totalPages == other.totalPages && totalPagesRead == other.totalPagesRead;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot(totalBooks=" + totalBooks + ", unread=" + unreadBooks + ", reading=" + readingBooks
+                    + ", finished=" + finishedBooks + ", totalPages=" + totalPages
+                    + ", totalPagesRead=" + totalPagesRead + ")";
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.bookshelf.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The MPEG Layer III audio frames of an MP3 file, for joining MP3s without re-encoding
+ *
+ * An MP3 file is a sequence of self-contained frames, optionally wrapped in ID3 tags, and may
+ * start with a Xing/Info or VBRI frame that holds no audio but describes the whole file. Keeping
+ * only the audio frames of each file and writing them one after another gives a single valid
+ * stream, as long as all files share the same encoder settings (as the TTS output of one voice
+ * configuration does). Joins keep each file's encoder padding, a few milliseconds of silence.
+ */
+final class Mp3Frames {
+
+    // Kbit/s by bitrate index, for MPEG-1 and for MPEG-2/2.5 Layer III; 0 is "free", not supported
+    private static final int[] MPEG1_BITRATES = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int[] MPEG2_BITRATES = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160};
+    // Hz by sample rate index, for MPEG-1 (MPEG-2 halves, MPEG-2.5 quarters these)
+    private static final int[] MPEG1_SAMPLE_RATES = {44100, 48000, 32000};
+
+    private final byte[] frames;
+    private final long samples;
+    private final int sampleRate;
+
+    private Mp3Frames(byte[] frames, long samples, int sampleRate) {
+        this.frames = frames;
+        this.samples = samples;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * The audio frames of an MP3 file, without ID3 tags and Xing/Info/VBRI header frames
+     *
+     * @throws IOException if the data holds no MPEG Layer III frames
+     */
+    static Mp3Frames parse(byte[] mp3) throws IOException {
+        int position = 0;
+        int end = mp3.length;
+        if (end >= 10 && mp3[0] == 'I' && mp3[1] == 'D' && mp3[2] == '3') {
+            // ID3v2: 10-byte header, syncsafe size, optional 10-byte footer
+            int size = (mp3[6] & 0x7F) << 21 | (mp3[7] & 0x7F) << 14 | (mp3[8] & 0x7F) << 7 | (mp3[9] & 0x7F);
+            position = 10 + size + ((mp3[5] & 0x10) != 0 ? 10 : 0);
+        }
+        if (end - position >= 128 && mp3[end - 128] == 'T' && mp3[end - 127] == 'A' && mp3[end - 126] == 'G') {
+            end -= 128; // ID3v1
+        }
+
+        ByteArrayOutputStream frames = new ByteArrayOutputStream(Math.max(0, end - position));
+        long samples = 0;
+        int sampleRate = 0;
+        boolean first = true;
+        while (position + 4 <= end) {
+            int frameLength = frameLength(mp3, position);
+            if (frameLength <= 0) {
+                position++; // not a frame header; resynchronize on the next one
+                continue;
+            }
+            if (position + frameLength > end) {
+                break; // truncated last frame
+            }
+            if (!(first && isInfoFrame(mp3, position, frameLength))) {
+                frames.write(mp3, position, frameLength);
+                samples += samplesPerFrame(mp3, position);
+                sampleRate = sampleRate(mp3, position);
+            }
+            first = false;
+            position += frameLength;
+        }
+        if (samples == 0) {
+            throw new IOException("No MPEG Layer III frames in " + mp3.length + " bytes of audio");
+        }
+        return new Mp3Frames(frames.toByteArray(), samples, sampleRate);
+    }
+
+    /**
+     * The frames of all parts, one after another
+     */
+    static byte[] concat(List<Mp3Frames> parts) {
+        int length = 0;
+        for (Mp3Frames part : parts) {
+            length += part.frames.length;
+        }
+        byte[] joined = new byte[length];
+        int position = 0;
+        for (Mp3Frames part : parts) {
+            System.arraycopy(part.frames, 0, joined, position, part.frames.length);
+            position += part.frames.length;
+        }
+        return joined;
+    }
+
+    /**
+     * Playing time of the frames
+     */
+    double seconds() {
+        return (double) samples / sampleRate;
+    }
+
+    // Length in bytes of the Layer III frame whose header starts at position, or 0 if there is none
+    private static int frameLength(byte[] mp3, int position) {
+        int b1 = mp3[position + 1] & 0xFF;
+        int b2 = mp3[position + 2] & 0xFF;
+        if ((mp3[position] & 0xFF) != 0xFF || (b1 & 0xE0) != 0xE0
+                || version(b1) == 1 || ((b1 >> 1) & 0x3) != 1) {
+            return 0;
+        }
+        int bitrateIndex = b2 >> 4;
+        int sampleRateIndex = (b2 >> 2) & 0x3;
+        if (bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+            return 0;
+        }
+        boolean mpeg1 = version(b1) == 3;
+        int bitrate = (mpeg1 ? MPEG1_BITRATES : MPEG2_BITRATES)[bitrateIndex] * 1000;
+        int padding = (b2 >> 1) & 0x1;
+        return (mpeg1 ? 144 : 72) * bitrate / sampleRate(mp3, position) + padding;
+    }
+
+    // 3: MPEG-1, 2: MPEG-2, 0: MPEG-2.5, 1: reserved
+    private static int version(int b1) {
+        return (b1 >> 3) & 0x3;
+    }
+
+    private static int sampleRate(byte[] mp3, int position) {
+        int version = version(mp3[position + 1] & 0xFF);
+        int rate = MPEG1_SAMPLE_RATES[(mp3[position + 2] >> 2) & 0x3];
+        return version == 3 ? rate : version == 2 ? rate / 2 : rate / 4;
+    }
+
+    private static int samplesPerFrame(byte[] mp3, int position) {
+        return version(mp3[position + 1] & 0xFF) == 3 ? 1152 : 576;
+    }
+
+    // Xing/Info tag after the side information, or VBRI tag at a fixed offset
+    private static boolean isInfoFrame(byte[] mp3, int position, int frameLength) {
+        boolean mpeg1 = version(mp3[position + 1] & 0xFF) == 3;
+        boolean mono = ((mp3[position + 3] >> 6) & 0x3) == 3;
+        int sideInfo = mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+        int frameEnd = position + frameLength;
+        return hasTag(mp3, position + 4 + sideInfo, frameEnd, "Xing")
+                || hasTag(mp3, position + 4 + sideInfo, frameEnd, "Info")
+                || hasTag(mp3, position + 36, frameEnd, "VBRI");
+    }
+
+    private static boolean hasTag(byte[] mp3, int position, int frameEnd, String tag) {
+        if (position + tag.length() > frameEnd) {
+            return false;
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            if (mp3[position + i] != tag.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
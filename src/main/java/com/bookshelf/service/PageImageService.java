@@ -0,0 +1,327 @@
+package com.bookshelf.service;
+
+import com.bookshelf.exception.InvalidParameterException;
+import com.bookshelf.exception.PdfProcessingException;
+import com.bookshelf.exception.RenderCapacityException;
+import com.bookshelf.exception.ResourceNotFoundException;
+import com.bookshelf.model.Book;
+import com.bookshelf.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Renders single PDF pages to JPEG on demand, so clients can page through a book without
+ * downloading the PDF
+ *
+ * - Requested widths are rounded up to a fixed set of buckets, so the cache holds a few
+ *   sizes per page instead of one per device
+ * - Rendered images are kept on disk ({page-image-directory}/{bookId}/{page}-{width}.jpg)
+ *   up to max-bytes; least recently used images are deleted first. Images of deleted books
+ *   are not removed eagerly, they age out the same way
+ * - Concurrent requests for an image that is not cached yet share one render
+ * - At most max-concurrent-renders pages are rendered at once, each capped at max-pixels, so
+ *   uncached requests cannot exhaust the heap; a request that waits too long for a render slot
+ *   fails with {@link RenderCapacityException}
+ * - Rendering reuses the open document from {@link PdfDocumentCache}
+ */
+@Service
+public class PageImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(PageImageService.class);
+
+    static final int[] WIDTH_BUCKETS = {320, 480, 640, 800, 1024, 1280, 1600, 2048};
+    static final int DEFAULT_WIDTH = 1024;
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final long RENDER_WAIT_SECONDS = 10;
+
+    private final BookRepository bookRepository;
+    private final PdfDocumentCache documentCache;
+    private final Path imageDirectory;
+    private final long maxBytes;
+    private final long maxPixels;
+    private final Semaphore renderSlots;
+
+    // Cached images in access order (least recently used first) with their sizes; guarded by this
+    private final Map<Path, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    // Renders in progress, keyed by target file
+    private final Map<Path, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public PageImageService(BookRepository bookRepository, PdfDocumentCache documentCache,
+                            @Value("${bookshelf.storage.page-image-directory}") String imageDirectory,
+                            @Value("${bookshelf.page-images.max-bytes:536870912}") long maxBytes,
+                            @Value("${bookshelf.page-images.max-concurrent-renders:2}") int maxConcurrentRenders,
+                            @Value("${bookshelf.page-images.max-pixels:6000000}") long maxPixels) {
+        this.bookRepository = bookRepository;
+        this.documentCache = documentCache;
+        this.imageDirectory = Paths.get(imageDirectory);
+        this.maxBytes = maxBytes;
+        this.maxPixels = maxPixels;
+        this.renderSlots = new Semaphore(Math.max(1, maxConcurrentRenders), true);
+    }
+
+    /**
+     * Rebuild the LRU index from the images already on disk, oldest first
+     */
+    @PostConstruct
+    public void loadIndex() throws IOException {
+        if (!Files.isDirectory(imageDirectory)) {
+            return;
+        }
+        List<Path> leftovers = new ArrayList<>();
+        List<Map.Entry<Path, BasicFileAttributes>> images = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(imageDirectory, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    leftovers.add(file);
+                } else if (name.endsWith(".jpg")) {
+                    images.add(Map.entry(file, Files.readAttributes(file, BasicFileAttributes.class)));
+                }
+            }
+        }
+        for (Path leftover : leftovers) {
+            Files.deleteIfExists(leftover);
+        }
+        images.sort(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()));
+        synchronized (this) {
+            for (Map.Entry<Path, BasicFileAttributes> image : images) {
+                index.put(image.getKey(), image.getValue().size());
+                totalBytes += image.getValue().size();
+            }
+        }
+        evictOverBudget();
+        log.info("Page image cache: {} images, {} bytes", images.size(), cachedBytes());
+    }
+
+    /**
+     * JPEG of a page at (at least) the requested width, rendering it if it is not cached
+     *
+     * @param bookId Book UUID
+     * @param pageNumber Page number (1-indexed)
+     * @param width Requested width in pixels, or null for the default width
+     * @return Cached image file
+     */
+    public Path getPageImage(UUID bookId, int pageNumber, Integer width) {
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
+        if (pageNumber < 1 || pageNumber > book.getPageCount()) {
+            throw new IllegalArgumentException(
+                    "Invalid page number: " + pageNumber + ". Book has " + book.getPageCount() + " pages.");
+        }
+        int bucket = widthBucket(width);
+        Path imageFile = imageDirectory.resolve(bookId.toString()).resolve(pageNumber + "-" + bucket + ".jpg");
+
+        if (Files.exists(imageFile)) {
+            touch(imageFile);
+            return imageFile;
+        }
+
+        CompletableFuture<Path> render = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(imageFile, render);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            // Another render may have finished between the exists check and claiming the slot
+            if (!Files.exists(imageFile)) {
+                renderPage(book, pageNumber, bucket, imageFile);
+            }
+            touch(imageFile);
+            render.complete(imageFile);
+            evictOverBudget();
+            return imageFile;
+        } catch (IOException | RuntimeException e) {
+            render.completeExceptionally(e);
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            log.error("Failed to render page {} of book {}", pageNumber, bookId, e);
+            throw new PdfProcessingException("Failed to render page image", e);
+        } finally {
+            inFlight.remove(imageFile, render);
+        }
+    }
+
+    /**
+     * Smallest width bucket that is at least the requested width (the largest bucket if none is)
+     */
+    static int widthBucket(Integer width) {
+        if (width == null) {
+            return DEFAULT_WIDTH;
+        }
+        if (width < 1) {
+            throw new InvalidParameterException("Width must be positive: " + width);
+        }
+        for (int bucket : WIDTH_BUCKETS) {
+            if (bucket >= width) {
+                return bucket;
+            }
+        }
+        return WIDTH_BUCKETS[WIDTH_BUCKETS.length - 1];
+    }
+
+    /**
+     * Total size of the cached images in bytes
+     */
+    public synchronized long cachedBytes() {
+        return totalBytes;
+    }
+
+    private void renderPage(Book book, int pageNumber, int width, Path imageFile) throws IOException {
+        try {
+            if (!renderSlots.tryAcquire(RENDER_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new RenderCapacityException("Too many page images are being rendered. Try again shortly.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to render a page", e);
+        }
+        try {
+            renderAndWrite(book, pageNumber, width, imageFile);
+        } finally {
+            renderSlots.release();
+        }
+    }
+
+    private void renderAndWrite(Book book, int pageNumber, int width, Path imageFile) throws IOException {
+        long start = System.currentTimeMillis();
+        BufferedImage image;
+        try (PdfDocumentCache.Lease lease = documentCache.acquire(book.getId(), book.getPdfPath())) {
+            PDPage page = lease.document().getPage(pageNumber - 1);
+            image = new PDFRenderer(lease.document()).renderImage(pageNumber - 1, scale(page, width), ImageType.RGB);
+        }
+
+        // Write then rename, so a concurrent request never streams a half-written image
+        Files.createDirectories(imageFile.getParent());
+        Path temp = Files.createTempFile(imageFile.getParent(), imageFile.getFileName().toString(), ".tmp");
+        try {
+            writeJpeg(image, temp);
+            Files.move(temp, imageFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.debug("Rendered page {} of book {} at {}px in {}ms",
+                pageNumber, book.getId(), width, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Scale that renders a page at the given width, reduced if the image would exceed max-pixels
+     * (a very tall page at a large width)
+     */
+    float scale(PDPage page, int width) {
+        PDRectangle cropBox = page.getCropBox();
+        boolean sideways = page.getRotation() % 180 != 0;
+        float pageWidth = sideways ? cropBox.getHeight() : cropBox.getWidth();
+        float pageHeight = sideways ? cropBox.getWidth() : cropBox.getHeight();
+        // Half a pixel of slack so float rounding cannot make the image one pixel narrow
+        float scale = (width + 0.5f) / pageWidth;
+        double pixels = (double) pageWidth * scale * pageHeight * scale;
+        if (pixels > maxPixels) {
+            scale *= (float) Math.sqrt(maxPixels / pixels);
+        }
+        return scale;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path file) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("JPEG");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer found");
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam writeParam = writer.getDefaultWriteParam();
+        writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        writeParam.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), writeParam);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // Mark an image as most recently used, adding it to the index if it is new
+    private void touch(Path imageFile) {
+        synchronized (this) {
+            if (index.get(imageFile) != null) {
+                return;
+            }
+        }
+        long size;
+        try {
+            size = Files.size(imageFile);
+        } catch (IOException e) {
+            return;
+        }
+        synchronized (this) {
+            if (index.putIfAbsent(imageFile, size) == null) {
+                totalBytes += size;
+            }
+        }
+    }
+
+    private void evictOverBudget() {
+        List<Path> victims = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<Path, Long>> iterator = index.entrySet().iterator();
+            while (totalBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<Path, Long> eldest = iterator.next();
+                victims.add(eldest.getKey());
+                totalBytes -= eldest.getValue();
+                iterator.remove();
+            }
+        }
+        for (Path victim : victims) {
+            try {
+                Files.deleteIfExists(victim);
+            } catch (IOException e) {
+                log.warn("Failed to delete cached page image {}: {}", victim, e.getMessage());
+            }
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> render) {
+        try {
+            return render.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new PdfProcessingException("Failed to render page image", e.getCause());
+        }
+    }
+}
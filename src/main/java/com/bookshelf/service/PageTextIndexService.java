@@ -0,0 +1,156 @@
+package com.bookshelf.service;
+
+import com.bookshelf.dto.ContentSearchHit;
+import com.bookshelf.exception.PdfProcessingException;
+import com.bookshelf.model.Book;
+import com.bookshelf.repository.BookPageTextRepository;
+import com.bookshelf.repository.BookRepository;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for the page-level full-text index over PDF content
+ * Extracts page text with PDFBox and stores it in chunks, advancing a per-book checkpoint,
+ * so indexing can be interrupted at any time and resumed later.
+ * New uploads are indexed by the upload job; existing books are backfilled in the background.
+ */
+@Service
+public class PageTextIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(PageTextIndexService.class);
+
+    private static final int MAX_SEARCH_RESULTS = 50;
+
+    private final BookRepository bookRepository;
+    private final BookPageTextRepository pageTextRepository;
+    private final int chunkPages;
+    private final int backfillBatchSize;
+
+    // Books currently being indexed, so the upload job and the backfill never work on the same book
+    private final Set<UUID> indexing = ConcurrentHashMap.newKeySet();
+
+    // Books whose PDF could not be read; skipped by the backfill until the next restart
+    private final Set<UUID> failed = ConcurrentHashMap.newKeySet();
+
+    public PageTextIndexService(BookRepository bookRepository, BookPageTextRepository pageTextRepository,
+                                @Value("${bookshelf.search.index-chunk-pages:25}") int chunkPages,
+                                @Value("${bookshelf.search.backfill-batch-size:10}") int backfillBatchSize) {
+        this.bookRepository = bookRepository;
+        this.pageTextRepository = pageTextRepository;
+        this.chunkPages = chunkPages;
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    /**
+     * Index the remaining pages of a book, starting after its checkpoint
+     *
+     * @param bookId Book UUID
+     * @return Number of pages indexed by this call (0 if already complete or in progress elsewhere)
+     * @throws PdfProcessingException if the PDF cannot be read
+     */
+    public int indexBook(UUID bookId) {
+        if (!indexing.add(bookId)) {
+            return 0;
+        }
+
+        try {
+            Book book = bookRepository.findById(bookId).orElse(null);
+            if (book == null || book.getPageCount() == null) {
+                return 0;
+            }
+
+            int indexedPages = pageTextRepository.getIndexedPages(bookId);
+            int totalPages = book.getPageCount();
+            if (indexedPages >= totalPages) {
+                return 0;
+            }
+
+            try (PDDocument document = Loader.loadPDF(new File(book.getPdfPath()))) {
+                totalPages = Math.min(totalPages, document.getNumberOfPages());
+                PDFTextStripper stripper = new PDFTextStripper();
+
+                for (int start = indexedPages + 1; start <= totalPages; start += chunkPages) {
+                    int end = Math.min(start + chunkPages - 1, totalPages);
+                    List<String> pageTexts = new ArrayList<>(end - start + 1);
+                    for (int page = start; page <= end; page++) {
+                        stripper.setStartPage(page);
+                        stripper.setEndPage(page);
+                        pageTexts.add(sanitize(stripper.getText(document)));
+                    }
+                    pageTextRepository.saveChunk(bookId, start, pageTexts);
+                }
+            }
+
+            return totalPages - indexedPages;
+
+        } catch (IOException e) {
+            log.error("Failed to index text for book {}", bookId, e);
+            throw new PdfProcessingException("Failed to index PDF text", e);
+        } finally {
+            indexing.remove(bookId);
+        }
+    }
+
+    /**
+     * Backfill the index for books that are not (fully) indexed yet
+     * Starts with a delay so it never slows down application startup
+     */
+    @Scheduled(initialDelayString = "${bookshelf.search.backfill-initial-delay-ms:120000}",
+               fixedDelayString = "${bookshelf.search.backfill-interval-ms:300000}")
+    public void backfill() {
+        List<UUID> bookIds = pageTextRepository.findBooksNeedingIndex(backfillBatchSize + failed.size());
+
+        int indexedBooks = 0;
+        for (UUID bookId : bookIds) {
+            if (failed.contains(bookId) || indexedBooks >= backfillBatchSize) {
+                continue;
+            }
+            try {
+                indexBook(bookId);
+                indexedBooks++;
+            } catch (Exception e) {
+                log.warn("Skipping book {} in text index backfill: {}", bookId, e.getMessage());
+                failed.add(bookId);
+            }
+        }
+
+        if (indexedBooks > 0) {
+            log.info("Text index backfill processed {} books", indexedBooks);
+        }
+    }
+
+    /**
+     * Search the text of all indexed pages
+     *
+     * @param query Search query; supports quoted phrases, OR and -exclusion
+     * @param page Page number (0-based)
+     * @param size Page size (capped at 50)
+     * @return Page hits ordered by relevance, empty for a blank query
+     */
+    public List<ContentSearchHit> search(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_RESULTS));
+        return pageTextRepository.search(query.trim(), limit, Math.max(0, page) * limit);
+    }
+
+    // Postgres text columns cannot hold NUL characters, which some PDFs emit
+    private String sanitize(String text) {
+        return text.replace("\u0000", "").trim();
+    }
+}
@@ -0,0 +1,234 @@
+package com.bookshelf.service;
+
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * On-disk store of extracted page text, one file per book
+ * The whole book is extracted once (lazily, on the first page lookup) and each page's raw and
+ * speech-cleaned text is written to {text-directory}/{bookId}.pages. Later lookups read the
+ * memory-mapped file at the page's offset, with no PDFBox involvement. Extraction leases the
+ * cached PDF one page at a time, so other users of the document interleave with it.
+ *
+ * File layout (big-endian):
+ *   int magic, int version, long pdfSize, long pdfModified, int pageCount,
+ *   long[pageCount] record offsets,
+ *   per page: int rawLength, raw UTF-8 bytes, int cleanedLength, cleaned UTF-8 bytes
+ *
+ * The PDF's size and modification time are recorded so the file is rebuilt if the PDF changes.
+ */
+@Component
+public class PageTextStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PageTextStore.class);
+
+    private static final int MAGIC = 0x424B5054; // "BKPT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+    private static final int MAX_MAPPED_BOOKS = 256;
+
+    private final PdfDocumentCache pdfDocumentCache;
+    private final Path textDirectory;
+
+    // Most recently used mappings; guarded by itself
+    private final Map<UUID, ByteBuffer> mapped = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, ByteBuffer> eldest) {
+            return size() > MAX_MAPPED_BOOKS;
+        }
+    };
+
+    // One build per book at a time (one small lock object per book, kept for the app's lifetime)
+    private final Map<UUID, Object> buildLocks = new ConcurrentHashMap<>();
+
+    public PageTextStore(PdfDocumentCache pdfDocumentCache,
+                         @Value("${bookshelf.storage.text-directory}") String textDirectory) {
+        this.pdfDocumentCache = pdfDocumentCache;
+        this.textDirectory = Paths.get(textDirectory).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Raw and cleaned text of a page, building the book's file first if needed
+     *
+     * @param bookId Book the PDF belongs to
+     * @param pdfPath Path of the PDF file
+     * @param pageNumber 1-based page number
+     * @param cleaner Turns raw page text into the text to speak; applied once per page at build time
+     */
+    public PageText getPage(UUID bookId, String pdfPath, int pageNumber, UnaryOperator<String> cleaner)
+            throws IOException {
+        File pdf = new File(pdfPath);
+        ByteBuffer buffer = current(bookId, pdf);
+        if (buffer == null) {
+            synchronized (buildLocks.computeIfAbsent(bookId, id -> new Object())) {
+                buffer = current(bookId, pdf);
+                if (buffer == null) {
+                    build(bookId, pdfPath, cleaner);
+                    buffer = current(bookId, pdf);
+                }
+            }
+        }
+        if (buffer == null) {
+            throw new IOException("Page text file for book " + bookId + " is unreadable after rebuild");
+        }
+
+        int pageCount = buffer.getInt(HEADER_BYTES - 4);
+        if (pageNumber < 1 || pageNumber > pageCount) {
+            throw new IllegalArgumentException(
+                    "Invalid page number: " + pageNumber + ". Book has " + pageCount + " pages.");
+        }
+        int offset = (int) buffer.getLong(HEADER_BYTES + (pageNumber - 1) * 8);
+        int rawLength = buffer.getInt(offset);
+        String raw = readString(buffer, offset + 4, rawLength);
+        int cleanedOffset = offset + 4 + rawLength;
+        String cleaned = readString(buffer, cleanedOffset + 4, buffer.getInt(cleanedOffset));
+        return new PageText(raw, cleaned);
+    }
+
+    /**
+     * Delete a book's page text file
+     */
+    public void delete(UUID bookId) {
+        synchronized (mapped) {
+            mapped.remove(bookId);
+        }
+        try {
+            Files.deleteIfExists(filePath(bookId));
+        } catch (IOException e) {
+            log.warn("Failed to delete page text for book {}: {}", bookId, e.getMessage());
+        }
+    }
+
+    // Mapped file if it exists and matches the PDF, otherwise null
+    private ByteBuffer current(UUID bookId, File pdf) throws IOException {
+        ByteBuffer buffer;
+        synchronized (mapped) {
+            buffer = mapped.get(bookId);
+        }
+        if (buffer == null) {
+            Path file = filePath(bookId);
+            if (!Files.exists(file)) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+
+        boolean valid = buffer.capacity() >= HEADER_BYTES
+                && buffer.getInt(0) == MAGIC
+                && buffer.getInt(4) == VERSION
+                && buffer.getLong(8) == pdf.length()
+                && buffer.getLong(16) == pdf.lastModified();
+        synchronized (mapped) {
+            if (valid) {
+                mapped.put(bookId, buffer);
+            } else {
+                mapped.remove(bookId);
+            }
+        }
+        return valid ? buffer : null;
+    }
+
+    private void build(UUID bookId, String pdfPath, UnaryOperator<String> cleaner) throws IOException {
+        long start = System.currentTimeMillis();
+        File pdf = new File(pdfPath);
+        long pdfSize = pdf.length();
+        long pdfModified = pdf.lastModified();
+
+        List<byte[]> raws = new ArrayList<>();
+        List<byte[]> cleaneds = new ArrayList<>();
+        PDFTextStripper stripper = new PDFTextStripper();
+        int pages = 1;
+        for (int page = 1; page <= pages; page++) {
+            // The lease is taken per page, so page image renders of this book are not held up
+            // for the whole extraction
+            String raw;
+            try (PdfDocumentCache.Lease lease = pdfDocumentCache.acquire(bookId, pdfPath)) {
+                pages = lease.document().getNumberOfPages();
+                if (pages == 0) {
+                    break;
+                }
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                raw = stripper.getText(lease.document()).trim();
+            }
+            String cleaned = raw.isEmpty() ? "" : cleaner.apply(raw);
+            raws.add(raw.getBytes(StandardCharsets.UTF_8));
+            cleaneds.add(cleaned.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Path file = filePath(bookId);
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            int pageCount = raws.size();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(pdfSize);
+            out.writeLong(pdfModified);
+            out.writeInt(pageCount);
+
+            long offset = HEADER_BYTES + 8L * pageCount;
+            for (int i = 0; i < pageCount; i++) {
+                out.writeLong(offset);
+                offset += 4 + raws.get(i).length + 4 + cleaneds.get(i).length;
+            }
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("Page text for book " + bookId + " exceeds 2 GB");
+            }
+            for (int i = 0; i < pageCount; i++) {
+                out.writeInt(raws.get(i).length);
+                out.write(raws.get(i));
+                out.writeInt(cleaneds.get(i).length);
+                out.write(cleaneds.get(i));
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (mapped) {
+            mapped.remove(bookId);
+        }
+
+        log.info("Stored page text for book {} ({} pages, {} bytes) in {}ms",
+                bookId, raws.size(), Files.size(file), System.currentTimeMillis() - start);
+    }
+
+    private static String readString(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Path filePath(UUID bookId) {
+        return textDirectory.resolve(bookId + ".pages");
+    }
+
+    /**
+     * Text of one page: as extracted from the PDF (trimmed), and cleaned for speech
+     */
+    public record PageText(String raw, String cleaned) {
+    }
+}
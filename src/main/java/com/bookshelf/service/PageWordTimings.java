@@ -0,0 +1,271 @@
+package com.bookshelf.service;
+
+import com.bookshelf.dto.CompactWordTimings;
+import com.bookshelf.dto.WordTiming;
+import com.google.cloud.texttospeech.v1beta1.Timepoint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Word timings of one page's audio, stored in a sidecar file next to the page's MP3
+ *
+ * Words are the whitespace-separated runs of the page text (as text.split("\\s+")), held as
+ * columns: offset and length in the text, start and end time in milliseconds. Timings come
+ * either from the SSML marks Google TTS reports while synthesizing, or from the speaking-rate
+ * estimate when no marks were available.
+ *
+ * File layout (big-endian):
+ *   magic (int) | version (int) | text length (int) | text hash (int) | estimated (byte) |
+ *   word count (int) | offsets | lengths | start ms | end ms (word count ints each)
+ * The text length and hash tie the file to the text it was made for.
+ */
+final class PageWordTimings {
+
+    private static final int MAGIC = 0x424B5754; // "BKWT"
+    private static final int VERSION = 1;
+
+    private final int textLength;
+    private final int textHash;
+    private final boolean estimated;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final int[] startMs;
+    private final int[] endMs;
+
+    private PageWordTimings(int textLength, int textHash, boolean estimated,
+                            int[] offsets, int[] lengths, int[] startMs, int[] endMs) {
+        this.textLength = textLength;
+        this.textHash = textHash;
+        this.estimated = estimated;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.startMs = startMs;
+        this.endMs = endMs;
+    }
+
+    /**
+     * Timings estimated from word lengths and the speaking rate
+     */
+    static PageWordTimings estimate(String text) {
+        PageWordTimings timings = words(text, true);
+        double currentTime = 0.0;
+        for (int i = 0; i < timings.wordCount(); i++) {
+            double wordDuration = TextToSpeechService.estimatedWordDuration(timings.lengths[i]);
+            // Times are rounded from the running total, so rounding errors do not add up
+            timings.startMs[i] = (int) Math.round(currentTime * 1000);
+            timings.endMs[i] = (int) Math.round((currentTime + wordDuration) * 1000);
+            currentTime += wordDuration;
+        }
+        return timings;
+    }
+
+    /**
+     * Timings from the marks of {@link SpeechChunker}: a word starts at its mark and ends where the next
+     * word starts. A word whose mark is missing starts an estimated duration after the previous
+     * word; the last word ends an estimated duration after its start.
+     */
+    static PageWordTimings fromTimepoints(String text, List<Timepoint> timepoints) {
+        PageWordTimings timings = words(text, false);
+        int words = timings.wordCount();
+        Arrays.fill(timings.startMs, -1);
+        for (Timepoint timepoint : timepoints) {
+            int word = markIndex(timepoint.getMarkName());
+            if (word >= 0 && word < words) {
+                timings.startMs[word] = (int) Math.round(timepoint.getTimeSeconds() * 1000);
+            }
+        }
+
+        for (int i = 0; i < words; i++) {
+            int earliest = i == 0 ? 0 : timings.startMs[i - 1] + estimatedMs(timings.lengths[i - 1]);
+            if (timings.startMs[i] < 0 || (i > 0 && timings.startMs[i] < timings.startMs[i - 1])) {
+                timings.startMs[i] = earliest;
+            }
+        }
+        for (int i = 0; i < words; i++) {
+            boolean nextStartsLater = i + 1 < words && timings.startMs[i + 1] > timings.startMs[i];
+            timings.endMs[i] = nextStartsLater
+                    ? timings.startMs[i + 1]
+                    : timings.startMs[i] + estimatedMs(timings.lengths[i]);
+        }
+        return timings;
+    }
+
+    /**
+     * Whether these timings were made for the given text
+     */
+    boolean matches(String text) {
+        return text.length() == textLength && text.hashCode() == textHash;
+    }
+
+    boolean isEstimated() {
+        return estimated;
+    }
+
+    int wordCount() {
+        return offsets.length;
+    }
+
+    List<WordTiming> toWordTimings(String text) {
+        List<WordTiming> timings = new ArrayList<>(wordCount());
+        for (int i = 0; i < wordCount(); i++) {
+            timings.add(WordTiming.builder()
+                    .word(text.substring(offsets[i], offsets[i] + lengths[i]))
+                    .startTime(startMs[i] / 1000.0)
+                    .endTime(endMs[i] / 1000.0)
+                    .build());
+        }
+        return timings;
+    }
+
+    /**
+     * Columns with offsets and start times delta-encoded, ends as durations
+     *
+     * @param packed Encode the columns as unsigned LEB128 varints (offset, length, start, duration
+     *               per word) in one base64 string, instead of four int arrays
+     */
+    CompactWordTimings toCompact(String text, boolean packed) {
+        int words = wordCount();
+        int[] offsetDeltas = new int[words];
+        int[] startDeltas = new int[words];
+        int[] durations = new int[words];
+        for (int i = 0; i < words; i++) {
+            offsetDeltas[i] = offsets[i] - (i == 0 ? 0 : offsets[i - 1]);
+            startDeltas[i] = startMs[i] - (i == 0 ? 0 : startMs[i - 1]);
+            durations[i] = endMs[i] - startMs[i];
+        }
+
+        CompactWordTimings.Builder timings = CompactWordTimings.builder()
+                .text(text)
+                .wordCount(words);
+        if (packed) {
+            return timings.format("packed")
+                    .packed(packVarints(words, offsetDeltas, lengths, startDeltas, durations))
+                    .build();
+        }
+        return timings.format("columnar")
+                .offsets(offsetDeltas)
+                .lengths(lengths)
+                .startDeltas(startDeltas)
+                .durations(durations)
+                .build();
+    }
+
+    /**
+     * Write the sidecar file (via a temporary file, so readers never see it half-written)
+     */
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(textLength);
+            out.writeInt(textHash);
+            out.writeBoolean(estimated);
+            out.writeInt(wordCount());
+            for (int[] column : new int[][]{offsets, lengths, startMs, endMs}) {
+                for (int value : column) {
+                    out.writeInt(value);
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a sidecar file
+     *
+     * @return The timings, or null if the file does not exist or has an unknown format
+     */
+    static PageWordTimings read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            int textLength = in.readInt();
+            int textHash = in.readInt();
+            boolean estimated = in.readBoolean();
+            int words = in.readInt();
+            if (words < 0 || words > textLength) {
+                return null;
+            }
+            int[][] columns = new int[4][words];
+            for (int[] column : columns) {
+                for (int i = 0; i < words; i++) {
+                    column[i] = in.readInt();
+                }
+            }
+            return new PageWordTimings(textLength, textHash, estimated, columns[0], columns[1], columns[2], columns[3]);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    // Offsets and lengths of the words of the text; times left at zero
+    private static PageWordTimings words(String text, boolean estimated) {
+        int length = text.length();
+        // First scan counts the words, so each column is allocated once at its final size
+        int words = 0;
+        for (int i = 0; i < length; i++) {
+            if (!isWhitespace(text.charAt(i)) && (i == 0 || isWhitespace(text.charAt(i - 1)))) words++;
+        }
+        int[] offsets = new int[words];
+        int[] lengths = new int[words];
+
+        int i = 0;
+        for (int word = 0; word < words; word++) {
+            while (isWhitespace(text.charAt(i))) i++;
+            int start = i;
+            while (i < length && !isWhitespace(text.charAt(i))) i++;
+            offsets[word] = start;
+            lengths[word] = i - start;
+        }
+        return new PageWordTimings(length, text.hashCode(), estimated, offsets, lengths, new int[words], new int[words]);
+    }
+
+    private static int estimatedMs(int wordLength) {
+        return (int) Math.round(TextToSpeechService.estimatedWordDuration(wordLength) * 1000);
+    }
+
+    private static int markIndex(String markName) {
+        try {
+            return Integer.parseInt(markName);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // The \s of text.split("\\s+"): [ \t\n\x0B\f\r]
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    private static String packVarints(int words, int[]... columns) {
+        // An int takes at most 5 varint bytes
+        byte[] bytes = new byte[words * columns.length * 5];
+        int position = 0;
+        for (int word = 0; word < words; word++) {
+            for (int[] column : columns) {
+                int value = column[word];
+                while ((value & ~0x7F) != 0) {
+                    bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+                    value >>>= 7;
+                }
+                bytes[position++] = (byte) value;
+            }
+        }
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(bytes, position));
+    }
+}
@@ -0,0 +1,238 @@
+package com.bookshelf.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache of open PDF documents, keyed by book id
+ * Parsing a PDF (xref table and object graph) is far more expensive than extracting one page,
+ * so per-page work (text for TTS) reuses an open document instead of reloading the file.
+ *
+ * - A {@link Lease} gives exclusive use of a document (PDDocument is not thread-safe);
+ *   callers for the same book queue up, other books are not blocked
+ * - Documents are reference counted and only closed when no lease holds them
+ * - Idle documents are closed after max-idle-seconds
+ * - Total size is capped at max-bytes, estimated from the PDF file size; least recently used
+ *   idle documents are closed first. Leased documents are never closed, so the cap can be
+ *   exceeded briefly while many books are in use
+ * - A document is reloaded when its file changes (size or modification time)
+ */
+@Component
+public class PdfDocumentCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfDocumentCache.class);
+
+    private final long maxBytes;
+    private final long maxIdleMillis;
+
+    // Access order, so iteration starts at the least recently used entry; guarded by this
+    private final Map<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public PdfDocumentCache(@Value("${bookshelf.pdf-cache.max-bytes:268435456}") long maxBytes,
+                            @Value("${bookshelf.pdf-cache.max-idle-seconds:120}") long maxIdleSeconds) {
+        this.maxBytes = maxBytes;
+        this.maxIdleMillis = maxIdleSeconds * 1000;
+    }
+
+    /**
+     * Get exclusive use of a book's parsed PDF, loading it if it is not cached
+     * The lease must be closed (try-with-resources) when done.
+     *
+     * @param bookId Book the PDF belongs to
+     * @param pdfPath Path of the PDF file
+     */
+    public Lease acquire(UUID bookId, String pdfPath) throws IOException {
+        File file = new File(pdfPath);
+        long size = file.length();
+        long modified = file.lastModified();
+
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(bookId);
+            if (entry != null && !entry.matches(pdfPath, size, modified)) {
+                retire(entry);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(bookId, file, size, modified);
+                entries.put(bookId, entry);
+                totalBytes += size;
+                evictOverBudget();
+            }
+            entry.refCount++;
+        }
+
+        entry.lock.lock();
+        try {
+            entry.load();
+            return new Lease(entry);
+        } catch (IOException | RuntimeException e) {
+            entry.lock.unlock();
+            synchronized (this) {
+                retire(entry);
+            }
+            release(entry);
+            throw e;
+        }
+    }
+
+    /**
+     * Close documents that have not been used for max-idle-seconds
+     */
+    @Scheduled(fixedDelayString = "${bookshelf.pdf-cache.sweep-interval-ms:30000}")
+    public synchronized void evictIdle() {
+        long cutoff = System.currentTimeMillis() - maxIdleMillis;
+        for (Entry entry : new ArrayList<>(entries.values())) {
+            if (entry.refCount == 0 && entry.lastUsed <= cutoff) {
+                retire(entry);
+            }
+        }
+    }
+
+    /**
+     * Number of cached documents
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @PreDestroy
+    public synchronized void closeAll() {
+        for (Entry entry : new ArrayList<>(entries.values())) {
+            retire(entry);
+        }
+    }
+
+    private void release(Entry entry) {
+        synchronized (this) {
+            entry.refCount--;
+            entry.lastUsed = System.currentTimeMillis();
+            if (entry.retired && entry.refCount == 0) {
+                entry.close();
+            }
+        }
+    }
+
+    // Caller holds this
+    private void evictOverBudget() {
+        List<Entry> idle = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.refCount == 0 && entry.document != null) {
+                idle.add(entry);
+            }
+        }
+        for (Entry entry : idle) {
+            if (totalBytes <= maxBytes) {
+                return;
+            }
+            retire(entry);
+        }
+        if (totalBytes > maxBytes) {
+            log.debug("PDF cache over budget ({} of {} bytes) because all documents are in use", totalBytes, maxBytes);
+        }
+    }
+
+    // Caller holds this. Removes the entry; the document is closed now or by its last lease
+    private void retire(Entry entry) {
+        if (entry.retired) {
+            return;
+        }
+        entry.retired = true;
+        entries.remove(entry.bookId, entry);
+        totalBytes -= entry.size;
+        if (entry.refCount == 0) {
+            entry.close();
+        }
+    }
+
+    /**
+     * Exclusive use of one cached document; close to give it back
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Entry entry;
+        private boolean closed;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public PDDocument document() {
+            return entry.document;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            entry.lock.unlock();
+            release(entry);
+        }
+    }
+
+    private static final class Entry {
+
+        private final UUID bookId;
+        private final File file;
+        private final long size;
+        private final long modified;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // Guarded by the cache monitor
+        private int refCount;
+        private long lastUsed = System.currentTimeMillis();
+        private boolean retired;
+
+        // Loaded under lock; closed only when refCount is 0
+        private PDDocument document;
+
+        private Entry(UUID bookId, File file, long size, long modified) {
+            this.bookId = bookId;
+            this.file = file;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        private boolean matches(String path, long size, long modified) {
+            return file.getPath().equals(new File(path).getPath()) && this.size == size && this.modified == modified;
+        }
+
+        private void load() throws IOException {
+            if (document == null) {
+                long start = System.currentTimeMillis();
+                document = Loader.loadPDF(file);
+                log.debug("Opened PDF for book {} in {}ms", bookId, System.currentTimeMillis() - start);
+            }
+        }
+
+        private void close() {
+            if (document == null) {
+                return;
+            }
+            try {
+                document.close();
+            } catch (IOException e) {
+                log.warn("Failed to close PDF for book {}: {}", bookId, e.getMessage());
+            }
+            document = null;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.bookshelf.service;
+
+import com.bookshelf.model.PdfOptimizationStatus;
+import com.bookshelf.repository.PdfVariantRepository;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background post-processing of stored PDFs into web-optimized copies
+ * Disabled by default (bookshelf.pdf-optimization.enabled). For each pending book:
+ *
+ * - The PDF is re-saved by PDFBox with object streams (compressed cross-reference and objects)
+ * - Optionally, large page images are re-encoded as JPEG when that makes them smaller
+ * - If qpdf-command is set, the result is linearized ("fast web view") so a viewer can render
+ *   page 1 from the first range request
+ *
+ * The copy is kept if it is linearized or smaller than the original, and is then served instead
+ * of the original. The original is never modified.
+ */
+@Service
+public class PdfOptimizationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfOptimizationService.class);
+
+    // Images smaller than this are not worth re-encoding; larger than MAX_IMAGE_PIXELS would need too much heap
+    private static final int MIN_IMAGE_BYTES = 64 * 1024;
+    private static final long MAX_IMAGE_PIXELS = 16_000_000L;
+    private static final long QPDF_TIMEOUT_MINUTES = 5;
+
+    private final PdfVariantRepository variantRepository;
+    private final TaskExecutor executor;
+    private final boolean enabled;
+    private final int batchSize;
+    private final boolean recompressImages;
+    private final float jpegQuality;
+    private final String qpdfCommand;
+
+    public PdfOptimizationService(PdfVariantRepository variantRepository,
+                                  @Qualifier("pdfOptimizationExecutor") TaskExecutor executor,
+                                  @Value("${bookshelf.pdf-optimization.enabled:false}") boolean enabled,
+                                  @Value("${bookshelf.pdf-optimization.batch-size:5}") int batchSize,
+                                  @Value("${bookshelf.pdf-optimization.recompress-images:false}") boolean recompressImages,
+                                  @Value("${bookshelf.pdf-optimization.jpeg-quality:0.75}") float jpegQuality,
+                                  @Value("${bookshelf.pdf-optimization.qpdf-command:}") String qpdfCommand) {
+        this.variantRepository = variantRepository;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.recompressImages = recompressImages;
+        this.jpegQuality = jpegQuality;
+        this.qpdfCommand = qpdfCommand;
+    }
+
+    /**
+     * Start optimizing the next batch of pending PDFs
+     * The batch runs on the optimization executor, so a slow batch never holds a scheduler
+     * thread; the run is skipped if the previous batch is still going.
+     */
+    @Scheduled(initialDelayString = "${bookshelf.pdf-optimization.interval-ms:300000}",
+               fixedDelayString = "${bookshelf.pdf-optimization.interval-ms:300000}")
+    public void optimizePending() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            executor.execute(this::optimizeBatch);
+        } catch (TaskRejectedException e) {
+            log.debug("Previous PDF optimization batch still running; skipping this run");
+        }
+    }
+
+    private void optimizeBatch() {
+        for (PdfVariantRepository.PendingPdf pending : variantRepository.findPending(batchSize)) {
+            try {
+                Result result = optimize(pending.bookId(), Paths.get(pending.pdfPath()));
+                if (result == null) {
+                    variantRepository.markWithoutCopy(pending.bookId(), PdfOptimizationStatus.SKIPPED);
+                } else {
+                    variantRepository.markOptimized(pending.bookId(), result.webPdf().toString(), result.bytesSaved());
+                    log.info("Optimized PDF for book {}: {} -> {} bytes ({} saved, linearized: {})",
+                            pending.bookId(), result.originalBytes(), result.optimizedBytes(),
+                            result.bytesSaved(), result.linearized());
+                }
+            } catch (Exception e) {
+                log.warn("Failed to optimize PDF for book {}: {}", pending.bookId(), e.getMessage());
+                variantRepository.markWithoutCopy(pending.bookId(), PdfOptimizationStatus.FAILED);
+            }
+        }
+    }
+
+    /**
+     * Write the web-optimized copy of a PDF next to it ({bookId}.web.pdf)
+     *
+     * @return The stored copy, or null if it would not be an improvement (nothing is kept)
+     */
+    Result optimize(UUID bookId, Path pdfPath) throws IOException, InterruptedException {
+        long originalBytes = Files.size(pdfPath);
+        Path dir = pdfPath.toAbsolutePath().getParent();
+        Path compressed = Files.createTempFile(dir, bookId + "-", ".web.part");
+        Path linearized = null;
+        try {
+            // Spill parsed streams to temp files rather than the heap; PDFs can be far larger than it
+            try (PDDocument document = Loader.loadPDF(pdfPath.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+                if (document.isEncrypted()) {
+                    return null;
+                }
+                if (recompressImages) {
+                    recompressImages(document);
+                }
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(compressed))) {
+                    document.save(out, CompressParameters.DEFAULT_COMPRESSION);
+                }
+            }
+
+            Path result = compressed;
+            if (!qpdfCommand.isBlank()) {
+                linearized = Files.createTempFile(dir, bookId + "-", ".lin.part");
+                if (linearize(compressed, linearized)) {
+                    result = linearized;
+                }
+            }
+
+            long optimizedBytes = Files.size(result);
+            boolean isLinearized = result == linearized;
+            if (!isLinearized && optimizedBytes >= originalBytes) {
+                return null;
+            }
+
+            Path target = dir.resolve(bookId + ".web.pdf");
+            Files.move(result, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new Result(target, originalBytes, optimizedBytes, isLinearized);
+        } finally {
+            Files.deleteIfExists(compressed);
+            if (linearized != null) {
+                Files.deleteIfExists(linearized);
+            }
+        }
+    }
+
+    // Re-encode large page images as JPEG where that is smaller; shared images are converted once
+    private void recompressImages(PDDocument document) throws IOException {
+        Map<COSBase, PDImageXObject> replacements = new IdentityHashMap<>();
+        for (PDPage page : document.getPages()) {
+            PDResources resources = page.getResources();
+            if (resources == null) {
+                continue;
+            }
+            List<COSName> names = new ArrayList<>();
+            resources.getXObjectNames().forEach(names::add);
+            for (COSName name : names) {
+                PDXObject xObject = resources.getXObject(name);
+                if (!(xObject instanceof PDImageXObject image)) {
+                    continue;
+                }
+                COSBase key = image.getCOSObject();
+                if (!replacements.containsKey(key)) {
+                    replacements.put(key, recompress(document, image));
+                }
+                PDImageXObject replacement = replacements.get(key);
+                if (replacement != null) {
+                    resources.put(name, replacement);
+                }
+            }
+        }
+    }
+
+    // JPEG version of an image, or null if it should be left as is
+    private PDImageXObject recompress(PDDocument document, PDImageXObject image) throws IOException {
+        long originalLength = image.getCOSObject().getLength();
+        if (image.isStencil() || image.getBitsPerComponent() == 1 || originalLength < MIN_IMAGE_BYTES
+                || (long) image.getWidth() * image.getHeight() > MAX_IMAGE_PIXELS) {
+            return null;
+        }
+        BufferedImage pixels = image.getImage();
+        PDImageXObject jpeg = JPEGFactory.createFromImage(document, pixels, jpegQuality);
+        return jpeg.getCOSObject().getLength() < originalLength ? jpeg : null;
+    }
+
+    private boolean linearize(Path input, Path output) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(qpdfCommand, "--linearize", "--object-streams=generate",
+                input.toString(), output.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!process.waitFor(QPDF_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            log.warn("qpdf timed out linearizing {}", input);
+            return false;
+        }
+        // 0 = success, 3 = success with warnings
+        int exitCode = process.exitValue();
+        if (exitCode != 0 && exitCode != 3) {
+            log.warn("qpdf exited with {} linearizing {}", exitCode, input);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * A stored web-optimized copy
+     */
+    record Result(Path webPdf, long originalBytes, long optimizedBytes, boolean linearized) {
+
+        long bytesSaved() {
+            return originalBytes - optimizedBytes;
+        }
+    }
+}
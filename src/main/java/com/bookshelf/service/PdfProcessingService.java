@@ -1,11 +1,15 @@
 package com.bookshelf.service;
 
 import com.bookshelf.exception.PdfProcessingException;
+import com.bookshelf.model.ThumbnailSize;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -20,14 +24,18 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Iterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 
@@ -47,38 +55,86 @@ public class PdfProcessingService {
     private String thumbnailDirectory;
 
     /**
-     * Process uploaded PDF file: save, extract metadata, generate thumbnail
-     * Uses absolute paths to avoid working directory issues with Tomcat/Spring Boot
+     * Stream an uploaded PDF to a temporary file in the PDF directory
+     * The SHA-256 hash is computed through a DigestInputStream during the same copy,
+     * so the bytes are read exactly once and duplicates can be rejected before PDFBox runs
      *
      * @param file Uploaded PDF multipart file
+     * @return Staged upload holding the temporary path, file hash and size
+     * @throws PdfProcessingException if the upload cannot be written
+     */
+    public StagedUpload stageUpload(MultipartFile file) {
+        Path tempPath = null;
+        try {
+            // Stage inside the PDF directory so the final rename stays on the same filesystem
+            Path pdfDir = Paths.get(pdfDirectory).toAbsolutePath().normalize();
+            Files.createDirectories(pdfDir);
+            tempPath = Files.createTempFile(pdfDir, "upload-", ".part");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(inputStream, tempPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            return new StagedUpload(tempPath, HexFormat.of().formatHex(digest.digest()), size);
+
+        } catch (NoSuchAlgorithmException | IOException e) {
+            log.error("Failed to stage uploaded PDF", e);
+            deleteQuietly(tempPath);
+            throw new PdfProcessingException("Failed to store PDF file", e);
+        }
+    }
+
+    /**
+     * Atomically move a staged upload to its final deterministic location
+     *
+     * @param staged Upload previously written by {@link #stageUpload(MultipartFile)}
+     * @param bookId Final book identifier derived from the file hash
+     * @return Absolute path of the stored PDF
+     * @throws PdfProcessingException if the file cannot be moved
+     */
+    public Path commitStagedUpload(StagedUpload staged, UUID bookId) {
+        Path target = staged.tempPath().resolveSibling(bookId + ".pdf");
+        try {
+            try {
+                Files.move(staged.tempPath(), target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(staged.tempPath(), target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return target;
+        } catch (IOException e) {
+            log.error("Failed to move staged upload {} to {}", staged.tempPath(), target, e);
+            deleteQuietly(staged.tempPath());
+            throw new PdfProcessingException("Failed to store PDF file", e);
+        }
+    }
+
+    /**
+     * Remove a staged upload that will not be kept (e.g. a rejected duplicate)
+     */
+    public void discardStagedUpload(StagedUpload staged) {
+        deleteQuietly(staged.tempPath());
+    }
+
+    /**
+     * Process a stored PDF file: extract metadata and generate thumbnail
+     * Uses absolute paths to avoid working directory issues with Tomcat/Spring Boot
+     *
+     * @param pdfPath Absolute path of the stored PDF
      * @param bookId Unique book identifier
-     * @return Map containing: pdfPath, thumbnailPath, fileHash, pageCount, title, author
+     * @param originalFilename Uploaded filename, used as the title fallback
+     * @return Map containing: pdfPath, thumbnailPath, pageCount, title, author
      * @throws PdfProcessingException if PDF processing fails
      */
-    public Map<String, Object> processPdf(MultipartFile file, UUID bookId) {
+    public Map<String, Object> processPdf(Path pdfPath, UUID bookId, String originalFilename) {
         Map<String, Object> metadata = new HashMap<>();
+        metadata.put("pdfPath", pdfPath.toString());
 
         try {
-            // Resolve to absolute paths so Tomcat's working directory never interferes
-            Path pdfDir = Paths.get(pdfDirectory).toAbsolutePath().normalize();
             Path thumbDir = Paths.get(thumbnailDirectory).toAbsolutePath().normalize();
-
-            // Ensure directories exist
-            Files.createDirectories(pdfDir);
             Files.createDirectories(thumbDir);
 
-            // Save PDF to disk using Files.copy (safe with absolute paths)
-            String pdfFileName = bookId + ".pdf";
-            Path pdfPath = pdfDir.resolve(pdfFileName);
-            try (InputStream inputStream = file.getInputStream()) {
-                Files.copy(inputStream, pdfPath, StandardCopyOption.REPLACE_EXISTING);
-            }
-            metadata.put("pdfPath", pdfPath.toString());
-
-            // Calculate file hash
-            String fileHash = calculateFileHash(pdfPath);
-            metadata.put("fileHash", fileHash);
-
             // Extract metadata from PDF
             try (PDDocument document = Loader.loadPDF(pdfPath.toFile())) {
                 // Page count
@@ -93,12 +149,9 @@ public class PdfProcessingService {
 
                     if (title != null && !title.trim().isEmpty()) {
                         metadata.put("title", title.trim());
-                    } else {
+                    } else if (originalFilename != null) {
                         // Fallback to filename without extension
-                        String originalFilename = file.getOriginalFilename();
-                        if (originalFilename != null) {
-                            metadata.put("title", originalFilename.replaceFirst("[.][^.]+$", ""));
-                        }
+                        metadata.put("title", originalFilename.replaceFirst("[.][^.]+$", ""));
                     }
 
                     if (author != null && !author.trim().isEmpty()) {
@@ -120,50 +173,47 @@ public class PdfProcessingService {
         }
     }
 
-    private static final int THUMBNAIL_MAX_WIDTH = 600;
-    private static final int THUMBNAIL_DPI = 300;
+    /**
+     * Result of streaming an upload to disk: temporary location, SHA-256 hash and byte size
+     */
+    public record StagedUpload(Path tempPath, String fileHash, long size) {}
+
+    // Upper bound on render resolution, so small pages are not blown up past print quality
+    private static final int THUMBNAIL_MAX_DPI = 300;
     private static final float THUMBNAIL_JPEG_QUALITY = 0.85f;
 
     /**
-     * Generate optimized JPEG thumbnail from PDF first page
-     * Renders at 300 DPI, resizes to max 600px wide for retina displays
+     * Generate optimized JPEG thumbnails (every {@link ThumbnailSize}) from the PDF first page
+     * The page is rendered once, at the resolution that makes it exactly as wide as the largest
+     * size (instead of a fixed 300 DPI), and the smaller sizes are downsampled from that render.
+     *
+     * @return Path of the largest thumbnail
      */
-    private String generateThumbnail(PDDocument document, UUID bookId, Path thumbDir) throws IOException {
+    String generateThumbnail(PDDocument document, UUID bookId, Path thumbDir) throws IOException {
         try {
+            long start = System.currentTimeMillis();
+            PDPage page = document.getPage(0);
+            PDRectangle cropBox = page.getCropBox();
+            float pageWidth = page.getRotation() % 180 != 0 ? cropBox.getHeight() : cropBox.getWidth();
+            // Half a pixel of slack so float rounding cannot make the render one pixel narrow
+            float scale = Math.min((ThumbnailSize.RETINA.getWidth() + 0.5f) / pageWidth, THUMBNAIL_MAX_DPI / 72f);
+
+            // Subsampling lets PDFBox skip pixels of large embedded images instead of smoothing
+            // them down; at thumbnail sizes the difference is not visible and the render is faster.
+            // RGB (no alpha channel): the renderer fills a white background, which is what JPEG needs
             PDFRenderer renderer = new PDFRenderer(document);
-            BufferedImage fullImage = renderer.renderImageWithDPI(0, THUMBNAIL_DPI);
-
-            // Resize to max width while maintaining aspect ratio
-            BufferedImage thumbnail = resizeImage(fullImage, THUMBNAIL_MAX_WIDTH);
-
-            // Save as JPEG for much smaller file sizes
-            String thumbnailFileName = bookId + ".jpg";
-            Path thumbnailPath = thumbDir.resolve(thumbnailFileName);
-
-            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("JPEG");
-            if (!writers.hasNext()) {
-                throw new IOException("No JPEG writer found");
-            }
-
-            ImageWriter writer = writers.next();
-            ImageWriteParam writeParam = writer.getDefaultWriteParam();
-            writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-            writeParam.setCompressionQuality(THUMBNAIL_JPEG_QUALITY);
-
-            try (ImageOutputStream ios = ImageIO.createImageOutputStream(thumbnailPath.toFile())) {
-                writer.setOutput(ios);
-                // Convert to RGB (JPEG doesn't support alpha)
-                BufferedImage rgb = new BufferedImage(thumbnail.getWidth(), thumbnail.getHeight(), BufferedImage.TYPE_INT_RGB);
-                Graphics2D g = rgb.createGraphics();
-                g.setColor(Color.WHITE);
-                g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
-                g.drawImage(thumbnail, 0, 0, null);
-                g.dispose();
-                writer.write(null, new javax.imageio.IIOImage(rgb, null, null), writeParam);
-            } finally {
-                writer.dispose();
+            renderer.setSubsamplingAllowed(true);
+            BufferedImage image = renderer.renderImage(0, scale, ImageType.RGB);
+
+            Path thumbnailPath = thumbDir.resolve(bookId + ".jpg");
+            ThumbnailSize[] sizes = ThumbnailSize.values();
+            for (int i = sizes.length - 1; i >= 0; i--) {
+                // Each size is downsampled from the next larger one, which keeps bilinear scaling sharp
+                image = resizeImage(image, sizes[i].getWidth());
+                writeJpeg(image, thumbnailVariantPath(thumbnailPath, sizes[i]));
             }
 
+            log.debug("Generated thumbnails for book {} in {}ms", bookId, System.currentTimeMillis() - start);
             return thumbnailPath.toString();
 
         } catch (IOException e) {
@@ -172,7 +222,26 @@ public class PdfProcessingService {
         }
     }
 
-    private BufferedImage resizeImage(BufferedImage original, int maxWidth) {
+    private void writeJpeg(BufferedImage image, Path path) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("JPEG");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer found");
+        }
+
+        ImageWriter writer = writers.next();
+        ImageWriteParam writeParam = writer.getDefaultWriteParam();
+        writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        writeParam.setCompressionQuality(THUMBNAIL_JPEG_QUALITY);
+
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(path.toFile())) {
+            writer.setOutput(ios);
+            writer.write(null, new javax.imageio.IIOImage(image, null, null), writeParam);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    static BufferedImage resizeImage(BufferedImage original, int maxWidth) {
         if (original.getWidth() <= maxWidth) return original;
         double scale = (double) maxWidth / original.getWidth();
         int newWidth = maxWidth;
@@ -187,40 +256,22 @@ public class PdfProcessingService {
     }
 
     /**
-     * Calculate SHA-256 hash of PDF file for duplicate detection
-     * Uses streaming DigestInputStream to avoid loading entire file into memory
-     *
-     * @param filePath Path to PDF file
-     * @return Hexadecimal hash string
-     * @throws PdfProcessingException if hash calculation fails
+     * Path of one thumbnail size, given the stored (largest) thumbnail path
+     * e.g. {id}.jpg for RETINA, {id}-grid.jpg for GRID
      */
-    private String calculateFileHash(Path filePath) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            try (InputStream is = Files.newInputStream(filePath);
-                 java.security.DigestInputStream dis = new java.security.DigestInputStream(is, digest)) {
-                byte[] buffer = new byte[8192];
-                while (dis.read(buffer) != -1) {
-                    // reading through the stream updates the digest
-                }
-            }
-            byte[] hashBytes = digest.digest();
-
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashBytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-
-        } catch (NoSuchAlgorithmException | IOException e) {
-            log.error("Failed to calculate file hash", e);
-            throw new PdfProcessingException("Failed to calculate file hash", e);
+    static Path thumbnailVariantPath(Path thumbnailPath, ThumbnailSize size) {
+        String fileName = thumbnailPath.getFileName().toString();
+        if (size == ThumbnailSize.RETINA || !fileName.endsWith(".jpg")) {
+            return thumbnailPath;
         }
+        String variant = fileName.substring(0, fileName.length() - ".jpg".length())
+                + "-" + size.name().toLowerCase(Locale.ROOT) + ".jpg";
+        return thumbnailPath.resolveSibling(variant);
     }
 
     /**
-     * Regenerate thumbnail for an existing PDF file
-     * Re-renders at 300 DPI and saves as optimized JPEG
+     * Regenerate thumbnails for an existing PDF file
+     * Re-renders the first page and saves every thumbnail size as optimized JPEG
      *
      * @param pdfPath Absolute path to PDF file
      * @param bookId Book UUID
@@ -245,8 +296,8 @@ public class PdfProcessingService {
     }
 
     /**
-     * Delete PDF and thumbnail files from filesystem
-     * Called when a book is deleted or during duplicate cleanup
+     * Delete PDF and thumbnail files (all sizes) from filesystem
+     * Called when a book is deleted or when processing a new upload fails
      *
      * @param pdfPath Path to PDF file (can be null)
      * @param thumbnailPath Path to thumbnail file (can be null)
@@ -257,13 +308,26 @@ public class PdfProcessingService {
                 Files.deleteIfExists(Paths.get(pdfPath));
             }
             if (thumbnailPath != null) {
-                Files.deleteIfExists(Paths.get(thumbnailPath));
+                for (ThumbnailSize size : ThumbnailSize.values()) {
+                    Files.deleteIfExists(thumbnailVariantPath(Paths.get(thumbnailPath), size));
+                }
             }
         } catch (IOException e) {
             log.error("Failed to delete files", e);
         }
     }
 
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary file {}", path, e);
+        }
+    }
+
     /**
      * Get PDF file handle for serving to client
      *
@@ -294,4 +358,18 @@ public class PdfProcessingService {
         return file;
     }
 
+    /**
+     * Get the file of one thumbnail size for serving to client
+     * Falls back to the stored thumbnail for books whose thumbnails predate the smaller sizes
+     *
+     * @param thumbnailPath Absolute path to the stored (largest) thumbnail
+     * @param size Requested size
+     * @return File object for the thumbnail
+     * @throws PdfProcessingException if no thumbnail exists
+     */
+    public File getThumbnailFile(String thumbnailPath, ThumbnailSize size) {
+        File variant = thumbnailVariantPath(Paths.get(thumbnailPath), size).toFile();
+        return variant.exists() ? variant : getThumbnailFile(thumbnailPath);
+    }
+
 }
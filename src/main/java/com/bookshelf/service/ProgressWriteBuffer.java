@@ -0,0 +1,134 @@
+package com.bookshelf.service;
+
+import com.bookshelf.repository.BookProgressRepository;
+import com.bookshelf.repository.BookProgressRepository.ProgressUpdate;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for reading progress
+ * The reader sends a progress update on every page turn; only the latest update per book matters,
+ * so updates are coalesced in memory and written in one JDBC batch every few seconds and on shutdown.
+ * Entries stay in the buffer until their write has committed, so reads that overlay buffered
+ * progress (see BookService) always see the newest value.
+ */
+@Component
+public class ProgressWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressWriteBuffer.class);
+
+    private final BookProgressRepository progressRepository;
+
+    private final Map<UUID, ProgressUpdate> pending = new ConcurrentHashMap<>();
+
+    // Serializes flushes so an older batch can never be written after a newer one
+    private final Object flushLock = new Object();
+
+    public ProgressWriteBuffer(BookProgressRepository progressRepository) {
+        this.progressRepository = progressRepository;
+    }
+
+    /**
+     * Buffer the latest progress of a book, replacing any earlier unwritten update
+     */
+    public void record(ProgressUpdate update) {
+        pending.put(update.bookId(), update);
+    }
+
+    /**
+     * Unwritten progress of a book, or null if the database is up to date
+     */
+    public ProgressUpdate get(UUID bookId) {
+        return pending.get(bookId);
+    }
+
+    /**
+     * Drop the unwritten progress of a book (once the current transaction commits, if any)
+     * Book ids come from the file hash, so a deleted book re-uploaded later must not pick it up.
+     */
+    public void discard(UUID bookId) {
+        TransactionHooks.afterCommit(() -> pending.remove(bookId));
+    }
+
+    /**
+     * Write all buffered progress
+     * If the batch fails, each book is retried on its own: an update the database rejects is
+     * logged and dropped, so one bad row cannot hold back the others forever. When the database
+     * cannot be reached, entries are kept and the next flush retries them.
+     * Runs on its own scheduler thread (see AsyncConfig), never behind other scheduled jobs.
+     */
+    @Scheduled(fixedDelayString = "${bookshelf.progress.flush-interval-ms:3000}", scheduler = "progressFlushScheduler")
+    public void flush() {
+        try {
+            flush(pending.keySet());
+        } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+            log.warn("Failed to flush reading progress for {} books, will retry: {}", pending.size(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Batch flush of reading progress failed, writing books one by one: {}", e.getMessage());
+            flushEach();
+        }
+    }
+
+    /**
+     * Write the buffered progress of the given books
+     * Called before other writes to those books so they start from the latest progress.
+     * Inside a transaction the entries are released only after it commits.
+     */
+    public void flush(Collection<UUID> bookIds) {
+        synchronized (flushLock) {
+            List<ProgressUpdate> batch = new ArrayList<>();
+            for (UUID bookId : bookIds) {
+                ProgressUpdate update = pending.get(bookId);
+                if (update != null) {
+                    batch.add(update);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            progressRepository.saveAll(batch);
+            log.debug("Flushed reading progress for {} books", batch.size());
+
+            // remove(key, value) keeps any newer update recorded while the batch was being written
+            TransactionHooks.afterCommit(() -> batch.forEach(update -> pending.remove(update.bookId(), update)));
+        }
+    }
+
+    // Write each buffered book in its own batch, dropping the updates the database rejects
+    private void flushEach() {
+        synchronized (flushLock) {
+            for (ProgressUpdate update : new ArrayList<>(pending.values())) {
+                try {
+                    progressRepository.saveAll(List.of(update));
+                } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+                    log.warn("Failed to flush reading progress, will retry: {}", e.getMessage());
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Dropping reading progress of book {} (page {}): {}",
+                            update.bookId(), update.currentPage(), e.getMessage());
+                }
+                pending.remove(update.bookId(), update);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int count = pending.size();
+        flush();
+        log.info("Flushed buffered reading progress on shutdown ({} books)", count);
+    }
+}
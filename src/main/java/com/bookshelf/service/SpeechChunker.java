@@ -0,0 +1,166 @@
+package com.bookshelf.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits page text into SSML requests under the Text-to-Speech input limit
+ *
+ * Every word gets a mark named after its index in the whole page (see {@link PageWordTimings}),
+ * so timepoints from all chunks map straight back to the page's words. Chunks end at sentence
+ * boundaries (a word ending in '.', '!' or '?', optionally followed by closing quotes or
+ * brackets); only a sentence that does not fit in one request on its own is split between words.
+ */
+final class SpeechChunker {
+
+    private static final String SPEAK_START = "<speak>";
+    private static final String SPEAK_END = "</speak>";
+
+    /**
+     * One request: the SSML and the page index of its first word
+     */
+    record Chunk(int firstWord, String ssml) {}
+
+    private SpeechChunker() {
+    }
+
+    /**
+     * @param maxBytes Largest SSML request, in UTF-8 bytes
+     * @return At least one chunk (an empty one for text without words)
+     */
+    static List<Chunk> split(String text, int maxBytes) {
+        int bodyLimit = maxBytes - SPEAK_START.length() - SPEAK_END.length();
+        List<Chunk> chunks = new ArrayList<>();
+        Part chunk = new Part();
+        Part sentence = new Part();
+
+        int length = text.length();
+        int word = 0;
+        int i = 0;
+        while (i < length) {
+            while (i < length && isWhitespace(text.charAt(i))) i++;
+            if (i == length) break;
+            int start = i;
+            while (i < length && !isWhitespace(text.charAt(i))) i++;
+
+            StringBuilder markedWord = new StringBuilder(i - start + 16);
+            markedWord.append("<mark name=\"").append(word).append("\"/>");
+            for (int j = start; j < i; j++) {
+                appendEscaped(markedWord, text.charAt(j));
+            }
+            // A sentence too long for one request is cut before the word that would overflow it
+            if (!sentence.isEmpty() && sentence.bytesWith(markedWord) > bodyLimit) {
+                chunk.flushTo(chunks);
+                sentence.flushTo(chunks);
+            }
+            sentence.append(word, markedWord);
+            word++;
+
+            if (endsSentence(text, start, i)) {
+                chunk.add(sentence, bodyLimit, chunks);
+            }
+        }
+        chunk.add(sentence, bodyLimit, chunks);
+        chunk.flushTo(chunks);
+        if (chunks.isEmpty()) {
+            chunks.add(new Chunk(0, SPEAK_START + SPEAK_END));
+        }
+        return chunks;
+    }
+
+    // Words (or sentences) joined by single spaces, with their UTF-8 size
+    private static final class Part {
+
+        private final StringBuilder ssml = new StringBuilder();
+        private int bytes;
+        private int firstWord = -1;
+
+        boolean isEmpty() {
+            return firstWord < 0;
+        }
+
+        int bytesWith(CharSequence next) {
+            return bytes + (isEmpty() ? 0 : 1) + utf8Length(next);
+        }
+
+        void append(int word, CharSequence next) {
+            bytes = bytesWith(next);
+            if (isEmpty()) {
+                firstWord = word;
+            } else {
+                ssml.append(' ');
+            }
+            ssml.append(next);
+        }
+
+        // Add a finished sentence to this chunk, starting a new chunk if it does not fit
+        void add(Part sentence, int bodyLimit, List<Chunk> chunks) {
+            if (sentence.isEmpty()) {
+                return;
+            }
+            if (!isEmpty() && bytesWith(sentence.ssml) > bodyLimit) {
+                flushTo(chunks);
+            }
+            append(sentence.firstWord, sentence.ssml);
+            sentence.clear();
+        }
+
+        void flushTo(List<Chunk> chunks) {
+            if (!isEmpty()) {
+                chunks.add(new Chunk(firstWord, SPEAK_START + ssml + SPEAK_END));
+                clear();
+            }
+        }
+
+        private void clear() {
+            ssml.setLength(0);
+            bytes = 0;
+            firstWord = -1;
+        }
+    }
+
+    private static boolean endsSentence(String text, int start, int end) {
+        int last = end - 1;
+        while (last > start && isClosing(text.charAt(last))) last--;
+        char c = text.charAt(last);
+        return c == '.' || c == '!' || c == '?';
+    }
+
+    private static boolean isClosing(char c) {
+        return c == '"' || c == '\'' || c == ')' || c == ']' || c == '\u201D' || c == '\u2019';
+    }
+
+    private static int utf8Length(CharSequence s) {
+        int bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 2; // a surrogate pair is 4 bytes
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    // The \s of text.split("\\s+"): [ \t\n\x0B\f\r]
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    // XML-escape a character; characters XML does not allow become spaces
+    private static void appendEscaped(StringBuilder out, char c) {
+        switch (c) {
+            case '&' -> out.append("&amp;");
+            case '<' -> out.append("&lt;");
+            case '>' -> out.append("&gt;");
+            case '"' -> out.append("&quot;");
+            case '\'' -> out.append("&apos;");
+            default -> out.append(c < ' ' || c == '\uFFFE' || c == '\uFFFF' ? ' ' : c);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.bookshelf.service;
+
+/**
+ * Clean extracted PDF text for natural TTS output.
+ * Only keeps lines that are natural language prose — sentences that
+ * a human would want to hear read aloud.
+ * Skips: code, comments, terminal output, figures, diagrams, tables,
+ * page footers, and anything that isn't a readable sentence or heading.
+ *
+ * Each line is classified in one scan over its characters (letters, spaces, real words,
+ * code symbols), without splitting, regexes or substrings; the output is built in a single
+ * StringBuilder. The result is identical to the former split/regex implementation, including
+ * its edge cases (a regex '.' does not match line terminators such as '\r').
+ */
+final class SpeechTextCleaner {
+
+    private static final String[] CAPTION_WORDS = {"figure", "table", "tip", "aside", "crux"};
+
+    private SpeechTextCleaner() {
+    }
+
+    static String clean(String text) {
+        StringBuilder cleaned = new StringBuilder(text.length());
+        int length = text.length();
+        int lineStart = 0;
+
+        while (lineStart <= length) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+
+            // Trim (String.trim semantics: everything up to U+0020 is whitespace)
+            int start = lineStart;
+            int end = lineEnd;
+            while (start < end && text.charAt(start) <= ' ') start++;
+            while (end > start && text.charAt(end - 1) <= ' ') end--;
+
+            if (start < end && isSpeakable(text, start, end)) {
+                appendCollapsed(cleaned, text, start, end);
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        return cleaned.toString();
+    }
+
+    // --- KEEP: lines that look like prose ---
+    // A prose line must:
+    // 1. Be at least 40 chars (a short sentence) OR be a heading/caption
+    // 2. Have mostly letters and spaces (>60% of characters)
+    // 3. Contain at least 3 words with 3+ letters each (real words, not symbols)
+    private static boolean isSpeakable(String text, int start, int end) {
+        int length = end - start;
+        int letterCount = 0;
+        int spaceCount = 0;
+        int realWordCount = 0;
+        int wordLetters = 0;
+        boolean hasCodeSymbol = false;
+        // Position of the last character a regex '.' cannot match, or -1
+        int lastLineTerminator = -1;
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetter(c)) {
+                letterCount++;
+                wordLetters++;
+            } else if (isRegexWhitespace(c)) {
+                // Words are the runs between whitespace (split("\\s+"))
+                if (wordLetters >= 3) realWordCount++;
+                wordLetters = 0;
+                if (c == ' ') spaceCount++;
+            } else if (isCodeSymbol(c)) {
+                hasCodeSymbol = true;
+            }
+            if (isLineTerminator(c)) {
+                lastLineTerminator = i;
+            }
+        }
+        if (wordLetters >= 3) realWordCount++;
+
+        double readableRatio = (double) (letterCount + spaceCount) / length;
+
+        // Prose: 40+ chars, >60% readable, 3+ real words
+        if (length >= 40 && readableRatio > 0.6 && realWordCount >= 3) {
+            return true;
+        }
+
+        // Headings: shorter but still mostly words (e.g., "THE ABSTRACTION: THE PROCESS")
+        if (length >= 10 && readableRatio > 0.8 && realWordCount >= 2
+                && !(hasCodeSymbol && lastLineTerminator < 0)) {
+            return true;
+        }
+
+        // Figure captions: "Figure 4.5: ..."
+        if (isCaption(text, start, end, lastLineTerminator)) {
+            return true;
+        }
+
+        // Footnote markers: lines starting with a superscript number then prose
+        return length >= 30 && readableRatio > 0.6 && realWordCount >= 3
+                && isFootnoteMarker(text, start, end) && lastLineTerminator < 0;
+    }
+
+    // (?i)^(figure|table|tip|aside|crux)\s+\d.*
+    private static boolean isCaption(String text, int start, int end, int lastLineTerminator) {
+        for (String word : CAPTION_WORDS) {
+            int afterWord = start + word.length();
+            if (afterWord < end && startsWithIgnoringAsciiCase(text, start, word)
+                    && isRegexWhitespace(text.charAt(afterWord))) {
+                int digit = afterWord;
+                while (digit < end && isRegexWhitespace(text.charAt(digit))) digit++;
+                return digit < end && isAsciiDigit(text.charAt(digit)) && lastLineTerminator < digit;
+            }
+        }
+        return false;
+    }
+
+    // (?i) without UNICODE_CASE only folds ASCII letters, unlike String.regionMatches
+    private static boolean startsWithIgnoringAsciiCase(String text, int start, String lowerCaseWord) {
+        for (int i = 0; i < lowerCaseWord.length(); i++) {
+            if ((text.charAt(start + i) | 0x20) != lowerCaseWord.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ^\d{1,2}[A-Z].*
+    private static boolean isFootnoteMarker(String text, int start, int end) {
+        if (end - start < 2 || !isAsciiDigit(text.charAt(start))) {
+            return false;
+        }
+        char second = text.charAt(start + 1);
+        if (isAsciiUppercase(second)) {
+            return true;
+        }
+        return isAsciiDigit(second) && end - start >= 3 && isAsciiUppercase(text.charAt(start + 2));
+    }
+
+    // Append a kept line and a separating space, collapsing whitespace runs to one space
+    // (the former replaceAll("\\s+", " ").trim() over the whole output)
+    private static void appendCollapsed(StringBuilder out, String text, int start, int end) {
+        if (out.length() > 0) {
+            out.append(' ');
+        }
+        boolean inWhitespace = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isRegexWhitespace(c)) {
+                if (!inWhitespace) {
+                    out.append(' ');
+                    inWhitespace = true;
+                }
+            } else {
+                out.append(c);
+                inWhitespace = false;
+            }
+        }
+    }
+
+    // \s without UNICODE_CHARACTER_CLASS: [ \t\n\x0B\f\r]
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    // Characters a regex '.' does not match (\n never occurs inside a line)
+    private static boolean isLineTerminator(char c) {
+        return c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    // [;{}()=<>\[\]*&|#/\\]
+    private static boolean isCodeSymbol(char c) {
+        switch (c) {
+            case ';', '{', '}', '(', ')', '=', '<', '>', '[', ']', '*', '&', '|', '#', '/', '\\':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiUppercase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+}
@@ -1,30 +1,34 @@
 package com.bookshelf.service;
 
+import com.bookshelf.dto.CompactWordTimings;
 import com.bookshelf.dto.PageTextWithTimings;
-import com.bookshelf.dto.WordTiming;
 import com.bookshelf.exception.PdfProcessingException;
 import com.bookshelf.exception.ResourceNotFoundException;
 import com.bookshelf.model.Book;
 import com.bookshelf.repository.BookRepository;
-import com.google.cloud.texttospeech.v1.*;
-import com.google.protobuf.ByteString;
+import com.google.cloud.texttospeech.v1beta1.*;
+import com.google.protobuf.InvalidProtocolBufferException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class TextToSpeechService {
@@ -36,10 +40,14 @@ public class TextToSpeechService {
     private static final double WORD_LENGTH_FACTOR = 0.015;
     private static final double MIN_WORD_DURATION = 0.15;
     private static final double MAX_WORD_DURATION = 0.8;
-    private static final int MAX_TTS_TEXT_LENGTH = 5000;
+    // Google TTS request limit, in bytes of text or SSML
+    private static final int MAX_TTS_INPUT_BYTES = 5000;
 
     private final BookRepository bookRepository;
     private final TextToSpeechClient textToSpeechClient;
+    private final PageTextStore pageTextStore;
+    private final TtsRequestThrottle ttsThrottle;
+    private final TaskExecutor chunkExecutor;
 
     @Value("${bookshelf.storage.audio-directory}")
     private String audioDirectory;
@@ -57,22 +65,31 @@ public class TextToSpeechService {
     private double pitch;
 
     @org.springframework.beans.factory.annotation.Autowired
-    public TextToSpeechService(BookRepository bookRepository) throws IOException {
+    public TextToSpeechService(BookRepository bookRepository, PageTextStore pageTextStore,
+                               TtsRequestThrottle ttsThrottle,
+                               @Qualifier("ttsChunkExecutor") TaskExecutor chunkExecutor) throws IOException {
         this.bookRepository = bookRepository;
         this.textToSpeechClient = TextToSpeechClient.create();
+        this.pageTextStore = pageTextStore;
+        this.ttsThrottle = ttsThrottle;
+        this.chunkExecutor = chunkExecutor;
     }
 
     /** Package-private constructor for unit tests — avoids calling TextToSpeechClient.create(). */
-    TextToSpeechService(BookRepository bookRepository, TextToSpeechClient testClient) {
+    TextToSpeechService(BookRepository bookRepository, TextToSpeechClient testClient, PageTextStore pageTextStore,
+                        TtsRequestThrottle ttsThrottle, TaskExecutor chunkExecutor) {
         this.bookRepository = bookRepository;
         this.textToSpeechClient = testClient;
+        this.pageTextStore = pageTextStore;
+        this.ttsThrottle = ttsThrottle;
+        this.chunkExecutor = chunkExecutor;
     }
 
     /**
-     * Generate or retrieve cached audio for a specific page of a book
+     * Cached audio file for a specific page of a book, generating it first if needed
      * Cache-first strategy: Check filesystem cache before calling Google TTS API
      */
-    public byte[] generateOrGetPageAudio(UUID bookId, int pageNumber) {
+    public Path getPageAudioFile(UUID bookId, int pageNumber) {
         try {
             // Validate book exists
             Book book = bookRepository.findById(bookId)
@@ -84,20 +101,11 @@ public class TextToSpeechService {
                         "Invalid page number: " + pageNumber + ". Book has " + book.getPageCount() + " pages.");
             }
 
-            // Check cache first
             Path audioFile = getAudioFilePath(bookId, pageNumber);
-            if (Files.exists(audioFile)) {
-                return Files.readAllBytes(audioFile);
+            if (!Files.exists(audioFile)) {
+                synthesizeAndCache(audioFile, extractPageText(book, pageNumber));
             }
-
-            String pageText = extractPageText(book.getPdfPath(), pageNumber);
-            byte[] audioBytes = synthesizeSpeech(pageText);
-
-            // Save to cache for future requests
-            Files.createDirectories(audioFile.getParent());
-            Files.write(audioFile, audioBytes);
-
-            return audioBytes;
+            return audioFile;
 
         } catch (IOException e) {
             log.error("Failed to generate audio for book {} page {}", bookId, pageNumber, e);
@@ -107,9 +115,36 @@ public class TextToSpeechService {
 
     /**
      * Get page text for read-along highlighting
-     * Returns the text and audio URL - frontend will estimate word positions
+     * Returns the text, the audio URL and the word timings stored with the page audio
      */
     public PageTextWithTimings generatePageAudioWithTimings(UUID bookId, int pageNumber) {
+        ReadAlongPage page = prepareReadAlongPage(bookId, pageNumber);
+
+        return PageTextWithTimings.builder()
+                .text(page.text())
+                .wordTimings(page.timings().toWordTimings(page.text()))
+                .audioUrl(audioUrl(bookId, pageNumber))
+                .build();
+    }
+
+    /**
+     * Same as {@link #generatePageAudioWithTimings}, with the word timings as columns of ints
+     * instead of one object per word (see {@link PageWordTimings#toCompact})
+     *
+     * @param packed Send the columns as one base64 string of varints instead of JSON arrays
+     */
+    public CompactWordTimings generatePageAudioWithCompactTimings(UUID bookId, int pageNumber, boolean packed) {
+        ReadAlongPage page = prepareReadAlongPage(bookId, pageNumber);
+
+        CompactWordTimings timings = page.timings().toCompact(page.text(), packed);
+        timings.setAudioUrl(audioUrl(bookId, pageNumber));
+        return timings;
+    }
+
+    private record ReadAlongPage(String text, PageWordTimings timings) {}
+
+    // Validate the page, extract its text once, make sure its audio exists, and load its timings
+    private ReadAlongPage prepareReadAlongPage(UUID bookId, int pageNumber) {
         try {
             // Validate book exists
             Book book = bookRepository.findById(bookId)
@@ -121,23 +156,16 @@ public class TextToSpeechService {
                         "Invalid page number: " + pageNumber + ". Book has " + book.getPageCount() + " pages.");
             }
 
-            // Extract page text
-            String pageText = extractPageText(book.getPdfPath(), pageNumber);
+            // Extract page text (once; reused for synthesis if the audio is not cached yet)
+            String pageText = extractPageText(book, pageNumber);
 
-            // Generate or get cached audio (ensures audio exists)
-            generateOrGetPageAudio(bookId, pageNumber);
-
-            // Build audio URL
-            String audioUrl = "/api/books/" + bookId + "/pages/" + pageNumber + "/audio";
-
-            // Generate estimated word timings based on text length
-            List<WordTiming> wordTimings = generateEstimatedWordTimings(pageText);
-
-            return PageTextWithTimings.builder()
-                    .text(pageText)
-                    .wordTimings(wordTimings)
-                    .audioUrl(audioUrl)
-                    .build();
+            // Ensure audio exists; synthesis stores the timings with it
+            Path audioFile = getAudioFilePath(bookId, pageNumber);
+            if (!Files.exists(audioFile)) {
+                PageWordTimings timings = synthesizeAndCache(audioFile, pageText);
+                return new ReadAlongPage(pageText, timings);
+            }
+            return new ReadAlongPage(pageText, cachedTimings(audioFile, pageText));
 
         } catch (IOException e) {
             log.error("Failed to generate page text with timings for book {} page {}", bookId, pageNumber, e);
@@ -146,66 +174,81 @@ public class TextToSpeechService {
     }
 
     /**
-     * Generate estimated word timings based on TTS speaking rate
-     * Assumes ~200 words per minute (3.33 words per second) for Studio voice
+     * Timings stored next to cached audio
+     * Audio cached before timings were stored (or for different text) gets estimated timings,
+     * which are stored in turn so they are only computed once
      */
-    private List<WordTiming> generateEstimatedWordTimings(String text) {
-        List<WordTiming> timings = new ArrayList<>();
-        String[] words = text.split("\\s+");
-
-        double currentTime = 0.0;
-
-        for (String word : words) {
-            // Adjust timing based on word length (longer words take more time)
-            // Short words (1-3 chars): faster, Long words (10+ chars): slower
-            double wordDuration = SECONDS_PER_WORD * (1.0 + (word.length() - 5) * WORD_LENGTH_FACTOR);
-            wordDuration = Math.max(MIN_WORD_DURATION, Math.min(wordDuration, MAX_WORD_DURATION));
-
-            WordTiming timing = WordTiming.builder()
-                    .word(word)
-                    .startTime(currentTime)
-                    .endTime(currentTime + wordDuration)
-                    .build();
-
-            timings.add(timing);
-            currentTime += wordDuration;
+    private PageWordTimings cachedTimings(Path audioFile, String pageText) throws IOException {
+        Path timingsFile = getTimingsFilePath(audioFile);
+        PageWordTimings timings = PageWordTimings.read(timingsFile);
+        if (timings != null && timings.matches(pageText)) {
+            return timings;
         }
-
+        timings = PageWordTimings.estimate(pageText);
+        timings.write(timingsFile);
         return timings;
     }
 
+    private static String audioUrl(UUID bookId, int pageNumber) {
+        return "/api/books/" + bookId + "/pages/" + pageNumber + "/audio";
+    }
+
+    // Adjust timing based on word length (longer words take more time)
+    // Short words (1-3 chars): faster, Long words (10+ chars): slower
+    static double estimatedWordDuration(int wordLength) {
+        double wordDuration = SECONDS_PER_WORD * (1.0 + (wordLength - 5) * WORD_LENGTH_FACTOR);
+        return Math.max(MIN_WORD_DURATION, Math.min(wordDuration, MAX_WORD_DURATION));
+    }
+
     /**
-     * Extract text from a specific page of a PDF
+     * Synthesize a page and save it to the audio cache for future requests
+     * The word timings are saved first, next to the audio, so cached audio always has them
      */
-    private String extractPageText(String pdfPath, int pageNumber) throws IOException {
+    private PageWordTimings synthesizeAndCache(Path audioFile, String pageText) throws IOException {
+        Path partsDir = getPartsDirectory(audioFile);
+        Synthesis synthesis = synthesizeSpeech(pageText, partsDir);
+        synthesis.timings().write(getTimingsFilePath(audioFile));
+        // Write then rename, so a request streaming the file never sees it half-written
+        writeAtomically(audioFile, synthesis.audio());
+        // The page is complete, so the chunks it was joined from are no longer needed
+        deleteDirectory(partsDir);
+        return synthesis.timings();
+    }
+
+    private static void writeAtomically(Path file, byte[] bytes) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        Files.write(temp, bytes);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Text to speak for a specific page of a book
+     * Raw and cleaned page text come from {@link PageTextStore}, which extracts the whole book once
+     */
+    private String extractPageText(Book book, int pageNumber) throws IOException {
+        String pdfPath = book.getPdfPath();
         File pdfFile = new File(pdfPath);
         if (!pdfFile.exists()) {
             throw new PdfProcessingException("PDF file not found at path: " + pdfPath);
         }
 
-        try (PDDocument document = Loader.loadPDF(pdfFile)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            stripper.setStartPage(pageNumber);
-            stripper.setEndPage(pageNumber);
-
-            String rawText = stripper.getText(document).trim();
+        try {
+            PageTextStore.PageText page = pageTextStore.getPage(
+                    book.getId(), pdfPath, pageNumber, SpeechTextCleaner::clean);
 
-            if (rawText.isEmpty()) {
+            if (page.raw().isEmpty()) {
                 return "This page appears to be empty or contains only images.";
             }
 
-            // Clean up the text for natural TTS output
-            String text = cleanTextForSpeech(rawText);
+            // Cleaned up for natural TTS output
+            String text = page.cleaned();
 
             if (text.isEmpty()) {
                 return "This page contains code or diagrams.";
             }
 
-            // Google TTS has a character limit per request
-            if (text.length() > MAX_TTS_TEXT_LENGTH) {
-                text = text.substring(0, MAX_TTS_TEXT_LENGTH);
-            }
-
+            // Pages over the TTS request limit are synthesized in chunks (see synthesizeSpeech)
             return text;
 
         } catch (IOException e) {
@@ -214,16 +257,132 @@ public class TextToSpeechService {
         }
     }
 
+    /**
+     * Delete the stored page text of a book (rebuilt from the PDF on next use)
+     */
+    public void deletePageText(UUID bookId) {
+        pageTextStore.delete(bookId);
+    }
+
+    private record Synthesis(byte[] audio, PageWordTimings timings) {}
+
     /**
      * Call Google Cloud Text-to-Speech API to synthesize speech
+     * The text is sent as SSML with a mark before every word, and the API reports when each mark
+     * is reached in the audio; timings are estimated when the voice reports no marks.
+     * Text over the request size limit is split at sentence boundaries into chunks, which are
+     * synthesized concurrently (see {@link #synthesizeChunks}) and joined frame by frame into one
+     * MP3, without re-encoding. Each chunk's marks are shifted by the length of the audio before it.
      */
-    private byte[] synthesizeSpeech(String text) throws IOException {
+    private Synthesis synthesizeSpeech(String text, Path partsDir) throws IOException {
+        List<SpeechChunker.Chunk> chunks = SpeechChunker.split(text, MAX_TTS_INPUT_BYTES);
+        if (chunks.size() == 1) {
+            SynthesizeSpeechResponse response = synthesize(chunks.get(0).ssml());
+            return new Synthesis(response.getAudioContent().toByteArray(),
+                    timings(text, response.getTimepointsList(), response.getTimepointsCount() > 0));
+        }
+
+        List<SynthesizeSpeechResponse> responses = synthesizeChunks(chunks, partsDir);
+        List<Mp3Frames> audio = new ArrayList<>(chunks.size());
+        List<Timepoint> timepoints = new ArrayList<>();
+        boolean marked = false;
+        double offset = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            SynthesizeSpeechResponse response = responses.get(i);
+            Mp3Frames frames;
+            try {
+                frames = Mp3Frames.parse(response.getAudioContent().toByteArray());
+            } catch (IOException e) {
+                deleteDirectory(partsDir); // so the next attempt starts over
+                throw e;
+            }
+            if (response.getTimepointsCount() == 0) {
+                // Without marks, the chunk's words are estimated from where its audio starts
+                timepoints.add(Timepoint.newBuilder()
+                        .setMarkName(String.valueOf(chunks.get(i).firstWord()))
+                        .setTimeSeconds(offset)
+                        .build());
+            }
+            for (Timepoint timepoint : response.getTimepointsList()) {
+                timepoints.add(timepoint.toBuilder().setTimeSeconds(timepoint.getTimeSeconds() + offset).build());
+                marked = true;
+            }
+            offset += frames.seconds();
+            audio.add(frames);
+        }
+        return new Synthesis(Mp3Frames.concat(audio), timings(text, timepoints, marked));
+    }
+
+    private static PageWordTimings timings(String text, List<Timepoint> timepoints, boolean marked) {
+        if (marked) {
+            return PageWordTimings.fromTimepoints(text, timepoints);
+        }
+        log.debug("No TTS timepoints for {} chars of text; estimating word timings", text.length());
+        return PageWordTimings.estimate(text);
+    }
+
+    /**
+     * Synthesize the chunks of a page concurrently on the chunk executor (paced by the throttle)
+     * Each response is saved in the page's parts directory as soon as it arrives, and chunks
+     * saved by an earlier attempt are not requested again: when some chunks fail, the page
+     * fails, and the next attempt only synthesizes the chunks that are missing.
+     */
+    private List<SynthesizeSpeechResponse> synthesizeChunks(List<SpeechChunker.Chunk> chunks, Path partsDir)
+            throws IOException {
+        List<CompletableFuture<SynthesizeSpeechResponse>> futures = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            String ssml = chunks.get(i).ssml();
+            // Named after the SSML too, so parts left from different text are never reused
+            Path partFile = partsDir.resolve("part-" + i + "-" + Integer.toHexString(ssml.hashCode()) + ".pb");
+            CompletableFuture<SynthesizeSpeechResponse> future = new CompletableFuture<>();
+            Runnable task = () -> {
+                try {
+                    future.complete(cachedOrSynthesizedPart(partFile, ssml));
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            };
+            try {
+                chunkExecutor.execute(task);
+            } catch (TaskRejectedException e) {
+                task.run();
+            }
+            futures.add(future);
+        }
+
+        // Wait for every chunk, so the ones that succeed are saved even when others fail
+        List<SynthesizeSpeechResponse> responses = new ArrayList<>(chunks.size());
+        Throwable failure = null;
+        int failed = 0;
+        for (CompletableFuture<SynthesizeSpeechResponse> future : futures) {
+            try {
+                responses.add(future.join());
+            } catch (CompletionException e) {
+                failure = failure == null ? e.getCause() : failure;
+                failed++;
+            }
+        }
+        if (failure != null) {
+            throw new IOException(failed + " of " + chunks.size() + " speech chunks failed", failure);
+        }
+        return responses;
+    }
+
+    private SynthesizeSpeechResponse cachedOrSynthesizedPart(Path partFile, String ssml) throws IOException {
         try {
-            // Build the synthesis input
-            SynthesisInput input = SynthesisInput.newBuilder()
-                    .setText(text)
-                    .build();
+            return SynthesizeSpeechResponse.parseFrom(Files.readAllBytes(partFile));
+        } catch (NoSuchFileException e) {
+            // Not synthesized yet
+        } catch (InvalidProtocolBufferException e) {
+            log.warn("Discarding unreadable speech chunk {}", partFile, e);
+        }
+        SynthesizeSpeechResponse response = synthesize(ssml);
+        writeAtomically(partFile, response.toByteArray());
+        return response;
+    }
 
+    private SynthesizeSpeechResponse synthesize(String ssml) throws IOException {
+        try {
             // Build the voice selection
             VoiceSelectionParams voice = VoiceSelectionParams.newBuilder()
                     .setLanguageCode(languageCode)
@@ -238,16 +397,19 @@ public class TextToSpeechService {
                     .setPitch(pitch)
                     .build();
 
-            // Perform the text-to-speech request
-            SynthesizeSpeechResponse response = textToSpeechClient.synthesizeSpeech(
-                    input, voice, audioConfig);
-
-            // Get the audio contents from the response
-            ByteString audioContents = response.getAudioContent();
-            byte[] audioBytes = audioContents.toByteArray();
+            SynthesizeSpeechRequest request = SynthesizeSpeechRequest.newBuilder()
+                    .setInput(SynthesisInput.newBuilder().setSsml(ssml))
+                    .setVoice(voice)
+                    .setAudioConfig(audioConfig)
+                    .addEnableTimePointing(SynthesizeSpeechRequest.TimepointType.SSML_MARK)
+                    .build();
 
-            return audioBytes;
+            // Perform the text-to-speech request (paced to the quota, retried when it is exhausted)
+            return ttsThrottle.execute(() -> textToSpeechClient.synthesizeSpeech(request));
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Text-to-Speech quota", e);
         } catch (Exception e) {
             log.error("Failed to synthesize speech with Google TTS", e);
             throw new IOException("Failed to call Google Text-to-Speech API", e);
@@ -255,65 +417,27 @@ public class TextToSpeechService {
     }
 
     /**
-     * Clean extracted PDF text for natural TTS output.
-     * Only keeps lines that are natural language prose — sentences that
-     * a human would want to hear read aloud.
-     * Skips: code, comments, terminal output, figures, diagrams, tables,
-     * page footers, and anything that isn't a readable sentence or heading.
+     * Get the file path for cached audio
      */
-    private String cleanTextForSpeech(String text) {
-        String[] lines = text.split("\n");
-        StringBuilder cleaned = new StringBuilder();
-
-        for (String line : lines) {
-            String trimmed = line.trim();
-
-            if (trimmed.isEmpty()) continue;
-
-            // --- KEEP: lines that look like prose ---
-            // A prose line must:
-            // 1. Be at least 40 chars (a short sentence) OR be a heading/caption
-            // 2. Have mostly letters and spaces (>60% of characters)
-            // 3. Contain at least 3 words with 3+ letters each (real words, not symbols)
-
-            // Count letters and spaces
-            long letterCount = trimmed.chars().filter(Character::isLetter).count();
-            long spaceCount = trimmed.chars().filter(c -> c == ' ').count();
-            double readableRatio = (double)(letterCount + spaceCount) / trimmed.length();
-
-            // Count real words (3+ letters)
-            long realWordCount = java.util.Arrays.stream(trimmed.split("\\s+"))
-                    .filter(w -> w.chars().filter(Character::isLetter).count() >= 3)
-                    .count();
-
-            // Prose: 40+ chars, >60% readable, 3+ real words
-            boolean isProse = trimmed.length() >= 40 && readableRatio > 0.6 && realWordCount >= 3;
-
-            // Headings: shorter but still mostly words (e.g., "THE ABSTRACTION: THE PROCESS")
-            boolean isHeading = trimmed.length() >= 10 && readableRatio > 0.8 && realWordCount >= 2
-                    && !trimmed.matches(".*[;{}()=<>\\[\\]*&|#/\\\\].*");
-
-            // Figure captions: "Figure 4.5: ..."
-            boolean isCaption = trimmed.matches("(?i)^(figure|table|tip|aside|crux)\\s+\\d.*");
-
-            // Footnote markers: lines starting with a superscript number then prose
-            boolean isFootnote = trimmed.matches("^\\d{1,2}[A-Z].*") && trimmed.length() >= 30
-                    && readableRatio > 0.6 && realWordCount >= 3;
-
-            if (isProse || isHeading || isCaption || isFootnote) {
-                cleaned.append(trimmed).append(" ");
-            }
-        }
+    private Path getAudioFilePath(UUID bookId, int pageNumber) {
+        Path audioDir = Paths.get(audioDirectory, bookId.toString()).toAbsolutePath().normalize();
+        return audioDir.resolve("page-" + pageNumber + ".mp3");
+    }
 
-        return cleaned.toString().replaceAll("\\s+", " ").trim();
+    /**
+     * Get the file path of the word timings stored next to cached audio (page-N.timings)
+     */
+    private static Path getTimingsFilePath(Path audioFile) {
+        String audioName = audioFile.getFileName().toString();
+        return audioFile.resolveSibling(audioName.substring(0, audioName.length() - ".mp3".length()) + ".timings");
     }
 
     /**
-     * Get the file path for cached audio
+     * Get the directory of the synthesized chunks of a page not yet joined into its audio (page-N.parts)
      */
-    private Path getAudioFilePath(UUID bookId, int pageNumber) {
-        Path audioDir = Paths.get(audioDirectory, bookId.toString()).toAbsolutePath().normalize();
-        return audioDir.resolve("page-" + pageNumber + ".mp3");
+    private static Path getPartsDirectory(Path audioFile) {
+        String audioName = audioFile.getFileName().toString();
+        return audioFile.resolveSibling(audioName.substring(0, audioName.length() - ".mp3".length()) + ".parts");
     }
 
     /**
@@ -325,6 +449,10 @@ public class TextToSpeechService {
             if (Files.exists(bookAudioDir)) {
                 try (DirectoryStream<Path> stream = Files.newDirectoryStream(bookAudioDir)) {
                     for (Path path : stream) {
+                        if (Files.isDirectory(path)) {
+                            deleteDirectory(path);
+                            continue;
+                        }
                         try {
                             Files.delete(path);
                         } catch (IOException e) {
@@ -339,6 +467,23 @@ public class TextToSpeechService {
         }
     }
 
+    // Delete a directory of files (the chunks of a page); failures are logged
+    private static void deleteDirectory(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path path : stream) {
+                    Files.delete(path);
+                }
+            }
+            Files.delete(dir);
+        } catch (IOException e) {
+            log.error("Failed to delete audio directory: {}", dir, e);
+        }
+    }
+
     /**
      * Check if audio exists in cache
      */
@@ -0,0 +1,279 @@
+package com.bookshelf.service;
+
+import com.bookshelf.dto.ThumbnailJobProgress;
+import com.bookshelf.exception.ResourceNotFoundException;
+import com.bookshelf.model.ThumbnailJob;
+import com.bookshelf.model.ThumbnailJobStatus;
+import com.bookshelf.repository.BookRepository;
+import com.bookshelf.repository.ThumbnailJobRepository;
+import com.bookshelf.repository.ThumbnailSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-renders the thumbnails of every book as a background job
+ *
+ * - Books are read in id order, batch-size at a time, as (id, pdf path) rows only
+ * - The books of a batch are rendered in parallel on the thumbnail executor (one thread per
+ *   CPU core by default); each book's new thumbnail path is committed on its own
+ * - When the whole batch is done, the job row is checkpointed (last book id and counts) and
+ *   the next batch is started; a job left RUNNING by a restart continues after the checkpoint
+ * - Only one job runs at a time; starting another returns the running one
+ */
+@Service
+public class ThumbnailRegenerationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailRegenerationService.class);
+
+    // Sorts before every other UUID in PostgreSQL, so the first batch starts at the first book
+    private static final UUID BEFORE_FIRST_BOOK = new UUID(0, 0);
+
+    private final BookRepository bookRepository;
+    private final PdfProcessingService pdfProcessingService;
+    private final ThumbnailJobRepository jobRepository;
+    private final TaskExecutor executor;
+    private final int batchSize;
+
+    // Most recent job started or resumed by this instance (running or not); guarded by this
+    private Run latest;
+
+    public ThumbnailRegenerationService(BookRepository bookRepository,
+                                        PdfProcessingService pdfProcessingService,
+                                        ThumbnailJobRepository jobRepository,
+                                        @Qualifier("thumbnailExecutor") TaskExecutor executor,
+                                        @Value("${bookshelf.thumbnails.batch-size:50}") int batchSize) {
+        this.bookRepository = bookRepository;
+        this.pdfProcessingService = pdfProcessingService;
+        this.jobRepository = jobRepository;
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Start regenerating all thumbnails, or return the job that is already running
+     */
+    public ThumbnailJobProgress start() {
+        Run run;
+        synchronized (this) {
+            if (latest != null && latest.status == ThumbnailJobStatus.RUNNING) {
+                return latest.progress();
+            }
+            ThumbnailJob job = jobRepository.save(new ThumbnailJob((int) bookRepository.count()));
+            run = new Run(job);
+            latest = run;
+        }
+        log.info("Thumbnail job {} started for {} books", run.jobId, run.totalBooks);
+        startNextBatch(run);
+        return run.progress();
+    }
+
+    /**
+     * Progress of a job
+     *
+     * @throws ResourceNotFoundException if there is no such job
+     */
+    public ThumbnailJobProgress getProgress(UUID jobId) {
+        synchronized (this) {
+            if (latest != null && latest.jobId.equals(jobId)) {
+                return latest.progress();
+            }
+        }
+        return jobRepository.findById(jobId)
+                .map(ThumbnailRegenerationService::toProgress)
+                .orElseThrow(() -> new ResourceNotFoundException("Thumbnail job not found with id: " + jobId));
+    }
+
+    /**
+     * Continue a job that was still running when the application stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJob() {
+        jobRepository.findFirstByStatus(ThumbnailJobStatus.RUNNING).ifPresent(job -> {
+            Run run;
+            synchronized (this) {
+                if (latest != null && latest.status == ThumbnailJobStatus.RUNNING) {
+                    return;
+                }
+                run = new Run(job);
+                latest = run;
+            }
+            log.info("Resuming thumbnail job {} after {} of {} books", job.getId(), job.getProcessedBooks(),
+                    job.getTotalBooks());
+            startNextBatch(run);
+        });
+    }
+
+    private void startNextBatch(Run run) {
+        List<ThumbnailSource> batch;
+        try {
+            batch = bookRepository.findThumbnailSourcesAfter(run.lastBookId, batchSize);
+        } catch (RuntimeException e) {
+            log.error("Thumbnail job {} failed to read books", run.jobId, e);
+            finish(run, ThumbnailJobStatus.FAILED, e.getMessage());
+            return;
+        }
+        if (batch.isEmpty()) {
+            finish(run, ThumbnailJobStatus.COMPLETED, null);
+            return;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(batch.size());
+        AtomicInteger failed = new AtomicInteger();
+        for (ThumbnailSource book : batch) {
+            Runnable render = () -> {
+                try {
+                    if (!regenerate(book)) {
+                        failed.incrementAndGet();
+                        run.failedBooks.incrementAndGet();
+                    }
+                } finally {
+                    run.processedBooks.incrementAndGet();
+                    if (remaining.decrementAndGet() == 0) {
+                        finishBatch(run, batch, failed.get());
+                    }
+                }
+            };
+            try {
+                executor.execute(render);
+            } catch (TaskRejectedException e) {
+                log.warn("Thumbnail executor rejected book {}; rendering it on the submitting thread", book.getId());
+                render.run();
+            }
+        }
+    }
+
+    // Render one book's thumbnails and commit the new path; false if that failed
+    private boolean regenerate(ThumbnailSource book) {
+        if (book.getPdfPath() == null) {
+            return true;
+        }
+        try {
+            String thumbnailPath = pdfProcessingService.regenerateThumbnail(book.getPdfPath(), book.getId());
+            bookRepository.updateThumbnailPath(book.getId(), thumbnailPath);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to regenerate thumbnail for book {}: {}", book.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    // Runs on the thread that rendered the batch's last book
+    private void finishBatch(Run run, List<ThumbnailSource> batch, int failed) {
+        UUID lastBookId = batch.get(batch.size() - 1).getId();
+        try {
+            jobRepository.updateCheckpoint(run.jobId, lastBookId, batch.size(), failed, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Thumbnail job {} failed to save its checkpoint", run.jobId, e);
+            finish(run, ThumbnailJobStatus.FAILED, e.getMessage());
+            return;
+        }
+        run.lastBookId = lastBookId;
+        startNextBatch(run);
+    }
+
+    private void finish(Run run, ThumbnailJobStatus status, String errorMessage) {
+        try {
+            jobRepository.markFinished(run.jobId, status, errorMessage, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Failed to record the end of thumbnail job {}", run.jobId, e);
+        }
+        synchronized (this) {
+            run.errorMessage = errorMessage;
+            run.completedAt = System.currentTimeMillis();
+            run.status = status;
+        }
+        ThumbnailJobProgress progress = run.progress();
+        log.info("Thumbnail job {} {}: {} books ({} failed), {} books/s this run", run.jobId, status,
+                progress.getProcessedBooks(), progress.getFailedBooks(), progress.getBooksPerSecond());
+    }
+
+    private static ThumbnailJobProgress toProgress(ThumbnailJob job) {
+        long startedAt = toEpochMillis(job.getCreatedAt());
+        long completedAt = toEpochMillis(job.getCompletedAt());
+        long end = completedAt != 0 ? completedAt : toEpochMillis(job.getUpdatedAt());
+        return ThumbnailJobProgress.builder()
+                .jobId(job.getId())
+                .status(job.getStatus().name())
+                .totalBooks(job.getTotalBooks())
+                .processedBooks(job.getProcessedBooks())
+                .failedBooks(job.getFailedBooks())
+                .progressPercentage(percentage(job.getProcessedBooks(), job.getTotalBooks()))
+                .booksPerSecond(rate(job.getProcessedBooks(), end - startedAt))
+                .errorMessage(job.getErrorMessage())
+                .startedAt(startedAt)
+                .completedAt(completedAt)
+                .build();
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static double percentage(int processed, int total) {
+        return total == 0 ? 100.0 : Math.min(100.0, processed * 100.0 / total);
+    }
+
+    private static double rate(int books, long millis) {
+        return millis <= 0 ? 0 : Math.round(books * 10_000.0 / millis) / 10.0;
+    }
+
+    /**
+     * In-memory state of the running job; counts include books rendered since the last checkpoint
+     */
+    private static final class Run {
+
+        private final UUID jobId;
+        private final int totalBooks;
+        private final long startedAt;
+        private final long runStartedAt = System.currentTimeMillis();
+        private final int processedAtRunStart;
+        private final AtomicInteger processedBooks;
+        private final AtomicInteger failedBooks;
+
+        // Written by the thread that finishes a batch, before it submits the next one
+        private volatile UUID lastBookId;
+        private volatile ThumbnailJobStatus status = ThumbnailJobStatus.RUNNING;
+        private volatile String errorMessage;
+        private volatile long completedAt;
+
+        private Run(ThumbnailJob job) {
+            this.jobId = job.getId();
+            this.totalBooks = job.getTotalBooks();
+            this.startedAt = job.getCreatedAt() != null ? toEpochMillis(job.getCreatedAt()) : runStartedAt;
+            this.processedAtRunStart = job.getProcessedBooks();
+            this.processedBooks = new AtomicInteger(job.getProcessedBooks());
+            this.failedBooks = new AtomicInteger(job.getFailedBooks());
+            this.lastBookId = job.getLastBookId() != null ? job.getLastBookId() : BEFORE_FIRST_BOOK;
+        }
+
+        private ThumbnailJobProgress progress() {
+            int processed = processedBooks.get();
+            long end = completedAt != 0 ? completedAt : System.currentTimeMillis();
+            return ThumbnailJobProgress.builder()
+                    .jobId(jobId)
+                    .status(status.name())
+                    .totalBooks(totalBooks)
+                    .processedBooks(processed)
+                    .failedBooks(failedBooks.get())
+                    .progressPercentage(percentage(processed, totalBooks))
+                    .booksPerSecond(rate(processed - processedAtRunStart, end - runStartedAt))
+                    .errorMessage(errorMessage)
+                    .startedAt(startedAt)
+                    .completedAt(completedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.bookshelf.service;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps Google Text-to-Speech calls within the project's request quota
+ * - A token bucket refilled at requests-per-minute (bursts up to burst) paces every call,
+ *   whether it comes from a reader or from batch generation
+ * - Calls rejected with RESOURCE_EXHAUSTED are retried with exponential backoff and full jitter,
+ *   so parallel workers that hit the quota together do not retry in lockstep
+ */
+@Component
+public class TtsRequestThrottle {
+
+    private static final Logger log = LoggerFactory.getLogger(TtsRequestThrottle.class);
+
+    private final double tokensPerNano;
+    private final double burst;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    // Guarded by this; negative when callers have reserved tokens that are not refilled yet
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+
+    public TtsRequestThrottle(@Value("${bookshelf.tts.requests-per-minute:300}") int requestsPerMinute,
+                              @Value("${bookshelf.tts.burst:5}") int burst,
+                              @Value("${bookshelf.tts.max-attempts:5}") int maxAttempts,
+                              @Value("${bookshelf.tts.initial-backoff-ms:1000}") long initialBackoffMillis,
+                              @Value("${bookshelf.tts.max-backoff-ms:30000}") long maxBackoffMillis) {
+        this.tokensPerNano = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.tokens = this.burst;
+    }
+
+    /**
+     * Run one TTS request once a token is available, retrying while the quota is exhausted
+     */
+    public <T> T execute(Supplier<T> request) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            acquire();
+            try {
+                return request.get();
+            } catch (ApiException e) {
+                if (e.getStatusCode().getCode() != StatusCode.Code.RESOURCE_EXHAUSTED || attempt >= maxAttempts) {
+                    throw e;
+                }
+                long backoff = backoffMillis(attempt);
+                log.warn("TTS quota exhausted (attempt {}/{}), retrying in {}ms", attempt, maxAttempts, backoff);
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    /**
+     * Wait until a token is available and take it
+     */
+    void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            tokens -= 1;
+            waitNanos = tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    // Full jitter: uniform in [0, min(max, initial * 2^(attempt-1))]
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,178 @@
+package com.bookshelf.service;
+
+import com.bookshelf.dto.BookResponse;
+import com.bookshelf.dto.UploadJobStatus;
+import com.bookshelf.exception.DuplicateBookException;
+import com.bookshelf.exception.ResourceNotFoundException;
+import com.bookshelf.exception.UploadQueueFullException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs book uploads as background jobs on the bounded ingest executor
+ * The request thread only streams the file to disk and checks for duplicates;
+ * extraction, thumbnail generation and text indexing happen after the 202 response is sent
+ */
+@Service
+public class UploadJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadJobService.class);
+
+    private final BookService bookService;
+    private final PdfProcessingService pdfProcessingService;
+    private final PageTextIndexService pageTextIndexService;
+    private final TaskExecutor ingestExecutor;
+    private final long retentionMillis;
+
+    // Store job status by job id; entries are never modified once stored, only replaced
+    // (see update), so request threads always read a consistent status
+    private final Map<UUID, UploadJobStatus> jobs = new ConcurrentHashMap<>();
+
+    // File hashes of uploads that are queued or processing, to reject concurrent duplicates
+    private final Set<String> inFlightHashes = ConcurrentHashMap.newKeySet();
+
+    public UploadJobService(BookService bookService, PdfProcessingService pdfProcessingService,
+                            PageTextIndexService pageTextIndexService,
+                            @Qualifier("ingestExecutor") TaskExecutor ingestExecutor,
+                            @Value("${bookshelf.ingest.job-retention-minutes:60}") long retentionMinutes) {
+        this.bookService = bookService;
+        this.pdfProcessingService = pdfProcessingService;
+        this.pageTextIndexService = pageTextIndexService;
+        this.ingestExecutor = ingestExecutor;
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+    }
+
+    /**
+     * Accept an upload and queue its processing
+     *
+     * @param file Uploaded PDF file
+     * @return Initial job status (QUEUED) including the job id to poll
+     * @throws DuplicateBookException if the same file is already stored or being processed
+     * @throws UploadQueueFullException if the ingest queue has no room left
+     */
+    public UploadJobStatus submit(MultipartFile file) {
+        pruneFinishedJobs();
+
+        PdfProcessingService.StagedUpload staged = bookService.stageUpload(file);
+        if (!inFlightHashes.add(staged.fileHash())) {
+            pdfProcessingService.discardStagedUpload(staged);
+            throw new DuplicateBookException("The same book is already being processed");
+        }
+
+        UUID jobId = UUID.randomUUID();
+        String fileName = file.getOriginalFilename();
+        UploadJobStatus status = UploadJobStatus.builder()
+                .jobId(jobId)
+                .status("QUEUED")
+                .stage("STORED")
+                .fileName(fileName)
+                .submittedAt(System.currentTimeMillis())
+                .build();
+        jobs.put(jobId, status);
+
+        try {
+            ingestExecutor.execute(() -> process(jobId, staged, fileName));
+        } catch (TaskRejectedException e) {
+            jobs.remove(jobId);
+            inFlightHashes.remove(staged.fileHash());
+            pdfProcessingService.discardStagedUpload(staged);
+            throw new UploadQueueFullException("Too many uploads are being processed. Please retry shortly.");
+        }
+
+        return copyOf(status);
+    }
+
+    /**
+     * Get the status of an upload job
+     *
+     * @throws ResourceNotFoundException if the job is unknown or has expired
+     */
+    public UploadJobStatus getStatus(UUID jobId) {
+        UploadJobStatus status = jobs.get(jobId);
+        if (status == null) {
+            throw new ResourceNotFoundException("Upload job not found with id: " + jobId);
+        }
+        return copyOf(status);
+    }
+
+    private void process(UUID jobId, PdfProcessingService.StagedUpload staged, String fileName) {
+        update(jobId, status -> {
+            status.setStatus("PROCESSING");
+            status.setStartedAt(System.currentTimeMillis());
+        });
+
+        try {
+            BookResponse book = bookService.completeUpload(staged, fileName,
+                    stage -> update(jobId, status -> status.setStage(stage)));
+
+            // The book is already saved; if indexing fails here the backfill picks it up later
+            update(jobId, status -> status.setStage("INDEXING"));
+            try {
+                pageTextIndexService.indexBook(book.getId());
+            } catch (Exception e) {
+                log.warn("Text indexing deferred for book {}: {}", book.getId(), e.getMessage());
+            }
+
+            update(jobId, status -> {
+                status.setStatus("COMPLETED");
+                status.setStage("DONE");
+                status.setBookId(book.getId());
+                status.setBook(book);
+                status.setCompletedAt(System.currentTimeMillis());
+            });
+        } catch (Exception e) {
+            log.error("Upload job {} failed for file {}", jobId, fileName, e);
+            pdfProcessingService.discardStagedUpload(staged);
+            update(jobId, status -> {
+                status.setStatus("FAILED");
+                status.setErrorMessage(e.getMessage());
+                status.setCompletedAt(System.currentTimeMillis());
+            });
+        } finally {
+            inFlightHashes.remove(staged.fileHash());
+        }
+    }
+
+    // Publish a changed copy of a job's status; the stored instance is never modified
+    private void update(UUID jobId, Consumer<UploadJobStatus> change) {
+        jobs.computeIfPresent(jobId, (id, current) -> {
+            UploadJobStatus next = copyOf(current);
+            change.accept(next);
+            return next;
+        });
+    }
+
+    // Finished jobs are kept for a while so clients can still read the final status
+    private void pruneFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.getCompletedAt() > 0 && job.getCompletedAt() < cutoff);
+    }
+
+    private UploadJobStatus copyOf(UploadJobStatus status) {
+        return UploadJobStatus.builder()
+                .jobId(status.getJobId())
+                .status(status.getStatus())
+                .stage(status.getStage())
+                .fileName(status.getFileName())
+                .bookId(status.getBookId())
+                .book(status.getBook())
+                .errorMessage(status.getErrorMessage())
+                .submittedAt(status.getSubmittedAt())
+                .startedAt(status.getStartedAt())
+                .completedAt(status.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+-- ============================================================================
+-- V10: Durable batch audio generation jobs
+-- ============================================================================
+-- Batch audio generation ("generate all pages") used to keep its progress in
+-- memory, so a restart lost every running job. Each request is now a row here.
+--
+-- current_page is the last page of the contiguous run of pages, counted from
+-- start_page, that have audio; it is advanced as pages finish. On startup,
+-- QUEUED and RUNNING jobs are picked up again and resume from the first page
+-- without cached audio.
+--
+-- At most one job per book can be active (QUEUED or RUNNING); finished jobs
+-- are kept so the last outcome stays queryable. Jobs are deleted with their book.
+-- ============================================================================
+
+CREATE TABLE audio_generation_jobs (
+    id UUID PRIMARY KEY,                              -- Job identifier
+    book_id UUID NOT NULL,                            -- Book whose pages are generated
+    start_page INTEGER NOT NULL,                      -- First page of the range (1-based)
+    end_page INTEGER NOT NULL,                        -- Last page of the range (inclusive)
+    status VARCHAR(20) NOT NULL,                      -- QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    current_page INTEGER NOT NULL,                    -- Every page from start_page up to here has audio
+    error_message VARCHAR(1000),                      -- Why the job failed
+    created_at TIMESTAMP NOT NULL,                    -- When the job was requested
+    started_at TIMESTAMP,                             -- When the first page was started
+    completed_at TIMESTAMP,                           -- When the job finished, failed or was cancelled
+    updated_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_audio_generation_job_book FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE
+);
+
+-- One active job per book; also serves the startup scan for unfinished jobs
+CREATE UNIQUE INDEX idx_audio_generation_jobs_active
+    ON audio_generation_jobs(book_id) WHERE status IN ('QUEUED', 'RUNNING');
+
+-- Latest job of a book (generation-status endpoint)
+CREATE INDEX idx_audio_generation_jobs_book ON audio_generation_jobs(book_id, created_at DESC);
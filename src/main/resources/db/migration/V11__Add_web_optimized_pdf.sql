@@ -0,0 +1,23 @@
+-- ============================================================================
+-- V11: Web-optimized PDF copies
+-- ============================================================================
+-- When bookshelf.pdf-optimization.enabled is on, a background job writes a
+-- compressed (object streams, optionally recompressed images) and, if qpdf
+-- is available, linearized copy of each PDF next to the original. The copy
+-- is served by GET /api/books/{id}/pdf; the original is kept untouched
+-- because page text, thumbnails and the duplicate check (file_hash) use it.
+--
+-- pdf_optimization_status: PENDING (not processed yet), OPTIMIZED (copy in
+-- web_pdf_path), SKIPPED (the copy would not have helped), FAILED.
+-- pdf_bytes_saved is original size minus copy size; it can be negative when
+-- linearization alone made the copy worth keeping.
+-- Existing books start as PENDING and are processed once the job is enabled.
+-- ============================================================================
+
+ALTER TABLE books
+    ADD COLUMN pdf_optimization_status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    ADD COLUMN web_pdf_path VARCHAR(1000),
+    ADD COLUMN pdf_bytes_saved BIGINT;
+
+-- Small partial index for the background job's "next pending books" query
+CREATE INDEX idx_books_pdf_optimization_pending ON books(date_added) WHERE pdf_optimization_status = 'PENDING';
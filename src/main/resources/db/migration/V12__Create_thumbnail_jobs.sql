@@ -0,0 +1,30 @@
+-- ============================================================================
+-- V12: Resumable bulk thumbnail regeneration
+-- ============================================================================
+-- POST /api/books/regenerate-thumbnails used to re-render every thumbnail
+-- inside the request, in one transaction. It now starts a background job
+-- recorded here.
+--
+-- Books are processed in id order, one page of books at a time; each book's
+-- new thumbnail path is committed on its own. last_book_id is the checkpoint:
+-- every book with an id up to it has been processed. On startup a RUNNING job
+-- continues after it, so at most one page of books is rendered twice.
+--
+-- Only one job can run at a time; finished jobs are kept for their counts.
+-- ============================================================================
+
+CREATE TABLE thumbnail_jobs (
+    id UUID PRIMARY KEY,                              -- Job identifier
+    status VARCHAR(20) NOT NULL,                      -- RUNNING, COMPLETED, FAILED
+    total_books INTEGER NOT NULL,                     -- Books in the library when the job started
+    processed_books INTEGER NOT NULL DEFAULT 0,       -- Books up to the checkpoint (including failed ones)
+    failed_books INTEGER NOT NULL DEFAULT 0,          -- Books whose thumbnails could not be rendered
+    last_book_id UUID,                                -- Checkpoint; NULL before the first page is done
+    error_message VARCHAR(1000),                      -- Why the job failed
+    created_at TIMESTAMP NOT NULL,                    -- When the job was requested
+    completed_at TIMESTAMP,                           -- When the job finished or failed
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- At most one running job; also serves the startup scan for an unfinished job
+CREATE UNIQUE INDEX idx_thumbnail_jobs_running ON thumbnail_jobs((true)) WHERE status = 'RUNNING';
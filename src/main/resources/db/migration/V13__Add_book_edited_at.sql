@@ -0,0 +1,15 @@
+-- ============================================================================
+-- V13: Track user metadata edits separately from updated_at
+-- ============================================================================
+-- The background enricher skips overwriting title/author when the user
+-- edited the book after it was fetched for a lookup. It used to compare
+-- updated_at, but progress writes (reading a page) also bump updated_at, so
+-- simply reading a book discarded its enrichment.
+--
+-- edited_at is set only when the user changes title, author, description,
+-- genre or cover through the book update endpoint. Existing books start
+-- with NULL (never edited).
+-- ============================================================================
+
+ALTER TABLE books
+    ADD COLUMN edited_at TIMESTAMP;
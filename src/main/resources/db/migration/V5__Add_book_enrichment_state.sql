@@ -0,0 +1,25 @@
+-- ============================================================================
+-- V5: Track Google Books enrichment state per book
+-- ============================================================================
+-- Uploads are saved with the metadata found in the PDF and marked PENDING.
+-- A scheduled background enricher picks due rows in batches, calls the
+-- Google Books API outside any transaction and patches the results back.
+--
+-- Failed lookups are retried with exponential backoff (enrichment_next_attempt_at)
+-- until the attempt limit is reached, then the row is marked FAILED.
+-- Existing books were enriched synchronously at upload time, so they start
+-- as COMPLETED.
+-- ============================================================================
+
+ALTER TABLE books
+    ADD COLUMN enrichment_status VARCHAR(20) NOT NULL DEFAULT 'COMPLETED',
+    ADD COLUMN enrichment_attempts INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN enrichment_next_attempt_at TIMESTAMP;
+
+ALTER TABLE books
+    ADD CONSTRAINT chk_books_enrichment_status
+        CHECK (enrichment_status IN ('PENDING', 'COMPLETED', 'FAILED'));
+
+-- Partial index: the enricher only ever scans pending rows that are due
+CREATE INDEX idx_books_enrichment_due ON books(enrichment_next_attempt_at)
+    WHERE enrichment_status = 'PENDING';
@@ -0,0 +1,29 @@
+-- ============================================================================
+-- V6: Page-level full-text index over extracted PDF text
+-- ============================================================================
+-- Each row holds the text PDFBox extracted from one page of a book. The
+-- search_vector column is generated by Postgres from that text, so it can
+-- never drift from the content, and a GIN index makes @@ queries fast.
+--
+-- books.text_indexed_pages records how many pages (from page 1) have been
+-- extracted. The indexer writes pages in chunks and advances this counter in
+-- the same transaction, so an interrupted run resumes from where it stopped.
+-- Existing books start at 0 and are picked up by the background backfill.
+-- ============================================================================
+
+CREATE TABLE book_page_text (
+    book_id UUID NOT NULL,                             -- Book the page belongs to
+    page_number INTEGER NOT NULL,                      -- 1-based page number
+    content TEXT NOT NULL,                             -- Raw extracted page text
+    search_vector TSVECTOR
+        GENERATED ALWAYS AS (to_tsvector('english', content)) STORED,
+
+    PRIMARY KEY (book_id, page_number),
+
+    -- Page text goes away together with its book
+    CONSTRAINT fk_book_page_text_book FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_book_page_text_search ON book_page_text USING GIN (search_vector);
+
+ALTER TABLE books ADD COLUMN text_indexed_pages INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+-- ============================================================================
+-- V7: Trigram indexes for library title/author search
+-- ============================================================================
+-- The library search box matches LOWER(title)/LOWER(author) LIKE '%term%'.
+-- A B-tree index cannot serve a leading wildcard, so every keystroke used to
+-- scan the whole books table. pg_trgm GIN indexes on the same lower(...)
+-- expressions let Postgres answer those LIKE predicates (for terms of three
+-- or more characters) with a bitmap index scan, and provide similarity()
+-- for relevance ranking.
+--
+-- pg_trgm is a trusted extension since PostgreSQL 13, so the database owner
+-- can create it without superuser rights.
+-- ============================================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_books_title_trgm ON books USING GIN (lower(title) gin_trgm_ops);
+
+CREATE INDEX idx_books_author_trgm ON books USING GIN (lower(author) gin_trgm_ops);
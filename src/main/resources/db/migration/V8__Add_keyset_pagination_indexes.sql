@@ -0,0 +1,24 @@
+-- ============================================================================
+-- V8: Composite indexes for keyset (cursor) pagination of the book list
+-- ============================================================================
+-- GET /api/books/cursor orders by one sort key plus id as a tiebreaker and
+-- continues from the last row with (key, id) comparisons instead of OFFSET.
+-- Each index below matches one sort option exactly (column order, direction
+-- and Postgres' default null placement), so every slice is an index range scan.
+--
+-- The single-column date_added/last_read_at indexes from V1 are covered by
+-- the new composites and are dropped.
+-- ============================================================================
+
+DROP INDEX IF EXISTS idx_books_date_added;
+DROP INDEX IF EXISTS idx_books_last_read_at;
+
+CREATE INDEX idx_books_date_added_keyset ON books(date_added DESC, id DESC);
+
+CREATE INDEX idx_books_title_keyset ON books(title ASC, id ASC);
+
+CREATE INDEX idx_books_last_read_at_keyset ON books(last_read_at DESC, id DESC);
+
+-- Same expression as the Book.progressRatio @Formula
+CREATE INDEX idx_books_progress_keyset
+    ON books((float8(COALESCE(current_page, 0)) / NULLIF(page_count, 0)) DESC, id DESC);
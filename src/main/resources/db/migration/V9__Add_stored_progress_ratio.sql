@@ -0,0 +1,21 @@
+-- ============================================================================
+-- V9: Stored progress_ratio column for the "progress" sort
+-- ============================================================================
+-- Progress used to be a Hibernate @Formula evaluated per row at query time,
+-- so sorting by progress needed an expression index that had to match the
+-- generated SQL exactly. It is now a stored generated column: Postgres
+-- recomputes it on every INSERT/UPDATE that touches current_page or
+-- page_count (progress updates, bulk status updates, edits), so it can never
+-- be stale, and a plain (progress_ratio DESC, id DESC) index serves both the
+-- offset and the cursor listing.
+--
+-- NULL when page_count is NULL or 0, sorted first under DESC like before.
+-- ============================================================================
+
+DROP INDEX IF EXISTS idx_books_progress_keyset;
+
+ALTER TABLE books
+    ADD COLUMN progress_ratio DOUBLE PRECISION
+        GENERATED ALWAYS AS (float8(COALESCE(current_page, 0)) / NULLIF(page_count, 0)) STORED;
+
+CREATE INDEX idx_books_progress_ratio ON books(progress_ratio DESC, id DESC);
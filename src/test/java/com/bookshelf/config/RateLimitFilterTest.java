@@ -62,6 +62,26 @@ class RateLimitFilterTest {
         verify(chain).doFilter(request, response);
     }
 
+    @Test
+    void doFilter_rateLimitsPageImageEndpoint() throws Exception {
+        // Page images can be full renders, so they count against the bucket like other API calls
+        RateLimitFilter strict = new RateLimitFilter(1, 10);
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        strict.doFilter(pageImageRequest(), new MockHttpServletResponse(), chain);
+        strict.doFilter(pageImageRequest(), second, chain);
+
+        verify(chain, times(1)).doFilter(any(), any());
+        assertThat(second.getStatus()).isEqualTo(429);
+    }
+
+    private static MockHttpServletRequest pageImageRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/abc/pages/12/image");
+        request.setRemoteAddr("10.0.0.7");
+        return request;
+    }
+
     // ── API requests consume tokens ───────────────────────────────────────────
 
     @Test
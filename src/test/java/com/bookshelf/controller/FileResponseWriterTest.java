@@ -0,0 +1,143 @@
+package com.bookshelf.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for FileResponseWriter conditional, range and sendfile handling.
+ */
+class FileResponseWriterTest {
+
+    private static final MediaType AUDIO_MPEG = MediaType.valueOf("audio/mpeg");
+    private static final CacheControl CACHE = CacheControl.maxAge(Duration.ofDays(30)).cachePrivate();
+
+    @TempDir
+    Path storage;
+
+    private final FileResponseWriter writer = new FileResponseWriter();
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = storage.resolve("page-1.mp3");
+        Files.writeString(file, "0123456789", StandardCharsets.US_ASCII);
+    }
+
+    // ── full responses ────────────────────────────────────────────────────────
+
+    @Test
+    void write_sendsWholeFile_withCachingHeaders() throws Exception {
+        MockHttpServletResponse response = write(get());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentType()).isEqualTo("audio/mpeg");
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("max-age=2592000, private");
+        assertThat(response.getHeader("ETag")).startsWith("\"");
+        assertThat(response.getHeader("Last-Modified")).isNotNull();
+        assertThat(response.getHeader("Content-Disposition")).isEqualTo("inline; filename=\"page-1.mp3\"");
+    }
+
+    @Test
+    void write_returnsNotModified_whenEtagMatches() throws Exception {
+        String etag = write(get()).getHeader("ETag");
+        MockHttpServletRequest request = get();
+        request.addHeader("If-None-Match", etag);
+
+        MockHttpServletResponse response = write(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void write_handsFileToSendfile_whenConnectorSupportsIt() throws Exception {
+        MockHttpServletRequest request = get();
+        request.setAttribute(FileResponseWriter.SENDFILE_SUPPORTED, Boolean.TRUE);
+        request.addHeader("Range", "bytes=2-4");
+
+        MockHttpServletResponse response = write(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute(FileResponseWriter.SENDFILE_FILENAME)).isEqualTo(file.toAbsolutePath().toString());
+        assertThat(request.getAttribute(FileResponseWriter.SENDFILE_START)).isEqualTo(2L);
+        assertThat(request.getAttribute(FileResponseWriter.SENDFILE_END)).isEqualTo(5L);
+    }
+
+    // ── ranges ────────────────────────────────────────────────────────────────
+
+    @Test
+    void write_sendsPartialContent_forSingleRange() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=3-6");
+
+        MockHttpServletResponse response = write(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("3456");
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 3-6/10");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+    }
+
+    @Test
+    void write_sendsTail_forSuffixRange() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=-3");
+
+        MockHttpServletResponse response = write(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("789");
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 7-9/10");
+    }
+
+    @Test
+    void write_returnsRangeNotSatisfiable_whenRangeStartsPastEnd() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=20-30");
+
+        MockHttpServletResponse response = write(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void write_ignoresRange_whenIfRangeDoesNotMatch() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=3-6");
+        request.addHeader("If-Range", "\"stale\"");
+
+        MockHttpServletResponse response = write(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/books/1/pages/1/audio");
+    }
+
+    private MockHttpServletResponse write(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(request, response, file, AUDIO_MPEG, "inline; filename=\"page-1.mp3\"", CACHE, null);
+        return response;
+    }
+}
@@ -62,6 +62,43 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody().get("message")).isEqualTo("Already exists: My Book");
     }
 
+    // ── InvalidCursorException → 400 ──────────────────────────────────────────
+
+    @Test
+    void handleInvalidCursor_returns400WithMessage() {
+        ResponseEntity<Map<String, Object>> response =
+                handler.handleInvalidCursor(new InvalidCursorException("Malformed cursor"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).containsEntry("status", 400);
+        assertThat(response.getBody().get("message")).isEqualTo("Malformed cursor");
+    }
+
+    // ── InvalidParameterException → 400 ───────────────────────────────────────
+
+    @Test
+    void handleInvalidParameter_returns400WithMessage() {
+        ResponseEntity<Map<String, Object>> response =
+                handler.handleInvalidParameter(new InvalidParameterException("Unknown thumbnail size: huge"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).containsEntry("status", 400);
+        assertThat(response.getBody()).containsEntry("error", "Bad Request");
+        assertThat(response.getBody().get("message")).isEqualTo("Unknown thumbnail size: huge");
+    }
+
+    // ── UploadQueueFullException → 503 ────────────────────────────────────────
+
+    @Test
+    void handleUploadQueueFull_returns503WithRetryAfter() {
+        ResponseEntity<Map<String, Object>> response =
+                handler.handleUploadQueueFull(new UploadQueueFullException("Queue full"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("30");
+        assertThat(response.getBody()).containsEntry("message", "Queue full");
+    }
+
     // ── PdfProcessingException → 400 ──────────────────────────────────────────
 
     @Test
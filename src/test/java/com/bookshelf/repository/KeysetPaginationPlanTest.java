@@ -0,0 +1,111 @@
+package com.bookshelf.repository;
+
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.as;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plans of the keyset slices built by BookRepositoryCustomImpl (V8/V9 indexes).
+ * The WHERE clauses have the shape of the generated SQL; each must bound the index range
+ * (an Index Cond on the sort key) rather than walk the index from the start and filter.
+ * Skipped when Docker is unavailable.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class KeysetPaginationPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final String AFTER_ID = "'" + new UUID(0, 500) + "'";
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrateAndFill() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO books (id, title, pdf_path, current_page, page_count, status, created_at, "
+                + "date_added, last_read_at) "
+                + "SELECT ('00000000-0000-0000-0000-' || lpad(to_hex(i), 12, '0'))::uuid, 'Book ' || i, "
+                + "'/' || i || '.pdf', i % 300, 300, 'READING', now(), "
+                + "now() - i * interval '1 minute', CASE WHEN i % 3 = 0 THEN NULL ELSE now() - i * interval '1 hour' END "
+                + "FROM generate_series(1, 5000) AS i");
+        jdbc.execute("ANALYZE books");
+    }
+
+    // ── values after the position ─────────────────────────────────────────────
+
+    @Test
+    void dateAddedSlice_isIndexRangeScan() {
+        assertRangeScan("idx_books_date_added_keyset", "date_added <=",
+                "SELECT id FROM books WHERE date_added <= now() - interval '1 day' "
+                        + "AND (date_added < now() - interval '1 day' OR id < " + AFTER_ID + ") "
+                        + "ORDER BY date_added DESC, id DESC LIMIT 20");
+    }
+
+    @Test
+    void titleSlice_isIndexRangeScan() {
+        assertRangeScan("idx_books_title_keyset", "title >=",
+                "SELECT id FROM books WHERE title >= 'Book 2500' "
+                        + "AND (title > 'Book 2500' OR id > " + AFTER_ID + ") "
+                        + "ORDER BY title ASC, id ASC LIMIT 20");
+    }
+
+    @Test
+    void progressSlice_isIndexRangeScan() {
+        assertRangeScan("idx_books_progress_ratio", "progress_ratio <=",
+                "SELECT id FROM books WHERE progress_ratio <= 0.5 "
+                        + "AND (progress_ratio < 0.5 OR id < " + AFTER_ID + ") "
+                        + "ORDER BY progress_ratio DESC, id DESC LIMIT 20");
+    }
+
+    // ── null keys ─────────────────────────────────────────────────────────────
+
+    @Test
+    void lastReadNullSlice_isIndexRangeScan() {
+        assertRangeScan("idx_books_last_read_at_keyset", "(last_read_at IS NULL)",
+                "SELECT id FROM books WHERE last_read_at IS NULL AND id < " + AFTER_ID + " "
+                        + "ORDER BY last_read_at DESC, id DESC LIMIT 20");
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private static void assertRangeScan(String index, String indexCondition, String sql) {
+        // Seq scans disabled so the small table does not hide whether the index is usable
+        List<String> plan = jdbc.execute((Connection con) -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("SET enable_seqscan = off");
+                ResultSet rs = st.executeQuery("EXPLAIN " + sql);
+                List<String> lines = new ArrayList<>();
+                while (rs.next()) {
+                    lines.add(rs.getString(1));
+                }
+                st.execute("RESET enable_seqscan");
+                return lines;
+            }
+        });
+
+        assertThat(String.join("\n", plan)).contains(index).doesNotContain("Sort");
+        assertThat(plan).filteredOn(line -> line.contains("Index Cond:"))
+                .singleElement(as(InstanceOfAssertFactories.STRING))
+                .contains(indexCondition);
+    }
+}
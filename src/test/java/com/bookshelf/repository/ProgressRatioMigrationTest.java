@@ -0,0 +1,123 @@
+package com.bookshelf.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migration test for the stored progress_ratio column (V9).
+ * Applies all Flyway migrations to a real PostgreSQL container; skipped when Docker is unavailable.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ProgressRatioMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void clean() {
+        jdbc.update("DELETE FROM books");
+    }
+
+    // ── generated values ──────────────────────────────────────────────────────
+
+    @Test
+    void progressRatio_isComputedOnInsertAndRecomputedOnUpdate() {
+        UUID id = insertBook("Dune", 50, 200);
+        assertThat(ratio(id)).isEqualTo(0.25);
+
+        jdbc.update("UPDATE books SET current_page = 150 WHERE id = ?", id);
+        assertThat(ratio(id)).isEqualTo(0.75);
+
+        // Same shape as the bulk "finish" update in BookRepository
+        jdbc.update("UPDATE books SET status = 'FINISHED', current_page = page_count WHERE id IN (?)", id);
+        assertThat(ratio(id)).isEqualTo(1.0);
+    }
+
+    @Test
+    void progressRatio_isNull_whenPageCountMissingOrZero() {
+        UUID noCount = insertBook("No count", 5, null);
+        UUID zeroCount = insertBook("Zero count", 0, 0);
+
+        assertThat(ratio(noCount)).isNull();
+        assertThat(ratio(zeroCount)).isNull();
+    }
+
+    // ── ordering ──────────────────────────────────────────────────────────────
+
+    @Test
+    void progressSort_ordersNullsFirstThenDescending() {
+        insertBook("Half", 50, 100);
+        insertBook("Unknown", 0, null);
+        insertBook("Done", 100, 100);
+        insertBook("Started", 1, 100);
+
+        List<String> titles = jdbc.queryForList(
+                "SELECT title FROM books ORDER BY progress_ratio DESC, id DESC", String.class);
+
+        assertThat(titles).containsExactly("Unknown", "Done", "Half", "Started");
+    }
+
+    @Test
+    void progressSort_isServedByProgressIndex() {
+        for (int i = 0; i < 50; i++) {
+            insertBook("Book " + i, i, 100);
+        }
+        jdbc.execute("ANALYZE books");
+
+        // Seq scans disabled so the small table does not hide whether the index is usable
+        List<String> plan = jdbc.execute((Connection con) -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("SET enable_seqscan = off");
+                ResultSet rs = st.executeQuery(
+                        "EXPLAIN SELECT id FROM books ORDER BY progress_ratio DESC, id DESC LIMIT 20");
+                List<String> lines = new ArrayList<>();
+                while (rs.next()) {
+                    lines.add(rs.getString(1));
+                }
+                st.execute("RESET enable_seqscan");
+                return lines;
+            }
+        });
+
+        assertThat(String.join("\n", plan)).contains("idx_books_progress_ratio").doesNotContain("Sort");
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private UUID insertBook(String title, int currentPage, Integer pageCount) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO books (id, title, pdf_path, current_page, page_count, status, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, 'READING', now())", id, title, "/" + id + ".pdf", currentPage, pageCount);
+        return id;
+    }
+
+    private Double ratio(UUID id) {
+        return jdbc.queryForObject("SELECT progress_ratio FROM books WHERE id = ?", Double.class, id);
+    }
+}
@@ -0,0 +1,308 @@
+package com.bookshelf.service;
+
+import com.bookshelf.dto.AudioGenerationProgress;
+import com.bookshelf.exception.PdfProcessingException;
+import com.bookshelf.model.AudioGenerationJob;
+import com.bookshelf.model.AudioJobStatus;
+import com.bookshelf.model.Book;
+import com.bookshelf.repository.AudioGenerationJobRepository;
+import com.bookshelf.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchAudioGenerationService scheduling, progress, cancellation and recovery.
+ * TextToSpeechService and the job repository are mocked; pages run on a small real thread pool,
+ * or on a manual executor where the order of pages matters.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchAudioGenerationServiceTest {
+
+    @Mock private TextToSpeechService textToSpeechService;
+    @Mock private BookRepository bookRepository;
+    @Mock private AudioGenerationJobRepository jobRepository;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+    private final UUID bookId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    // ── startBatchGeneration ──────────────────────────────────────────────────
+
+    @Test
+    void startBatchGeneration_generatesUncachedPagesInParallel_upToConcurrency() throws Exception {
+        givenBook(bookId, 12);
+        givenJobsSaved();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(textToSpeechService.isAudioCached(eq(bookId), anyInt())).thenAnswer(inv -> (int) inv.getArgument(1) == 5);
+        when(textToSpeechService.getPageAudioFile(eq(bookId), anyInt())).thenAnswer(inv -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return null;
+        });
+
+        BatchAudioGenerationService service = service(3, pool::execute);
+        service.startBatchGeneration(bookId, null, null);
+
+        AudioGenerationProgress progress = awaitFinished(service.getProgress(bookId));
+        assertThat(progress.getStatus()).isEqualTo("COMPLETED");
+        assertThat(progress.getCurrentPage()).isEqualTo(12);
+        assertThat(progress.getProgressPercentage()).isEqualTo(100.0);
+        assertThat(maxInFlight.get()).isBetween(2, 3);
+        verify(textToSpeechService, times(11)).getPageAudioFile(eq(bookId), anyInt());
+        verify(textToSpeechService, never()).getPageAudioFile(bookId, 5);
+        verify(jobRepository, timeout(1000)).markFinished(any(), eq(AudioJobStatus.COMPLETED), isNull(), any());
+    }
+
+    @Test
+    void startBatchGeneration_reportsAndCheckpointsOnlyContiguousPages() throws Exception {
+        givenBook(bookId, 3);
+        givenJobsSaved();
+        CountDownLatch releaseFirstPage = new CountDownLatch(1);
+        CountDownLatch laterPagesDone = new CountDownLatch(2);
+        when(textToSpeechService.getPageAudioFile(eq(bookId), anyInt())).thenAnswer(inv -> {
+            if ((int) inv.getArgument(1) == 1) {
+                releaseFirstPage.await(5, TimeUnit.SECONDS);
+            } else {
+                laterPagesDone.countDown();
+            }
+            return null;
+        });
+
+        BatchAudioGenerationService service = service(3, pool::execute);
+        service.startBatchGeneration(bookId, null, null);
+        assertThat(laterPagesDone.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50);
+
+        AudioGenerationProgress progress = service.getProgress(bookId);
+        assertThat(progress.getCurrentPage()).isEqualTo(0);
+        assertThat(progress.getStatus()).isEqualTo("RUNNING");
+        verify(jobRepository, never()).updateCheckpoint(any(), anyInt(), any());
+
+        releaseFirstPage.countDown();
+        assertThat(awaitFinished(progress).getCurrentPage()).isEqualTo(3);
+        verify(jobRepository, timeout(1000)).updateCheckpoint(any(), eq(3), any());
+    }
+
+    @Test
+    void startBatchGeneration_marksFailed_andStopsStartingPages_whenPageFails() throws Exception {
+        givenBook(bookId, 50);
+        givenJobsSaved();
+        when(textToSpeechService.getPageAudioFile(eq(bookId), anyInt())).thenAnswer(inv -> {
+            if ((int) inv.getArgument(1) == 2) {
+                throw new PdfProcessingException("Failed to generate audio");
+            }
+            return null;
+        });
+
+        BatchAudioGenerationService service = service(1, pool::execute);
+        service.startBatchGeneration(bookId, null, null);
+
+        AudioGenerationProgress progress = awaitFinished(service.getProgress(bookId));
+        assertThat(progress.getStatus()).isEqualTo("FAILED");
+        assertThat(progress.getErrorMessage()).isEqualTo("Failed to generate audio");
+        assertThat(progress.getCurrentPage()).isEqualTo(1);
+        verify(textToSpeechService, times(2)).getPageAudioFile(eq(bookId), anyInt());
+        verify(jobRepository, timeout(1000))
+                .markFinished(any(), eq(AudioJobStatus.FAILED), eq("Failed to generate audio"), any());
+    }
+
+    @Test
+    void startBatchGeneration_truncatesErrorMessage_toColumnLength() {
+        givenBook(bookId, 1);
+        givenJobsSaved();
+        when(textToSpeechService.getPageAudioFile(bookId, 1)).thenThrow(new PdfProcessingException("x".repeat(5000)));
+        Deque<Runnable> pending = new ArrayDeque<>();
+
+        BatchAudioGenerationService service = service(1, pending::add);
+        service.startBatchGeneration(bookId, null, null);
+        AudioGenerationProgress progress = service.getProgress(bookId);
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+
+        assertThat(progress.getErrorMessage()).hasSize(1000);
+        verify(jobRepository).markFinished(any(), eq(AudioJobStatus.FAILED), argThat(m -> m.length() == 1000), any());
+    }
+
+    @Test
+    void startBatchGeneration_marksJobFailedSeparately_whenRecordingResultFails() {
+        givenBook(bookId, 1);
+        givenJobsSaved();
+        when(jobRepository.markFinished(any(), eq(AudioJobStatus.COMPLETED), any(), any()))
+                .thenThrow(new IllegalStateException("connection reset"));
+        Deque<Runnable> pending = new ArrayDeque<>();
+
+        BatchAudioGenerationService service = service(1, pending::add);
+        service.startBatchGeneration(bookId, null, null);
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+
+        verify(jobRepository).markFinished(any(), eq(AudioJobStatus.FAILED), eq("Failed to record job result"), any());
+    }
+
+    @Test
+    void startBatchGeneration_recordsFailedJob_whenRangeInvalid() {
+        givenBook(bookId, 10);
+        BatchAudioGenerationService service = service(2, pool::execute);
+
+        service.startBatchGeneration(bookId, 8, 20);
+
+        ArgumentCaptor<AudioGenerationJob> saved = ArgumentCaptor.forClass(AudioGenerationJob.class);
+        verify(jobRepository).save(saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo(AudioJobStatus.FAILED);
+        assertThat(saved.getValue().getErrorMessage()).isEqualTo("End page must be between 8 and 10");
+        verifyNoInteractions(textToSpeechService);
+    }
+
+    @Test
+    void startBatchGeneration_interleavesPagesOfQueuedBooks() {
+        UUID otherBookId = UUID.randomUUID();
+        givenBook(bookId, 5);
+        givenBook(otherBookId, 2);
+        givenJobsSaved();
+        List<String> generated = Collections.synchronizedList(new ArrayList<>());
+        when(textToSpeechService.getPageAudioFile(any(), anyInt())).thenAnswer(inv -> {
+            generated.add((inv.getArgument(0).equals(bookId) ? "A" : "B") + inv.getArgument(1));
+            return null;
+        });
+        Deque<Runnable> pending = new ArrayDeque<>();
+
+        BatchAudioGenerationService service = service(1, pending::add);
+        service.startBatchGeneration(bookId, null, null);
+        service.startBatchGeneration(otherBookId, null, null);
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+
+        assertThat(generated).containsExactly("A1", "A2", "B1", "A3", "B2", "A4", "A5");
+    }
+
+    @Test
+    void startBatchGeneration_treatsUniqueViolationAsAlreadyQueued() {
+        givenBook(bookId, 5);
+        when(jobRepository.save(any(AudioGenerationJob.class)))
+                .thenThrow(new DataIntegrityViolationException("idx_audio_generation_jobs_active"));
+        BatchAudioGenerationService service = service(2, pool::execute);
+
+        assertThatCode(() -> service.startBatchGeneration(bookId, null, null)).doesNotThrowAnyException();
+
+        verifyNoInteractions(textToSpeechService);
+    }
+
+    // ── cancelGeneration ──────────────────────────────────────────────────────
+
+    @Test
+    void cancelGeneration_stopsNewPages_afterInFlightPagesFinish() throws Exception {
+        givenBook(bookId, 100);
+        givenJobsSaved();
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(textToSpeechService.getPageAudioFile(eq(bookId), anyInt())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        BatchAudioGenerationService service = service(2, pool::execute);
+        service.startBatchGeneration(bookId, null, null);
+        AudioGenerationProgress progress = service.getProgress(bookId);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        service.cancelGeneration(bookId);
+        release.countDown();
+
+        assertThat(awaitFinished(progress).getStatus()).isEqualTo("CANCELLED");
+        assertThat(progress.getCurrentPage()).isEqualTo(2);
+        verify(textToSpeechService, times(2)).getPageAudioFile(eq(bookId), anyInt());
+        verify(jobRepository, timeout(1000)).markFinished(any(), eq(AudioJobStatus.CANCELLED), isNull(), any());
+    }
+
+    // ── resumeUnfinishedJobs ──────────────────────────────────────────────────
+
+    @Test
+    void resumeUnfinishedJobs_continuesFromFirstUncachedPageAfterCheckpoint() {
+        AudioGenerationJob job = new AudioGenerationJob(bookId, 1, 6);
+        job.setId(UUID.randomUUID());
+        job.setStatus(AudioJobStatus.RUNNING);
+        job.setCurrentPage(3);
+        job.setStartedAt(LocalDateTime.now().minusHours(1));
+        when(jobRepository.findByStatusInOrderByCreatedAtAsc(anyCollection())).thenReturn(List.of(job));
+        when(textToSpeechService.isAudioCached(eq(bookId), anyInt())).thenAnswer(inv -> (int) inv.getArgument(1) == 4);
+        Deque<Runnable> pending = new ArrayDeque<>();
+
+        BatchAudioGenerationService service = service(2, pending::add);
+        service.resumeUnfinishedJobs();
+        AudioGenerationProgress progress = service.getProgress(bookId);
+        assertThat(progress.getCurrentPage()).isEqualTo(4);
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+
+        verify(textToSpeechService).getPageAudioFile(bookId, 5);
+        verify(textToSpeechService).getPageAudioFile(bookId, 6);
+        verifyNoMoreInteractions(textToSpeechService);
+        verify(jobRepository).updateCheckpoint(eq(job.getId()), eq(6), any());
+        verify(jobRepository).markFinished(eq(job.getId()), eq(AudioJobStatus.COMPLETED), isNull(), any());
+        assertThat(progress.getStatus()).isEqualTo("COMPLETED");
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private BatchAudioGenerationService service(int concurrency, TaskExecutor executor) {
+        return new BatchAudioGenerationService(textToSpeechService, bookRepository, jobRepository, executor, concurrency);
+    }
+
+    private void givenBook(UUID id, int pageCount) {
+        Book book = new Book();
+        book.setId(id);
+        book.setPageCount(pageCount);
+        when(bookRepository.findById(id)).thenReturn(Optional.of(book));
+    }
+
+    private void givenJobsSaved() {
+        when(jobRepository.save(any(AudioGenerationJob.class))).thenAnswer(inv -> {
+            AudioGenerationJob job = inv.getArgument(0);
+            job.setId(UUID.randomUUID());
+            return job;
+        });
+    }
+
+    private static AudioGenerationProgress awaitFinished(AudioGenerationProgress progress) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (progress.getCompletedAt() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return progress;
+    }
+}
@@ -0,0 +1,187 @@
+package com.bookshelf.service;
+
+import com.bookshelf.model.Book;
+import com.bookshelf.model.EnrichmentStatus;
+import com.bookshelf.model.ReadingStatus;
+import com.bookshelf.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the background Google Books enricher and BookService.applyEnrichment().
+ * Google Books responses are simulated with Mono results.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookEnrichmentServiceTest {
+
+    @Mock private BookRepository bookRepository;
+    @Mock private BookService bookService;
+    @Mock private GoogleBooksService googleBooksService;
+
+    private BookEnrichmentService enrichmentService;
+
+    @BeforeEach
+    void setUp() {
+        // High request rate so the test is not slowed down by the rate limiter
+        enrichmentService = new BookEnrichmentService(bookRepository, bookService, googleBooksService,
+                10, 2, 1000, 3, 60);
+    }
+
+    // ── enrichPendingBooks ────────────────────────────────────────────────────
+
+    @Test
+    void enrichPendingBooks_doesNothing_whenNoBooksAreDue() {
+        when(bookRepository.findDueForEnrichment(eq(EnrichmentStatus.PENDING), any(), any())).thenReturn(List.of());
+
+        enrichmentService.enrichPendingBooks();
+
+        verifyNoInteractions(googleBooksService);
+        verify(bookService, never()).applyEnrichment(anyList());
+    }
+
+    @Test
+    void enrichPendingBooks_appliesWholeBatchInOneCall() {
+        Book found = pendingBook("Dune", 0);
+        Book missing = pendingBook("Unknown", 0);
+        when(bookRepository.findDueForEnrichment(eq(EnrichmentStatus.PENDING), any(), any()))
+                .thenReturn(List.of(found, missing));
+        when(googleBooksService.fetchMetadataAsync("Dune", null))
+                .thenReturn(Mono.just(Map.of("description", "Desert planet")));
+        when(googleBooksService.fetchMetadataAsync("Unknown", null)).thenReturn(Mono.just(Map.of()));
+
+        enrichmentService.enrichPendingBooks();
+
+        List<BookEnrichmentService.EnrichmentOutcome> outcomes = captureOutcomes();
+        assertThat(outcomes).hasSize(2)
+                .allMatch(o -> o.status() == EnrichmentStatus.COMPLETED && o.nextAttemptAt() == null);
+    }
+
+    @Test
+    void enrichPendingBooks_schedulesRetryWithBackoff_whenLookupFails() {
+        Book book = pendingBook("Dune", 1);
+        when(bookRepository.findDueForEnrichment(eq(EnrichmentStatus.PENDING), any(), any()))
+                .thenReturn(List.of(book));
+        when(googleBooksService.fetchMetadataAsync("Dune", null))
+                .thenReturn(Mono.error(new RuntimeException("429 Too Many Requests")));
+
+        LocalDateTime before = LocalDateTime.now();
+        enrichmentService.enrichPendingBooks();
+
+        BookEnrichmentService.EnrichmentOutcome outcome = captureOutcomes().get(0);
+        assertThat(outcome.status()).isEqualTo(EnrichmentStatus.PENDING);
+        assertThat(outcome.attempts()).isEqualTo(2);
+        assertThat(outcome.metadata()).isNull();
+        // Second attempt failed: 60s doubled once
+        assertThat(outcome.nextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(120));
+    }
+
+    @Test
+    void enrichPendingBooks_marksFailed_whenMaxAttemptsReached() {
+        Book book = pendingBook("Dune", 2);
+        when(bookRepository.findDueForEnrichment(eq(EnrichmentStatus.PENDING), any(), any()))
+                .thenReturn(List.of(book));
+        when(googleBooksService.fetchMetadataAsync("Dune", null))
+                .thenReturn(Mono.error(new RuntimeException("timeout")));
+
+        enrichmentService.enrichPendingBooks();
+
+        BookEnrichmentService.EnrichmentOutcome outcome = captureOutcomes().get(0);
+        assertThat(outcome.status()).isEqualTo(EnrichmentStatus.FAILED);
+        assertThat(outcome.attempts()).isEqualTo(3);
+        assertThat(outcome.nextAttemptAt()).isNull();
+    }
+
+    // ── BookService.applyEnrichment ───────────────────────────────────────────
+
+    @Test
+    void applyEnrichment_overwritesTitleAndFillsFields_whenBookUnchanged() {
+        BookService realService = new BookService(bookRepository, mock(PdfProcessingService.class),
+                mock(NoteService.class), mock(TextToSpeechService.class), mock(LibraryStatsEngine.class),
+                mock(FeaturedBooksCache.class), mock(ProgressWriteBuffer.class));
+        Book book = pendingBook("dune_scan", 0);
+        when(bookRepository.findAllById(List.of(book.getId()))).thenReturn(List.of(book));
+
+        realService.applyEnrichment(List.of(new BookEnrichmentService.EnrichmentOutcome(
+                book.getId(), book.getEditedAt(),
+                Map.of("title", "Dune", "author", "Frank Herbert", "genre", "Science Fiction"),
+                EnrichmentStatus.COMPLETED, 1, null)));
+
+        assertThat(book.getTitle()).isEqualTo("Dune");
+        assertThat(book.getAuthor()).isEqualTo("Frank Herbert");
+        assertThat(book.getGenre()).isEqualTo("Science Fiction");
+        assertThat(book.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.COMPLETED);
+        verify(bookRepository).saveAll(any());
+    }
+
+    @Test
+    void applyEnrichment_overwritesTitle_whenBookWasOnlyReadAfterFetch() {
+        BookService realService = new BookService(bookRepository, mock(PdfProcessingService.class),
+                mock(NoteService.class), mock(TextToSpeechService.class), mock(LibraryStatsEngine.class),
+                mock(FeaturedBooksCache.class), mock(ProgressWriteBuffer.class));
+        Book book = pendingBook("dune_scan", 0);
+        // A progress write bumps updated_at but is not a user edit
+        book.setUpdatedAt(book.getUpdatedAt().plusMinutes(1));
+        when(bookRepository.findAllById(List.of(book.getId()))).thenReturn(List.of(book));
+
+        realService.applyEnrichment(List.of(new BookEnrichmentService.EnrichmentOutcome(
+                book.getId(), null, Map.of("title", "Dune"), EnrichmentStatus.COMPLETED, 1, null)));
+
+        assertThat(book.getTitle()).isEqualTo("Dune");
+    }
+
+    @Test
+    void applyEnrichment_keepsUserEdits_whenBookWasEditedAfterFetch() {
+        BookService realService = new BookService(bookRepository, mock(PdfProcessingService.class),
+                mock(NoteService.class), mock(TextToSpeechService.class), mock(LibraryStatsEngine.class),
+                mock(FeaturedBooksCache.class), mock(ProgressWriteBuffer.class));
+        Book book = pendingBook("My Title", 0);
+        book.setGenre("Classics");
+        LocalDateTime fetchedAt = book.getEditedAt();
+        book.setEditedAt(LocalDateTime.now());
+        when(bookRepository.findAllById(List.of(book.getId()))).thenReturn(List.of(book));
+
+        realService.applyEnrichment(List.of(new BookEnrichmentService.EnrichmentOutcome(
+                book.getId(), fetchedAt,
+                Map.of("title", "Dune", "genre", "Science Fiction", "description", "Desert planet"),
+                EnrichmentStatus.COMPLETED, 1, null)));
+
+        assertThat(book.getTitle()).isEqualTo("My Title");
+        assertThat(book.getGenre()).isEqualTo("Classics");
+        assertThat(book.getDescription()).isEqualTo("Desert planet");
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private List<BookEnrichmentService.EnrichmentOutcome> captureOutcomes() {
+        ArgumentCaptor<List<BookEnrichmentService.EnrichmentOutcome>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bookService).applyEnrichment(captor.capture());
+        return captor.getValue();
+    }
+
+    private Book pendingBook(String title, int attempts) {
+        return Book.builder()
+                .id(UUID.randomUUID()).title(title).pdfPath("/file.pdf")
+                .status(ReadingStatus.UNREAD).currentPage(0).pageCount(100)
+                .updatedAt(LocalDateTime.now().minusHours(1))
+                .enrichmentStatus(EnrichmentStatus.PENDING).enrichmentAttempts(attempts)
+                .enrichmentNextAttemptAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+    }
+}
@@ -27,9 +27,11 @@ class BookServiceBulkTest {
 
     @Mock private BookRepository bookRepository;
     @Mock private PdfProcessingService pdfProcessingService;
-    @Mock private GoogleBooksService googleBooksService;
     @Mock private NoteService noteService;
     @Mock private TextToSpeechService textToSpeechService;
+    @Mock private LibraryStatsEngine statsEngine;
+    @Mock private FeaturedBooksCache featuredBooksCache;
+    @Mock private ProgressWriteBuffer progressBuffer;
 
     @InjectMocks
     private BookService bookService;
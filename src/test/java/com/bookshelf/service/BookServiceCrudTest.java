@@ -6,6 +6,7 @@ import com.bookshelf.exception.ResourceNotFoundException;
 import com.bookshelf.model.Book;
 import com.bookshelf.model.ReadingStatus;
 import com.bookshelf.repository.BookRepository;
+import com.bookshelf.repository.PdfFileInfo;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -28,9 +29,11 @@ class BookServiceCrudTest {
 
     @Mock private BookRepository bookRepository;
     @Mock private PdfProcessingService pdfProcessingService;
-    @Mock private GoogleBooksService googleBooksService;
     @Mock private NoteService noteService;
     @Mock private TextToSpeechService textToSpeechService;
+    @Mock private LibraryStatsEngine statsEngine;
+    @Mock private FeaturedBooksCache featuredBooksCache;
+    @Mock private ProgressWriteBuffer progressBuffer;
 
     @InjectMocks
     private BookService bookService;
@@ -64,6 +67,7 @@ class BookServiceCrudTest {
         BookResponse response = bookService.updateBook(id, request);
 
         assertThat(response.getTitle()).isEqualTo("New Title");
+        assertThat(existing.getEditedAt()).isNotNull();
     }
 
     @Test
@@ -118,6 +122,7 @@ class BookServiceCrudTest {
         BookResponse response = bookService.updateBook(id, request);
 
         assertThat(response.getStatus()).isEqualTo(ReadingStatus.READING);
+        assertThat(existing.getEditedAt()).isNull();
     }
 
     @Test
@@ -297,6 +302,20 @@ class BookServiceCrudTest {
         verify(noteService).deleteNotesByBookId(id);
     }
 
+    @Test
+    void deleteBook_discardsBufferedProgress() {
+        UUID id = UUID.randomUUID();
+        Book book = Book.builder()
+                .id(id).title("Title").author("Author").pdfPath("/file.pdf")
+                .status(ReadingStatus.READING).currentPage(12).pageCount(100).build();
+
+        when(bookRepository.findById(id)).thenReturn(Optional.of(book));
+
+        bookService.deleteBook(id);
+
+        verify(progressBuffer).discard(id);
+    }
+
     @Test
     void deleteBook_deletesPdfFiles() {
         UUID id = UUID.randomUUID();
@@ -324,4 +343,26 @@ class BookServiceCrudTest {
 
         verify(bookRepository).delete(book);
     }
+
+    // ── getPdfFileInfo ────────────────────────────────────────────────────────
+
+    @Test
+    void getPdfFileInfo_usesSingleProjectionLookup() {
+        UUID id = UUID.randomUUID();
+        PdfFileInfo info = mock(PdfFileInfo.class);
+        when(bookRepository.findPdfFileInfoById(id)).thenReturn(Optional.of(info));
+
+        assertThat(bookService.getPdfFileInfo(id)).isSameAs(info);
+        verify(bookRepository, never()).findById(any());
+    }
+
+    @Test
+    void getPdfFileInfo_throwsResourceNotFoundException_whenBookNotFound() {
+        UUID id = UUID.randomUUID();
+        when(bookRepository.findPdfFileInfoById(id)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> bookService.getPdfFileInfo(id))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining(id.toString());
+    }
 }
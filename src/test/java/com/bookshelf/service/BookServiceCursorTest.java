@@ -0,0 +1,139 @@
+package com.bookshelf.service;
+
+import com.bookshelf.dto.BookResponse;
+import com.bookshelf.dto.CursorPageResponse;
+import com.bookshelf.exception.InvalidCursorException;
+import com.bookshelf.model.Book;
+import com.bookshelf.model.ReadingStatus;
+import com.bookshelf.repository.BookRepository;
+import com.bookshelf.repository.BookRepositoryCustom.KeysetPosition;
+import com.bookshelf.repository.BookSortKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BookService.getBooksByCursor() keyset pagination
+ * and the cursor encoding — the keyset query itself is mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookServiceCursorTest {
+
+    @Mock private BookRepository bookRepository;
+    @Mock private PdfProcessingService pdfProcessingService;
+    @Mock private NoteService noteService;
+    @Mock private TextToSpeechService textToSpeechService;
+    @Mock private LibraryStatsEngine statsEngine;
+    @Mock private FeaturedBooksCache featuredBooksCache;
+    @Mock private ProgressWriteBuffer progressBuffer;
+
+    @InjectMocks
+    private BookService bookService;
+
+    // ── slicing ───────────────────────────────────────────────────────────────
+
+    @Test
+    void getBooksByCursor_firstSlice_fetchesOneExtraRowAndReturnsCursor() {
+        List<Book> rows = List.of(book("A", 3), book("B", 2), book("C", 1));
+        when(bookRepository.findKeysetPage(eq(BookSortKey.DATE_ADDED), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(rows);
+
+        CursorPageResponse response = bookService.getBooksByCursor(null, null, null, null, 2);
+
+        assertThat(response.getItems()).extracting(BookResponse::getTitle).containsExactly("A", "B");
+        assertThat(response.isHasMore()).isTrue();
+        assertThat(response.getNextCursor()).isNotBlank();
+    }
+
+    @Test
+    void getBooksByCursor_lastSlice_hasNoCursor() {
+        when(bookRepository.findKeysetPage(any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(book("A", 1)));
+
+        CursorPageResponse response = bookService.getBooksByCursor(null, "title", null, null, 20);
+
+        assertThat(response.isHasMore()).isFalse();
+        assertThat(response.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getBooksByCursor_nextSlice_continuesAfterLastRowOfPreviousSlice() {
+        Book a = book("A", 3);
+        Book b = book("B", 2);
+        when(bookRepository.findKeysetPage(eq(BookSortKey.DATE_ADDED), isNull(), any(), any(), anyInt()))
+                .thenReturn(List.of(a, b));
+        String cursor = bookService.getBooksByCursor(null, "dateAdded", null, null, 1).getNextCursor();
+
+        ArgumentCaptor<KeysetPosition> after = ArgumentCaptor.forClass(KeysetPosition.class);
+        when(bookRepository.findKeysetPage(eq(BookSortKey.DATE_ADDED), after.capture(), any(), any(), anyInt()))
+                .thenReturn(List.of(b));
+        bookService.getBooksByCursor(null, "dateAdded", null, cursor, 1);
+
+        assertThat(after.getValue().id()).isEqualTo(a.getId());
+        assertThat(after.getValue().value()).isEqualTo(a.getDateAdded());
+    }
+
+    @Test
+    void getBooksByCursor_nullSortValue_roundTripsAsNull() {
+        Book neverRead = book("A", 1);
+        when(bookRepository.findKeysetPage(eq(BookSortKey.LAST_READ), isNull(), any(), any(), anyInt()))
+                .thenReturn(List.of(neverRead, book("B", 2)));
+        String cursor = bookService.getBooksByCursor(null, "lastRead", null, null, 1).getNextCursor();
+
+        ArgumentCaptor<KeysetPosition> after = ArgumentCaptor.forClass(KeysetPosition.class);
+        when(bookRepository.findKeysetPage(eq(BookSortKey.LAST_READ), after.capture(), any(), any(), anyInt()))
+                .thenReturn(List.of());
+        bookService.getBooksByCursor(null, "lastRead", null, cursor, 1);
+
+        assertThat(after.getValue().value()).isNull();
+        assertThat(after.getValue().id()).isEqualTo(neverRead.getId());
+    }
+
+    @Test
+    void getBooksByCursor_passesFiltersAndCapsSize() {
+        when(bookRepository.findKeysetPage(any(), any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        bookService.getBooksByCursor("  dune ", "progress", "reading", null, 1000);
+
+        verify(bookRepository).findKeysetPage(BookSortKey.PROGRESS, null, ReadingStatus.READING, "dune", 101);
+    }
+
+    // ── invalid cursors ───────────────────────────────────────────────────────
+
+    @Test
+    void getBooksByCursor_throwsInvalidCursor_whenCursorIsGarbage() {
+        assertThatThrownBy(() -> bookService.getBooksByCursor(null, null, null, "!!not-a-cursor!!", 20))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void getBooksByCursor_throwsInvalidCursor_whenSortOrderChanged() {
+        when(bookRepository.findKeysetPage(any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(book("A", 2), book("B", 1)));
+        String titleCursor = bookService.getBooksByCursor(null, "title", null, null, 1).getNextCursor();
+
+        assertThatThrownBy(() -> bookService.getBooksByCursor(null, "dateAdded", null, titleCursor, 1))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private Book book(String title, int daysAgo) {
+        return Book.builder()
+                .id(UUID.randomUUID()).title(title).pdfPath("/" + title + ".pdf")
+                .status(ReadingStatus.UNREAD).currentPage(0).pageCount(100)
+                .dateAdded(LocalDateTime.now().minusDays(daysAgo))
+                .build();
+    }
+}
@@ -33,9 +33,11 @@ class BookServiceGetBooksTest {
 
     @Mock private BookRepository bookRepository;
     @Mock private PdfProcessingService pdfProcessingService;
-    @Mock private GoogleBooksService googleBooksService;
     @Mock private NoteService noteService;
     @Mock private TextToSpeechService textToSpeechService;
+    @Mock private LibraryStatsEngine statsEngine;
+    @Mock private FeaturedBooksCache featuredBooksCache;
+    @Mock private ProgressWriteBuffer progressBuffer;
 
     @InjectMocks
     private BookService bookService;
@@ -135,6 +137,37 @@ class BookServiceGetBooksTest {
         assertThat(order.getDirection()).isEqualTo(Sort.Direction.DESC);
     }
 
+    // ── relevance sort ────────────────────────────────────────────────────────
+
+    @Test
+    void getAllBooks_sortByRelevance_keepsRankOrderOfNativeQuery() {
+        Book first = Book.builder().id(UUID.randomUUID()).title("Dune").pdfPath("/a.pdf")
+                .status(ReadingStatus.UNREAD).currentPage(0).pageCount(10).build();
+        Book second = Book.builder().id(UUID.randomUUID()).title("Dune Messiah").pdfPath("/b.pdf")
+                .status(ReadingStatus.UNREAD).currentPage(0).pageCount(10).build();
+        when(bookRepository.searchBookIdsByRelevance(eq("dune"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(first.getId(), second.getId())));
+        // Repository returns rows in arbitrary order
+        when(bookRepository.findAllById(List.of(first.getId(), second.getId())))
+                .thenReturn(List.of(second, first));
+
+        Page<BookResponse> result = bookService.getAllBooks("dune", "relevance", null, 0, 20);
+
+        assertThat(result.getContent()).extracting(BookResponse::getTitle).containsExactly("Dune", "Dune Messiah");
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        verify(bookRepository, never()).searchBooks(any(), any());
+    }
+
+    @Test
+    void getAllBooks_sortByRelevanceWithStatus_callsStatusVariant() {
+        when(bookRepository.searchBookIdsByStatusAndRelevance(eq("tolkien"), eq("FINISHED"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        bookService.getAllBooks("tolkien", "relevance", "finished", 0, 20);
+
+        verify(bookRepository).searchBookIdsByStatusAndRelevance(eq("tolkien"), eq("FINISHED"), any(Pageable.class));
+    }
+
     // ── getBookById ───────────────────────────────────────────────────────────
 
     @Test
@@ -5,14 +5,17 @@ import com.bookshelf.dto.ProgressUpdateRequest;
 import com.bookshelf.exception.ResourceNotFoundException;
 import com.bookshelf.model.Book;
 import com.bookshelf.model.ReadingStatus;
+import com.bookshelf.repository.BookProgressRepository;
 import com.bookshelf.repository.BookRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -32,11 +35,15 @@ class BookServiceProgressTest {
     @Mock
     private PdfProcessingService pdfProcessingService;
     @Mock
-    private GoogleBooksService googleBooksService;
-    @Mock
     private NoteService noteService;
     @Mock
     private TextToSpeechService textToSpeechService;
+    @Mock
+    private LibraryStatsEngine statsEngine;
+    @Mock
+    private FeaturedBooksCache featuredBooksCache;
+    @Mock
+    private ProgressWriteBuffer progressBuffer;
 
     @InjectMocks
     private BookService bookService;
@@ -60,17 +67,12 @@ class BookServiceProgressTest {
                 .build();
     }
 
-    private void mockSave() {
-        when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
-    }
-
     // ── Auto-status: UNREAD → READING ─────────────────────────────────────────
 
     @Test
     void updateProgress_setsStatusToReading_whenUnreadBookHasPageGreaterThanZero() {
         Book book = buildBook(ReadingStatus.UNREAD, 0, 100);
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        mockSave();
 
         ProgressUpdateRequest req = new ProgressUpdateRequest(5, null);
         BookResponse response = bookService.updateProgress(bookId, req);
@@ -83,7 +85,6 @@ class BookServiceProgressTest {
     void updateProgress_keepsStatusUnread_whenCurrentPageIsZero() {
         Book book = buildBook(ReadingStatus.UNREAD, 0, 100);
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        mockSave();
 
         ProgressUpdateRequest req = new ProgressUpdateRequest(0, null);
         BookResponse response = bookService.updateProgress(bookId, req);
@@ -97,7 +98,6 @@ class BookServiceProgressTest {
     void updateProgress_setsStatusToFinished_whenCurrentPageReachesPageCount() {
         Book book = buildBook(ReadingStatus.READING, 50, 100);
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        mockSave();
 
         ProgressUpdateRequest req = new ProgressUpdateRequest(100, null);
         BookResponse response = bookService.updateProgress(bookId, req);
@@ -109,7 +109,6 @@ class BookServiceProgressTest {
     void updateProgress_setsStatusToFinished_whenCurrentPageExceedsPageCount() {
         Book book = buildBook(ReadingStatus.READING, 95, 100);
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        mockSave();
 
         ProgressUpdateRequest req = new ProgressUpdateRequest(101, null);
         BookResponse response = bookService.updateProgress(bookId, req);
@@ -123,7 +122,6 @@ class BookServiceProgressTest {
     void updateProgress_setsStatusBackToReading_whenFinishedBookPageDecreasesBeforeEnd() {
         Book book = buildBook(ReadingStatus.FINISHED, 100, 100);
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        mockSave();
 
         ProgressUpdateRequest req = new ProgressUpdateRequest(80, null);
         BookResponse response = bookService.updateProgress(bookId, req);
@@ -137,7 +135,6 @@ class BookServiceProgressTest {
     void updateProgress_respectsExplicitStatusOverride() {
         Book book = buildBook(ReadingStatus.UNREAD, 0, 100);
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        mockSave();
 
         ProgressUpdateRequest req = new ProgressUpdateRequest(0, ReadingStatus.FINISHED);
         BookResponse response = bookService.updateProgress(bookId, req);
@@ -154,13 +151,46 @@ class BookServiceProgressTest {
         assertThat(book.getLastReadAt()).isNull();
 
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        mockSave();
 
         bookService.updateProgress(bookId, new ProgressUpdateRequest(20, null));
 
         assertThat(book.getLastReadAt()).isNotNull();
     }
 
+    // ── Write-behind ──────────────────────────────────────────────────────────
+
+    @Test
+    void updateProgress_buffersProgressInsteadOfSaving() {
+        Book book = buildBook(ReadingStatus.READING, 10, 100);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+
+        bookService.updateProgress(bookId, new ProgressUpdateRequest(20, null));
+
+        ArgumentCaptor<BookProgressRepository.ProgressUpdate> captor =
+                ArgumentCaptor.forClass(BookProgressRepository.ProgressUpdate.class);
+        verify(progressBuffer).record(captor.capture());
+        assertThat(captor.getValue().bookId()).isEqualTo(bookId);
+        assertThat(captor.getValue().currentPage()).isEqualTo(20);
+        assertThat(captor.getValue().status()).isEqualTo(ReadingStatus.READING);
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void updateProgress_startsFromBufferedProgress() {
+        Book book = buildBook(ReadingStatus.UNREAD, 0, 100);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(progressBuffer.get(bookId)).thenReturn(new BookProgressRepository.ProgressUpdate(
+                bookId, 100, ReadingStatus.FINISHED, LocalDateTime.now()));
+
+        // Going back from the buffered last page reopens the book even though the row still says UNREAD
+        bookService.updateProgress(bookId, new ProgressUpdateRequest(40, null));
+
+        ArgumentCaptor<BookProgressRepository.ProgressUpdate> captor =
+                ArgumentCaptor.forClass(BookProgressRepository.ProgressUpdate.class);
+        verify(progressBuffer).record(captor.capture());
+        assertThat(captor.getValue().status()).isEqualTo(ReadingStatus.READING);
+    }
+
     // ── Not found ─────────────────────────────────────────────────────────────
 
     @Test
@@ -178,7 +208,6 @@ class BookServiceProgressTest {
     void updateProgress_calculatesProgressPercentageCorrectly() {
         Book book = buildBook(ReadingStatus.READING, 0, 200);
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        mockSave();
 
         BookResponse response = bookService.updateProgress(bookId, new ProgressUpdateRequest(50, null));
 
@@ -191,7 +220,6 @@ class BookServiceProgressTest {
     void updateProgress_clampsCurrentPageToPageCount_whenExceedsTotal() {
         Book book = buildBook(ReadingStatus.READING, 50, 100);
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        mockSave();
 
         BookResponse response = bookService.updateProgress(bookId, new ProgressUpdateRequest(999, null));
 
@@ -204,7 +232,6 @@ class BookServiceProgressTest {
     void updateProgress_clampsNegativeCurrentPageToZero() {
         Book book = buildBook(ReadingStatus.READING, 50, 100);
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        mockSave();
 
         BookResponse response = bookService.updateProgress(bookId, new ProgressUpdateRequest(-5, null));
 
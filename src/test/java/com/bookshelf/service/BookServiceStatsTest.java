@@ -1,48 +1,48 @@
 package com.bookshelf.service;
 
 import com.bookshelf.dto.LibraryStatsResponse;
+import com.bookshelf.dto.ProgressUpdateRequest;
 import com.bookshelf.model.Book;
 import com.bookshelf.model.ReadingStatus;
 import com.bookshelf.repository.BookRepository;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for BookService.getLibraryStats().
- * Verifies that the service correctly aggregates repository data
- * and builds the LibraryStatsResponse — no DB, no auth required.
+ * Verifies that the service builds the LibraryStatsResponse from the in-memory
+ * LibraryStatsEngine snapshot and reports mutations to it — no DB, no auth required.
  */
 @ExtendWith(MockitoExtension.class)
 class BookServiceStatsTest {
 
     @Mock private BookRepository bookRepository;
     @Mock private PdfProcessingService pdfProcessingService;
-    @Mock private GoogleBooksService googleBooksService;
     @Mock private NoteService noteService;
     @Mock private TextToSpeechService textToSpeechService;
+    @Mock private LibraryStatsEngine statsEngine;
+    @Mock private FeaturedBooksCache featuredBooksCache;
+    @Mock private ProgressWriteBuffer progressBuffer;
 
     @InjectMocks
     private BookService bookService;
 
+    // ── getLibraryStats ───────────────────────────────────────────────────────
+
     @Test
     void getLibraryStats_returnsCorrectCounts() {
-        when(bookRepository.count()).thenReturn(10L);
-        when(bookRepository.countByStatus(ReadingStatus.UNREAD)).thenReturn(3L);
-        when(bookRepository.countByStatus(ReadingStatus.READING)).thenReturn(4L);
-        when(bookRepository.countByStatus(ReadingStatus.FINISHED)).thenReturn(3L);
-        when(bookRepository.sumTotalPages()).thenReturn(1500L);
-        when(bookRepository.sumTotalPagesRead()).thenReturn(600L);
-        when(bookRepository.findMostRecentlyRead()).thenReturn(Optional.empty());
+        when(statsEngine.snapshot()).thenReturn(new LibraryStatsEngine.Snapshot(10, 3, 4, 3, 1500, 600, null));
 
         LibraryStatsResponse stats = bookService.getLibraryStats();
 
@@ -52,17 +52,12 @@ class BookServiceStatsTest {
         assertThat(stats.getFinishedBooks()).isEqualTo(3L);
         assertThat(stats.getTotalPages()).isEqualTo(1500L);
         assertThat(stats.getTotalPagesRead()).isEqualTo(600L);
+        verifyNoInteractions(bookRepository);
     }
 
     @Test
     void getLibraryStats_setContinueReadingToNull_whenNoRecentBook() {
-        when(bookRepository.count()).thenReturn(5L);
-        when(bookRepository.countByStatus(ReadingStatus.UNREAD)).thenReturn(5L);
-        when(bookRepository.countByStatus(ReadingStatus.READING)).thenReturn(0L);
-        when(bookRepository.countByStatus(ReadingStatus.FINISHED)).thenReturn(0L);
-        when(bookRepository.sumTotalPages()).thenReturn(0L);
-        when(bookRepository.sumTotalPagesRead()).thenReturn(0L);
-        when(bookRepository.findMostRecentlyRead()).thenReturn(Optional.empty());
+        when(statsEngine.snapshot()).thenReturn(new LibraryStatsEngine.Snapshot(5, 5, 0, 0, 0, 0, null));
 
         LibraryStatsResponse stats = bookService.getLibraryStats();
 
@@ -81,57 +76,52 @@ class BookServiceStatsTest {
                 .currentPage(30)
                 .pageCount(100)
                 .build();
-
-        when(bookRepository.count()).thenReturn(1L);
-        when(bookRepository.countByStatus(ReadingStatus.UNREAD)).thenReturn(0L);
-        when(bookRepository.countByStatus(ReadingStatus.READING)).thenReturn(1L);
-        when(bookRepository.countByStatus(ReadingStatus.FINISHED)).thenReturn(0L);
-        when(bookRepository.sumTotalPages()).thenReturn(100L);
-        when(bookRepository.sumTotalPagesRead()).thenReturn(30L);
-        when(bookRepository.findMostRecentlyRead()).thenReturn(Optional.of(recentBook));
+        when(statsEngine.snapshot()).thenReturn(new LibraryStatsEngine.Snapshot(1, 0, 1, 0, 100, 30, recentBook));
 
         LibraryStatsResponse stats = bookService.getLibraryStats();
 
         assertThat(stats.getContinueReading()).isNotNull();
         assertThat(stats.getContinueReading().getId()).isEqualTo(recentId);
         assertThat(stats.getContinueReading().getTitle()).isEqualTo("Recent Book");
+        assertThat(stats.getContinueReading().getProgressPercentage()).isEqualTo(30.0);
     }
 
+    // ── engine notifications ──────────────────────────────────────────────────
+
     @Test
-    void getLibraryStats_returnsZeros_whenLibraryIsEmpty() {
-        when(bookRepository.count()).thenReturn(0L);
-        when(bookRepository.countByStatus(ReadingStatus.UNREAD)).thenReturn(0L);
-        when(bookRepository.countByStatus(ReadingStatus.READING)).thenReturn(0L);
-        when(bookRepository.countByStatus(ReadingStatus.FINISHED)).thenReturn(0L);
-        when(bookRepository.sumTotalPages()).thenReturn(0L);
-        when(bookRepository.sumTotalPagesRead()).thenReturn(0L);
-        when(bookRepository.findMostRecentlyRead()).thenReturn(Optional.empty());
+    void updateProgress_reportsReadingSessionWithCountersBeforeChange() {
+        UUID id = UUID.randomUUID();
+        Book book = Book.builder()
+                .id(id).title("Book").pdfPath("/p.pdf")
+                .status(ReadingStatus.UNREAD).currentPage(0).pageCount(100).build();
+        when(bookRepository.findById(id)).thenReturn(Optional.of(book));
+        ProgressUpdateRequest request = new ProgressUpdateRequest();
+        request.setCurrentPage(40);
 
-        LibraryStatsResponse stats = bookService.getLibraryStats();
+        bookService.updateProgress(id, request);
 
-        assertThat(stats.getTotalBooks()).isZero();
-        assertThat(stats.getUnreadBooks()).isZero();
-        assertThat(stats.getReadingBooks()).isZero();
-        assertThat(stats.getFinishedBooks()).isZero();
-        assertThat(stats.getTotalPages()).isZero();
-        assertThat(stats.getTotalPagesRead()).isZero();
+        verify(statsEngine).bookChanged(
+                eq(new LibraryStatsEngine.BookCounters(ReadingStatus.UNREAD, 100, 0)), eq(book), eq(true));
     }
 
     @Test
-    void getLibraryStats_continueReading_progressPercentage_isCorrect() {
+    void deleteBook_reportsRemoval() {
         UUID id = UUID.randomUUID();
-        Book book = Book.builder()
-                .id(id).title("Half Done").author("A").pdfPath("/p.pdf")
-                .status(ReadingStatus.READING).currentPage(50).pageCount(100).build();
+        Book book = Book.builder().id(id).title("Book").pdfPath("/p.pdf").build();
+        when(bookRepository.findById(id)).thenReturn(Optional.of(book));
 
-        when(bookRepository.count()).thenReturn(1L);
-        when(bookRepository.countByStatus(any())).thenReturn(0L);
-        when(bookRepository.sumTotalPages()).thenReturn(100L);
-        when(bookRepository.sumTotalPagesRead()).thenReturn(50L);
-        when(bookRepository.findMostRecentlyRead()).thenReturn(Optional.of(book));
+        bookService.deleteBook(id);
 
-        LibraryStatsResponse stats = bookService.getLibraryStats();
+        verify(statsEngine).bookRemoved(book);
+    }
+
+    @Test
+    void updateBooksStatus_requestsReconcile() {
+        UUID id = UUID.randomUUID();
+        when(bookRepository.updateStatusByIdIn(List.of(id), ReadingStatus.READING)).thenReturn(1);
+
+        bookService.updateBooksStatus(List.of(id), ReadingStatus.READING);
 
-        assertThat(stats.getContinueReading().getProgressPercentage()).isEqualTo(50.0);
+        verify(statsEngine).booksChanged();
     }
 }
@@ -3,6 +3,7 @@ package com.bookshelf.service;
 import com.bookshelf.exception.DuplicateBookException;
 import com.bookshelf.exception.ResourceNotFoundException;
 import com.bookshelf.model.Book;
+import com.bookshelf.model.EnrichmentStatus;
 import com.bookshelf.model.ReadingStatus;
 import com.bookshelf.repository.BookRepository;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,7 +22,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
- * Unit tests for BookService upload validation and getBookById.
+ * Unit tests for BookService upload staging/validation and getBookById.
  * Filesystem and PDF processing are mocked.
  */
 @ExtendWith(MockitoExtension.class)
@@ -28,48 +30,44 @@ class BookServiceUploadTest {
 
     @Mock private BookRepository bookRepository;
     @Mock private PdfProcessingService pdfProcessingService;
-    @Mock private GoogleBooksService googleBooksService;
     @Mock private NoteService noteService;
     @Mock private TextToSpeechService textToSpeechService;
+    @Mock private LibraryStatsEngine statsEngine;
+    @Mock private FeaturedBooksCache featuredBooksCache;
+    @Mock private ProgressWriteBuffer progressBuffer;
 
     @InjectMocks
     private BookService bookService;
 
-    // ── uploadBook — file validation ──────────────────────────────────────────
+    // ── stageUpload — file validation ──────────────────────────────────────────
 
     @Test
-    void uploadBook_throwsIllegalArgumentException_whenFileIsEmpty() {
+    void stageUpload_throwsIllegalArgumentException_whenFileIsEmpty() {
         MockMultipartFile empty = new MockMultipartFile("file", "test.pdf",
                 "application/pdf", new byte[0]);
 
-        assertThatThrownBy(() -> bookService.uploadBook(empty))
+        assertThatThrownBy(() -> bookService.stageUpload(empty))
                 .isInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
-    void uploadBook_throwsIllegalArgumentException_whenFileIsNotPdf() {
+    void stageUpload_throwsIllegalArgumentException_whenFileIsNotPdf() {
         MockMultipartFile notPdf = new MockMultipartFile("file", "book.txt",
                 "text/plain", "some text".getBytes());
 
-        assertThatThrownBy(() -> bookService.uploadBook(notPdf))
+        assertThatThrownBy(() -> bookService.stageUpload(notPdf))
                 .isInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
-    void uploadBook_throwsDuplicateBookException_whenFileHashAlreadyExists() throws Exception {
+    void stageUpload_throwsDuplicateBookException_whenFileHashAlreadyExists() throws Exception {
         MockMultipartFile file = new MockMultipartFile("file", "book.pdf",
                 "application/pdf", "%PDF-1.4 test content".getBytes());
 
-        // Simulate PdfProcessingService returning a Map with processed metadata
-        java.util.Map<String, Object> metadata = new java.util.HashMap<>();
-        metadata.put("title", "Test Title");
-        metadata.put("author", "Author");
-        metadata.put("pageCount", 100);
-        metadata.put("fileHash", "abc123hash");
-        metadata.put("pdfPath", "/storage/temp-id/book.pdf");
-        metadata.put("thumbnailPath", "/storage/temp-id/thumbnail.jpg");
-
-        when(pdfProcessingService.processPdf(any(), any())).thenReturn(metadata);
+        // Simulate PdfProcessingService streaming the upload to a temp file
+        PdfProcessingService.StagedUpload staged = new PdfProcessingService.StagedUpload(
+                Path.of("/storage/upload-123.part"), "abc123hash", 21);
+        when(pdfProcessingService.stageUpload(file)).thenReturn(staged);
 
         // Simulate a pre-existing book with the same hash
         Book existing = Book.builder()
@@ -79,8 +77,97 @@ class BookServiceUploadTest {
 
         when(bookRepository.findByFileHash("abc123hash")).thenReturn(Optional.of(existing));
 
-        assertThatThrownBy(() -> bookService.uploadBook(file))
+        assertThatThrownBy(() -> bookService.stageUpload(file))
+                .isInstanceOf(DuplicateBookException.class);
+    }
+
+    @Test
+    void stageUpload_duplicateIsRejectedBeforePdfIsParsed() {
+        MockMultipartFile file = new MockMultipartFile("file", "book.pdf",
+                "application/pdf", "%PDF-1.4 test content".getBytes());
+
+        PdfProcessingService.StagedUpload staged = new PdfProcessingService.StagedUpload(
+                Path.of("/storage/upload-123.part"), "abc123hash", 21);
+        when(pdfProcessingService.stageUpload(file)).thenReturn(staged);
+        when(bookRepository.findByFileHash("abc123hash")).thenReturn(Optional.of(
+                Book.builder().id(UUID.randomUUID()).title("Existing").pdfPath("/p.pdf").build()));
+
+        assertThatThrownBy(() -> bookService.stageUpload(file))
                 .isInstanceOf(DuplicateBookException.class);
+
+        verify(pdfProcessingService).discardStagedUpload(staged);
+        verify(pdfProcessingService, never()).commitStagedUpload(any(), any());
+        verify(pdfProcessingService, never()).processPdf(any(), any(), any());
+    }
+
+    // ── completeUpload ────────────────────────────────────────────────────────
+
+    @Test
+    void completeUpload_savesPendingBookUnderDeterministicIdAndReportsStages() {
+        String hash = "a1b2c3d4e5f6a7b8c9d0e1f2a3b4c5d6e7f8";
+        PdfProcessingService.StagedUpload staged = new PdfProcessingService.StagedUpload(
+                Path.of("/storage/upload-1.part"), hash, 100);
+        UUID expectedId = UUID.fromString("a1b2c3d4-e5f6-a7b8-c9d0-e1f2a3b4c5d6");
+        Path stored = Path.of("/storage/" + expectedId + ".pdf");
+
+        java.util.Map<String, Object> metadata = new java.util.HashMap<>();
+        metadata.put("title", "Dune");
+        metadata.put("pageCount", 412);
+        metadata.put("pdfPath", stored.toString());
+        metadata.put("thumbnailPath", "/thumbs/" + expectedId + ".jpg");
+
+        when(pdfProcessingService.commitStagedUpload(staged, expectedId)).thenReturn(stored);
+        when(pdfProcessingService.processPdf(stored, expectedId, "dune.pdf")).thenReturn(metadata);
+        when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        java.util.List<String> stages = new java.util.ArrayList<>();
+        var response = bookService.completeUpload(staged, "dune.pdf", stages::add);
+
+        assertThat(response.getId()).isEqualTo(expectedId);
+        assertThat(response.getFileHash()).isEqualTo(hash);
+        assertThat(response.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.PENDING);
+        assertThat(stages).containsExactly("EXTRACTING", "SAVING");
+    }
+
+    @Test
+    void completeUpload_throwsDuplicate_withoutTouchingFiles_whenSameFileWasSavedMeanwhile() {
+        PdfProcessingService.StagedUpload staged = new PdfProcessingService.StagedUpload(
+                Path.of("/storage/upload-2.part"), "abc123hash", 21);
+        Book existing = Book.builder()
+                .id(UUID.randomUUID()).title("Dune").pdfPath("/storage/dune.pdf")
+                .status(ReadingStatus.UNREAD).currentPage(0).pageCount(412).fileHash("abc123hash").build();
+        when(bookRepository.findByFileHash("abc123hash")).thenReturn(Optional.of(existing));
+
+        assertThatThrownBy(() -> bookService.completeUpload(staged, "dune.pdf", stage -> { }))
+                .isInstanceOf(DuplicateBookException.class)
+                .hasMessageContaining("Dune");
+
+        verifyNoInteractions(pdfProcessingService);
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void completeUpload_deletesCommittedFiles_whenSaveFails() {
+        String hash = "a1b2c3d4e5f6a7b8c9d0e1f2a3b4c5d6e7f8";
+        PdfProcessingService.StagedUpload staged = new PdfProcessingService.StagedUpload(
+                Path.of("/storage/upload-1.part"), hash, 100);
+        UUID expectedId = UUID.fromString("a1b2c3d4-e5f6-a7b8-c9d0-e1f2a3b4c5d6");
+        Path stored = Path.of("/storage/" + expectedId + ".pdf");
+
+        java.util.Map<String, Object> metadata = new java.util.HashMap<>();
+        metadata.put("pageCount", 412);
+        metadata.put("pdfPath", stored.toString());
+        metadata.put("thumbnailPath", "/thumbs/" + expectedId + ".jpg");
+
+        when(pdfProcessingService.commitStagedUpload(staged, expectedId)).thenReturn(stored);
+        when(pdfProcessingService.processPdf(stored, expectedId, "dune.pdf")).thenReturn(metadata);
+        when(bookRepository.save(any(Book.class))).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(() -> bookService.completeUpload(staged, "dune.pdf", stage -> { }))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(pdfProcessingService).deleteFiles(stored.toString(), "/thumbs/" + expectedId + ".jpg");
+        verifyNoInteractions(statsEngine);
     }
 
     // ── getBookById ───────────────────────────────────────────────────────────
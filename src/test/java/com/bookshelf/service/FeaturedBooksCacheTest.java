@@ -0,0 +1,121 @@
+package com.bookshelf.service;
+
+import com.bookshelf.config.CacheConfig;
+import com.bookshelf.dto.BookResponse;
+import com.bookshelf.dto.CacheStatsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FeaturedBooksCache fine-grained updates and CacheStatsService.
+ * Uses the real Caffeine caches from CacheConfig; no transaction is active, so changes apply immediately.
+ */
+class FeaturedBooksCacheTest {
+
+    private CacheManager cacheManager;
+    private Cache cache;
+    private FeaturedBooksCache featuredBooks;
+
+    private final BookResponse a = book("A");
+    private final BookResponse b = book("B");
+    private final BookResponse c = book("C");
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfig().cacheManager();
+        ((SimpleCacheManager) cacheManager).afterPropertiesSet();
+        cache = cacheManager.getCache(FeaturedBooksCache.CACHE_NAME);
+        featuredBooks = new FeaturedBooksCache(cacheManager);
+    }
+
+    // ── bookRead ──────────────────────────────────────────────────────────────
+
+    @Test
+    void bookRead_movesBookToFrontOfEachList() {
+        cache.put(3, List.of(a, b, c));
+        cache.put(2, List.of(a, b));
+
+        BookResponse readC = book(c.getId(), "C (page 40)");
+        featuredBooks.bookRead(readC);
+
+        assertThat(list(3)).containsExactly(readC, a, b);
+        assertThat(list(2)).containsExactly(readC, a);
+    }
+
+    @Test
+    void bookRead_growsListThatIsShorterThanLimit() {
+        cache.put(5, List.of(a));
+
+        featuredBooks.bookRead(b);
+
+        assertThat(list(5)).containsExactly(b, a);
+    }
+
+    // ── bookChanged ───────────────────────────────────────────────────────────
+
+    @Test
+    void bookChanged_replacesInPlace_andLeavesOtherListsUntouched() {
+        List<BookResponse> other = List.of(a);
+        cache.put(3, List.of(a, b, c));
+        cache.put(1, other);
+
+        BookResponse renamed = book(b.getId(), "B renamed");
+        featuredBooks.bookChanged(renamed);
+
+        assertThat(list(3)).containsExactly(a, renamed, c);
+        assertThat(list(1)).isSameAs(other);
+    }
+
+    // ── evictBooks ────────────────────────────────────────────────────────────
+
+    @Test
+    void evictBooks_evictsOnlyListsContainingTheBooks() {
+        cache.put(3, List.of(a, b, c));
+        cache.put(1, List.of(a));
+
+        featuredBooks.evictBooks(List.of(c.getId()));
+
+        assertThat(cache.get(3)).isNull();
+        assertThat(list(1)).containsExactly(a);
+    }
+
+    // ── stats ─────────────────────────────────────────────────────────────────
+
+    @Test
+    void cacheStats_reportHitsAndMissesPerCache() {
+        cache.put(3, List.of(a));
+        cache.get(3);
+        cache.get(4);
+
+        List<CacheStatsResponse> stats = new CacheStatsService(cacheManager).getCacheStats();
+
+        assertThat(stats).extracting(CacheStatsResponse::getName)
+                .containsExactly("featuredBooks", "googleBooksSearch");
+        assertThat(stats.get(0).getHitCount()).isEqualTo(1);
+        assertThat(stats.get(0).getMissCount()).isEqualTo(1);
+        assertThat(stats.get(0).getSize()).isEqualTo(1);
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private List<BookResponse> list(int limit) {
+        return (List<BookResponse>) cache.get(limit).get();
+    }
+
+    private static BookResponse book(String title) {
+        return book(UUID.randomUUID(), title);
+    }
+
+    private static BookResponse book(UUID id, String title) {
+        return BookResponse.builder().id(id).title(title).build();
+    }
+}
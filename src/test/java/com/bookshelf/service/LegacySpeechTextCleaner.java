@@ -0,0 +1,58 @@
+package com.bookshelf.service;
+
+/**
+ * The split/regex implementation of cleanTextForSpeech that SpeechTextCleaner replaced,
+ * kept verbatim as the reference its output is compared against (tests and benchmarks).
+ */
+final class LegacySpeechTextCleaner {
+
+    private LegacySpeechTextCleaner() {
+    }
+
+    static String clean(String text) {
+        String[] lines = text.split("\n");
+        StringBuilder cleaned = new StringBuilder();
+
+        for (String line : lines) {
+            String trimmed = line.trim();
+
+            if (trimmed.isEmpty()) continue;
+
+            // --- KEEP: lines that look like prose ---
+            // A prose line must:
+            // 1. Be at least 40 chars (a short sentence) OR be a heading/caption
+            // 2. Have mostly letters and spaces (>60% of characters)
+            // 3. Contain at least 3 words with 3+ letters each (real words, not symbols)
+
+            // Count letters and spaces
+            long letterCount = trimmed.chars().filter(Character::isLetter).count();
+            long spaceCount = trimmed.chars().filter(c -> c == ' ').count();
+            double readableRatio = (double)(letterCount + spaceCount) / trimmed.length();
+
+            // Count real words (3+ letters)
+            long realWordCount = java.util.Arrays.stream(trimmed.split("\\s+"))
+                    .filter(w -> w.chars().filter(Character::isLetter).count() >= 3)
+                    .count();
+
+            // Prose: 40+ chars, >60% readable, 3+ real words
+            boolean isProse = trimmed.length() >= 40 && readableRatio > 0.6 && realWordCount >= 3;
+
+            // Headings: shorter but still mostly words (e.g., "THE ABSTRACTION: THE PROCESS")
+            boolean isHeading = trimmed.length() >= 10 && readableRatio > 0.8 && realWordCount >= 2
+                    && !trimmed.matches(".*[;{}()=<>\\[\\]*&|#/\\\\].*");
+
+            // Figure captions: "Figure 4.5: ..."
+            boolean isCaption = trimmed.matches("(?i)^(figure|table|tip|aside|crux)\\s+\\d.*");
+
+            // Footnote markers: lines starting with a superscript number then prose
+            boolean isFootnote = trimmed.matches("^\\d{1,2}[A-Z].*") && trimmed.length() >= 30
+                    && readableRatio > 0.6 && realWordCount >= 3;
+
+            if (isProse || isHeading || isCaption || isFootnote) {
+                cleaned.append(trimmed).append(" ");
+            }
+        }
+
+        return cleaned.toString().replaceAll("\\s+", " ").trim();
+    }
+}
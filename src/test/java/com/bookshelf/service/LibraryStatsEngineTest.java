@@ -0,0 +1,149 @@
+package com.bookshelf.service;
+
+import com.bookshelf.model.Book;
+import com.bookshelf.model.ReadingStatus;
+import com.bookshelf.repository.BookRepository;
+import com.bookshelf.repository.StatusAggregate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LibraryStatsEngine incremental counters.
+ * No transaction is active in these tests, so deltas are applied immediately.
+ */
+@ExtendWith(MockitoExtension.class)
+class LibraryStatsEngineTest {
+
+    @Mock private BookRepository bookRepository;
+    @Mock private ProgressWriteBuffer progressBuffer;
+
+    @InjectMocks
+    private LibraryStatsEngine engine;
+
+    // ── reconcile ─────────────────────────────────────────────────────────────
+
+    @Test
+    void snapshot_loadsCountersFromGroupedAggregateOnFirstUse() {
+        Book recent = book(ReadingStatus.READING, 30, 100);
+        when(bookRepository.aggregateByStatus()).thenReturn(List.of(
+                row(ReadingStatus.UNREAD, 2, 500, 0),
+                row(ReadingStatus.READING, 1, 100, 30)));
+        when(bookRepository.findMostRecentlyRead()).thenReturn(Optional.of(recent));
+
+        LibraryStatsEngine.Snapshot stats = engine.snapshot();
+        engine.snapshot();
+
+        assertThat(stats.totalBooks()).isEqualTo(3);
+        assertThat(stats.unreadBooks()).isEqualTo(2);
+        assertThat(stats.readingBooks()).isEqualTo(1);
+        assertThat(stats.finishedBooks()).isZero();
+        assertThat(stats.totalPages()).isEqualTo(600);
+        assertThat(stats.totalPagesRead()).isEqualTo(30);
+        assertThat(stats.continueReading()).isSameAs(recent);
+        verify(bookRepository, times(1)).aggregateByStatus();
+    }
+
+    @Test
+    void mutationsBeforeFirstLoad_areLeftToTheLoad() {
+        engine.bookAdded(book(ReadingStatus.UNREAD, 0, 100));
+
+        verifyNoInteractions(bookRepository);
+    }
+
+    // ── deltas ────────────────────────────────────────────────────────────────
+
+    @Test
+    void deltas_updateCountersWithoutQueryingAgain() {
+        loadEmpty();
+        Book book = book(ReadingStatus.UNREAD, 0, 200);
+
+        engine.bookAdded(book);
+        LibraryStatsEngine.BookCounters before = LibraryStatsEngine.BookCounters.of(book);
+        book.setStatus(ReadingStatus.READING);
+        book.setCurrentPage(50);
+        engine.bookChanged(before, book, true);
+
+        LibraryStatsEngine.Snapshot stats = engine.snapshot();
+        assertThat(stats.totalBooks()).isEqualTo(1);
+        assertThat(stats.unreadBooks()).isZero();
+        assertThat(stats.readingBooks()).isEqualTo(1);
+        assertThat(stats.totalPages()).isEqualTo(200);
+        assertThat(stats.totalPagesRead()).isEqualTo(50);
+        assertThat(stats.continueReading()).isSameAs(book);
+        verify(bookRepository, times(1)).aggregateByStatus();
+    }
+
+    @Test
+    void bookRemoved_reloadsContinueReading_whenItWasTheRemovedBook() {
+        Book book = book(ReadingStatus.READING, 10, 100);
+        when(bookRepository.aggregateByStatus()).thenReturn(List.of(row(ReadingStatus.READING, 1, 100, 10)));
+        when(bookRepository.findMostRecentlyRead()).thenReturn(Optional.of(book));
+        engine.snapshot();
+
+        when(bookRepository.aggregateByStatus()).thenReturn(List.of());
+        when(bookRepository.findMostRecentlyRead()).thenReturn(Optional.empty());
+        engine.bookRemoved(book);
+
+        LibraryStatsEngine.Snapshot stats = engine.snapshot();
+        assertThat(stats.totalBooks()).isZero();
+        assertThat(stats.continueReading()).isNull();
+        verify(bookRepository, times(2)).aggregateByStatus();
+    }
+
+    @Test
+    void booksChanged_reconcilesFromDatabase() {
+        loadEmpty();
+        when(bookRepository.aggregateByStatus()).thenReturn(List.of(row(ReadingStatus.FINISHED, 4, 400, 400)));
+
+        engine.booksChanged();
+
+        assertThat(engine.snapshot().finishedBooks()).isEqualTo(4);
+        assertThat(engine.snapshot().totalPagesRead()).isEqualTo(400);
+    }
+
+    @Test
+    void booksChanged_defersReconcileToNextRead() {
+        loadEmpty();
+
+        engine.booksChanged();
+
+        verify(bookRepository, times(1)).aggregateByStatus();
+        verify(progressBuffer, times(1)).flush();
+        engine.snapshot();
+        engine.snapshot();
+        verify(bookRepository, times(2)).aggregateByStatus();
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private void loadEmpty() {
+        when(bookRepository.aggregateByStatus()).thenReturn(List.of());
+        when(bookRepository.findMostRecentlyRead()).thenReturn(Optional.empty());
+        engine.snapshot();
+    }
+
+    private static Book book(ReadingStatus status, int currentPage, int pageCount) {
+        return Book.builder()
+                .id(UUID.randomUUID()).title("Book").pdfPath("/p.pdf")
+                .status(status).currentPage(currentPage).pageCount(pageCount).build();
+    }
+
+    private static StatusAggregate row(ReadingStatus status, long count, long pages, long pagesRead) {
+        return new StatusAggregate() {
+            @Override public ReadingStatus getStatus() { return status; }
+            @Override public long getBookCount() { return count; }
+            @Override public long getTotalPages() { return pages; }
+            @Override public long getPagesRead() { return pagesRead; }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.bookshelf.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for Mp3Frames, on synthetic MPEG-1 Layer III frames (128 kbit/s, 44.1 kHz: 417 bytes).
+ */
+class Mp3FramesTest {
+
+    private static final int FRAME_LENGTH = 417;
+
+    // ── parse ─────────────────────────────────────────────────────────────────
+
+    @Test
+    void parse_keepsAudioFrames_withoutTagsAndInfoFrame() throws Exception {
+        ByteArrayOutputStream mp3 = new ByteArrayOutputStream();
+        mp3.write(new byte[]{'I', 'D', '3', 4, 0, 0, 0, 0, 0, 5, 1, 2, 3, 4, 5});
+        mp3.write(infoFrame());
+        mp3.write(frame(1));
+        mp3.write(frame(2));
+        mp3.write(frame(3));
+        byte[] id3v1 = new byte[128];
+        id3v1[0] = 'T';
+        id3v1[1] = 'A';
+        id3v1[2] = 'G';
+        mp3.write(id3v1);
+
+        Mp3Frames frames = Mp3Frames.parse(mp3.toByteArray());
+
+        assertThat(Mp3Frames.concat(List.of(frames))).isEqualTo(concat(frame(1), frame(2), frame(3)));
+        assertThat(frames.seconds()).isCloseTo(3 * 1152 / 44100.0, within(1e-9));
+    }
+
+    @Test
+    void parse_throwsIOException_withoutFrames() {
+        assertThatThrownBy(() -> Mp3Frames.parse("not audio".getBytes()))
+                .isInstanceOf(IOException.class);
+    }
+
+    // ── concat ────────────────────────────────────────────────────────────────
+
+    @Test
+    void concat_joinsFramesInOrder() throws Exception {
+        Mp3Frames first = Mp3Frames.parse(concat(infoFrame(), frame(1)));
+        Mp3Frames second = Mp3Frames.parse(concat(frame(2), frame(3)));
+
+        assertThat(Mp3Frames.concat(List.of(first, second))).isEqualTo(concat(frame(1), frame(2), frame(3)));
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    // An audio frame filled with the given byte
+    private static byte[] frame(int fill) {
+        byte[] frame = new byte[FRAME_LENGTH];
+        Arrays.fill(frame, (byte) fill);
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) 0xFB; // MPEG-1 Layer III, no CRC
+        frame[2] = (byte) 0x90; // 128 kbit/s, 44.1 kHz, no padding
+        frame[3] = (byte) 0x00; // stereo
+        return frame;
+    }
+
+    // A frame holding an Info tag after the 32 bytes of stereo side information
+    private static byte[] infoFrame() {
+        byte[] frame = frame(0);
+        System.arraycopy("Info".getBytes(), 0, frame, 4 + 32, 4);
+        return frame;
+    }
+
+    private static byte[] concat(byte[]... parts) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part);
+        }
+        return out.toByteArray();
+    }
+}
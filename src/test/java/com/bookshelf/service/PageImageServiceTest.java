@@ -0,0 +1,207 @@
+package com.bookshelf.service;
+
+import com.bookshelf.exception.InvalidParameterException;
+import com.bookshelf.model.Book;
+import com.bookshelf.repository.BookRepository;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PageImageService rendering, width buckets, de-duplication and LRU eviction.
+ * Renders a small generated PDF through a real (spied) PdfDocumentCache.
+ */
+@ExtendWith(MockitoExtension.class)
+class PageImageServiceTest {
+
+    @Mock private BookRepository bookRepository;
+
+    @TempDir
+    Path storage;
+
+    private final UUID bookId = UUID.randomUUID();
+    private final PdfDocumentCache documentCache = spy(new PdfDocumentCache(64L * 1024 * 1024, 60));
+    private Path imageDirectory;
+    private Book book;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path pdf = storage.resolve("book.pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 0; i < 3; i++) {
+                document.addPage(new PDPage(PDRectangle.A4));
+            }
+            document.save(pdf.toFile());
+        }
+        book = new Book();
+        book.setId(bookId);
+        book.setPdfPath(pdf.toString());
+        book.setPageCount(3);
+        imageDirectory = storage.resolve("page-images");
+    }
+
+    @AfterEach
+    void tearDown() {
+        documentCache.closeAll();
+    }
+
+    // ── getPageImage ──────────────────────────────────────────────────────────
+
+    @Test
+    void getPageImage_rendersAtWidthBucket_andServesCachedImageAfterwards() throws Exception {
+        PageImageService service = service(Long.MAX_VALUE);
+
+        Path image = service.getPageImage(bookId, 2, 700);
+        Path again = service.getPageImage(bookId, 2, 750);
+
+        assertThat(image).isEqualTo(imageDirectory.resolve(bookId.toString()).resolve("2-800.jpg"));
+        assertThat(again).isEqualTo(image);
+        BufferedImage decoded = ImageIO.read(image.toFile());
+        assertThat(decoded.getWidth()).isEqualTo(800);
+        assertThat(decoded.getHeight()).isBetween(1130, 1132);
+        verify(documentCache, times(1)).acquire(eq(bookId), anyString());
+        assertThat(service.cachedBytes()).isEqualTo(Files.size(image));
+    }
+
+    @Test
+    void getPageImage_rendersOnce_forConcurrentRequests() throws Exception {
+        doAnswer(inv -> {
+            Thread.sleep(100);
+            return inv.callRealMethod();
+        }).when(documentCache).acquire(any(), anyString());
+        PageImageService service = service(Long.MAX_VALUE);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Path>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit((Callable<Path>) () -> service.getPageImage(bookId, 1, null)));
+            }
+            for (Future<Path> result : results) {
+                assertThat(result.get()).hasFileName("1-1024.jpg").exists();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(documentCache, times(1)).acquire(eq(bookId), anyString());
+    }
+
+    @Test
+    void getPageImage_evictsLeastRecentlyUsed_whenOverBudget() {
+        PageImageService service = service(Long.MAX_VALUE);
+        long imageBytes = service.getPageImage(bookId, 1, 320).toFile().length();
+        service = service((long) (imageBytes * 2.5));
+
+        Path first = service.getPageImage(bookId, 1, 320);
+        Path second = service.getPageImage(bookId, 2, 320);
+        service.getPageImage(bookId, 1, 320);
+        Path third = service.getPageImage(bookId, 3, 320);
+
+        assertThat(first).exists();
+        assertThat(second).doesNotExist();
+        assertThat(third).exists();
+    }
+
+    @Test
+    void getPageImage_rejectsPageOutsideBook() {
+        PageImageService service = service(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> service.getPageImage(bookId, 4, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Book has 3 pages");
+        verifyNoInteractions(documentCache);
+    }
+
+    @Test
+    void getPageImage_rendersAtMostMaxConcurrentRendersAtOnce() throws Exception {
+        AtomicInteger rendering = new AtomicInteger();
+        AtomicInteger mostAtOnce = new AtomicInteger();
+        doAnswer(inv -> {
+            mostAtOnce.accumulateAndGet(rendering.incrementAndGet(), Math::max);
+            Thread.sleep(100);
+            rendering.decrementAndGet();
+            return inv.callRealMethod();
+        }).when(documentCache).acquire(any(), anyString());
+        PageImageService service = service(Long.MAX_VALUE, 1, 6_000_000);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Path>> results = new ArrayList<>();
+            for (int page = 1; page <= 3; page++) {
+                int pageNumber = page;
+                results.add(pool.submit((Callable<Path>) () -> service.getPageImage(bookId, pageNumber, 320)));
+            }
+            for (Future<Path> result : results) {
+                assertThat(result.get()).exists();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(mostAtOnce).hasValue(1);
+    }
+
+    @Test
+    void getPageImage_capsRenderAtMaxPixels() throws Exception {
+        PageImageService service = service(Long.MAX_VALUE, 2, 100_000);
+
+        BufferedImage image = ImageIO.read(service.getPageImage(bookId, 1, 2048).toFile());
+
+        assertThat((long) image.getWidth() * image.getHeight()).isLessThanOrEqualTo(100_000);
+        assertThat(image.getWidth()).isBetween(260, 270);
+    }
+
+    // ── widthBucket ───────────────────────────────────────────────────────────
+
+    @Test
+    void widthBucket_roundsUp_andCapsAtLargestBucket() {
+        assertThat(PageImageService.widthBucket(null)).isEqualTo(PageImageService.DEFAULT_WIDTH);
+        assertThat(PageImageService.widthBucket(1)).isEqualTo(320);
+        assertThat(PageImageService.widthBucket(1024)).isEqualTo(1024);
+        assertThat(PageImageService.widthBucket(1025)).isEqualTo(1280);
+        assertThat(PageImageService.widthBucket(10_000)).isEqualTo(2048);
+        assertThatThrownBy(() -> PageImageService.widthBucket(0)).isInstanceOf(InvalidParameterException.class);
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private PageImageService service(long maxBytes) {
+        return service(maxBytes, 2, 6_000_000);
+    }
+
+    private PageImageService service(long maxBytes, int maxConcurrentRenders, long maxPixels) {
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        PageImageService service = new PageImageService(bookRepository, documentCache, imageDirectory.toString(),
+                maxBytes, maxConcurrentRenders, maxPixels);
+        try {
+            service.loadIndex();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return service;
+    }
+}
@@ -0,0 +1,126 @@
+package com.bookshelf.service;
+
+import com.bookshelf.model.Book;
+import com.bookshelf.model.ReadingStatus;
+import com.bookshelf.repository.BookPageTextRepository;
+import com.bookshelf.repository.BookRepository;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PageTextIndexService chunked, resumable indexing.
+ * Uses small text PDFs generated in a temporary directory; the JDBC repository is mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class PageTextIndexServiceTest {
+
+    @TempDir
+    Path storage;
+
+    @Mock private BookRepository bookRepository;
+    @Mock private BookPageTextRepository pageTextRepository;
+
+    // ── indexBook ─────────────────────────────────────────────────────────────
+
+    @Test
+    void indexBook_resumesAfterCheckpointInChunks() throws Exception {
+        PageTextIndexService service = new PageTextIndexService(bookRepository, pageTextRepository, 2, 10);
+        Book book = book(5);
+        when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+        when(pageTextRepository.getIndexedPages(book.getId())).thenReturn(2);
+
+        int indexed = service.indexBook(book.getId());
+
+        assertThat(indexed).isEqualTo(3);
+        verify(pageTextRepository).saveChunk(book.getId(), 3, List.of("Page 3 text", "Page 4 text"));
+        verify(pageTextRepository).saveChunk(book.getId(), 5, List.of("Page 5 text"));
+        verifyNoMoreInteractions(pageTextRepository);
+    }
+
+    @Test
+    void indexBook_doesNothing_whenAlreadyComplete() throws Exception {
+        PageTextIndexService service = new PageTextIndexService(bookRepository, pageTextRepository, 2, 10);
+        Book book = book(3);
+        when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+        when(pageTextRepository.getIndexedPages(book.getId())).thenReturn(3);
+
+        assertThat(service.indexBook(book.getId())).isZero();
+        verify(pageTextRepository, never()).saveChunk(any(), anyInt(), anyList());
+    }
+
+    // ── backfill ──────────────────────────────────────────────────────────────
+
+    @Test
+    void backfill_skipsUnreadableBookAndIndexesTheRest() throws Exception {
+        PageTextIndexService service = new PageTextIndexService(bookRepository, pageTextRepository, 10, 10);
+        Book broken = Book.builder()
+                .id(UUID.randomUUID()).title("Broken").pdfPath(storage.resolve("missing.pdf").toString())
+                .status(ReadingStatus.UNREAD).currentPage(0).pageCount(4).build();
+        Book good = book(2);
+        when(pageTextRepository.findBooksNeedingIndex(anyInt())).thenReturn(List.of(broken.getId(), good.getId()));
+        when(bookRepository.findById(broken.getId())).thenReturn(Optional.of(broken));
+        when(bookRepository.findById(good.getId())).thenReturn(Optional.of(good));
+
+        service.backfill();
+
+        verify(pageTextRepository).saveChunk(eq(good.getId()), eq(1), anyList());
+        verify(pageTextRepository, never()).saveChunk(eq(broken.getId()), anyInt(), anyList());
+    }
+
+    // ── search ────────────────────────────────────────────────────────────────
+
+    @Test
+    void search_returnsEmpty_forBlankQueryAndCapsPageSize() {
+        PageTextIndexService service = new PageTextIndexService(bookRepository, pageTextRepository, 10, 10);
+
+        assertThat(service.search("  ", 0, 20)).isEmpty();
+        service.search("whale", 2, 500);
+
+        verify(pageTextRepository).search("whale", 50, 100);
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private Book book(int pages) throws Exception {
+        UUID id = UUID.randomUUID();
+        Path pdf = storage.resolve(id + ".pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Page " + i + " text");
+                    content.endText();
+                }
+            }
+            document.save(pdf.toFile());
+        }
+        return Book.builder()
+                .id(id).title("Book").pdfPath(pdf.toString())
+                .status(ReadingStatus.UNREAD).currentPage(0).pageCount(pages).build();
+    }
+}
@@ -0,0 +1,164 @@
+package com.bookshelf.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PageTextStore build-once page lookups.
+ * Uses small text PDFs generated in a temporary directory.
+ */
+class PageTextStoreTest {
+
+    @TempDir
+    Path storage;
+
+    private PageTextStore store;
+    private final AtomicInteger cleanerCalls = new AtomicInteger();
+    private final UnaryOperator<String> cleaner = text -> {
+        cleanerCalls.incrementAndGet();
+        return text.toUpperCase();
+    };
+
+    @BeforeEach
+    void setUp() {
+        store = new PageTextStore(new PdfDocumentCache(Long.MAX_VALUE, 60), storage.resolve("text").toString());
+    }
+
+    // ── getPage ───────────────────────────────────────────────────────────────
+
+    @Test
+    void getPage_returnsRawAndCleanedTextOfEachPage() throws Exception {
+        UUID bookId = UUID.randomUUID();
+        Path pdf = pdf(bookId, "First page", "", "Third page ünïcode");
+
+        assertThat(store.getPage(bookId, pdf.toString(), 1, cleaner))
+                .isEqualTo(new PageTextStore.PageText("First page", "FIRST PAGE"));
+        assertThat(store.getPage(bookId, pdf.toString(), 2, cleaner))
+                .isEqualTo(new PageTextStore.PageText("", ""));
+        assertThat(store.getPage(bookId, pdf.toString(), 3, cleaner).raw()).isEqualTo("Third page ünïcode");
+    }
+
+    @Test
+    void getPage_extractsBookOnlyOnce_evenAcrossStoreInstances() throws Exception {
+        UUID bookId = UUID.randomUUID();
+        Path pdf = pdf(bookId, "One", "Two");
+
+        store.getPage(bookId, pdf.toString(), 1, cleaner);
+        store.getPage(bookId, pdf.toString(), 2, cleaner);
+        PageTextStore restarted = new PageTextStore(
+                new PdfDocumentCache(Long.MAX_VALUE, 60), storage.resolve("text").toString());
+        assertThat(restarted.getPage(bookId, pdf.toString(), 2, cleaner).cleaned()).isEqualTo("TWO");
+
+        assertThat(cleanerCalls).hasValue(2);
+    }
+
+    @Test
+    void getPage_releasesDocumentBetweenPages_whileBuilding() throws Exception {
+        UUID bookId = UUID.randomUUID();
+        Path pdf = pdf(bookId, "One", "Two", "Three");
+        PdfDocumentCache documentCache = new PdfDocumentCache(Long.MAX_VALUE, 60);
+        PageTextStore store = new PageTextStore(documentCache, storage.resolve("text").toString());
+
+        // The cleaner runs between pages; another thread must be able to lease the document then
+        UnaryOperator<String> leasingCleaner = text -> {
+            CompletableFuture<Integer> other = CompletableFuture.supplyAsync(() -> {
+                try (PdfDocumentCache.Lease lease = documentCache.acquire(bookId, pdf.toString())) {
+                    return lease.document().getNumberOfPages();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            try {
+                assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo(3);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return text;
+        };
+
+        assertThat(store.getPage(bookId, pdf.toString(), 3, leasingCleaner).cleaned()).isEqualTo("Three");
+    }
+
+    @Test
+    void getPage_rebuilds_whenPdfChanged() throws Exception {
+        UUID bookId = UUID.randomUUID();
+        Path pdf = pdf(bookId, "Old text");
+        store.getPage(bookId, pdf.toString(), 1, cleaner);
+
+        writePdf(pdf, "New text", "Added page");
+        Files.setLastModifiedTime(pdf, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        assertThat(store.getPage(bookId, pdf.toString(), 1, cleaner).raw()).isEqualTo("New text");
+        assertThat(store.getPage(bookId, pdf.toString(), 2, cleaner).raw()).isEqualTo("Added page");
+    }
+
+    @Test
+    void getPage_throwsIllegalArgument_forPageOutOfRange() throws Exception {
+        UUID bookId = UUID.randomUUID();
+        Path pdf = pdf(bookId, "Only page");
+
+        assertThatThrownBy(() -> store.getPage(bookId, pdf.toString(), 2, cleaner))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ── delete ────────────────────────────────────────────────────────────────
+
+    @Test
+    void delete_removesFile_andNextLookupRebuilds() throws Exception {
+        UUID bookId = UUID.randomUUID();
+        Path pdf = pdf(bookId, "Text");
+        store.getPage(bookId, pdf.toString(), 1, cleaner);
+
+        store.delete(bookId);
+
+        assertThat(storage.resolve("text").resolve(bookId + ".pages")).doesNotExist();
+        assertThat(store.getPage(bookId, pdf.toString(), 1, cleaner).raw()).isEqualTo("Text");
+        assertThat(cleanerCalls).hasValue(2);
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private Path pdf(UUID bookId, String... pages) throws Exception {
+        Path pdf = storage.resolve(bookId + ".pdf");
+        writePdf(pdf, pages);
+        return pdf;
+    }
+
+    private static void writePdf(Path path, String... pages) throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (String text : pages) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                if (text.isEmpty()) {
+                    continue;
+                }
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText(text);
+                    content.endText();
+                }
+            }
+            document.save(path.toFile());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.bookshelf.service;
+
+import com.bookshelf.dto.CompactWordTimings;
+import com.bookshelf.dto.WordTiming;
+import com.google.cloud.texttospeech.v1beta1.Timepoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PageWordTimings: estimated timings, timings from timepoints, the compact
+ * encodings and the sidecar file.
+ */
+class PageWordTimingsTest {
+
+    @TempDir
+    Path storage;
+
+    // ── estimate ──────────────────────────────────────────────────────────────
+
+    @Test
+    void estimate_countMatchesWordCount() {
+        assertThat(timings("hello world test")).hasSize(3);
+    }
+
+    @Test
+    void estimate_preservesWordText() {
+        assertThat(timings("alpha beta gamma"))
+                .extracting(WordTiming::getWord)
+                .containsExactly("alpha", "beta", "gamma");
+    }
+
+    @Test
+    void estimate_startTimesAreMonotonicallyIncreasing() {
+        List<WordTiming> t = timings("one two three four five");
+        for (int i = 1; i < t.size(); i++) {
+            assertThat(t.get(i).getStartTime()).isGreaterThan(t.get(i - 1).getStartTime());
+        }
+    }
+
+    @Test
+    void estimate_endTimeAlwaysAfterStartTime() {
+        timings("reading is fun and great").forEach(t ->
+                assertThat(t.getEndTime()).isGreaterThan(t.getStartTime()));
+    }
+
+    @Test
+    void estimate_durationClampedBetweenMinAndMax() {
+        timings("a supercalifragilisticexpialidocious").forEach(t -> {
+            double duration = t.getEndTime() - t.getStartTime();
+            assertThat(duration).isBetween(0.15, 0.81);
+        });
+    }
+
+    // ── toCompact ─────────────────────────────────────────────────────────────
+
+    @Test
+    void toCompact_matchesWordTimings_afterRunningSums() {
+        String text = "Processes\tare  programs in\nexecution, a supercalifragilisticexpialidocious idea.";
+        List<WordTiming> expected = timings(text);
+
+        CompactWordTimings compact = PageWordTimings.estimate(text).toCompact(text, false);
+
+        assertThat(compact.getFormat()).isEqualTo("columnar");
+        assertThat(compact.getWordCount()).isEqualTo(expected.size());
+        assertThat(compact.getPacked()).isNull();
+        int offset = 0;
+        int startMs = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            offset += compact.getOffsets()[i];
+            startMs += compact.getStartDeltas()[i];
+            WordTiming word = expected.get(i);
+            assertThat(text.substring(offset, offset + compact.getLengths()[i])).isEqualTo(word.getWord());
+            assertThat(startMs).isEqualTo(Math.round(word.getStartTime() * 1000));
+            assertThat(startMs + compact.getDurations()[i]).isEqualTo(Math.round(word.getEndTime() * 1000));
+        }
+    }
+
+    @Test
+    void toCompact_packed_holdsSameColumnsAsVarints() {
+        String text = "alpha beta gamma delta";
+        CompactWordTimings columns = PageWordTimings.estimate(text).toCompact(text, false);
+
+        CompactWordTimings packed = PageWordTimings.estimate(text).toCompact(text, true);
+
+        assertThat(packed.getFormat()).isEqualTo("packed");
+        assertThat(packed.getOffsets()).isNull();
+        ByteBuffer bytes = ByteBuffer.wrap(Base64.getDecoder().decode(packed.getPacked()));
+        for (int i = 0; i < packed.getWordCount(); i++) {
+            assertThat(readVarint(bytes)).isEqualTo(columns.getOffsets()[i]);
+            assertThat(readVarint(bytes)).isEqualTo(columns.getLengths()[i]);
+            assertThat(readVarint(bytes)).isEqualTo(columns.getStartDeltas()[i]);
+            assertThat(readVarint(bytes)).isEqualTo(columns.getDurations()[i]);
+        }
+        assertThat(bytes.hasRemaining()).isFalse();
+    }
+
+    // ── fromTimepoints ────────────────────────────────────────────────────────
+
+    @Test
+    void fromTimepoints_usesMarkTimes_andFillsMissingMarksWithEstimates() {
+        String text = "one two three four";
+        List<Timepoint> timepoints = List.of(timepoint("0", 0.1), timepoint("1", 0.5), timepoint("3", 1.4));
+
+        List<WordTiming> words = PageWordTimings.fromTimepoints(text, timepoints).toWordTimings(text);
+
+        assertThat(words).extracting(WordTiming::getWord).containsExactly("one", "two", "three", "four");
+        assertThat(words).extracting(WordTiming::getStartTime).containsExactly(0.1, 0.5, 0.791, 1.4);
+        assertThat(words).extracting(WordTiming::getEndTime).containsExactly(0.5, 0.791, 1.4, 1.696);
+    }
+
+    // ── write + read ──────────────────────────────────────────────────────────
+
+    @Test
+    void read_returnsWrittenTimings_forTheSameText() throws Exception {
+        String text = "Timings survive a round trip";
+        Path file = storage.resolve("page-1.timings");
+        PageWordTimings.fromTimepoints(text, List.of(timepoint("0", 0), timepoint("1", 0.4))).write(file);
+
+        PageWordTimings read = PageWordTimings.read(file);
+
+        assertThat(read.matches(text)).isTrue();
+        assertThat(read.matches(text + ".")).isFalse();
+        assertThat(read.isEstimated()).isFalse();
+        assertThat(read.toWordTimings(text)).extracting(WordTiming::getStartTime).startsWith(0.0, 0.4);
+    }
+
+    @Test
+    void read_returnsNull_forMissingOrForeignFile() throws Exception {
+        Path file = storage.resolve("page-2.timings");
+        assertThat(PageWordTimings.read(file)).isNull();
+
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThat(PageWordTimings.read(file)).isNull();
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private static List<WordTiming> timings(String text) {
+        return PageWordTimings.estimate(text).toWordTimings(text);
+    }
+
+    private static int readVarint(ByteBuffer bytes) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static Timepoint timepoint(String mark, double seconds) {
+        return Timepoint.newBuilder().setMarkName(mark).setTimeSeconds(seconds).build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.bookshelf.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PdfDocumentCache leasing, eviction and reload.
+ * Uses small blank PDFs generated in a temporary directory.
+ */
+class PdfDocumentCacheTest {
+
+    @TempDir
+    Path storage;
+
+    // ── reuse ─────────────────────────────────────────────────────────────────
+
+    @Test
+    void acquire_reusesOpenDocumentForSameBook() throws Exception {
+        PdfDocumentCache cache = new PdfDocumentCache(Long.MAX_VALUE, 60);
+        UUID bookId = UUID.randomUUID();
+        Path pdf = pdf(3);
+
+        PDDocument first;
+        try (PdfDocumentCache.Lease lease = cache.acquire(bookId, pdf.toString())) {
+            first = lease.document();
+            assertThat(first.getNumberOfPages()).isEqualTo(3);
+        }
+        try (PdfDocumentCache.Lease lease = cache.acquire(bookId, pdf.toString())) {
+            assertThat(lease.document()).isSameAs(first);
+        }
+    }
+
+    @Test
+    void acquire_reloads_whenFileChanged() throws Exception {
+        PdfDocumentCache cache = new PdfDocumentCache(Long.MAX_VALUE, 60);
+        UUID bookId = UUID.randomUUID();
+        Path pdf = pdf(2);
+
+        PDDocument first;
+        try (PdfDocumentCache.Lease lease = cache.acquire(bookId, pdf.toString())) {
+            first = lease.document();
+        }
+        writePdf(pdf, 4);
+        Files.setLastModifiedTime(pdf, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        try (PdfDocumentCache.Lease lease = cache.acquire(bookId, pdf.toString())) {
+            assertThat(lease.document()).isNotSameAs(first);
+            assertThat(lease.document().getNumberOfPages()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void lease_isExclusivePerBook() throws Exception {
+        PdfDocumentCache cache = new PdfDocumentCache(Long.MAX_VALUE, 60);
+        UUID bookId = UUID.randomUUID();
+        Path pdf = pdf(1);
+
+        CompletableFuture<Void> second;
+        try (PdfDocumentCache.Lease lease = cache.acquire(bookId, pdf.toString())) {
+            assertThat(lease.document().getNumberOfPages()).isEqualTo(1);
+            second = CompletableFuture.runAsync(() -> {
+                try (PdfDocumentCache.Lease other = cache.acquire(bookId, pdf.toString())) {
+                    other.document();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertThatThrownBy(() -> second.get(200, TimeUnit.MILLISECONDS))
+                    .isInstanceOf(TimeoutException.class);
+        }
+        second.get(5, TimeUnit.SECONDS);
+    }
+
+    // ── eviction ──────────────────────────────────────────────────────────────
+
+    @Test
+    void evictIdle_closesUnusedDocuments_butNotLeasedOnes() throws Exception {
+        PdfDocumentCache cache = new PdfDocumentCache(Long.MAX_VALUE, 0);
+        Path pdf = pdf(1);
+        UUID idle = UUID.randomUUID();
+        UUID leased = UUID.randomUUID();
+
+        cache.acquire(idle, pdf.toString()).close();
+        try (PdfDocumentCache.Lease lease = cache.acquire(leased, pdf.toString())) {
+            cache.evictIdle();
+
+            assertThat(cache.size()).isEqualTo(1);
+            assertThat(lease.document().getNumberOfPages()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void acquire_closesLeastRecentlyUsedIdleDocument_whenOverBudget() throws Exception {
+        Path pdf = pdf(1);
+        long size = Files.size(pdf);
+        PdfDocumentCache cache = new PdfDocumentCache(size * 2, 60);
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+
+        PDDocument docA;
+        try (PdfDocumentCache.Lease lease = cache.acquire(a, pdf.toString())) {
+            docA = lease.document();
+        }
+        cache.acquire(b, pdf.toString()).close();
+        cache.acquire(c, pdf.toString()).close();
+
+        assertThat(cache.size()).isEqualTo(2);
+        try (PdfDocumentCache.Lease lease = cache.acquire(a, pdf.toString())) {
+            assertThat(lease.document()).isNotSameAs(docA);
+        }
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private Path pdf(int pages) throws Exception {
+        Path pdf = storage.resolve(UUID.randomUUID() + ".pdf");
+        writePdf(pdf, pages);
+        return pdf;
+    }
+
+    private static void writePdf(Path path, int pages) throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 0; i < pages; i++) {
+                document.addPage(new PDPage());
+            }
+            document.save(path.toFile());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.bookshelf.service;
+
+import com.bookshelf.model.PdfOptimizationStatus;
+import com.bookshelf.repository.PdfVariantRepository;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PdfOptimizationService, on small PDFs generated in a temporary directory.
+ * qpdf is not configured, so only the PDFBox compression stage runs.
+ */
+@ExtendWith(MockitoExtension.class)
+class PdfOptimizationServiceTest {
+
+    @Mock private PdfVariantRepository variantRepository;
+
+    @TempDir
+    Path storage;
+
+    private final UUID bookId = UUID.randomUUID();
+
+    // ── optimize ──────────────────────────────────────────────────────────────
+
+    @Test
+    void optimize_writesSmallerCopy_andLeavesOriginalUntouched() throws Exception {
+        Path pdf = createUncompressedPdf(20);
+        byte[] originalBytes = Files.readAllBytes(pdf);
+
+        PdfOptimizationService.Result result = service(true).optimize(bookId, pdf);
+
+        assertThat(result).isNotNull();
+        assertThat(result.webPdf()).isEqualTo(storage.resolve(bookId + ".web.pdf"));
+        assertThat(result.optimizedBytes()).isEqualTo(Files.size(result.webPdf()));
+        assertThat(result.bytesSaved()).isPositive();
+        assertThat(Files.readAllBytes(pdf)).isEqualTo(originalBytes);
+        try (PDDocument copy = Loader.loadPDF(result.webPdf().toFile())) {
+            assertThat(copy.getNumberOfPages()).isEqualTo(20);
+        }
+        try (var files = Files.list(storage)) {
+            assertThat(files).hasSize(2);
+        }
+    }
+
+    @Test
+    void optimize_keepsNothing_whenCopyIsNotSmaller() throws Exception {
+        Path pdf = createUncompressedPdf(5);
+        PdfOptimizationService service = service(true);
+        Path alreadyOptimized = storage.resolve("optimized.pdf");
+        Files.move(service.optimize(bookId, pdf).webPdf(), alreadyOptimized);
+
+        PdfOptimizationService.Result result = service.optimize(bookId, alreadyOptimized);
+
+        assertThat(result).isNull();
+        assertThat(storage.resolve(bookId + ".web.pdf")).doesNotExist();
+        try (var files = Files.list(storage)) {
+            assertThat(files).hasSize(2);
+        }
+    }
+
+    // ── optimizePending ───────────────────────────────────────────────────────
+
+    @Test
+    void optimizePending_recordsBytesSaved_andFailures() throws Exception {
+        Path pdf = createUncompressedPdf(10);
+        UUID brokenId = UUID.randomUUID();
+        Path broken = storage.resolve("broken.pdf");
+        Files.writeString(broken, "not a pdf");
+        when(variantRepository.findPending(5)).thenReturn(List.of(
+                new PdfVariantRepository.PendingPdf(bookId, pdf.toString()),
+                new PdfVariantRepository.PendingPdf(brokenId, broken.toString())));
+
+        service(true).optimizePending();
+
+        long saved = Files.size(pdf) - Files.size(storage.resolve(bookId + ".web.pdf"));
+        verify(variantRepository).markOptimized(bookId, storage.resolve(bookId + ".web.pdf").toString(), saved);
+        verify(variantRepository).markWithoutCopy(brokenId, PdfOptimizationStatus.FAILED);
+    }
+
+    @Test
+    void optimizePending_doesNothing_whenDisabled() {
+        service(false).optimizePending();
+
+        verifyNoInteractions(variantRepository);
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private PdfOptimizationService service(boolean enabled) {
+        return new PdfOptimizationService(variantRepository, Runnable::run, enabled, 5, false, 0.75f, "");
+    }
+
+    private Path createUncompressedPdf(int pages) throws Exception {
+        Path pdf = storage.resolve(UUID.randomUUID() + ".pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page,
+                        PDPageContentStream.AppendMode.OVERWRITE, false)) {
+                    content.beginText();
+                    content.setFont(font, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Page " + i + " of a book that repeats the same sentence over and over.");
+                    content.endText();
+                }
+            }
+            document.save(pdf.toFile(), CompressParameters.NO_COMPRESSION);
+        }
+        return pdf;
+    }
+}
@@ -0,0 +1,146 @@
+package com.bookshelf.service;
+
+import com.bookshelf.model.ThumbnailSize;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the streaming upload pipeline in PdfProcessingService.
+ * Uses a temporary directory and small PDFs generated in memory.
+ */
+class PdfProcessingServiceTest {
+
+    @TempDir
+    Path storage;
+
+    private PdfProcessingService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new PdfProcessingService();
+        setField("pdfDirectory", storage.resolve("pdfs").toString());
+        setField("thumbnailDirectory", storage.resolve("thumbnails").toString());
+    }
+
+    // ── stageUpload ───────────────────────────────────────────────────────────
+
+    @Test
+    void stageUpload_computesSha256WhileWritingTempFile() throws Exception {
+        byte[] content = pdfBytes(3, "Staged");
+        MockMultipartFile file = new MockMultipartFile("file", "staged.pdf", "application/pdf", content);
+
+        PdfProcessingService.StagedUpload staged = service.stageUpload(file);
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertThat(staged.fileHash()).isEqualTo(expected);
+        assertThat(staged.size()).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(staged.tempPath())).isEqualTo(content);
+    }
+
+    @Test
+    void discardStagedUpload_removesTempFile() {
+        MockMultipartFile file = new MockMultipartFile("file", "dup.pdf", "application/pdf", new byte[]{1, 2, 3});
+
+        PdfProcessingService.StagedUpload staged = service.stageUpload(file);
+        service.discardStagedUpload(staged);
+
+        assertThat(staged.tempPath()).doesNotExist();
+    }
+
+    // ── commitStagedUpload + processPdf ───────────────────────────────────────
+
+    @Test
+    void commitStagedUpload_movesFileToDeterministicName() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "book.pdf", "application/pdf", pdfBytes(1, "Moved"));
+        UUID bookId = UUID.randomUUID();
+
+        PdfProcessingService.StagedUpload staged = service.stageUpload(file);
+        Path stored = service.commitStagedUpload(staged, bookId);
+
+        assertThat(stored.getFileName().toString()).isEqualTo(bookId + ".pdf");
+        assertThat(stored).exists();
+        assertThat(staged.tempPath()).doesNotExist();
+    }
+
+    @Test
+    void processPdf_extractsMetadataAndWritesThumbnailForFinalId() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "book.pdf", "application/pdf", pdfBytes(4, "Dune"));
+        UUID bookId = UUID.randomUUID();
+
+        Path stored = service.commitStagedUpload(service.stageUpload(file), bookId);
+        Map<String, Object> metadata = service.processPdf(stored, bookId, "book.pdf");
+
+        assertThat(metadata).containsEntry("pageCount", 4).containsEntry("title", "Dune");
+        assertThat((String) metadata.get("thumbnailPath")).endsWith(bookId + ".jpg");
+        assertThat(Path.of((String) metadata.get("thumbnailPath"))).exists();
+    }
+
+    @Test
+    void processPdf_writesEveryThumbnailSize_fromOneRender() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "book.pdf", "application/pdf", pdfBytes(1, "Sizes"));
+        UUID bookId = UUID.randomUUID();
+
+        Path stored = service.commitStagedUpload(service.stageUpload(file), bookId);
+        String thumbnailPath = (String) service.processPdf(stored, bookId, "book.pdf").get("thumbnailPath");
+
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            File thumbnail = service.getThumbnailFile(thumbnailPath, size);
+            assertThat(ImageIO.read(thumbnail).getWidth()).isEqualTo(size.getWidth());
+        }
+        assertThat(service.getThumbnailFile(thumbnailPath, ThumbnailSize.GRID).getName()).isEqualTo(bookId + "-grid.jpg");
+
+        service.deleteFiles(null, thumbnailPath);
+        try (var files = Files.list(storage.resolve("thumbnails"))) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    // ── getThumbnailFile ──────────────────────────────────────────────────────
+
+    @Test
+    void getThumbnailFile_fallsBackToStoredThumbnail_whenSizeWasNeverGenerated() throws Exception {
+        Path legacy = storage.resolve("legacy.jpg");
+        Files.write(legacy, new byte[] {1});
+
+        assertThat(service.getThumbnailFile(legacy.toString(), ThumbnailSize.GRID)).isEqualTo(legacy.toFile());
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private byte[] pdfBytes(int pages, String title) throws Exception {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 0; i < pages; i++) {
+                document.addPage(new PDPage());
+            }
+            PDDocumentInformation info = new PDDocumentInformation();
+            info.setTitle(title);
+            document.setDocumentInformation(info);
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field f = PdfProcessingService.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(service, value);
+    }
+}
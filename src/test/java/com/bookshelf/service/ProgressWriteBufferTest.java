@@ -0,0 +1,119 @@
+package com.bookshelf.service;
+
+import com.bookshelf.model.ReadingStatus;
+import com.bookshelf.repository.BookProgressRepository;
+import com.bookshelf.repository.BookProgressRepository.ProgressUpdate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProgressWriteBuffer coalescing and flushing.
+ * The JDBC repository is mocked; no transaction is active.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProgressWriteBufferTest {
+
+    @Mock private BookProgressRepository progressRepository;
+
+    @InjectMocks
+    private ProgressWriteBuffer buffer;
+
+    private final UUID bookId = UUID.randomUUID();
+
+    @Test
+    void flush_writesOnlyLatestUpdatePerBook_andEmptiesBuffer() {
+        buffer.record(update(bookId, 10));
+        buffer.record(update(bookId, 11));
+        ProgressUpdate latest = update(bookId, 12);
+        buffer.record(latest);
+
+        buffer.flush();
+        buffer.flush();
+
+        verify(progressRepository, times(1)).saveAll(List.of(latest));
+        assertThat(buffer.get(bookId)).isNull();
+    }
+
+    @Test
+    void flush_keepsUpdateRecordedWhileBatchWasWritten() {
+        ProgressUpdate newer = update(bookId, 20);
+        buffer.record(update(bookId, 19));
+        doAnswer(inv -> {
+            buffer.record(newer);
+            return null;
+        }).when(progressRepository).saveAll(anyList());
+
+        buffer.flush();
+
+        assertThat(buffer.get(bookId)).isSameAs(newer);
+    }
+
+    @Test
+    void flush_keepsEntries_whenDatabaseUnreachable() {
+        ProgressUpdate update = update(bookId, 5);
+        buffer.record(update);
+        doThrow(new CannotGetJdbcConnectionException("connection refused")).when(progressRepository).saveAll(anyList());
+
+        buffer.flush();
+
+        assertThat(buffer.get(bookId)).isSameAs(update);
+    }
+
+    @Test
+    void flush_retriesBooksOneByOne_andDropsOnlyRejectedUpdate_whenBatchFails() {
+        UUID other = UUID.randomUUID();
+        ProgressUpdate bad = update(bookId, 5);
+        ProgressUpdate good = update(other, 7);
+        buffer.record(bad);
+        buffer.record(good);
+        doThrow(new DataIntegrityViolationException("check constraint")).when(progressRepository)
+                .saveAll(argThat(updates -> updates.contains(bad)));
+
+        buffer.flush();
+
+        verify(progressRepository).saveAll(List.of(good));
+        assertThat(buffer.get(bookId)).isNull();
+        assertThat(buffer.get(other)).isNull();
+    }
+
+    @Test
+    void discard_dropsUnwrittenUpdate() {
+        buffer.record(update(bookId, 8));
+
+        buffer.discard(bookId);
+        buffer.flush();
+
+        assertThat(buffer.get(bookId)).isNull();
+        verifyNoInteractions(progressRepository);
+    }
+
+    @Test
+    void flushForBooks_writesOnlyThoseBooks() {
+        UUID other = UUID.randomUUID();
+        ProgressUpdate mine = update(bookId, 3);
+        buffer.record(mine);
+        buffer.record(update(other, 7));
+
+        buffer.flush(List.of(bookId));
+
+        verify(progressRepository).saveAll(List.of(mine));
+        assertThat(buffer.get(other)).isNotNull();
+    }
+
+    private static ProgressUpdate update(UUID bookId, int page) {
+        return new ProgressUpdate(bookId, page, ReadingStatus.READING, LocalDateTime.now());
+    }
+}
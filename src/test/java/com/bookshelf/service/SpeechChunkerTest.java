@@ -0,0 +1,70 @@
+package com.bookshelf.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for SpeechChunker: SSML marks and escaping, sentence-boundary chunks under the limit.
+ */
+class SpeechChunkerTest {
+
+    private static final Pattern MARK = Pattern.compile("<mark name=\"(\\d+)\"/>");
+
+    // ── SSML ──────────────────────────────────────────────────────────────────
+
+    @Test
+    void split_marksEveryWord_andEscapesXml() {
+        assertThat(SpeechChunker.split("Use <b> &\t\"quotes\"\n  it's", 5000))
+                .containsExactly(new SpeechChunker.Chunk(0,
+                        "<speak><mark name=\"0\"/>Use <mark name=\"1\"/>&lt;b&gt; <mark name=\"2\"/>&amp; "
+                                + "<mark name=\"3\"/>&quot;quotes&quot; <mark name=\"4\"/>it&apos;s</speak>"));
+    }
+
+    // ── chunking ──────────────────────────────────────────────────────────────
+
+    @Test
+    void split_endsChunksAtSentences_underTheLimit_withPageWideMarks() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            text.append("Sentence ").append(i).append(" has a few more words in it (really).\" ");
+        }
+
+        List<SpeechChunker.Chunk> chunks = SpeechChunker.split(text.toString(), 600);
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        List<Integer> marks = new ArrayList<>();
+        for (SpeechChunker.Chunk chunk : chunks) {
+            assertThat(chunk.ssml().getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(600);
+            assertThat(chunk.ssml()).startsWith("<speak><mark name=\"" + chunk.firstWord() + "\"/>Sentence ");
+            assertThat(chunk.ssml()).endsWith("(really).&quot;</speak>");
+            Matcher mark = MARK.matcher(chunk.ssml());
+            while (mark.find()) {
+                marks.add(Integer.parseInt(mark.group(1)));
+            }
+        }
+        assertThat(marks).hasSize(40 * 10);
+        for (int i = 0; i < marks.size(); i++) {
+            assertThat(marks.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void split_cutsSentenceLongerThanTheLimit_betweenWords() {
+        String text = "Short one. " + "é".repeat(20) + " word".repeat(200) + " end.";
+
+        List<SpeechChunker.Chunk> chunks = SpeechChunker.split(text, 500);
+
+        assertThat(chunks).hasSizeGreaterThan(2);
+        assertThat(chunks.get(0).ssml()).isEqualTo("<speak><mark name=\"0\"/>Short <mark name=\"1\"/>one.</speak>");
+        assertThat(chunks).allSatisfy(chunk ->
+                assertThat(chunk.ssml().getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(500));
+        assertThat(chunks.get(chunks.size() - 1).ssml()).endsWith("end.</speak>");
+    }
+}
@@ -0,0 +1,100 @@
+package com.bookshelf.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for SpeechTextCleaner line classification.
+ * Output is compared with LegacySpeechTextCleaner (the former regex implementation)
+ * on sample book pages and on randomly generated text.
+ */
+class SpeechTextCleanerTest {
+
+    static final String[] PAGE_FIXTURES = {"prose-page.txt", "code-page.txt", "crlf-page.txt"};
+
+    // Pieces the random text is built from: words, caption keywords, digits, code symbols,
+    // every regex whitespace character and the line terminators a regex '.' does not match
+    private static final String[] FRAGMENTS = {
+            "the", "process", "Scheduler", "of", "a", "IT", "Figure", "TABLE", "tip", "Aside", "crux",
+            "fıgure", "ünïcode", "1", "12", "7.1:", "5A", "42Turnaround", ";", "{", "}", "()", "=", "<",
+            "[x]", "*", "&&", "|", "#", "/", "\\", "-", ".", ",", ":",
+            " ", " ", " ", "  ", "\t", "\n", "\n", "\u000B", "\f", "\r", "\r\n", "\u0085", " ", " ",
+            "\u0001", " "
+    };
+
+    // ── clean ─────────────────────────────────────────────────────────────────
+
+    @Test
+    void clean_keepsProseHeadingsCaptionsAndFootnotes_dropsCodeAndFooters() {
+        String page = String.join("\n",
+                "  THE ABSTRACTION: THE PROCESS  ",
+                "A program on disk is only a file of instructions and data,",
+                "   and nothing happens until the system\tloads it into memory.",
+                "int rc = fork(); // create a child",
+                "Figure 4.5: Loading a program",
+                "1Sharing the processor is called time sharing here.",
+                "",
+                "42");
+
+        assertThat(SpeechTextCleaner.clean(page)).isEqualTo("THE ABSTRACTION: THE PROCESS "
+                + "A program on disk is only a file of instructions and data, "
+                + "and nothing happens until the system loads it into memory. "
+                + "Figure 4.5: Loading a program "
+                + "1Sharing the processor is called time sharing here.");
+    }
+
+    @Test
+    void clean_returnsEmptyString_whenNothingIsSpeakable() {
+        assertThat(SpeechTextCleaner.clean("")).isEmpty();
+        assertThat(SpeechTextCleaner.clean(" \n\t\n")).isEmpty();
+        assertThat(SpeechTextCleaner.clean("x = y + 1;\n}\n12")).isEmpty();
+    }
+
+    @Test
+    void clean_matchesLegacyImplementation_onBookPages() throws IOException {
+        for (String fixture : PAGE_FIXTURES) {
+            String page = readFixture(fixture);
+
+            assertThat(SpeechTextCleaner.clean(page)).as(fixture)
+                    .isNotEmpty()
+                    .isEqualTo(LegacySpeechTextCleaner.clean(page));
+        }
+    }
+
+    @Test
+    void clean_matchesLegacyImplementation_onRandomText() {
+        Random random = new Random(20240521);
+        StringBuilder text = new StringBuilder();
+        for (int sample = 0; sample < 20_000; sample++) {
+            text.setLength(0);
+            int fragments = random.nextInt(60);
+            for (int i = 0; i < fragments; i++) {
+                text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                if (random.nextInt(3) > 0) {
+                    text.append(' ');
+                }
+            }
+            String input = text.toString();
+
+            assertThat(SpeechTextCleaner.clean(input)).as("input %s", input.chars().boxed().toList())
+                    .isEqualTo(LegacySpeechTextCleaner.clean(input));
+        }
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    static String readFixture(String name) throws IOException {
+        try (InputStream in = SpeechTextCleanerTest.class.getResourceAsStream("/speech-text/" + name)) {
+            if (in == null) {
+                throw new IOException("Missing fixture " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
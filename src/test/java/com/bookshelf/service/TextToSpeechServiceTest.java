@@ -1,22 +1,46 @@
 package com.bookshelf.service;
 
+import com.bookshelf.dto.PageTextWithTimings;
 import com.bookshelf.dto.WordTiming;
+import com.bookshelf.exception.PdfProcessingException;
 import com.bookshelf.exception.ResourceNotFoundException;
 import com.bookshelf.model.Book;
 import com.bookshelf.model.ReadingStatus;
 import com.bookshelf.repository.BookRepository;
-import com.google.cloud.texttospeech.v1.TextToSpeechClient;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.cloud.texttospeech.v1beta1.SynthesizeSpeechRequest;
+import com.google.cloud.texttospeech.v1beta1.SynthesizeSpeechResponse;
+import com.google.cloud.texttospeech.v1beta1.TextToSpeechClient;
+import com.google.cloud.texttospeech.v1beta1.Timepoint;
+import com.google.cloud.texttospeech.v1beta1.stub.TextToSpeechStub;
+import com.google.protobuf.ByteString;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,11 +57,20 @@ class TextToSpeechServiceTest {
     @Mock private BookRepository bookRepository;
     @Mock private TextToSpeechClient ttsClient;
 
+    @TempDir
+    Path storage;
+
     private TextToSpeechService service;
 
     @BeforeEach
     void setUp() throws Exception {
-        service = new TextToSpeechService(bookRepository, ttsClient);
+        useClient(ttsClient);
+    }
+
+    private void useClient(TextToSpeechClient client) throws Exception {
+        service = new TextToSpeechService(bookRepository, client,
+                new PageTextStore(new PdfDocumentCache(64 * 1024 * 1024, 60), "/tmp/test-text"),
+                new TtsRequestThrottle(600, 10, 1, 0, 0), Runnable::run);
         setField("audioDirectory", "/tmp/test-audio");
         setField("voiceName",     "en-US-Studio-Q");
         setField("languageCode",  "en-US");
@@ -45,34 +78,34 @@ class TextToSpeechServiceTest {
         setField("pitch",         0.0d);
     }
 
-    // ── generateOrGetPageAudio — early-exit validation ───────────────────────
+    // ── getPageAudioFile — early-exit validation ───────────────────────
 
     @Test
-    void generateOrGetPageAudio_throwsResourceNotFoundException_whenBookNotFound() {
+    void getPageAudioFile_throwsResourceNotFoundException_whenBookNotFound() {
         UUID id = UUID.randomUUID();
         when(bookRepository.findById(id)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> service.generateOrGetPageAudio(id, 1))
+        assertThatThrownBy(() -> service.getPageAudioFile(id, 1))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining(id.toString());
     }
 
     @Test
-    void generateOrGetPageAudio_throwsIllegalArgumentException_whenPageZero() {
+    void getPageAudioFile_throwsIllegalArgumentException_whenPageZero() {
         UUID id = UUID.randomUUID();
         when(bookRepository.findById(id)).thenReturn(Optional.of(book(id, 100)));
 
-        assertThatThrownBy(() -> service.generateOrGetPageAudio(id, 0))
+        assertThatThrownBy(() -> service.getPageAudioFile(id, 0))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Invalid page number");
     }
 
     @Test
-    void generateOrGetPageAudio_throwsIllegalArgumentException_whenPageExceedsTotal() {
+    void getPageAudioFile_throwsIllegalArgumentException_whenPageExceedsTotal() {
         UUID id = UUID.randomUUID();
         when(bookRepository.findById(id)).thenReturn(Optional.of(book(id, 50)));
 
-        assertThatThrownBy(() -> service.generateOrGetPageAudio(id, 51))
+        assertThatThrownBy(() -> service.getPageAudioFile(id, 51))
                 .isInstanceOf(IllegalArgumentException.class);
     }
 
@@ -96,40 +129,90 @@ class TextToSpeechServiceTest {
                 .isInstanceOf(IllegalArgumentException.class);
     }
 
-    // ── generateEstimatedWordTimings — pure math ──────────────────────────────
+    // ── generatePageAudioWithTimings — synthesis and stored timings ─────────
 
     @Test
-    void wordTimings_countMatchesWordCount() throws Exception {
-        assertThat(timings("hello world test")).hasSize(3);
-    }
+    void generatePageAudioWithTimings_storesTimepointsWithAudio_andServesThemWithoutResynthesizing() throws Exception {
+        Book book = bookWithPdf("Processes are programs in execution on a machine today.");
+        SynthesizeSpeechResponse.Builder response = SynthesizeSpeechResponse.newBuilder()
+                .setAudioContent(ByteString.copyFromUtf8("mp3"));
+        for (int i = 0; i < 9; i++) {
+            response.addTimepoints(Timepoint.newBuilder().setMarkName(String.valueOf(i)).setTimeSeconds(0.1 + i * 0.5));
+        }
+        List<SynthesizeSpeechRequest> requests = givenSynthesis(response.build());
 
-    @Test
-    void wordTimings_preservesWordText() throws Exception {
-        assertThat(timings("alpha beta gamma"))
-                .extracting(WordTiming::getWord)
-                .containsExactly("alpha", "beta", "gamma");
-    }
+        PageTextWithTimings first = service.generatePageAudioWithTimings(book.getId(), 1);
+        PageTextWithTimings second = service.generatePageAudioWithTimings(book.getId(), 1);
 
-    @Test
-    void wordTimings_startTimesAreMonotonicallyIncreasing() throws Exception {
-        List<WordTiming> t = timings("one two three four five");
-        for (int i = 1; i < t.size(); i++) {
-            assertThat(t.get(i).getStartTime()).isGreaterThan(t.get(i - 1).getStartTime());
-        }
+        assertThat(requests).hasSize(1);
+        assertThat(requests.get(0).getInput().getSsml()).startsWith("<speak><mark name=\"0\"/>Processes <mark");
+        assertThat(requests.get(0).getEnableTimePointingList())
+                .containsExactly(SynthesizeSpeechRequest.TimepointType.SSML_MARK);
+        assertThat(storage.resolve(book.getId().toString()).resolve("page-1.timings")).exists();
+        assertThat(first.getWordTimings()).hasSize(9);
+        assertThat(first.getWordTimings().get(1).getStartTime()).isEqualTo(0.6);
+        assertThat(first.getWordTimings().get(1).getEndTime()).isEqualTo(1.1);
+        assertThat(second.getWordTimings()).isEqualTo(first.getWordTimings());
     }
 
     @Test
-    void wordTimings_endTimeAlwaysAfterStartTime() throws Exception {
-        timings("reading is fun and great").forEach(t ->
-                assertThat(t.getEndTime()).isGreaterThan(t.getStartTime()));
+    void generatePageAudioWithTimings_estimatesTimings_whenVoiceReportsNoMarks() throws Exception {
+        Book book = bookWithPdf("Processes are programs in execution on a machine today.");
+        givenSynthesis(SynthesizeSpeechResponse.newBuilder().setAudioContent(ByteString.copyFromUtf8("mp3")).build());
+
+        PageTextWithTimings result = service.generatePageAudioWithTimings(book.getId(), 1);
+
+        List<WordTiming> estimated = PageWordTimings.estimate(result.getText()).toWordTimings(result.getText());
+        assertThat(result.getWordTimings()).hasSameSizeAs(estimated);
+        assertThat(result.getWordTimings().get(8).getStartTime())
+                .isCloseTo(estimated.get(8).getStartTime(), within(0.001));
     }
 
     @Test
-    void wordTimings_durationClampedBetweenMinAndMax() throws Exception {
-        timings("a supercalifragilisticexpialidocious").forEach(t -> {
-            double duration = t.getEndTime() - t.getStartTime();
-            assertThat(duration).isBetween(0.15, 0.81);
+    void generatePageAudioWithTimings_joinsChunksOfLongPage_andRetriesOnlyFailedChunks() throws Exception {
+        String[] lines = new String[40];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "Line " + i + " explains how processes share the machine with others.";
+        }
+        Book book = bookWithPdf(lines);
+        // Each chunk is one MP3 frame (26 ms), with its words marked 0.1 ms apart
+        byte[] frame = new byte[417];
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) 0xFB;
+        frame[2] = (byte) 0x90;
+        Set<String> failedOnce = new HashSet<>();
+        List<SynthesizeSpeechRequest> requests = givenSynthesis(request -> {
+            String ssml = request.getInput().getSsml();
+            String firstMark = ssml.substring("<speak><mark name=\"".length(), ssml.indexOf('"', 20));
+            if (!firstMark.equals("0") && failedOnce.add(firstMark)) {
+                return ApiFutures.immediateFailedFuture(new IllegalStateException("TTS unavailable"));
+            }
+            SynthesizeSpeechResponse.Builder response = SynthesizeSpeechResponse.newBuilder()
+                    .setAudioContent(ByteString.copyFrom(frame));
+            Matcher mark = Pattern.compile("<mark name=\"(\\d+)\"/>").matcher(ssml);
+            for (int i = 0; mark.find(); i++) {
+                response.addTimepoints(Timepoint.newBuilder().setMarkName(mark.group(1)).setTimeSeconds(i * 0.0001));
+            }
+            return ApiFutures.immediateFuture(response.build());
         });
+        Path bookAudio = storage.resolve(book.getId().toString());
+
+        assertThatThrownBy(() -> service.generatePageAudioWithTimings(book.getId(), 1))
+                .isInstanceOf(PdfProcessingException.class);
+        int chunks = requests.size();
+        assertThat(chunks).isGreaterThan(1);
+        try (var parts = Files.list(bookAudio.resolve("page-1.parts"))) {
+            assertThat(parts.count()).isEqualTo(1);
+        }
+
+        PageTextWithTimings result = service.generatePageAudioWithTimings(book.getId(), 1);
+
+        assertThat(requests).hasSize(chunks + chunks - 1);
+        assertThat(result.getText()).contains("Line 39 explains");
+        assertThat(bookAudio.resolve("page-1.parts")).doesNotExist();
+        assertThat(Files.size(bookAudio.resolve("page-1.mp3"))).isEqualTo(chunks * 417L);
+        int secondChunk = Integer.parseInt(failedOnce.iterator().next());
+        assertThat(result.getWordTimings().get(secondChunk).getStartTime()).isEqualTo(0.026);
     }
 
     // ── isAudioCached ─────────────────────────────────────────────────────────
@@ -141,19 +224,60 @@ class TextToSpeechServiceTest {
 
     // ── helpers ───────────────────────────────────────────────────────────────
 
-    @SuppressWarnings("unchecked")
-    private List<WordTiming> timings(String text) throws Exception {
-        Method m = TextToSpeechService.class.getDeclaredMethod("generateEstimatedWordTimings", String.class);
-        m.setAccessible(true);
-        return (List<WordTiming>) m.invoke(service, text);
-    }
-
     private void setField(String name, Object value) throws Exception {
         Field f = TextToSpeechService.class.getDeclaredField(name);
         f.setAccessible(true);
         f.set(service, value);
     }
 
+    private List<SynthesizeSpeechRequest> givenSynthesis(SynthesizeSpeechResponse response) throws Exception {
+        return givenSynthesis(request -> ApiFutures.immediateFuture(response));
+    }
+
+    // synthesizeSpeech is final on the client, so the service gets a real client over a stub
+    // that answers every request with the responder, caching audio in the temporary directory;
+    // returns the requests it receives
+    private List<SynthesizeSpeechRequest> givenSynthesis(
+            Function<SynthesizeSpeechRequest, ApiFuture<SynthesizeSpeechResponse>> responder) throws Exception {
+        List<SynthesizeSpeechRequest> requests = new ArrayList<>();
+        TextToSpeechStub stub = mock(TextToSpeechStub.class);
+        when(stub.synthesizeSpeechCallable()).thenReturn(new UnaryCallable<>() {
+            @Override
+            public ApiFuture<SynthesizeSpeechResponse> futureCall(SynthesizeSpeechRequest request, ApiCallContext context) {
+                requests.add(request);
+                return responder.apply(request);
+            }
+        });
+        useClient(TextToSpeechClient.create(stub));
+        setField("audioDirectory", storage.toString());
+        return requests;
+    }
+
+    // A one-page book whose PDF holds the given lines
+    private Book bookWithPdf(String... lines) throws Exception {
+        Path pdf = storage.resolve("book.pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                content.setLeading(16);
+                content.newLineAtOffset(72, 740);
+                for (String line : lines) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.endText();
+            }
+            document.save(pdf.toFile());
+        }
+        Book book = book(UUID.randomUUID(), 1);
+        book.setPdfPath(pdf.toString());
+        when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+        return book;
+    }
+
     private Book book(UUID id, int pages) {
         return Book.builder().id(id).title("T").author("A").pdfPath("/p.pdf")
                 .status(ReadingStatus.UNREAD).currentPage(0).pageCount(pages).build();
@@ -0,0 +1,192 @@
+package com.bookshelf.service;
+
+import com.bookshelf.dto.ThumbnailJobProgress;
+import com.bookshelf.exception.PdfProcessingException;
+import com.bookshelf.exception.ResourceNotFoundException;
+import com.bookshelf.model.ThumbnailJob;
+import com.bookshelf.model.ThumbnailJobStatus;
+import com.bookshelf.repository.BookRepository;
+import com.bookshelf.repository.ThumbnailJobRepository;
+import com.bookshelf.repository.ThumbnailSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ThumbnailRegenerationService batching, checkpoints, failures and recovery.
+ * Repositories and rendering are mocked; renders run on a manual executor drained by the test.
+ */
+@ExtendWith(MockitoExtension.class)
+class ThumbnailRegenerationServiceTest {
+
+    private static final UUID BEFORE_FIRST_BOOK = new UUID(0, 0);
+
+    @Mock private BookRepository bookRepository;
+    @Mock private PdfProcessingService pdfProcessingService;
+    @Mock private ThumbnailJobRepository jobRepository;
+
+    private final Deque<Runnable> pending = new ArrayDeque<>();
+    private ThumbnailRegenerationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ThumbnailRegenerationService(bookRepository, pdfProcessingService, jobRepository, pending::add, 2);
+    }
+
+    // ── start ─────────────────────────────────────────────────────────────────
+
+    @Test
+    void start_rendersBooksInBatches_andCheckpointsAfterEachBatch() {
+        List<ThumbnailSource> books = givenBooks(5);
+        givenJobSaved();
+        when(pdfProcessingService.regenerateThumbnail(anyString(), any()))
+                .thenAnswer(inv -> "/thumbs/" + inv.getArgument(1) + ".jpg");
+
+        ThumbnailJobProgress started = service.start();
+        assertThat(started.getStatus()).isEqualTo("RUNNING");
+        assertThat(started.getTotalBooks()).isEqualTo(5);
+        drain();
+
+        InOrder inOrder = inOrder(jobRepository);
+        inOrder.verify(jobRepository).updateCheckpoint(any(), eq(books.get(1).getId()), eq(2), eq(0), any());
+        inOrder.verify(jobRepository).updateCheckpoint(any(), eq(books.get(3).getId()), eq(2), eq(0), any());
+        inOrder.verify(jobRepository).updateCheckpoint(any(), eq(books.get(4).getId()), eq(1), eq(0), any());
+        inOrder.verify(jobRepository).markFinished(any(), eq(ThumbnailJobStatus.COMPLETED), isNull(), any());
+        for (ThumbnailSource book : books) {
+            verify(bookRepository).updateThumbnailPath(book.getId(), "/thumbs/" + book.getId() + ".jpg");
+        }
+        ThumbnailJobProgress progress = service.getProgress(started.getJobId());
+        assertThat(progress.getStatus()).isEqualTo("COMPLETED");
+        assertThat(progress.getProcessedBooks()).isEqualTo(5);
+        assertThat(progress.getProgressPercentage()).isEqualTo(100.0);
+    }
+
+    @Test
+    void start_countsFailedBook_andKeepsGoing() {
+        List<ThumbnailSource> books = givenBooks(3);
+        givenJobSaved();
+        when(pdfProcessingService.regenerateThumbnail(anyString(), any())).thenAnswer(inv -> {
+            if (inv.getArgument(1).equals(books.get(0).getId())) {
+                throw new PdfProcessingException("Failed to regenerate thumbnail");
+            }
+            return "/thumbs/ok.jpg";
+        });
+
+        ThumbnailJobProgress started = service.start();
+        drain();
+
+        verify(bookRepository, never()).updateThumbnailPath(eq(books.get(0).getId()), any());
+        verify(bookRepository, times(2)).updateThumbnailPath(any(), eq("/thumbs/ok.jpg"));
+        verify(jobRepository).updateCheckpoint(any(), eq(books.get(1).getId()), eq(2), eq(1), any());
+        ThumbnailJobProgress progress = service.getProgress(started.getJobId());
+        assertThat(progress.getStatus()).isEqualTo("COMPLETED");
+        assertThat(progress.getFailedBooks()).isEqualTo(1);
+        assertThat(progress.getProcessedBooks()).isEqualTo(3);
+    }
+
+    @Test
+    void start_returnsRunningJob_insteadOfStartingAnother() {
+        when(bookRepository.count()).thenReturn(3L);
+        when(bookRepository.findThumbnailSourcesAfter(BEFORE_FIRST_BOOK, 2)).thenReturn(List.of(source(UUID.randomUUID())));
+        givenJobSaved();
+
+        ThumbnailJobProgress first = service.start();
+        ThumbnailJobProgress second = service.start();
+
+        assertThat(second.getJobId()).isEqualTo(first.getJobId());
+        verify(jobRepository, times(1)).save(any());
+    }
+
+    // ── resumeUnfinishedJob ───────────────────────────────────────────────────
+
+    @Test
+    void resumeUnfinishedJob_continuesAfterCheckpoint() {
+        ThumbnailJob job = new ThumbnailJob(10);
+        job.setId(UUID.randomUUID());
+        job.setProcessedBooks(8);
+        job.setLastBookId(UUID.randomUUID());
+        when(jobRepository.findFirstByStatus(ThumbnailJobStatus.RUNNING)).thenReturn(Optional.of(job));
+        ThumbnailSource remaining = source(UUID.randomUUID());
+        when(bookRepository.findThumbnailSourcesAfter(job.getLastBookId(), 2)).thenReturn(List.of(remaining));
+        when(bookRepository.findThumbnailSourcesAfter(remaining.getId(), 2)).thenReturn(List.of());
+        when(pdfProcessingService.regenerateThumbnail(anyString(), eq(remaining.getId()))).thenReturn("/thumbs/r.jpg");
+
+        service.resumeUnfinishedJob();
+        drain();
+
+        verify(pdfProcessingService, times(1)).regenerateThumbnail(anyString(), any());
+        verify(jobRepository).updateCheckpoint(eq(job.getId()), eq(remaining.getId()), eq(1), eq(0), any());
+        verify(jobRepository).markFinished(eq(job.getId()), eq(ThumbnailJobStatus.COMPLETED), isNull(), any());
+        assertThat(service.getProgress(job.getId()).getProcessedBooks()).isEqualTo(9);
+    }
+
+    // ── getProgress ───────────────────────────────────────────────────────────
+
+    @Test
+    void getProgress_throwsNotFound_forUnknownJob() {
+        UUID jobId = UUID.randomUUID();
+        when(jobRepository.findById(jobId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getProgress(jobId)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private List<ThumbnailSource> givenBooks(int count) {
+        List<ThumbnailSource> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            books.add(source(new UUID(1, i)));
+        }
+        when(bookRepository.count()).thenReturn((long) count);
+        UUID after = BEFORE_FIRST_BOOK;
+        for (int i = 0; i < count; i += 2) {
+            List<ThumbnailSource> batch = books.subList(i, Math.min(i + 2, count));
+            when(bookRepository.findThumbnailSourcesAfter(after, 2)).thenReturn(batch);
+            after = batch.get(batch.size() - 1).getId();
+        }
+        when(bookRepository.findThumbnailSourcesAfter(after, 2)).thenReturn(List.of());
+        return books;
+    }
+
+    private void givenJobSaved() {
+        when(jobRepository.save(any(ThumbnailJob.class))).thenAnswer(inv -> {
+            ThumbnailJob job = inv.getArgument(0);
+            job.setId(UUID.randomUUID());
+            return job;
+        });
+    }
+
+    private static ThumbnailSource source(UUID id) {
+        return new ThumbnailSource() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getPdfPath() {
+                return "/pdfs/" + id + ".pdf";
+            }
+        };
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.bookshelf.service;
+
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.ApiExceptionFactory;
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for TtsRequestThrottle pacing and RESOURCE_EXHAUSTED retries.
+ */
+class TtsRequestThrottleTest {
+
+    // ── retries ───────────────────────────────────────────────────────────────
+
+    @Test
+    void execute_retriesResourceExhausted_untilRequestSucceeds() throws Exception {
+        TtsRequestThrottle throttle = new TtsRequestThrottle(60_000, 10, 5, 1, 5);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = throttle.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw apiException(Status.Code.RESOURCE_EXHAUSTED);
+            }
+            return "audio";
+        });
+
+        assertThat(result).isEqualTo("audio");
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void execute_givesUp_afterMaxAttempts() {
+        TtsRequestThrottle throttle = new TtsRequestThrottle(60_000, 10, 3, 1, 5);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> throttle.execute(() -> {
+            calls.incrementAndGet();
+            throw apiException(Status.Code.RESOURCE_EXHAUSTED);
+        })).isInstanceOf(ApiException.class);
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void execute_doesNotRetryOtherErrors() {
+        TtsRequestThrottle throttle = new TtsRequestThrottle(60_000, 10, 5, 1, 5);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> throttle.execute(() -> {
+            calls.incrementAndGet();
+            throw apiException(Status.Code.INVALID_ARGUMENT);
+        })).isInstanceOf(ApiException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    // ── pacing ────────────────────────────────────────────────────────────────
+
+    @Test
+    void acquire_allowsBurst_thenPacesToRate() throws Exception {
+        // 600/min = one token every 100ms
+        TtsRequestThrottle throttle = new TtsRequestThrottle(600, 2, 1, 0, 0);
+
+        long start = System.nanoTime();
+        throttle.acquire();
+        throttle.acquire();
+        long burstMillis = (System.nanoTime() - start) / 1_000_000;
+        throttle.acquire();
+        throttle.acquire();
+        long totalMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(burstMillis).isLessThan(50);
+        assertThat(totalMillis).isGreaterThanOrEqualTo(180);
+    }
+
+    @Test
+    void backoffMillis_isJitteredWithinCappedExponentialBound() {
+        TtsRequestThrottle throttle = new TtsRequestThrottle(60, 1, 5, 100, 1000);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(throttle.backoffMillis(1)).isBetween(0L, 100L);
+            assertThat(throttle.backoffMillis(3)).isBetween(0L, 400L);
+            assertThat(throttle.backoffMillis(10)).isBetween(0L, 1000L);
+        }
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private static ApiException apiException(Status.Code code) {
+        return ApiExceptionFactory.createException(
+                new RuntimeException(code.name()), GrpcStatusCode.of(code), false);
+    }
+}
@@ -0,0 +1,119 @@
+package com.bookshelf.service;
+
+import com.bookshelf.dto.BookResponse;
+import com.bookshelf.dto.UploadJobStatus;
+import com.bookshelf.exception.DuplicateBookException;
+import com.bookshelf.exception.ResourceNotFoundException;
+import com.bookshelf.exception.UploadQueueFullException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UploadJobService job lifecycle.
+ * The executor is either synchronous or rejecting, so no threads are involved.
+ */
+@ExtendWith(MockitoExtension.class)
+class UploadJobServiceTest {
+
+    @Mock private BookService bookService;
+    @Mock private PdfProcessingService pdfProcessingService;
+    @Mock private PageTextIndexService pageTextIndexService;
+
+    private final MockMultipartFile file = new MockMultipartFile("file", "book.pdf",
+            "application/pdf", "%PDF-1.4".getBytes());
+    private final PdfProcessingService.StagedUpload staged = new PdfProcessingService.StagedUpload(
+            Path.of("/storage/upload-1.part"), "hash-1", 8);
+
+    @Test
+    void submit_runsJobAndExposesCompletedStatusWithBook() {
+        UploadJobService service = service(new SyncTaskExecutor());
+        UUID bookId = UUID.randomUUID();
+        when(bookService.stageUpload(file)).thenReturn(staged);
+        when(bookService.completeUpload(eq(staged), eq("book.pdf"), any()))
+                .thenReturn(BookResponse.builder().id(bookId).title("Book").build());
+
+        UploadJobStatus submitted = service.submit(file);
+        UploadJobStatus status = service.getStatus(submitted.getJobId());
+
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getBookId()).isEqualTo(bookId);
+        assertThat(status.getCompletedAt()).isPositive();
+    }
+
+    @Test
+    void submit_completesJob_whenTextIndexingFails() {
+        UploadJobService service = service(new SyncTaskExecutor());
+        UUID bookId = UUID.randomUUID();
+        when(bookService.stageUpload(file)).thenReturn(staged);
+        when(bookService.completeUpload(eq(staged), eq("book.pdf"), any()))
+                .thenReturn(BookResponse.builder().id(bookId).title("Book").build());
+        when(pageTextIndexService.indexBook(bookId)).thenThrow(new IllegalStateException("unreadable"));
+
+        UploadJobStatus status = service.getStatus(service.submit(file).getJobId());
+
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getStage()).isEqualTo("DONE");
+    }
+
+    @Test
+    void submit_marksJobFailed_whenProcessingThrows() {
+        UploadJobService service = service(new SyncTaskExecutor());
+        when(bookService.stageUpload(file)).thenReturn(staged);
+        when(bookService.completeUpload(eq(staged), any(), any()))
+                .thenThrow(new IllegalStateException("corrupt PDF"));
+
+        UploadJobStatus status = service.getStatus(service.submit(file).getJobId());
+
+        assertThat(status.getStatus()).isEqualTo("FAILED");
+        assertThat(status.getErrorMessage()).isEqualTo("corrupt PDF");
+    }
+
+    @Test
+    void submit_throwsUploadQueueFull_andDiscardsFile_whenExecutorRejects() {
+        TaskExecutor rejecting = task -> {
+            throw new TaskRejectedException("full");
+        };
+        UploadJobService service = service(rejecting);
+        when(bookService.stageUpload(file)).thenReturn(staged);
+
+        assertThatThrownBy(() -> service.submit(file)).isInstanceOf(UploadQueueFullException.class);
+        verify(pdfProcessingService).discardStagedUpload(staged);
+    }
+
+    @Test
+    void submit_rejectsSecondUploadOfSameFileWhileFirstIsQueued() {
+        TaskExecutor neverRuns = task -> { };
+        UploadJobService service = service(neverRuns);
+        when(bookService.stageUpload(file)).thenReturn(staged);
+
+        service.submit(file);
+
+        assertThatThrownBy(() -> service.submit(file)).isInstanceOf(DuplicateBookException.class);
+    }
+
+    @Test
+    void getStatus_throwsResourceNotFound_forUnknownJob() {
+        UploadJobService service = service(new SyncTaskExecutor());
+
+        assertThatThrownBy(() -> service.getStatus(UUID.randomUUID()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private UploadJobService service(TaskExecutor executor) {
+        return new UploadJobService(bookService, pdfProcessingService, pageTextIndexService, executor, 60);
+    }
+}